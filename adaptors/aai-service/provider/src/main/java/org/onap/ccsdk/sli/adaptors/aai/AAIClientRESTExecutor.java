@@ -277,8 +277,6 @@ public class AAIClientRESTExecutor implements AAIExecutorInterface {
             if(inputStream == null) inputStream = new ByteArrayInputStream("".getBytes(StandardCharsets.UTF_8));
             BufferedReader reader = new BufferedReader( new InputStreamReader( inputStream ) );
 
-            ObjectMapper mapper = AAIService.getObjectMapper();
-
             if (responseCode == HttpURLConnection.HTTP_OK) {
                 StringBuilder stringBuilder = new StringBuilder();
                 String line = null;
@@ -286,17 +284,13 @@ public class AAIClientRESTExecutor implements AAIExecutorInterface {
                     stringBuilder.append( line );
                 }
                 response = stringBuilder.toString();
-                try {
-                    Object object = mapper.readValue(response, Object.class);
-                    LOGwriteEndingTrace(HttpURLConnection.HTTP_OK, responseMessage, mapper.writeValueAsString(object));
-                } catch(Exception exc) {
-                    LOGwriteEndingTrace(HttpURLConnection.HTTP_OK, responseMessage, mapper.writeValueAsString(response));
-                }
+                // The response is parsed once, by the caller, so it is logged as received
+                LOGwriteEndingTrace(HttpURLConnection.HTTP_OK, responseMessage, response);
             } else if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
                 LOGwriteEndingTrace(responseCode, responseMessage, ENTRY_DOESNT_EXIST);
                 ErrorResponse errorresponse = null;
                 try {
-                    errorresponse = mapper.readValue(reader, ErrorResponse.class);
+                    errorresponse = AAIService.getObjectMapper().readValue(reader, ErrorResponse.class);
                 } catch(Exception exc) {
                     errorresponse = new ErrorResponse();
                     RequestError requestError = new RequestError();
@@ -327,6 +321,7 @@ public class AAIClientRESTExecutor implements AAIExecutorInterface {
                     errorStringBuilder.append("\n").append( line );
                 }
 
+                ObjectMapper mapper = AAIService.getObjectMapper();
                 ErrorResponse errorresponse = mapper.readValue(errorStringBuilder.toString(), ErrorResponse.class);
                 LOGwriteEndingTrace(responseCode, responseMessage, mapper.writeValueAsString(errorresponse));
                 throw new AAIServiceException(responseCode, errorresponse);
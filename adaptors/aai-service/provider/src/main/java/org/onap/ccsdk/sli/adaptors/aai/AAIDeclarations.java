@@ -35,6 +35,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.NoSuchMethodException;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -146,6 +147,20 @@ public abstract class AAIDeclarations implements AAIClient {
 
     // aai-specific proxy
     public static final String HTTP_PROXY                = "org.onap.ccsdk.sli.adaptors.aai.http.proxy";
+
+    // GET response cache
+    public static final String RESPONSE_CACHE_SIZE       = "org.onap.ccsdk.sli.adaptors.aai.cache.size";
+    public static final String RESPONSE_CACHE_TTL        = "org.onap.ccsdk.sli.adaptors.aai.cache.ttl";
+    public static final String RESPONSE_CACHE_SCOPE      = "org.onap.ccsdk.sli.adaptors.aai.cache.scope";
+
+    // HTTP transport, urlconnection (default) or pooled
+    public static final String CLIENT_TRANSPORT          = "org.onap.ccsdk.sli.adaptors.aai.client.transport";
+    public static final String POOL_MAX_TOTAL            = "org.onap.ccsdk.sli.adaptors.aai.pool.max.total";
+    public static final String POOL_MAX_PER_ROUTE        = "org.onap.ccsdk.sli.adaptors.aai.pool.max.per.route";
+    public static final String POOL_KEEP_ALIVE           = "org.onap.ccsdk.sli.adaptors.aai.pool.keepalive";
+
+    // Writes per bulk transaction of a write buffer
+    public static final String WRITE_BUFFER_MAX_OPERATIONS = "org.onap.ccsdk.sli.adaptors.aai.write.buffer.max.operations";
     
     private static final String VERSION_PATTERN = "/v$/";
 
@@ -153,6 +168,7 @@ public abstract class AAIDeclarations implements AAIClient {
 
     protected abstract Logger getLogger();
     public abstract AAIExecutorInterface getExecutor();
+    protected abstract int getWriteBufferMaxOperations();
 
     private static final String RELATIONSHIP_DATA= "Retrofitting relationship data: ";
 
@@ -544,7 +560,12 @@ public abstract class AAIDeclarations implements AAIClient {
                     request.setRequestObject(instance);
                     request.processRequestPathValues(nameValues);
 
-                    getExecutor().post(request);
+                    AAIWriteBuffer writeBuffer = AAIWriteBuffer.get(ctx);
+                    if(writeBuffer != null) {
+                        writeBuffer.put(localResource, request);
+                    } else {
+                        getExecutor().post(request);
+                    }
                     getLogger().debug("Save relationship list - returning SUCCESS");
                     return QueryStatus.SUCCESS;
                 }
@@ -668,7 +689,19 @@ public abstract class AAIDeclarations implements AAIClient {
             params.put("resource-version", resourceVersion);
 
             request.processRequestPathValues(nameValues);
-            getExecutor().patch(request, resourceVersion);
+            AAIWriteBuffer writeBuffer = AAIWriteBuffer.get(ctx);
+            if(writeBuffer != null) {
+                writeBuffer.patch(resource, request, resourceVersion);
+                getLogger().debug("Update - buffered");
+                return QueryStatus.SUCCESS;
+            }
+            try {
+                getExecutor().patch(request, resourceVersion);
+            } catch(AAIServiceException aaiexc) {
+                resourceVersion = revalidateResourceVersion(aaiexc, resource, key, ctx);
+                params.put("resource-version", resourceVersion);
+                getExecutor().patch(request, resourceVersion);
+            }
         } catch(AAIServiceException aaiexc) {
             getLogger().warn(AAI_SERVICE_EXCEPTION, aaiexc);
             if(aaiexc.getReturnCode() == 404)
@@ -739,7 +772,20 @@ public abstract class AAIDeclarations implements AAIClient {
 
                     request.processRequestPathValues(nameValues);
 
-                    if(getExecutor().delete(request, resourceVersion)) {
+                    AAIWriteBuffer writeBuffer = AAIWriteBuffer.get(ctx);
+                    if(writeBuffer != null) {
+                        writeBuffer.delete(resource, request, resourceVersion);
+                        return QueryStatus.SUCCESS;
+                    }
+
+                    boolean deleted;
+                    try {
+                        deleted = getExecutor().delete(request, resourceVersion);
+                    } catch(AAIServiceException aaiexc) {
+                        resourceVersion = revalidateResourceVersion(aaiexc, resource, key, ctx);
+                        deleted = getExecutor().delete(request, resourceVersion);
+                    }
+                    if(deleted) {
                         return QueryStatus.SUCCESS;
                     }
                 } catch(AAIServiceException aaiexc) {
@@ -816,6 +862,29 @@ public abstract class AAIDeclarations implements AAIClient {
         return QueryStatus.FAILURE;
     }
 
+    /**
+     * Returns the current resource-version of an object after a write to it was
+     * rejected with 412, if the response cache is enabled, as the version the
+     * write used may have come from a stale cached response. The rejected write
+     * dropped that response, so the object is read again from A&AI. Any other
+     * exception is rethrown.
+     */
+    private String revalidateResourceVersion(AAIServiceException exc, String resource, String key, SvcLogicContext ctx) throws AAIServiceException {
+        if(exc.getReturnCode() != HttpURLConnection.HTTP_PRECON_FAILED || !(getExecutor() instanceof CachingAAIExecutor)) {
+            throw exc;
+        }
+
+        String resourceVersion = null;
+        if(newModelQuery(resource, false, null, key, "tmpDelete", null, ctx) == QueryStatus.SUCCESS) {
+            resourceVersion = ctx.getAttribute("tmpDelete.resource-version");
+        }
+        if(resourceVersion == null) {
+            throw exc;
+        }
+        getLogger().debug("Retrying with resource-version " + resourceVersion);
+        return resourceVersion;
+    }
+
     @Override
     public QueryStatus exists(String resource, String key, String prefix, SvcLogicContext ctx) throws SvcLogicException {
         return query(resource, false, null, key, prefix, null, ctx);
@@ -829,7 +898,30 @@ public abstract class AAIDeclarations implements AAIClient {
 
     @Override
     public QueryStatus notify(String resource, String action, String key, SvcLogicContext ctx) throws SvcLogicException {
-        throw new SvcLogicException("Method AAIService.notify() has not been implemented yet");
+        if(!AAIWriteBuffer.RESOURCE.equals(resource)) {
+            throw new SvcLogicException("Method AAIService.notify() has not been implemented yet");
+        }
+
+        // begin buffers the writes of this request until the flush action or
+        // the end of the graph, key is the prefix of their outcome
+        action = action == null ? "" : action.replace("'", "").trim();
+        switch(action) {
+            case "begin":
+                String prefix = key == null ? "" : key.replace("'", "").trim();
+                if(prefix.isEmpty()) {
+                    prefix = AAIWriteBuffer.DEFAULT_PREFIX;
+                }
+                AAIWriteBuffer.begin(ctx, getExecutor(), prefix, getWriteBufferMaxOperations());
+                return QueryStatus.SUCCESS;
+            case "flush":
+                AAIWriteBuffer writeBuffer = AAIWriteBuffer.get(ctx);
+                if(writeBuffer == null) {
+                    return QueryStatus.NOT_FOUND;
+                }
+                return writeBuffer.flush(ctx) ? QueryStatus.SUCCESS : QueryStatus.FAILURE;
+            default:
+                throw new SvcLogicException(String.format("Action %s is not supported for resource %s", action, resource));
+        }
     }
 
     //    @Override
@@ -892,6 +984,16 @@ public abstract class AAIDeclarations implements AAIClient {
             return QueryStatus.NOT_FOUND;
         }
 
+        // Plain objects are written straight from the JSON, the typed model
+        // is only needed for the query results and relationships below
+        if((request instanceof GenericRequest || request instanceof SelfLinkRequest)
+                && !(request instanceof RelationshipListRequest) && !(request instanceof RelationshipRequest)) {
+            if(!AAIResponseWriter.write(rv, prefix, null, ctx)) {
+                return QueryStatus.NOT_FOUND;
+            }
+            return QueryStatus.SUCCESS;
+        }
+
         response = request.jsonStringToObject(rv);
         if(response == null) {
             return QueryStatus.NOT_FOUND;
@@ -1528,6 +1630,12 @@ public abstract class AAIDeclarations implements AAIClient {
 
             request.processRequestPathValues(nameValues);
             request.setRequestObject(instance);
+            AAIWriteBuffer writeBuffer = AAIWriteBuffer.get(ctx);
+            if(writeBuffer != null && !request.expectsDataFromPUTRequest()) {
+                writeBuffer.put(resource, request);
+                getLogger().debug("newModelSave - buffered");
+                return QueryStatus.SUCCESS;
+            }
             Object response = getExecutor().post(request);
             if(request.expectsDataFromPUTRequest()){
                 if(response != null && response instanceof String) {
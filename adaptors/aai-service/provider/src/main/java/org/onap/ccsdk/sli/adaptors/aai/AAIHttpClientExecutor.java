@@ -0,0 +1,568 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPatch;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
+import org.onap.ccsdk.sli.adaptors.aai.AAIService.TransactionIdTracker;
+import org.onap.ccsdk.sli.adaptors.aai.data.AAIDatum;
+import org.onap.ccsdk.sli.adaptors.aai.data.ErrorResponse;
+import org.onap.ccsdk.sli.adaptors.aai.data.RequestError;
+import org.onap.ccsdk.sli.adaptors.aai.data.ResourceVersion;
+import org.onap.ccsdk.sli.adaptors.aai.data.ServiceException;
+import org.onap.ccsdk.sli.core.sli.MetricLogger;
+import org.onap.logging.ref.slf4j.ONAPLogConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Executes A&amp;AI requests over a pool of persistent connections, as an
+ * alternative to AAIClientRESTExecutor, which opens and closes a connection
+ * per request. Connections are kept alive for as long as the server allows,
+ * up to a configured limit, and TLS connections are reused regardless of the
+ * client certificate they were opened with, so that their handshake is only
+ * made once. PATCH is sent as is, with no method override header.
+ * <p>
+ * The requests, their headers and the handling of their responses are the
+ * same as with AAIClientRESTExecutor.
+ */
+public class AAIHttpClientExecutor implements AAIExecutorInterface, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AAIHttpClientExecutor.class);
+
+    private static final String NOT_PROVIDED = "NOT PROVIDED";
+    private static final String ENTRY_DOESNT_EXIST = "Entry does not exist.";
+    private static final ContentType MERGE_PATCH_JSON = ContentType.create("application/merge-patch+json", StandardCharsets.UTF_8);
+
+    private final String applicationId;
+    private final String basicAuth;
+    private final long keepAliveMillis;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient client;
+    private final MetricLogger ml = new MetricLogger();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong connectionCount = new AtomicLong();
+
+    /**
+     * class Constructor
+     * @param props - properties to initialize an instance.
+     */
+    public AAIHttpClientExecutor(Properties props) {
+        String userName = props.getProperty(AAIService.CLIENT_NAME);
+        String userPassword = props.getProperty(AAIService.CLIENT_PWWD);
+        if (userName != null && !userName.isEmpty() && userPassword != null && !userPassword.isEmpty()) {
+            basicAuth = "Basic " + new String(Base64.encodeBase64((userName + ":" + userPassword).getBytes()));
+        } else {
+            LOG.debug("Basic user name or password is not set");
+            basicAuth = null;
+        }
+
+        String tmpApplicationId = props.getProperty(AAIService.APPLICATION_ID);
+        if (tmpApplicationId == null || tmpApplicationId.isEmpty()) {
+            tmpApplicationId = "SDNC";
+        }
+        applicationId = tmpApplicationId;
+
+        int connectionTimeout = getInt(props, AAIService.CONNECTION_TIMEOUT, 30000);
+        int readTimeout = getInt(props, AAIService.READ_TIMEOUT, 30000);
+        int maxTotal = getInt(props, AAIService.POOL_MAX_TOTAL, 50);
+        int maxPerRoute = getInt(props, AAIService.POOL_MAX_PER_ROUTE, 20);
+        keepAliveMillis = getInt(props, AAIService.POOL_KEEP_ALIVE, 30000);
+
+        HostnameVerifier hostnameVerifier = Boolean.parseBoolean(props.getProperty(AAIService.CERTIFICATE_HOST_ERROR))
+                ? NoopHostnameVerifier.INSTANCE : new DefaultHostnameVerifier();
+        SSLContext sslContext = createSSLContext(props);
+
+        // The same SSLContext is used for all connections, so that TLS
+        // sessions can be resumed when a new connection has to be opened
+        connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                    .register("https", new SSLConnectionSocketFactory(sslContext, hostnameVerifier))
+                    .build(),
+                (route, config) -> {
+                    connectionCount.incrementAndGet();
+                    return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+                });
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+        RequestConfig.Builder requestConfig = RequestConfig.custom()
+            .setConnectTimeout(connectionTimeout)
+            .setConnectionRequestTimeout(connectionTimeout)
+            .setSocketTimeout(readTimeout);
+        String httpProxy = props.getProperty(AAIService.HTTP_PROXY, "none");
+        if (!httpProxy.isEmpty() && !"none".equalsIgnoreCase(httpProxy)) {
+            String[] proxyParts = httpProxy.split(":");
+            int proxyPort = proxyParts.length > 1 && !proxyParts[1].isEmpty() ? Integer.parseInt(proxyParts[1]) : -1;
+            requestConfig.setProxy(new HttpHost(proxyParts[0], proxyPort));
+        }
+
+        // Without disableConnectionState, connections opened with a client
+        // certificate would only be reused by requests that carry the same
+        // user token, which none of ours do
+        client = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig.build())
+            .setKeepAliveStrategy(keepAliveStrategy())
+            .disableConnectionState()
+            .evictExpiredConnections()
+            .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+            .build();
+
+        LOG.info("AAIHttpClientExecutor initialized: max {} connections, {} per route, keep-alive {} ms",
+                maxTotal, maxPerRoute, keepAliveMillis);
+    }
+
+    private static int getInt(Properties props, String name, int defaultValue) {
+        String value = props.getProperty(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException exc) {
+            LOG.error("Invalid value {} for {}, using {}", value, name, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static SSLContext createSSLContext(Properties props) {
+        String truststorePath = props.getProperty(AAIService.TRUSTSTORE_PATH);
+        String truststorePassword = props.getProperty(AAIService.TRUSTSTORE_PSSWD);
+        String keystorePath = props.getProperty(AAIService.KEYSTORE_PATH);
+        String keystorePassword = props.getProperty(AAIService.KEYSTORE_PSSWD);
+
+        try {
+            SSLContextBuilder builder = new SSLContextBuilder();
+            if (truststorePath != null && truststorePassword != null && (new File(truststorePath)).exists()) {
+                builder.loadTrustMaterial(new File(truststorePath), truststorePassword.toCharArray());
+            }
+            if (keystorePath != null && keystorePassword != null && (new File(keystorePath)).exists()) {
+                String storeType = keystorePath.toUpperCase().endsWith(".JKS") ? "JKS" : "PKCS12";
+                KeyStore ks = KeyStore.getInstance(storeType);
+                char[] pwd = keystorePassword.toCharArray();
+                try (FileInputStream fin = new FileInputStream(keystorePath)) {
+                    ks.load(fin, pwd);
+                }
+                builder.loadKeyMaterial(ks, pwd);
+            }
+            return builder.build();
+        } catch (Exception exc) {
+            LOG.error("Failed loading A&AI key or trust store, using the default SSLContext", exc);
+            return SSLContexts.createDefault();
+        }
+    }
+
+    // Keeps connections for as long as the server allows, up to keepAliveMillis
+    private ConnectionKeepAliveStrategy keepAliveStrategy() {
+        return (response, context) -> {
+            BasicHeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (it.hasNext()) {
+                HeaderElement element = it.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Math.min(Long.parseLong(element.getValue()) * 1000, keepAliveMillis);
+                    } catch (NumberFormatException exc) {
+                        LOG.debug("Invalid keep-alive timeout {}", element.getValue());
+                    }
+                }
+            }
+            return keepAliveMillis;
+        };
+    }
+
+    @Override
+    public String get(AAIRequest request) throws AAIServiceException {
+        try {
+            HttpRequestBase method;
+            if (request.getRequestObject() != null) {
+                URL requestUrl = appendDepth(request.getRequestUrl(HttpMethod.POST, null), request);
+                LOG.info(String.format("%s : %s", HttpMethod.GET, requestUrl.toString()));
+                String jsonText = request.toJSONString();
+                LOGwriteDateTrace("data", jsonText);
+                logMetricRequest("POST " + requestUrl.toString(), jsonText, requestUrl.toString());
+                method = withBody(new HttpPost(requestUrl.toURI()), jsonText, ContentType.APPLICATION_JSON);
+            } else {
+                URL requestUrl = appendDepth(request.getRequestUrl(HttpMethod.GET, null), request);
+                LOG.info(String.format("%s : %s", HttpMethod.GET, requestUrl.toString()));
+                logMetricRequest("GET " + requestUrl.toString(), "", requestUrl.toString());
+                method = new HttpGet(requestUrl.toURI());
+            }
+
+            Response response = execute(method);
+            if (response.code == HttpURLConnection.HTTP_OK) {
+                LOGwriteEndingTrace(response.code, response.message, response.body);
+                return response.body;
+            } else if (response.code == HttpURLConnection.HTTP_NOT_FOUND) {
+                LOGwriteEndingTrace(response.code, response.message, ENTRY_DOESNT_EXIST);
+                ErrorResponse errorresponse;
+                try {
+                    errorresponse = AAIService.getObjectMapper().readValue(response.body, ErrorResponse.class);
+                } catch (Exception exc) {
+                    errorresponse = createErrorResponse(null, ENTRY_DOESNT_EXIST);
+                }
+                throw new AAIServiceException(response.code, errorresponse);
+            } else if (response.code == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                LOGwriteEndingTrace(response.code, response.message, response.body);
+                throw new AAIServiceException(response.code, createErrorResponse("HTTP_UNAUTHORIZED", response.body));
+            } else {
+                throw errorResponse(response);
+            }
+        } catch (AAIServiceException aaiexc) {
+            throw aaiexc;
+        } catch (Exception exc) {
+            LOG.warn("AAIHttpClientExecutor.get", exc);
+            throw new AAIServiceException(exc);
+        }
+    }
+
+    @Override
+    public String post(AAIRequest request) throws AAIServiceException {
+        try {
+            String resourceVersion = null;
+            AAIDatum instance = request.getRequestObject();
+            try {
+                Method getResourceVersionMethod = instance.getClass().getMethod("getResourceVersion");
+                Object object = getResourceVersionMethod.invoke(instance);
+                if (object != null) {
+                    resourceVersion = object.toString();
+                }
+            } catch (Exception exc) {
+                LOG.error("", exc);
+            }
+
+            URL requestUrl = request.getRequestUrl(HttpMethod.PUT, resourceVersion);
+            String jsonText = request.toJSONString();
+            LOGwriteDateTrace("data", jsonText);
+            logMetricRequest("PUT " + requestUrl.toString(), jsonText, requestUrl.toString());
+
+            Response response = execute(withBody(new HttpPut(requestUrl.toURI()), jsonText, ContentType.APPLICATION_JSON));
+            if (isSuccess(response.code)) {
+                LOGwriteEndingTrace(response.code, response.message, response.body.isEmpty() ? "{no-data}" : response.body);
+                return response.body;
+            }
+            throw errorResponse(response);
+        } catch (AAIServiceException aaiexc) {
+            throw aaiexc;
+        } catch (Exception exc) {
+            LOG.warn("AAIHttpClientExecutor.post", exc);
+            throw new AAIServiceException(exc);
+        }
+    }
+
+    @Override
+    public Boolean delete(AAIRequest request, String resourceVersion) throws AAIServiceException {
+        if (resourceVersion == null) {
+            throw new AAIServiceException("resource-version is required for DELETE request");
+        }
+
+        try {
+            URL requestUrl = request.getRequestUrl(HttpMethod.DELETE, resourceVersion);
+            logMetricRequest("DELETE " + requestUrl.getPath(), "", requestUrl.getPath());
+
+            Response response = execute(new HttpDelete(requestUrl.toURI()));
+            if (response.code == HttpURLConnection.HTTP_OK || response.code == HttpURLConnection.HTTP_NO_CONTENT) {
+                LOGwriteEndingTrace(response.code, response.message, response.body);
+                return true;
+            } else if (response.code == HttpURLConnection.HTTP_NOT_FOUND) {
+                LOGwriteEndingTrace(response.code, response.message, ENTRY_DOESNT_EXIST);
+                return false;
+            }
+            throw errorResponse(response);
+        } catch (AAIServiceException aaiexc) {
+            throw aaiexc;
+        } catch (Exception exc) {
+            LOG.warn("AAIHttpClientExecutor.delete", exc);
+            throw new AAIServiceException(exc);
+        }
+    }
+
+    @Override
+    public Object query(AAIRequest request, Class clas) throws AAIServiceException {
+        try {
+            URL requestUrl = request.getRequestQueryUrl(HttpMethod.GET);
+            logMetricRequest("GET " + requestUrl.getPath(), "", requestUrl.getPath());
+
+            Response response = execute(new HttpGet(requestUrl.toURI()));
+            if (response.code == HttpURLConnection.HTTP_OK) {
+                LOGwriteEndingTrace(HttpURLConnection.HTTP_OK, "SUCCESS", response.body);
+                return AAIService.getObjectMapper().readValue(response.body, clas);
+            } else if (response.code == HttpURLConnection.HTTP_NOT_FOUND) {
+                LOGwriteEndingTrace(response.code, "HTTP_NOT_FOUND", ENTRY_DOESNT_EXIST);
+                return null;
+            }
+            throw errorResponse(response);
+        } catch (AAIServiceException aaiexc) {
+            throw aaiexc;
+        } catch (Exception exc) {
+            LOG.warn("AAIHttpClientExecutor.query", exc);
+            throw new AAIServiceException(exc);
+        }
+    }
+
+    @Override
+    public Boolean patch(AAIRequest request, String resourceVersion) throws AAIServiceException {
+        try {
+            AAIDatum instance = request.getRequestObject();
+            if (instance instanceof ResourceVersion) {
+                resourceVersion = ((ResourceVersion) instance).getResourceVersion();
+            }
+
+            URL requestUrl = request.getRequestUrl("PATCH", resourceVersion);
+            String jsonText = request.toJSONString();
+            LOGwriteDateTrace("data", jsonText);
+            logMetricRequest("PATCH " + requestUrl.getPath(), jsonText, requestUrl.getPath());
+
+            Response response = execute(withBody(new HttpPatch(requestUrl.toURI()), jsonText, MERGE_PATCH_JSON));
+            if (isSuccess(response.code)) {
+                LOGwriteEndingTrace(response.code, response.message, response.body.isEmpty() ? "{no-data}" : response.body);
+                return true;
+            }
+            throw errorResponse(response);
+        } catch (AAIServiceException aaiexc) {
+            throw aaiexc;
+        } catch (Exception exc) {
+            LOG.warn("AAIHttpClientExecutor.patch", exc);
+            throw new AAIServiceException(exc);
+        }
+    }
+
+    @Override
+    public String bulkUpdate(BulkUpdateRequest request) throws AAIServiceException {
+        try {
+            URL requestUrl = request.getRequestUrl(HttpMethod.POST, null);
+            String jsonText = request.toJSONString();
+            LOGwriteDateTrace("data", jsonText);
+            logMetricRequest("POST " + requestUrl.toString(), jsonText, requestUrl.toString());
+
+            Response response = execute(withBody(new HttpPost(requestUrl.toURI()), jsonText, ContentType.APPLICATION_JSON));
+            if (isSuccess(response.code)) {
+                LOGwriteEndingTrace(response.code, response.message, response.body.isEmpty() ? "{no-data}" : response.body);
+                return response.body;
+            }
+            throw errorResponse(response);
+        } catch (AAIServiceException aaiexc) {
+            throw aaiexc;
+        } catch (Exception exc) {
+            LOG.warn("AAIHttpClientExecutor.bulkUpdate", exc);
+            throw new AAIServiceException(exc);
+        }
+    }
+
+    /**
+     * Returns the number of requests sent.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Returns the number of connections opened. Every other request was sent
+     * over a pooled connection.
+     */
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Returns the number of connections in use, idle in the pool and the
+     * number of requests waiting for one, over all routes.
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Closes all pooled connections. The executor cannot be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+
+    private HttpRequestBase withBody(HttpEntityEnclosingRequestBase method, String jsonText, ContentType contentType) {
+        if (jsonText != null) {
+            method.setEntity(new StringEntity(jsonText, contentType));
+        }
+        return method;
+    }
+
+    // Sends the request and reads the whole response, which releases the connection to the pool
+    private Response execute(HttpRequestBase method) throws IOException {
+        method.setHeader("Accept", "application/json");
+        method.setHeader("X-FromAppId", applicationId);
+        method.setHeader("X-TransactionId", TransactionIdTracker.getNextTransactionId());
+        method.setHeader("X-DslApiVersion", "V2");
+        String mlId = ml.getRequestID();
+        if (mlId != null && !mlId.isEmpty()) {
+            LOG.debug(String.format("MetricLogger requestId = %s", mlId));
+            method.setHeader(ONAPLogConstants.MDCs.REQUEST_ID, mlId);
+        } else {
+            LOG.debug("MetricLogger requestId is null");
+        }
+        if (basicAuth != null) {
+            method.setHeader("Authorization", basicAuth);
+        }
+
+        requestCount.incrementAndGet();
+        try (CloseableHttpResponse httpResponse = client.execute(method)) {
+            int code = httpResponse.getStatusLine().getStatusCode();
+            String message = httpResponse.getStatusLine().getReasonPhrase();
+            if (message == null || message.isEmpty()) {
+                message = EnglishReasonPhraseCatalog.INSTANCE.getReason(code, null);
+            }
+            if (message == null) {
+                message = NOT_PROVIDED;
+            }
+            String body = httpResponse.getEntity() == null ? ""
+                    : EntityUtils.toString(httpResponse.getEntity(), StandardCharsets.UTF_8);
+
+            LOG.info("HttpClient result: {} : {}", code, message);
+            logMetricResponse(code, message);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("A&AI connection pool: {}", connectionManager.getTotalStats());
+            }
+            return new Response(code, message, body);
+        }
+    }
+
+    private static boolean isSuccess(int code) {
+        return code == HttpURLConnection.HTTP_OK || code == HttpURLConnection.HTTP_CREATED
+                || code == HttpURLConnection.HTTP_ACCEPTED || code == HttpURLConnection.HTTP_NO_CONTENT;
+    }
+
+    private AAIServiceException errorResponse(Response response) throws IOException {
+        ObjectMapper mapper = AAIService.getObjectMapper();
+        ErrorResponse errorresponse = mapper.readValue(response.body, ErrorResponse.class);
+        LOGwriteEndingTrace(response.code, response.message, mapper.writeValueAsString(errorresponse));
+        return new AAIServiceException(response.code, errorresponse);
+    }
+
+    private static ErrorResponse createErrorResponse(String messageId, String text) {
+        ServiceException serviceException = new ServiceException();
+        serviceException.setMessageId(messageId);
+        serviceException.setText(text);
+        RequestError requestError = new RequestError();
+        requestError.setServiceException(serviceException);
+        ErrorResponse errorresponse = new ErrorResponse();
+        errorresponse.setRequestError(requestError);
+        return errorresponse;
+    }
+
+    private URL appendDepth(URL requestUrl, AAIRequest request) throws IOException, URISyntaxException {
+        final String NODES_ONLY = "nodes-only";
+        URIBuilder builder = new URIBuilder(requestUrl.toURI());
+        if (request.requestProperties.containsKey(NODES_ONLY)) {
+            String nodesOnly = request.requestProperties.getProperty(NODES_ONLY);
+            if (nodesOnly != null && !nodesOnly.isEmpty()) {
+                builder.setParameter(NODES_ONLY, nodesOnly);
+            }
+            // do not add depth by default with nodes-only
+            if (!request.requestProperties.containsKey("depth")) {
+                return builder.build().toURL();
+            }
+        }
+        builder.setParameter("depth", request.requestProperties.getProperty("depth", "1"));
+        return builder.build().toURL();
+    }
+
+    public void logMetricRequest(String targetServiceName, String msg, String path) {
+        ml.logRequest("", null, null, "A&AI", targetServiceName, null, msg);
+    }
+
+    public void logMetricResponse(int responseCode, String responseDescription) {
+        ml.logResponse(responseCode < 400 ? "COMPLETE" : "ERROR", Integer.toString(responseCode), responseDescription);
+    }
+
+    protected void LOGwriteDateTrace(String name, String data) {
+        LOG.info("Input - " + name + " : " + data);
+    }
+
+    protected void LOGwriteEndingTrace(int response_code, String comment, String data) {
+        LOG.info("Response code : " + response_code + ", " + comment);
+        LOG.info(String.format("Response data : %s", data));
+    }
+
+    private static class Response {
+        private final int code;
+        private final String message;
+        private final String body;
+
+        private Response(int code, String message, String body) {
+            this.code = code;
+            this.message = message;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * The resource paths of aai-path.properties, compiled once. Each key of the
+ * file is a set of resource names separated by '|', and is mapped to the
+ * path of the last one of them, nested in the others. A path is looked up
+ * by the set of resources a request has key values for, and is split into
+ * its literal parts and {variable} parts up front, so that values can be put
+ * in place without searching the path for each of them.
+ */
+public class AAIPathTable {
+
+    private static final AAIPathTable EMPTY = new AAIPathTable(new Properties());
+
+    // Resource name to its bit in the key of paths
+    private final Map<String, Integer> resourceIndexes = new LinkedHashMap<>();
+    private final Map<BitSet, PathTemplate> paths = new HashMap<>();
+
+    public AAIPathTable(Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            String[] resources = key.split("\\|");
+            BitSet bitset = new BitSet();
+            for (String resource : resources) {
+                Integer index = resourceIndexes.get(resource);
+                if (index == null) {
+                    index = resourceIndexes.size() + 1;
+                    resourceIndexes.put(resource, index);
+                }
+                bitset.set(index);
+            }
+            paths.put(bitset, new PathTemplate(properties.getProperty(key)));
+        }
+    }
+
+    public static AAIPathTable empty() {
+        return EMPTY;
+    }
+
+    public Set<String> getResourceNames() {
+        return Collections.unmodifiableSet(resourceIndexes.keySet());
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * Returns the path of the resources, ignoring the ones that are not in
+     * any path, or null if there is none.
+     */
+    public PathTemplate getPath(Collection<String> resources) {
+        BitSet bitset = new BitSet();
+        for (String resource : resources) {
+            Integer index = resourceIndexes.get(resource);
+            if (index != null) {
+                bitset.set(index);
+            }
+        }
+        return paths.get(bitset);
+    }
+
+    /**
+     * A path split into literal parts and variables: the parts at even
+     * indexes are literals, the ones at odd indexes are variable names.
+     */
+    public static class PathTemplate {
+        private final String path;
+        private final String[] parts;
+
+        PathTemplate(String path) {
+            this.path = path;
+            List<String> tmpParts = new ArrayList<>();
+            int start = 0;
+            int open;
+            while ((open = path.indexOf('{', start)) >= 0) {
+                int close = path.indexOf('}', open);
+                if (close < 0) {
+                    break;
+                }
+                tmpParts.add(path.substring(start, open));
+                tmpParts.add(path.substring(open + 1, close));
+                start = close + 1;
+            }
+            tmpParts.add(path.substring(start));
+            parts = tmpParts.toArray(new String[0]);
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public List<String> getVariables() {
+            List<String> variables = new ArrayList<>();
+            for (int i = 1; i < parts.length; i += 2) {
+                variables.add(parts[i]);
+            }
+            return variables;
+        }
+
+        public Expansion expand() {
+            return new Expansion(this);
+        }
+
+        @Override
+        public String toString() {
+            return path;
+        }
+    }
+
+    /**
+     * Replaces the "resource/{variable}" tokens of a path. The result is the
+     * same as replacing them with String.replace one after the other, but
+     * the path is only rebuilt once.
+     */
+    public static class Expansion {
+        private final String[] parts;
+        // Replaced parts, or null where the template part is kept
+        private final String[] values;
+
+        private Expansion(PathTemplate template) {
+            this.parts = template.parts;
+            this.values = new String[parts.length];
+        }
+
+        /**
+         * Replaces resource/{variable} with replacement.
+         *
+         * @return false if the path has no such token
+         */
+        public boolean replace(String resource, String variable, String replacement) {
+            int slot = find(resource, variable);
+            if (slot < 0) {
+                return false;
+            }
+            trim(slot - 1, resource.length() + 1);
+            values[slot] = replacement;
+            return true;
+        }
+
+        /**
+         * Replaces resource/{variable}/{secondVariable} with replacement.
+         *
+         * @return false if the path has no such token
+         */
+        public boolean replace(String resource, String variable, String secondVariable, String replacement) {
+            int slot = find(resource, variable);
+            if (slot < 0 || slot + 2 >= parts.length || values[slot + 1] != null
+                    || !"/".equals(parts[slot + 1]) || !parts[slot + 2].equals(secondVariable)) {
+                return false;
+            }
+            trim(slot - 1, resource.length() + 1);
+            values[slot] = replacement;
+            values[slot + 1] = "";
+            values[slot + 2] = "";
+            return true;
+        }
+
+        // Returns the index of the variable part preceded by resource/, or -1
+        private int find(String resource, String variable) {
+            for (int i = 1; i < parts.length; i += 2) {
+                if (values[i] == null && parts[i].equals(variable)) {
+                    String literal = values[i - 1] == null ? parts[i - 1] : values[i - 1];
+                    int end = literal.length() - resource.length() - 1;
+                    if (end >= 0 && literal.charAt(literal.length() - 1) == '/'
+                            && literal.startsWith(resource, end)) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private void trim(int literal, int length) {
+            String value = values[literal] == null ? parts[literal] : values[literal];
+            values[literal] = value.substring(0, value.length() - length);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(128);
+            for (int i = 0; i < parts.length; i++) {
+                if (values[i] != null) {
+                    builder.append(values[i]);
+                } else if (i % 2 == 1) {
+                    builder.append('{').append(parts[i]).append('}');
+                } else {
+                    builder.append(parts[i]);
+                }
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -31,24 +31,20 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.BitSet;
-import java.util.HashSet;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.onap.aai.inventory.v25.GenericVnf;
@@ -149,17 +145,18 @@ public abstract class AAIRequest {
 
 
     /**
-     * Map containing resource tag to its bit position in bitset mapping
+     * Resource paths of aai-path.properties, looked up by the resources in the request keys
      */
-    private static Map<String, String> tagValues = new LinkedHashMap<>();
+    private static volatile AAIPathTable pathTable = AAIPathTable.empty();
+
     /**
-     * Map containing bitset value of the path to its path mapping
+     * Model classes by resource name, with an empty entry for resources that have none
      */
-    private static Map<BitSet, String> bitsetPaths = new LinkedHashMap<>();
+    private static final Map<String, Optional<Class<? extends AAIDatum>>> resourceClasses = new ConcurrentHashMap<>();
 
 
     public static Set<String> getResourceNames() {
-        return tagValues.keySet();
+        return pathTable.getResourceNames();
     }
 
 
@@ -179,30 +176,8 @@ public abstract class AAIRequest {
             properties.load(reader);
             LOG.info("loaded " + properties.size());
 
-            Set<String> keys = properties.stringPropertyNames();
-
-            int index = 0;
-            Set<String> resourceNames = new TreeSet<>();
-
-            for(String key : keys) {
-                String[] tags = key.split("\\|");
-                for(String tag : tags) {
-                    if(!resourceNames.contains(tag)) {
-                        resourceNames.add(tag);
-                        tagValues.put(tag, Integer.toString(++index));
-                    }
-                }
-                BitSet bs = new BitSet(256);
-                for(String tag : tags) {
-                    String value = tagValues.get(tag);
-                    Integer bitIndex = Integer.parseInt(value) ;
-                    bs.set(bitIndex);
-                }
-                String path = properties.getProperty(key);
-                LOG.info(String.format("bitset %s\t\t%s", bs.toString(), path));
-                bitsetPaths.put(bs, path);
-            }
-            LOG.info("loaded " + resourceNames.toString());
+            pathTable = new AAIPathTable(properties);
+            LOG.info("loaded " + new TreeSet<>(pathTable.getResourceNames()).toString());
         }
         catch (Exception e)
         {
@@ -264,16 +239,10 @@ public abstract class AAIRequest {
         Set<String> uniqueResources = extractUniqueResourceSetFromKeys(requestProperties.stringPropertyNames());
 
         for(String resoourceName:uniqueResources) {
-            AAIRequest locRequest = AAIRequest.createRequest(resoourceName, new HashMap<String, String>());
-            if(locRequest != null) {
-                Class<?> clazz = locRequest.getClass();
-                Method function = null;
-                try {
-                    function = clazz.getMethod("processPathData", request_url.getClass(), requestProperties.getClass());
-                    request_url = (String) function.invoke(null, request_url,  requestProperties);
-                } catch (Exception e) {
-                	LOG.error("Caught exception", e);
-                }
+            try {
+                request_url = processPathData(resoourceName, request_url, requestProperties);
+            } catch (Exception e) {
+                LOG.error("Caught exception", e);
             }
         }
 
@@ -289,49 +258,31 @@ public abstract class AAIRequest {
     }
 
     protected String getRequestPath(String resource) throws MalformedURLException {
+        return getRequestPathTemplate(resource).getPath();
+    }
+
+    protected AAIPathTable.PathTemplate getRequestPathTemplate(String resource) throws MalformedURLException {
         if(requestProperties.containsKey("resource-path")) {
-            return requestProperties.getProperty("resource-path");
+            return new AAIPathTable.PathTemplate(requestProperties.getProperty("resource-path"));
         }
 
         Set<String> uniqueResources = extractUniqueResourceSetFromKeys(requestProperties.stringPropertyNames());
-        if(resource != null) {
+        if(resource != null && !uniqueResources.contains(resource)) {
             // for group search add itself, but remove singular version of itself
-            if(!uniqueResources.contains(resource)) {
-                boolean replaced =  false;
-                Set<String> tmpUniqueResources = new HashSet<>();
-                tmpUniqueResources.addAll(uniqueResources);
-                for(String item : tmpUniqueResources){
-                    String plural = item +"s";
-                    if(item.endsWith("y")){
-                        plural = item.substring(0, item.length()-1)+ "ies";
-                    }
-                    if(plural.equals(resource)) {
-                        uniqueResources.remove(item);
-                        uniqueResources.add(resource);
-                        replaced = true;
-                        break;
-                    }
-                }
-                if(!replaced){
-                    if(!uniqueResources.contains(resource)) {
-                        uniqueResources.add(resource);
-                    }
+            String singular = null;
+            for(String item : uniqueResources){
+                String plural = item.endsWith("y") ? item.substring(0, item.length()-1) + "ies" : item + "s";
+                if(plural.equals(resource)) {
+                    singular = item;
+                    break;
                 }
             }
-        }
-        BitSet bitset = new BitSet();
-        for(String key : uniqueResources) {
-            if(tagValues.containsKey(key)) {
-                Object tmpValue = tagValues.get(key);
-                if(tmpValue != null) {
-                    String value = tmpValue.toString();
-                    int bitIndex = Integer.parseInt(value);
-                    bitset.set(bitIndex);
-                }
+            if(singular != null) {
+                uniqueResources.remove(singular);
             }
+            uniqueResources.add(resource);
         }
-
-        String path = bitsetPaths.get(bitset);
+        AAIPathTable.PathTemplate path = pathTable.getPath(uniqueResources);
         if(path == null) {
             throw new MalformedURLException("PATH not found for key string containing valies :" +requestProperties.toString());
         }
@@ -367,11 +318,10 @@ public abstract class AAIRequest {
 
     protected static Set<String> extractUniqueResourceSetFromKeys(Set<String> keySet) {
         Set<String> uniqueResources = new TreeSet<>();
-        List<String> keys = new ArrayList<>(keySet);
-        for(String resource : keys) {
-            if(resource.contains(".")) {
-                String [] split = resource.split("\\.");
-                uniqueResources.add(split[0].replaceAll("_", "-"));
+        for(String resource : keySet) {
+            int index = resource.indexOf('.');
+            if(index >= 0) {
+                uniqueResources.add(resource.substring(0, index).replace('_', '-'));
             }
         }
         return uniqueResources;
@@ -405,6 +355,31 @@ public abstract class AAIRequest {
         return request_url;
     }
 
+    /**
+     * Calls processPathData of the request class createRequest uses for the
+     * resource. Only the query and bulk requests change the path, the
+     * others inherit the processPathData above.
+     */
+    private static String processPathData(String resoourceName, String request_url, Properties requestProperties) throws UnsupportedEncodingException {
+        switch(resoourceName) {
+        case "bulk-subnet":
+            return BulkUpdateRequest.processPathData(request_url, requestProperties);
+        case "generic-query":
+            return GenericQueryRequest.processPathData(request_url, requestProperties);
+        case "nodes-query":
+            return NodesQueryRequest.processPathData(request_url, requestProperties);
+        case "custom-query":
+        case "formatted-query":
+            return CustomQueryRequest.processPathData(request_url, requestProperties);
+        case "dsl-query":
+            return DslQueryRequest.processPathData(request_url, requestProperties);
+        case "dsl-narad-query":
+            return DslNaradQueryRequest.processPathData(request_url, requestProperties);
+        default:
+            return request_url;
+        }
+    }
+
     public boolean isDeleteDataRequired() {
         return false;
     }
@@ -414,6 +389,10 @@ public abstract class AAIRequest {
     }
 
     public static Class<? extends AAIDatum> getClassFromResource(String resoourceName) {
+        return resourceClasses.computeIfAbsent(resoourceName, name -> Optional.ofNullable(loadClassFromResource(name))).orElse(null);
+    }
+
+    private static Class<? extends AAIDatum> loadClassFromResource(String resoourceName) {
         String className = GenericVnf.class.getName();
         String[] split = resoourceName.split("-");
         for(int i = 0; i < split.length; i++) {
@@ -0,0 +1,242 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Writes the JSON representation of an A&amp;AI object into context memory in
+ * a single pass over its tokens, without building the typed model first. The
+ * attributes are the ones AAIDeclarations.processResponseData writes from the
+ * typed model: strings, integers and booleans are written under their path,
+ * lists get a _length attribute, and empty or null values are skipped. The
+ * relationships in the relationship-list of the object get their
+ * relationship-data filled in from their related-link when they have none,
+ * and can be restricted to the ones related to a given node type.
+ */
+public class AAIResponseWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AAIResponseWriter.class);
+
+    private static final String RELATIONSHIP_LIST = "relationship-list";
+    private static final String RELATIONSHIP = "relationship";
+    private static final String RELATED_TO = "related-to";
+    private static final String RELATED_LINK = "related-link";
+    private static final String RELATIONSHIP_DATA = "relationship-data";
+
+    // Only used to read relationships into trees, which needs no configuration
+    private static final ObjectMapper TREE_MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = TREE_MAPPER.getFactory();
+
+    private AAIResponseWriter() {
+    }
+
+    /**
+     * Writes the object in json under prefix. Nothing is written if json is
+     * null or is not a valid object.
+     *
+     * @param relatedTo if not null, only relationships related to this node
+     *        type are written from the relationship-list of the object
+     * @return false if json is null
+     * @throws IOException if json is not an object, as the typed model would
+     */
+    public static boolean write(String json, String prefix, String relatedTo, SvcLogicContext ctx) throws IOException {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return false;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an A&AI object, found " + token);
+            }
+            writeObject(parser, prefix, relatedTo, attributes);
+        }
+
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            ctx.setAttribute(attribute.getKey(), attribute.getValue());
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Wrote {} attributes under {}", attributes.size(), prefix);
+        }
+        return true;
+    }
+
+    // Top level fields go to prefix.name. For compatibility with the typed
+    // model path, lists and objects go to prefix.name even if prefix is null.
+    private static void writeObject(JsonParser parser, String prefix, String relatedTo,
+            Map<String, String> attributes) throws IOException {
+        String scalarPrefix = prefix == null || prefix.isEmpty() ? "" : prefix + ".";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT && RELATIONSHIP_LIST.equals(name)) {
+                writeRelationshipList(parser, prefix + "." + name, relatedTo, attributes);
+            } else if (token == JsonToken.START_OBJECT) {
+                writeMap(parser, prefix + "." + name, attributes);
+            } else if (token == JsonToken.START_ARRAY) {
+                writeList(parser, prefix + "." + name, attributes);
+            } else {
+                writeScalar(parser, scalarPrefix + name, attributes);
+            }
+        }
+    }
+
+    // Same as AAIDeclarations.writeMap, with the parser on START_OBJECT
+    private static void writeMap(JsonParser parser, String prefix, Map<String, String> attributes)
+            throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                writeMap(parser, prefix + "." + name, attributes);
+            } else if (token == JsonToken.START_ARRAY) {
+                writeList(parser, prefix + "." + name, attributes);
+            } else {
+                writeScalar(parser, prefix + "." + name, attributes);
+            }
+        }
+    }
+
+    // Same as AAIDeclarations.writeList, with the parser on START_ARRAY
+    private static void writeList(JsonParser parser, String prefix, Map<String, String> attributes)
+            throws IOException {
+        int length = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                writeMap(parser, prefix + "[" + length + "]", attributes);
+            } else if (token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else {
+                // Scalar elements all go to the list name, the last one wins
+                writeScalar(parser, prefix, attributes);
+            }
+            length++;
+        }
+        if (length > 0) {
+            attributes.put(prefix + "_length", Integer.toString(length));
+        }
+    }
+
+    // Only strings, integers and booleans are written, as with the typed model
+    private static void writeScalar(JsonParser parser, String name, Map<String, String> attributes)
+            throws IOException {
+        switch (parser.getCurrentToken()) {
+            case VALUE_STRING:
+                String value = parser.getText();
+                if (!value.isEmpty()) {
+                    attributes.put(name, value);
+                }
+                break;
+            case VALUE_NUMBER_INT:
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                attributes.put(name, parser.getText());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Reads the relationships into trees, as they may have to be filtered or
+     * completed before they are written.
+     */
+    private static void writeRelationshipList(JsonParser parser, String prefix, String relatedTo,
+            Map<String, String> attributes) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_ARRAY || !RELATIONSHIP.equals(name)) {
+                if (token == JsonToken.START_OBJECT) {
+                    writeMap(parser, prefix + "." + name, attributes);
+                } else if (token == JsonToken.START_ARRAY) {
+                    writeList(parser, prefix + "." + name, attributes);
+                } else {
+                    writeScalar(parser, prefix + "." + name, attributes);
+                }
+                continue;
+            }
+
+            List<JsonNode> relationships = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode relationship = TREE_MAPPER.readTree(parser);
+                if (relationship.isObject()) {
+                    JsonNode relationshipRelatedTo = relationship.get(RELATED_TO);
+                    if (relatedTo != null && relationshipRelatedTo != null
+                            && !relatedTo.equals(relationshipRelatedTo.asText())) {
+                        continue;
+                    }
+                    populateRelationshipData((ObjectNode) relationship);
+                }
+                relationships.add(relationship);
+            }
+
+            ArrayNode array = TREE_MAPPER.createArrayNode().addAll(relationships);
+            try (JsonParser arrayParser = array.traverse()) {
+                arrayParser.nextToken();
+                writeList(arrayParser, prefix + "." + name, attributes);
+            }
+        }
+    }
+
+    // Same as AAIServiceUtils.populateRelationshipDataFromPath
+    private static void populateRelationshipData(ObjectNode relationship) {
+        JsonNode data = relationship.get(RELATIONSHIP_DATA);
+        JsonNode link = relationship.get(RELATED_LINK);
+        if ((data != null && data.size() > 0) || link == null) {
+            return;
+        }
+
+        try {
+            Map<String, String> contributors = AAIServiceUtils.pathToHashMap(new URI(link.asText()).getPath());
+            ArrayNode relationshipData = relationship.putArray(RELATIONSHIP_DATA);
+            for (Map.Entry<String, String> contributor : contributors.entrySet()) {
+                relationshipData.addObject()
+                    .put("relationship-key", contributor.getKey())
+                    .put("relationship-value", contributor.getValue());
+            }
+        } catch (URISyntaxException exc) {
+            LOG.debug("Retrofitting relationship data: " + exc.getMessage());
+        }
+    }
+}
@@ -92,6 +92,7 @@ import org.onap.ccsdk.sli.core.utils.common.EnvProperties;
 import org.onap.logging.ref.slf4j.ONAPLogConstants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -152,6 +153,13 @@ public class AAIService extends AAIDeclarations implements AAIClient, SvcLogicRe
 
     private AAIExecutorInterface executor;
 
+    // response cache, disabled if the size is 0
+    private final int responseCacheSize;
+    private final long responseCacheTtl;
+    private final CachingAAIExecutor.Scope responseCacheScope;
+
+    private final int writeBufferMaxOperations;
+
     @Activate
     public AAIService(@Reference final UtilsProvider configuration) {
         this(configuration.getProperties());
@@ -178,7 +186,37 @@ public class AAIService extends AAIDeclarations implements AAIClient, SvcLogicRe
             LOG.error("AicAAIResource.static", exc);
         }
 
-        executor = new AAIClientRESTExecutor(props);
+        int tmpCacheSize = 0;
+        long tmpCacheTtl = 30000;
+        CachingAAIExecutor.Scope tmpCacheScope = CachingAAIExecutor.Scope.GLOBAL;
+        try {
+            tmpCacheSize = Integer.parseInt(props.getProperty(RESPONSE_CACHE_SIZE, "0"));
+            tmpCacheTtl = Long.parseLong(props.getProperty(RESPONSE_CACHE_TTL, "30000"));
+            tmpCacheScope = CachingAAIExecutor.Scope.valueOf(props.getProperty(RESPONSE_CACHE_SCOPE, "global").toUpperCase());
+        } catch(Exception exc) {
+            LOG.error("Failed setting response cache parameters, disabling response cache", exc);
+            tmpCacheSize = 0;
+        }
+        responseCacheSize = tmpCacheSize;
+        responseCacheTtl = tmpCacheTtl;
+        responseCacheScope = tmpCacheScope;
+        if(responseCacheSize > 0) {
+            LOG.info("A&AI response cache enabled: size {}, ttl {} ms, scope {}", responseCacheSize, responseCacheTtl, responseCacheScope);
+        }
+
+        int tmpWriteBufferMaxOperations = AAIWriteBuffer.DEFAULT_MAX_OPERATIONS;
+        try {
+            tmpWriteBufferMaxOperations = Integer.parseInt(props.getProperty(WRITE_BUFFER_MAX_OPERATIONS, Integer.toString(AAIWriteBuffer.DEFAULT_MAX_OPERATIONS)).trim());
+        } catch(NumberFormatException exc) {
+            LOG.error("Failed setting write buffer transaction size, using " + tmpWriteBufferMaxOperations, exc);
+        }
+        writeBufferMaxOperations = tmpWriteBufferMaxOperations;
+
+        if("pooled".equalsIgnoreCase(props.getProperty(CLIENT_TRANSPORT, "urlconnection").trim())) {
+            setExecutor(new AAIHttpClientExecutor(props));
+        } else {
+            setExecutor(new AAIClientRESTExecutor(props));
+        }
 
         userName            = props.getProperty(CLIENT_NAME);
         userPassword        = props.getProperty(CLIENT_PWWD);
@@ -354,12 +392,46 @@ public class AAIService extends AAIDeclarations implements AAIClient, SvcLogicRe
         return properties;
     }
 
+    /**
+     * Sets the executor used for A&AI requests, wrapped in a response cache
+     * if one is configured.
+     */
     public void setExecutor(AAIExecutorInterface executor) {
+        if(responseCacheSize > 0) {
+            executor = new CachingAAIExecutor(executor, responseCacheSize, responseCacheTtl, responseCacheScope);
+        }
         this.executor = executor;
     }
 
-    public void cleanUp() {
+    /**
+     * Returns the A&AI response cache, or null if it is not enabled.
+     */
+    public CachingAAIExecutor getResponseCache() {
+        return executor instanceof CachingAAIExecutor ? (CachingAAIExecutor)executor : null;
+    }
 
+    /**
+     * Returns the pooled HTTP executor, or null if the pooled transport is
+     * not used.
+     */
+    public AAIHttpClientExecutor getConnectionPool() {
+        AAIExecutorInterface tmpExecutor = executor;
+        if(tmpExecutor instanceof CachingAAIExecutor) {
+            tmpExecutor = ((CachingAAIExecutor)tmpExecutor).getDelegate();
+        }
+        return tmpExecutor instanceof AAIHttpClientExecutor ? (AAIHttpClientExecutor)tmpExecutor : null;
+    }
+
+    @Deactivate
+    public void cleanUp() {
+        AAIHttpClientExecutor pool = getConnectionPool();
+        if(pool != null) {
+            try {
+                pool.close();
+            } catch(IOException exc) {
+                LOG.warn("Failed closing A&AI connection pool", exc);
+            }
+        }
     }
 
     /**
@@ -1157,6 +1229,10 @@ public class AAIService extends AAIDeclarations implements AAIClient, SvcLogicRe
         return executor;
     }
 
+    protected int getWriteBufferMaxOperations() {
+        return writeBufferMaxOperations;
+    }
+
     /**
      * Creates a current time stamp in UTC i.e. 2016-03-08T22:15:13.343Z.
      * If there are any parameters the values are appended to the time stamp.
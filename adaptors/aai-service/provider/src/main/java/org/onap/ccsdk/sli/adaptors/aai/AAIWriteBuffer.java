@@ -0,0 +1,309 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.onap.ccsdk.sli.adaptors.aai.data.AAIDatum;
+import org.onap.ccsdk.sli.adaptors.aai.data.ResourceVersion;
+import org.onap.ccsdk.sli.adaptors.aai.update.BulkUpdateRequestItemBody;
+import org.onap.ccsdk.sli.adaptors.aai.update.BulkUpdateResponseData;
+import org.onap.ccsdk.sli.adaptors.aai.update.BulkUpdateResponseItem;
+import org.onap.ccsdk.sli.core.sli.SvcLogicCompletionListener;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * Holds back the A&amp;AI writes (save, update and delete) of one request,
+ * to send them together as A&amp;AI single transactions of up to
+ * maxOperations writes. The buffer is started by a notify node, and the
+ * writes are sent by a notify node with the flush action or once the graph
+ * ends. If a transaction fails, its writes are sent one at a time instead.
+ * <p>
+ * The writes are made in the order they were buffered, but reads made in
+ * the meantime don't see them. The outcome of each write is written to the
+ * context under prefix, as the nodes that buffered them can only report
+ * success:
+ * <pre>
+ * prefix.status                          success or failure
+ * prefix.operation_length
+ * prefix.operation[i].action             put, patch or delete
+ * prefix.operation[i].resource
+ * prefix.operation[i].uri
+ * prefix.operation[i].sent               bulk or single
+ * prefix.operation[i].status             success, failure or not-found
+ * prefix.operation[i].response-code
+ * prefix.operation[i].error-message
+ * </pre>
+ * A request has a single buffer. Starting it again keeps the first prefix,
+ * and a different prefix is ignored with a warning.
+ */
+public class AAIWriteBuffer implements SvcLogicCompletionListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AAIWriteBuffer.class);
+
+    public static final String RESOURCE = "write-buffer";
+    public static final String DEFAULT_PREFIX = "aai-write-buffer";
+    public static final int DEFAULT_MAX_OPERATIONS = 30;
+
+    private static final String LISTENER_NAME = AAIWriteBuffer.class.getName();
+
+    private final AAIExecutorInterface executor;
+    private final String prefix;
+    private final int maxOperations;
+    private final List<Operation> operations = new ArrayList<>();
+
+    AAIWriteBuffer(AAIExecutorInterface executor, String prefix, int maxOperations) {
+        this.executor = executor;
+        this.prefix = prefix;
+        this.maxOperations = Math.max(1, maxOperations);
+    }
+
+    /**
+     * Returns the write buffer of the request, or null if its writes are not
+     * buffered.
+     */
+    public static AAIWriteBuffer get(SvcLogicContext ctx) {
+        SvcLogicCompletionListener listener = ctx.getCompletionListener(LISTENER_NAME);
+        return listener instanceof AAIWriteBuffer ? (AAIWriteBuffer) listener : null;
+    }
+
+    /**
+     * Starts buffering the writes of the request, unless they already are.
+     * In that case the outcome is still written under the first prefix.
+     */
+    public static AAIWriteBuffer begin(SvcLogicContext ctx, AAIExecutorInterface executor, String prefix, int maxOperations) {
+        AAIWriteBuffer buffer = get(ctx);
+        if(buffer == null) {
+            buffer = new AAIWriteBuffer(executor, prefix, maxOperations);
+            ctx.addCompletionListener(LISTENER_NAME, buffer);
+        } else if(!buffer.prefix.equals(prefix)) {
+            LOG.warn("Writes are already buffered under prefix {}, ignoring prefix {}", buffer.prefix, prefix);
+        }
+        return buffer;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    public void put(String resource, AAIRequest request) throws AAIServiceException {
+        String resourceVersion = null;
+        AAIDatum instance = request.getRequestObject();
+        if(instance != null) {
+            try {
+                Method getResourceVersionMethod = instance.getClass().getMethod("getResourceVersion");
+                Object object = getResourceVersionMethod.invoke(instance);
+                if(object != null) {
+                    resourceVersion = object.toString();
+                }
+            } catch(Exception exc) {
+                LOG.debug("No resource version in " + instance.getClass().getName(), exc);
+            }
+        }
+        add("put", resource, request, HttpMethod.PUT, resourceVersion, request.toJSONString());
+    }
+
+    public void patch(String resource, AAIRequest request, String resourceVersion) throws AAIServiceException {
+        AAIDatum instance = request.getRequestObject();
+        if(instance instanceof ResourceVersion) {
+            resourceVersion = ((ResourceVersion)instance).getResourceVersion();
+        }
+        add("patch", resource, request, "PATCH", resourceVersion, request.toJSONString());
+    }
+
+    public void delete(String resource, AAIRequest request, String resourceVersion) throws AAIServiceException {
+        add("delete", resource, request, HttpMethod.DELETE, resourceVersion, null);
+    }
+
+    private void add(String action, String resource, AAIRequest request, String method, String resourceVersion, String body) throws AAIServiceException {
+        try {
+            URL url = request.getRequestUrl(method, resourceVersion);
+            operations.add(new Operation(action, resource, request, resourceVersion, url.getPath(), body));
+            LOG.debug("Buffered {} {}", action, url.getPath());
+        } catch(UnsupportedEncodingException | MalformedURLException | URISyntaxException exc) {
+            throw new AAIServiceException(exc);
+        }
+    }
+
+    /**
+     * Sends the buffered writes and writes their outcome to the context.
+     * Writes buffered after this are sent by the next flush.
+     *
+     * @return whether all writes succeeded
+     */
+    public boolean flush(SvcLogicContext ctx) {
+        List<Operation> pending = new ArrayList<>(operations);
+        operations.clear();
+
+        for(int start = 0; start < pending.size(); start += maxOperations) {
+            List<Operation> transaction = pending.subList(start, Math.min(start + maxOperations, pending.size()));
+            if(!sendBulk(transaction)) {
+                for(Operation operation : transaction) {
+                    sendSingle(operation);
+                }
+            }
+        }
+
+        ctx.removeAttributes(prefix + ".");
+        boolean success = true;
+        for(int i = 0; i < pending.size(); i++) {
+            Operation operation = pending.get(i);
+            String item = String.format("%s.operation[%d].", prefix, i);
+            ctx.setAttribute(item + "action", operation.action);
+            ctx.setAttribute(item + "resource", operation.resource);
+            ctx.setAttribute(item + "uri", operation.uri);
+            ctx.setAttribute(item + "sent", operation.sent);
+            ctx.setAttribute(item + "status", operation.status);
+            ctx.setAttribute(item + "response-code", operation.responseCode);
+            ctx.setAttribute(item + "error-message", operation.errorMessage);
+            success &= "success".equals(operation.status);
+        }
+        ctx.setAttribute(prefix + ".operation_length", Integer.toString(pending.size()));
+        ctx.setAttribute(prefix + ".status", success ? "success" : "failure");
+        return success;
+    }
+
+    @Override
+    public void graphCompleted(SvcLogicContext ctx) {
+        if(!operations.isEmpty()) {
+            flush(ctx);
+        }
+    }
+
+    // Returns false if the transaction was not made
+    private boolean sendBulk(List<Operation> transaction) {
+        BulkUpdateRequest request = new BulkUpdateRequest();
+        String response;
+        try {
+            for(Operation operation : transaction) {
+                BulkUpdateRequestItemBody body = new BulkUpdateRequestItemBody();
+                if(operation.body != null) {
+                    Map<String, Object> properties = AAIService.getObjectMapper().readValue(operation.body, new TypeReference<Map<String, Object>>() {});
+                    body.getAdditionalProperties().putAll(properties);
+                }
+                // A transaction takes the resource version in the body, not in the uri
+                if(operation.resourceVersion != null) {
+                    body.getAdditionalProperties().putIfAbsent("resource-version", operation.resourceVersion);
+                }
+                request.addUpdate(operation.action, operation.uri, body);
+            }
+            response = executor.bulkUpdate(request);
+        } catch(Exception exc) {
+            LOG.warn("Bulk transaction of " + transaction.size() + " writes failed, sending them one at a time", exc);
+            return false;
+        }
+
+        List<BulkUpdateResponseItem> responses = null;
+        try {
+            BulkUpdateResponseData data = (BulkUpdateResponseData) request.jsonStringToObject(response == null || response.isEmpty() ? null : response);
+            if(data != null) {
+                responses = data.getOperationResponses();
+            }
+        } catch(Exception exc) {
+            LOG.debug("Could not read bulk transaction response", exc);
+        }
+        if(responses != null && responses.size() != transaction.size()) {
+            responses = null;
+        }
+
+        for(int i = 0; i < transaction.size(); i++) {
+            Operation operation = transaction.get(i);
+            operation.sent = "bulk";
+            operation.status = "success";
+            if(responses != null) {
+                String code = responses.get(i).getResponseStatusCode();
+                operation.responseCode = code;
+                if(code != null && !code.startsWith("2")) {
+                    operation.status = "404".equals(code) ? "not-found" : "failure";
+                    operation.errorMessage = responses.get(i).getResponseBody();
+                }
+            }
+        }
+        return true;
+    }
+
+    private void sendSingle(Operation operation) {
+        operation.sent = "single";
+        try {
+            switch(operation.action) {
+            case "put":
+                executor.post(operation.request);
+                operation.status = "success";
+                break;
+            case "patch":
+                operation.status = Boolean.TRUE.equals(executor.patch(operation.request, operation.resourceVersion)) ? "success" : "failure";
+                break;
+            default:
+                operation.status = Boolean.TRUE.equals(executor.delete(operation.request, operation.resourceVersion)) ? "success" : "not-found";
+            }
+        } catch(AAIServiceException exc) {
+            LOG.warn("Failed " + operation.action + " " + operation.uri, exc);
+            operation.status = exc.getReturnCode() == 404 ? "not-found" : "failure";
+            if(exc.getReturnCode() > 0) {
+                operation.responseCode = Integer.toString(exc.getReturnCode());
+            }
+            operation.errorMessage = exc.getMessage();
+        } catch(Exception exc) {
+            LOG.warn("Failed " + operation.action + " " + operation.uri, exc);
+            operation.status = "failure";
+            operation.errorMessage = exc.getMessage();
+        }
+    }
+
+    private static class Operation {
+        final String action;
+        final String resource;
+        final AAIRequest request;
+        final String resourceVersion;
+        final String uri;
+        final String body;
+
+        String sent;
+        String status;
+        String responseCode;
+        String errorMessage;
+
+        Operation(String action, String resource, AAIRequest request, String resourceVersion, String uri, String body) {
+            this.action = action;
+            this.resource = resource;
+            this.request = request;
+            this.resourceVersion = resourceVersion;
+            this.uri = uri;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.onap.ccsdk.sli.core.sli.MetricLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the responses of A&amp;AI GET requests made through another executor,
+ * keyed by the request URL. Entries expire after a fixed time and are dropped
+ * whenever a write made through this executor touches the same path, one of
+ * its ancestors or one of its descendants, whether the write succeeds or not.
+ * With request scope, responses are only shared within the request they were
+ * read in (the request id in the MDC), and requests without an id are not
+ * cached at all.
+ */
+public class CachingAAIExecutor implements AAIExecutorInterface {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingAAIExecutor.class);
+
+    public enum Scope {
+        GLOBAL, REQUEST
+    }
+
+    private final AAIExecutorInterface delegate;
+    private final long ttlNanos;
+    private final Scope scope;
+    private final MetricLogger ml = new MetricLogger();
+
+    // Keys are the scope followed by the request URL and query options
+    private final Map<String, CachedResponse> responses;
+    // Incremented by every write, so that a response read while a write was
+    // in progress is not cached
+    private long writeCount = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+    private long invalidationCount = 0;
+
+    /**
+     * @param delegate executor used for all requests that are not answered from the cache
+     * @param maxEntries maximum number of responses kept
+     * @param ttlMillis how long a response is kept
+     * @param scope whether responses are shared between requests
+     */
+    public CachingAAIExecutor(AAIExecutorInterface delegate, final int maxEntries, long ttlMillis, Scope scope) {
+        this.delegate = delegate;
+        this.ttlNanos = ttlMillis * 1000000L;
+        this.scope = scope;
+        this.responses = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                if (size() > maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public AAIExecutorInterface getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String get(AAIRequest request) throws AAIServiceException {
+        // Requests with a body are queries sent with POST
+        if (request.getRequestObject() != null) {
+            return delegate.get(request);
+        }
+
+        String path;
+        String key;
+        try {
+            URL url = request.getRequestUrl(HttpMethod.GET, null);
+            path = url.getPath();
+            key = getKey(url, request);
+        } catch (UnsupportedEncodingException | MalformedURLException | URISyntaxException exc) {
+            LOG.debug("Not caching request", exc);
+            return delegate.get(request);
+        }
+        if (key == null) {
+            return delegate.get(request);
+        }
+
+        long startWriteCount;
+        synchronized (responses) {
+            CachedResponse cached = responses.get(key);
+            if (cached != null) {
+                if (System.nanoTime() - cached.readTime < ttlNanos) {
+                    hitCount++;
+                    LOG.debug("Returning cached response for {}", key);
+                    return cached.response;
+                }
+                responses.remove(key);
+            }
+            missCount++;
+            startWriteCount = writeCount;
+        }
+
+        String response = delegate.get(request);
+        if (response != null) {
+            synchronized (responses) {
+                if (writeCount == startWriteCount) {
+                    responses.put(key, new CachedResponse(path, response));
+                }
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public String post(AAIRequest request) throws AAIServiceException {
+        String path = getPath(request);
+        try {
+            return delegate.post(request);
+        } finally {
+            invalidate(path);
+        }
+    }
+
+    @Override
+    public Boolean delete(AAIRequest request, String resourceVersion) throws AAIServiceException {
+        String path = getPath(request);
+        try {
+            return delegate.delete(request, resourceVersion);
+        } finally {
+            invalidate(path);
+        }
+    }
+
+    @Override
+    public Object query(AAIRequest request, Class clas) throws AAIServiceException {
+        return delegate.query(request, clas);
+    }
+
+    @Override
+    public Boolean patch(AAIRequest request, String resourceVersion) throws AAIServiceException {
+        String path = getPath(request);
+        try {
+            return delegate.patch(request, resourceVersion);
+        } finally {
+            invalidate(path);
+        }
+    }
+
+    /**
+     * Bulk updates may touch any number of objects, so all cached responses
+     * are dropped.
+     */
+    @Override
+    public String bulkUpdate(BulkUpdateRequest request) throws AAIServiceException {
+        try {
+            return delegate.bulkUpdate(request);
+        } finally {
+            invalidate(null);
+        }
+    }
+
+    public int getSize() {
+        synchronized (responses) {
+            return responses.size();
+        }
+    }
+
+    public long getHitCount() {
+        synchronized (responses) {
+            return hitCount;
+        }
+    }
+
+    public long getMissCount() {
+        synchronized (responses) {
+            return missCount;
+        }
+    }
+
+    /** Returns the number of responses dropped because the cache was full. */
+    public long getEvictionCount() {
+        synchronized (responses) {
+            return evictionCount;
+        }
+    }
+
+    /** Returns the number of responses dropped because of writes. */
+    public long getInvalidationCount() {
+        synchronized (responses) {
+            return invalidationCount;
+        }
+    }
+
+    public void clear() {
+        synchronized (responses) {
+            writeCount++;
+            responses.clear();
+        }
+    }
+
+    private String getKey(URL url, AAIRequest request) {
+        String scopeId = "";
+        if (scope == Scope.REQUEST) {
+            scopeId = ml.getRequestID();
+            if (scopeId == null || scopeId.isEmpty()) {
+                return null;
+            }
+        }
+        // Depth and nodes-only are added to the URL by the executor
+        return scopeId + " " + url
+            + " depth=" + request.requestProperties.getProperty("depth")
+            + " nodes-only=" + request.requestProperties.getProperty("nodes-only");
+    }
+
+    // Returns null if the path cannot be resolved, so that all responses are dropped
+    private static String getPath(AAIRequest request) {
+        try {
+            return request.getRequestUrl(HttpMethod.GET, null).getPath();
+        } catch (UnsupportedEncodingException | MalformedURLException | URISyntaxException exc) {
+            LOG.debug("Could not resolve path of write request", exc);
+            return null;
+        }
+    }
+
+    /**
+     * Drops the responses for path, its ancestors, which may include it
+     * depending on the depth they were read with, and its descendants, or all
+     * responses if path is null.
+     */
+    private void invalidate(String path) {
+        synchronized (responses) {
+            writeCount++;
+            int size = responses.size();
+            if (path == null) {
+                responses.clear();
+            } else {
+                Iterator<CachedResponse> it = responses.values().iterator();
+                while (it.hasNext()) {
+                    String cachedPath = it.next().path;
+                    if (isPrefix(cachedPath, path) || isPrefix(path, cachedPath)) {
+                        it.remove();
+                    }
+                }
+            }
+            invalidationCount += size - responses.size();
+        }
+    }
+
+    // Returns true if prefix is path or one of its ancestors
+    private static boolean isPrefix(String prefix, String path) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    private static class CachedResponse {
+        private final String path;
+        private final String response;
+        private final long readTime = System.nanoTime();
+
+        private CachedResponse(String path, String response) {
+            this.path = path;
+            this.response = response;
+        }
+    }
+}
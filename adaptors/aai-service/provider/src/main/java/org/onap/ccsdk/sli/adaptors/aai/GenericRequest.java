@@ -27,7 +27,6 @@
 package org.onap.ccsdk.sli.adaptors.aai;
 
 import java.io.UnsupportedEncodingException;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
@@ -35,6 +34,7 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
@@ -50,6 +50,10 @@ import com.google.common.base.Joiner;
 public class GenericRequest extends AAIRequest {
 
 
+    // Annotations of the model classes, read once per class
+    private static final Map<Class<?>, String> resourceNames = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, String> primaryIds = new ConcurrentHashMap<>();
+
     protected Class<? extends AAIDatum> model;
 
     public GenericRequest(Class<? extends AAIDatum> clazz) {
@@ -59,29 +63,18 @@ public class GenericRequest extends AAIRequest {
     @Override
     public String updatePathDataValues(Object resourceVersion) throws UnsupportedEncodingException, MalformedURLException {
 
-        String originalPath = null;
+        String originalResource = null;
+        String originalId = null;
         String pathSubstitute = null;
-        String resourceName = null;
-
-        Annotation[] annotations = model.getAnnotations();
-        for(Annotation annotation : annotations) {
-            Class<? extends Annotation> anotationType = annotation.annotationType();
-            String annotationName = anotationType.getName();
-            if("javax.xml.bind.annotation.XmlRootElement".equals(annotationName)){
-                XmlRootElement order = (XmlRootElement)annotation;
-                resourceName = order.name();
-            }
-        }
+        String resourceName = getResourceName(model);
 
-        String request_url = getRequestPath(resourceName);
+        AAIPathTable.Expansion request_url = getRequestPathTemplate(resourceName).expand();
 
         Map<String, String> queryParams = new HashMap<> ();
         if(resourceVersion != null) {
             queryParams.put("resource-version", resourceVersion.toString());
         }
 
-        Set<String> uniqueResources = extractUniqueResourceSetFromKeys(requestProperties.stringPropertyNames());
-
         String[] keys = requestProperties.keySet().toArray(new String[0]);
         for(String key : keys) {
             switch(key) {
@@ -100,39 +93,34 @@ public class GenericRequest extends AAIRequest {
                 if("cloud-region".equals(splitKey[0])){
                     String cloudRegionId =  requestProperties.getProperty("cloud-region.cloud-region-id");
                     aaiService.LOGwriteDateTrace("cloud-region-id", cloudRegionId);
-                    String token = String.format("%s/{%s}/{cloud-region-id}", splitKey[0], splitKey[1] );
                     String encoded_owner = encodeQuery(value);
                     String encoded_region = encodeQuery(cloudRegionId);
-                    request_url = request_url.replace(token, String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
+                    request_url.replace(splitKey[0], splitKey[1], "cloud-region-id", String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
                 } else     if("entitlement".equals(splitKey[0])){
                     String cloudRegionId =  requestProperties.getProperty("entitlement.resource-uuid");
                     aaiService.LOGwriteDateTrace("resource-uuid", cloudRegionId);
-                    String token = String.format("%s/{%s}/{resource-uuid}", splitKey[0], splitKey[1] );
                     String encoded_owner = encodeQuery(value);
                     String encoded_region = encodeQuery(cloudRegionId);
-                    request_url = request_url.replace(token, String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
+                    request_url.replace(splitKey[0], splitKey[1], "resource-uuid", String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
                 } else     if("license".equals(splitKey[0])){
                     String cloudRegionId =  requestProperties.getProperty("license.resource-uuid");
                     aaiService.LOGwriteDateTrace("resource-uuid", cloudRegionId);
-                    String token = String.format("%s/{%s}/{resource-uuid}", splitKey[0], splitKey[1] );
                     String encoded_owner = encodeQuery(value);
                     String encoded_region = encodeQuery(cloudRegionId);
-                    request_url = request_url.replace(token, String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
+                    request_url.replace(splitKey[0], splitKey[1], "resource-uuid", String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
                 } else     if("route-target".equals(splitKey[0])){
                     String cloudRegionId =  requestProperties.getProperty("route-target.route-target-role");
                     aaiService.LOGwriteDateTrace("route-target-role", cloudRegionId);
-                    String token = String.format("%s/{%s}/{route-target-role}", splitKey[0], splitKey[1] );
                     String encoded_owner = encodeQuery(value);
                     String encoded_region = encodeQuery(cloudRegionId);
-                    request_url = request_url.replace(token, String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
+                    request_url.replace(splitKey[0], splitKey[1], "route-target-role", String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
                 } else     if("service-capability".equals(splitKey[0])){
                     String vnfType =  requestProperties.getProperty("service-capability.vnf-type");
                     aaiService.LOGwriteDateTrace("vnf-type", vnfType);
-                    String token = String.format("%s/{%s}/{vnf-type}", splitKey[0], splitKey[1] );
                     String encoded_service_type = encodeQuery(value);
                     String encoded_vnf_type = encodeQuery(vnfType);
                     if("service-capability".equals(resourceName)) {
-                        request_url = request_url.replace(token, String.format("%s/%s/%s", splitKey[0], encoded_service_type, encoded_vnf_type));
+                        request_url.replace(splitKey[0], splitKey[1], "vnf-type", String.format("%s/%s/%s", splitKey[0], encoded_service_type, encoded_vnf_type));
                     } else if("service-capabilities".equals(resourceName)) {
                         queryParams.put("service-type", encoded_service_type);
                         queryParams.put("vnf-type", encoded_vnf_type);
@@ -140,51 +128,28 @@ public class GenericRequest extends AAIRequest {
                 } else     if("ctag-pool".equals(splitKey[0])){
                     String cloudRegionId =  requestProperties.getProperty("ctag-pool.availability-zone-name");
                     aaiService.LOGwriteDateTrace("availability-zone-name", cloudRegionId);
-                    String token = String.format("%s/{%s}/{availability-zone-name}", splitKey[0], splitKey[1] );
                     String encoded_owner = encodeQuery(value);
                     String encoded_region = encodeQuery(cloudRegionId);
-                    request_url = request_url.replace(token, String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
+                    request_url.replace(splitKey[0], splitKey[1], "availability-zone-name", String.format("%s/%s/%s", splitKey[0], encoded_owner, encoded_region));
                 } else {
                     Class<? extends AAIDatum> clazz = getClassFromResource(splitKey[0]);
 
                     if(clazz != null) {
                         if(clazz == this.model) {
-                            Field[] fields = this.model.getDeclaredFields();
-                            Field field = fields[0];
-                            String fieldName = field.getName();
-                            XmlElement annotation = field.getAnnotation(XmlElement.class);
-                            String primaryId = null;
-                            if(annotation != null) {
-                                primaryId = annotation.name();
-                            if("##default".equals(primaryId)) {
-                                primaryId = fieldName;
-                            }
-                            } else {
-                                primaryId = fieldName;
-                            }
-
-                            String token = String.format("%s/{%s}", splitKey[0], primaryId);
+                            String primaryId = getPrimaryId(this.model);
 
                             if(splitKey[1].equals(primaryId)) {
                                 String encoded_vnf = encodeQuery(value);
-                                request_url = request_url.replace(token, String.format("%s/%s", splitKey[0], encoded_vnf));
+                                request_url.replace(splitKey[0], primaryId, String.format("%s/%s", splitKey[0], encoded_vnf));
                             } else {
                                 queryParams.put(splitKey[1], encodeQuery(value));
-                                originalPath = token;
+                                originalResource = splitKey[0];
+                                originalId = primaryId;
                                 pathSubstitute = String.format("%s", splitKey[0]);
                             }
                         } else if(L3Networks.class == this.model) {
-                            Field[] fields = L3Network.class.getDeclaredFields();
-                            Field field = fields[0];
-                            String fieldName = field.getName();
-                            XmlElement annotation = field.getAnnotation(XmlElement.class);
-                            String primaryId = annotation.name();
-                            if("##default".equals(primaryId)) {
-                                primaryId = fieldName;
-                            }
-
-                            String token = String.format("%s/{%s}", splitKey[0], primaryId);
-                            originalPath = token;
+                            originalResource = splitKey[0];
+                            originalId = getPrimaryId(L3Network.class);
                             pathSubstitute = String.format("");
 
                             queryParams.put(splitKey[1], encodeQuery(value));
@@ -193,8 +158,7 @@ public class GenericRequest extends AAIRequest {
                         	if(!resourceName.equals(splitKey[0]) && resourceName.contains(splitKey[0])) {
                         		queryParams.put(splitKey[1], encoded_vnf);
                         	} else {
-                        		String token = String.format("%s/{%s}", splitKey[0], splitKey[1]);
-                        		request_url = request_url.replace(token, String.format("%s/%s", splitKey[0], encoded_vnf));
+                        		request_url.replace(splitKey[0], splitKey[1], String.format("%s/%s", splitKey[0], encoded_vnf));
                         	}
                         }
                     }
@@ -204,16 +168,42 @@ public class GenericRequest extends AAIRequest {
             }
         }
 
-        if(originalPath != null && pathSubstitute != null)
-            request_url = request_url.replace(originalPath, pathSubstitute);
+        if(originalResource != null && pathSubstitute != null)
+            request_url.replace(originalResource, originalId, pathSubstitute);
 
+        String path = request_url.toString();
         if(!queryParams.isEmpty()) {
             Joiner.MapJoiner mapJoiner = Joiner.on("&").withKeyValueSeparator("=");
             String queryString = mapJoiner.join(queryParams);
-            request_url = String.format("%s?%s", request_url, queryString);
+            path = String.format("%s?%s", path, queryString);
         }
 
-        return request_url;
+        return path;
+    }
+
+    /**
+     * Returns the name of the XmlRootElement of the model class, or null.
+     */
+    static String getResourceName(Class<? extends AAIDatum> clazz) {
+        String resourceName = resourceNames.computeIfAbsent(clazz, key -> {
+            XmlRootElement annotation = key.getAnnotation(XmlRootElement.class);
+            return annotation == null ? "" : annotation.name();
+        });
+        return resourceName.isEmpty() ? null : resourceName;
+    }
+
+    /**
+     * Returns the name of the first field of the model class, which is its key.
+     */
+    static String getPrimaryId(Class<? extends AAIDatum> clazz) {
+        return primaryIds.computeIfAbsent(clazz, key -> {
+            Field field = key.getDeclaredFields()[0];
+            XmlElement annotation = field.getAnnotation(XmlElement.class);
+            if(annotation == null || "##default".equals(annotation.name())) {
+                return field.getName();
+            }
+            return annotation.name();
+        });
     }
 
     @Override
@@ -20,12 +20,18 @@
  */
 
 package org.onap.ccsdk.sli.adaptors.aai.update;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @XmlAccessorType(XmlAccessType.FIELD)
@@ -39,6 +45,10 @@ public class BulkUpdateRequestItemBody {
     @JsonProperty("orchestration-status")
     String orchestrationStatus;
 
+    // The other properties of the object, for writes of whole objects
+    @JsonIgnore
+    private Map<String, Object> additionalProperties = new LinkedHashMap<>();
+
     @JsonProperty("orchestration-status")
     public String getOrchestrationStatus() {
         return orchestrationStatus;
@@ -49,9 +59,19 @@ public class BulkUpdateRequestItemBody {
         this.orchestrationStatus = orchestrationStatus;
     }
 
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return this.additionalProperties;
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        this.additionalProperties.put(name, value);
+    }
+
     @Override
     public String toString()
     {
-        return " [orchestration-status = "+orchestrationStatus+"]";
+        return " [orchestration-status = "+orchestrationStatus+",additionalProperties = "+additionalProperties+"]";
     }
 }
@@ -0,0 +1,132 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class AAIHttpClientExecutorTest {
+
+    private HttpServer server;
+    private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+    private AAIService service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestHeaders().getFirst("Content-Type")
+                    + " " + exchange.getRequestHeaders().getFirst("X-HTTP-Method-Override"));
+            exchange.getRequestBody().close();
+            if (exchange.getRequestURI().getPath().endsWith("/missing")) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if ("DELETE".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                byte[] body = "{\"vnf-id\":\"vnf1\",\"resource-version\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+
+        Properties properties = new Properties();
+        properties.setProperty("org.onap.ccsdk.sli.adaptors.aai.uri", "http://localhost:" + server.getAddress().getPort());
+        properties.setProperty("org.onap.ccsdk.sli.adaptors.aai.client.name", "SDNC");
+        properties.setProperty("org.onap.ccsdk.sli.adaptors.aai.client.psswd", "SDNC");
+        properties.setProperty(AAIService.CLIENT_TRANSPORT, "pooled");
+        properties.setProperty(AAIService.POOL_MAX_PER_ROUTE, "2");
+        service = new AAIService(properties);
+    }
+
+    @After
+    public void tearDown() {
+        service.cleanUp();
+        server.stop(0);
+    }
+
+    private AAIRequest createRequest(String vnfId) {
+        Map<String, String> nameValues = new HashMap<>();
+        nameValues.put("generic_vnf.vnf_id", vnfId);
+        AAIRequest request = AAIRequest.createRequest("generic-vnf", nameValues);
+        request.processRequestPathValues(nameValues);
+        return request;
+    }
+
+    @Test
+    public void testTransportSelection() {
+        assertTrue(service.getExecutor() instanceof AAIHttpClientExecutor);
+        assertNotNull(service.getConnectionPool());
+
+        Properties properties = new Properties();
+        properties.setProperty("org.onap.ccsdk.sli.adaptors.aai.uri", "http://localhost:8181");
+        AAIService defaultService = new AAIService(properties);
+        assertTrue(defaultService.getExecutor() instanceof AAIClientRESTExecutor);
+        assertNull(defaultService.getConnectionPool());
+    }
+
+    @Test
+    public void testConnectionReuse() throws Exception {
+        AAIHttpClientExecutor executor = service.getConnectionPool();
+        AAIRequest request = createRequest("vnf1");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(executor.get(request).contains("vnf1"));
+        }
+        assertTrue(executor.patch(request, "1"));
+        assertTrue(executor.delete(request, "1"));
+        assertFalse(executor.delete(createRequest("missing"), "1"));
+        try {
+            executor.get(createRequest("missing"));
+            fail("Expected AAIServiceException");
+        } catch (AAIServiceException exc) {
+            assertEquals(404, exc.getReturnCode());
+        }
+
+        // PATCH is sent as such, not as an overridden POST
+        assertEquals("PATCH application/merge-patch+json; charset=UTF-8 null", received.get(3));
+        assertEquals(7, executor.getRequestCount());
+        assertEquals(1, executor.getConnectionCount());
+        assertEquals(0, executor.getPoolStats().getLeased());
+        assertEquals(1, executor.getPoolStats().getAvailable());
+    }
+}
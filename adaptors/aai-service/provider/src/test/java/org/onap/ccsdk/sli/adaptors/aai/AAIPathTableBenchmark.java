@@ -0,0 +1,193 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Times path lookup and key substitution over the whole aai-path.properties
+ * catalog, comparing AAIPathTable with the bitset lookup and String.replace
+ * chain it replaced. It is not run by the build, run it by hand with
+ * <pre>
+ * java -cp &lt;test classpath&gt; org.onap.ccsdk.sli.adaptors.aai.AAIPathTableBenchmark [passes] [rounds]
+ * </pre>
+ * Each round makes passes lookups and substitutions of every catalog path
+ * and prints the average time of one. The first rounds are warm up.
+ */
+public class AAIPathTableBenchmark {
+
+    // The lookup of AAIRequest before AAIPathTable
+    private final Map<String, String> tagValues = new LinkedHashMap<>();
+    private final Map<BitSet, String> bitsetPaths = new LinkedHashMap<>();
+
+    private final AAIPathTable table;
+    private final List<Set<String>> keys = new ArrayList<>();
+    // For each catalog path, the resource/{variable} tokens to replace
+    private final List<List<String[]>> tokens = new ArrayList<>();
+
+    private int sink;
+
+    AAIPathTableBenchmark(Properties properties) {
+        int index = 0;
+        for (String key : properties.stringPropertyNames()) {
+            String[] tags = key.split("\\|");
+            BitSet bs = new BitSet(256);
+            for (String tag : tags) {
+                if (!tagValues.containsKey(tag)) {
+                    tagValues.put(tag, Integer.toString(++index));
+                }
+                bs.set(Integer.parseInt(tagValues.get(tag)));
+            }
+            bitsetPaths.put(bs, properties.getProperty(key));
+            keys.add(new LinkedHashSet<>(Arrays.asList(tags)));
+        }
+        table = new AAIPathTable(properties);
+
+        for (Set<String> key : keys) {
+            List<String[]> pathTokens = new ArrayList<>();
+            String path = table.getPath(key).getPath();
+            for (String variable : table.getPath(key).getVariables()) {
+                int start = path.indexOf("/{" + variable + "}");
+                if (start < 0) {
+                    continue;
+                }
+                String resource = path.substring(path.lastIndexOf('/', start - 1) + 1, start);
+                int next = start + variable.length() + 3;
+                if (path.startsWith("/{", next)) {
+                    String second = path.substring(next + 2, path.indexOf('}', next));
+                    pathTokens.add(new String[] {resource, variable, second});
+                } else {
+                    pathTokens.add(new String[] {resource, variable});
+                }
+            }
+            tokens.add(pathTokens);
+        }
+    }
+
+    private String oldLookup(Set<String> resources) {
+        Set<String> uniqueResources = new TreeSet<>(resources);
+        BitSet bitset = new BitSet();
+        for (String key : uniqueResources) {
+            String value = tagValues.get(key);
+            if (value != null) {
+                bitset.set(Integer.parseInt(value));
+            }
+        }
+        return bitsetPaths.get(bitset);
+    }
+
+    private String oldExpand(String path, List<String[]> pathTokens) {
+        for (String[] token : pathTokens) {
+            if (token.length == 3) {
+                path = path.replace(token[0] + "/{" + token[1] + "}/{" + token[2] + "}",
+                        token[0] + "/value1/value2");
+            } else {
+                path = path.replace(token[0] + "/{" + token[1] + "}", token[0] + "/value");
+            }
+        }
+        return path;
+    }
+
+    private String newExpand(AAIPathTable.PathTemplate template, List<String[]> pathTokens) {
+        AAIPathTable.Expansion expansion = template.expand();
+        for (String[] token : pathTokens) {
+            if (token.length == 3) {
+                expansion.replace(token[0], token[1], token[2], token[0] + "/value1/value2");
+            } else {
+                expansion.replace(token[0], token[1], token[0] + "/value");
+            }
+        }
+        return expansion.toString();
+    }
+
+    void round(int passes) {
+        int count = passes * keys.size();
+
+        long start = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            for (Set<String> key : keys) {
+                sink += oldLookup(key).length();
+            }
+        }
+        long oldLookup = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            for (Set<String> key : keys) {
+                sink += table.getPath(key).getPath().length();
+            }
+        }
+        long newLookup = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            for (int i = 0; i < keys.size(); i++) {
+                sink += oldExpand(table.getPath(keys.get(i)).getPath(), tokens.get(i)).length();
+            }
+        }
+        long oldExpand = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            for (int i = 0; i < keys.size(); i++) {
+                sink += newExpand(table.getPath(keys.get(i)), tokens.get(i)).length();
+            }
+        }
+        long newExpand = System.nanoTime() - start;
+
+        System.out.printf("lookup: %.0f -> %.0f ns, substitution: %.0f -> %.0f ns%n",
+                (double) oldLookup / count, (double) newLookup / count,
+                (double) oldExpand / count, (double) newExpand / count);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int passes = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(AAIService.class.getResourceAsStream(AAIService.PATH_PROPERTIES),
+                StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        AAIPathTableBenchmark benchmark = new AAIPathTableBenchmark(properties);
+        System.out.printf("%d catalog paths, %d passes%n", properties.size(), passes);
+        for (int round = 0; round < rounds; round++) {
+            benchmark.round(passes);
+        }
+        if (benchmark.sink == 0) {
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AAIPathTableTest {
+
+    private static Properties properties;
+    private static AAIPathTable table;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        properties = new Properties();
+        try (Reader reader = new InputStreamReader(AAIService.class.getResourceAsStream(AAIService.PATH_PROPERTIES),
+                StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        table = new AAIPathTable(properties);
+    }
+
+    @Test
+    public void testAllPaths() {
+        assertEquals(properties.size(), table.size());
+        for (String key : properties.stringPropertyNames()) {
+            List<String> resources = Arrays.asList(key.split("\\|"));
+            assertEquals(key, properties.getProperty(key), table.getPath(resources).getPath());
+            assertTrue(table.getResourceNames().containsAll(resources));
+        }
+    }
+
+    @Test
+    public void testLookup() {
+        assertEquals("/aai/v25/network/generic-vnfs/generic-vnf/{vnf-id}/vf-modules/vf-module/{vf-module-id}",
+                table.getPath(Arrays.asList("vf-module", "generic-vnf", "unknown")).getPath());
+        assertNull(table.getPath(Arrays.asList("vf-module")));
+        assertNull(AAIPathTable.empty().getPath(Arrays.asList("generic-vnf")));
+    }
+
+    /**
+     * Replacing every token of every path gives the same result as
+     * String.replace.
+     */
+    @Test
+    public void testExpansion() {
+        for (String key : properties.stringPropertyNames()) {
+            String path = properties.getProperty(key);
+            AAIPathTable.PathTemplate template = table.getPath(Arrays.asList(key.split("\\|")));
+            AAIPathTable.Expansion expansion = template.expand();
+            String expected = path;
+
+            for (String variable : template.getVariables()) {
+                int index = expected.indexOf("/{" + variable + "}");
+                if (index < 0) {
+                    continue;
+                }
+                String resource = expected.substring(expected.lastIndexOf('/', index - 1) + 1, index);
+                String value = resource + "/" + variable.toUpperCase();
+                int next = index + variable.length() + 3;
+                if (expected.startsWith("/{", next)) {
+                    String second = expected.substring(next + 2, expected.indexOf('}', next));
+                    value = value + "/" + second.toUpperCase();
+                    assertTrue(path, expansion.replace(resource, variable, second, value));
+                    expected = expected.replace(resource + "/{" + variable + "}/{" + second + "}", value);
+                } else {
+                    assertTrue(path, expansion.replace(resource, variable, value));
+                    expected = expected.replace(resource + "/{" + variable + "}", value);
+                }
+            }
+            assertEquals(expected, expansion.toString());
+            assertFalse(expected.contains("{"));
+        }
+    }
+
+    @Test
+    public void testPartialExpansion() {
+        AAIPathTable.PathTemplate template = table.getPath(Arrays.asList("cloud-region", "tenant", "vserver"));
+        assertEquals(Arrays.asList("cloud-owner", "cloud-region-id", "tenant-id", "vserver-id"), template.getVariables());
+
+        AAIPathTable.Expansion expansion = template.expand();
+        assertFalse(expansion.replace("tenant", "vserver-id", "tenant/x"));
+        assertFalse(expansion.replace("cloud-region", "cloud-owner", "tenant-id", "cloud-region/x/y"));
+        assertTrue(expansion.replace("vserver", "vserver-id", "vserver"));
+        assertTrue(expansion.replace("tenant", "tenant-id", "tenant/t%201"));
+        assertFalse(expansion.replace("tenant", "tenant-id", "tenant/t2"));
+        assertEquals("/aai/v25/cloud-infrastructure/cloud-regions/cloud-region/{cloud-owner}/{cloud-region-id}"
+                + "/tenants/tenant/t%201/vservers/vserver", expansion.toString());
+
+        // The template is not changed
+        assertEquals(template.getPath(), template.expand().toString());
+    }
+}
@@ -0,0 +1,201 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.sli.SvcLogicResource.QueryStatus;
+
+public class AAIResponseWriterTest {
+
+    @BeforeClass
+    public static void setUp() {
+        // Loads the resource names used to retrofit relationship data
+        new AAIService(AAIService.class.getResource(AAIService.AAICLIENT_PROPERTIES));
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        URL resource = AAIResponseWriterTest.class.getClassLoader().getResource("json/pserverJson.txt");
+        String json = new String(Files.readAllBytes(Paths.get(resource.toURI())), StandardCharsets.UTF_8);
+
+        SvcLogicContext ctx = new SvcLogicContext();
+        assertTrue(AAIResponseWriter.write(json, "pserver", null, ctx));
+        assertEquals("chcil129snd", ctx.getAttribute("pserver.hostname"));
+        assertEquals("false", ctx.getAttribute("pserver.in-maint"));
+        assertEquals("1", ctx.getAttribute("pserver.relationship-list.relationship_length"));
+        assertEquals("complex", ctx.getAttribute("pserver.relationship-list.relationship[0].related-to"));
+        assertEquals("CHCGILCL73W",
+                ctx.getAttribute("pserver.relationship-list.relationship[0].relationship-data[0].relationship-value"));
+        assertEquals("p6p2-6/2", ctx.getAttribute("pserver.p-interfaces.p-interface[0].interface-name"));
+        assertEquals("physical-link",
+                ctx.getAttribute("pserver.p-interfaces.p-interface[0].relationship-list.relationship[0].related-to"));
+    }
+
+    @Test
+    public void testValues() throws Exception {
+        String json = "{\"name\":\"a\",\"empty\":\"\",\"none\":null,\"count\":12,\"ratio\":0.5,\"flag\":true,"
+                + "\"names\":[\"x\",\"y\"],\"nested\":[[1]],\"none-list\":[],"
+                + "\"items\":{\"item\":[{\"id\":\"1\",\"sub\":{\"value\":\"v\"}},{\"id\":\"2\"}]}}";
+
+        SvcLogicContext ctx = new SvcLogicContext();
+        assertTrue(AAIResponseWriter.write(json, "obj", null, ctx));
+        assertEquals("a", ctx.getAttribute("obj.name"));
+        assertNull(ctx.getAttribute("obj.empty"));
+        assertNull(ctx.getAttribute("obj.none"));
+        assertEquals("12", ctx.getAttribute("obj.count"));
+        assertNull(ctx.getAttribute("obj.ratio"));
+        assertEquals("true", ctx.getAttribute("obj.flag"));
+        assertEquals("y", ctx.getAttribute("obj.names"));
+        assertEquals("2", ctx.getAttribute("obj.names_length"));
+        assertEquals("1", ctx.getAttribute("obj.nested_length"));
+        assertNull(ctx.getAttribute("obj.none-list_length"));
+        assertEquals("2", ctx.getAttribute("obj.items.item_length"));
+        assertEquals("v", ctx.getAttribute("obj.items.item[0].sub.value"));
+        assertEquals("2", ctx.getAttribute("obj.items.item[1].id"));
+
+        // Without a prefix, only the top level values are written without one
+        ctx = new SvcLogicContext();
+        assertTrue(AAIResponseWriter.write("{\"name\":\"a\",\"sub\":{\"value\":\"v\"}}", null, null, ctx));
+        assertEquals("a", ctx.getAttribute("name"));
+        assertEquals("v", ctx.getAttribute("null.sub.value"));
+
+        ctx = new SvcLogicContext();
+        assertFalse(AAIResponseWriter.write("null", "obj", null, ctx));
+        try {
+            AAIResponseWriter.write("[{\"name\":\"a\"}]", "obj", null, ctx);
+            fail("Not an object");
+        } catch (IOException exc) {
+            // The typed model fails on it as well
+        }
+        assertTrue(ctx.getAttributeKeySet().isEmpty());
+    }
+
+    @Test
+    public void testRelationships() throws Exception {
+        String json = "{\"vnf-id\":\"vnf1\",\"relationship-list\":{\"relationship\":["
+                + "{\"related-to\":\"vserver\",\"related-link\":\"/aai/v25/cloud-infrastructure/cloud-regions/"
+                + "cloud-region/owner/region/tenants/tenant/t1/vservers/vserver/vs1\",\"relationship-data\":["
+                + "{\"relationship-key\":\"vserver.vserver-id\",\"relationship-value\":\"vs1\"}]},"
+                + "{\"related-to\":\"l3-network\",\"related-link\":\"/aai/v25/network/l3-networks/l3-network/net1\"},"
+                + "{\"related-to\":\"vserver\",\"related-link\":\"/aai/v25/cloud-infrastructure/cloud-regions/"
+                + "cloud-region/owner/region/tenants/tenant/t1/vservers/vserver/vs2\"}]}}";
+
+        SvcLogicContext ctx = new SvcLogicContext();
+        assertTrue(AAIResponseWriter.write(json, "vnf", null, ctx));
+        assertEquals("3", ctx.getAttribute("vnf.relationship-list.relationship_length"));
+        assertEquals("1", ctx.getAttribute("vnf.relationship-list.relationship[0].relationship-data_length"));
+        // Filled in from the related link
+        assertEquals("l3-network.network-id",
+                ctx.getAttribute("vnf.relationship-list.relationship[1].relationship-data[0].relationship-key"));
+        assertEquals("net1",
+                ctx.getAttribute("vnf.relationship-list.relationship[1].relationship-data[0].relationship-value"));
+
+        ctx = new SvcLogicContext();
+        assertTrue(AAIResponseWriter.write(json, "vnf", "vserver", ctx));
+        assertEquals("vnf1", ctx.getAttribute("vnf.vnf-id"));
+        assertEquals("2", ctx.getAttribute("vnf.relationship-list.relationship_length"));
+        assertEquals("vserver", ctx.getAttribute("vnf.relationship-list.relationship[1].related-to"));
+        assertTrue(ctx.getAttribute("vnf.relationship-list.relationship[1].related-link").endsWith("/vs2"));
+    }
+
+    private static AAIService createService(ResponseExecutor executor) {
+        Properties properties = new Properties();
+        properties.setProperty("org.onap.ccsdk.sli.adaptors.aai.uri", "http://localhost:8181");
+        AAIService service = new AAIService(properties);
+        service.setExecutor(executor);
+        return service;
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        ResponseExecutor executor = new ResponseExecutor();
+        AAIService service = createService(executor);
+
+        SvcLogicContext ctx = new SvcLogicContext();
+        executor.response = "{\"vnf-id\":\"vnf1\",\"in-maint\":false}";
+        assertEquals(QueryStatus.SUCCESS, service.query("generic-vnf", false, null, "generic-vnf.vnf-id = 'vnf1'", "vnf", null, ctx));
+        assertEquals("vnf1", ctx.getAttribute("vnf.vnf-id"));
+        assertEquals("false", ctx.getAttribute("vnf.in-maint"));
+
+        executor.response = "null";
+        assertEquals(QueryStatus.NOT_FOUND, service.query("generic-vnf", false, null, "generic-vnf.vnf-id = 'vnf1'", "none", null, ctx));
+
+        // A body that is not an object fails the way it did with the typed model
+        executor.response = "[]";
+        assertEquals(QueryStatus.FAILURE, service.query("generic-vnf", false, null, "generic-vnf.vnf-id = 'vnf1'", "list", null, ctx));
+        assertNotNull(ctx.getAttribute("list.error.message"));
+    }
+
+    /**
+     * Relationship lists are not objects of the model and still go through
+     * the typed model.
+     */
+    @Test
+    public void testQueryRelationshipList() throws Exception {
+        ResponseExecutor executor = new ResponseExecutor();
+        AAIService service = createService(executor);
+        executor.response = "{\"relationship\":["
+                + "{\"related-to\":\"vserver\",\"related-link\":\"/aai/v25/cloud-infrastructure/cloud-regions/"
+                + "cloud-region/owner/region/tenants/tenant/t1/vservers/vserver/vs1\",\"relationship-data\":["
+                + "{\"relationship-key\":\"vserver.vserver-id\",\"relationship-value\":\"vs1\"}]},"
+                + "{\"related-to\":\"l3-network\",\"related-link\":\"/aai/v25/network/l3-networks/l3-network/net1\","
+                + "\"relationship-data\":[{\"relationship-key\":\"l3-network.network-id\",\"relationship-value\":\"net1\"}]}]}";
+
+        SvcLogicContext ctx = new SvcLogicContext();
+        assertEquals(QueryStatus.SUCCESS,
+                service.query("generic-vnf:relationship-list", false, null, "generic-vnf.vnf-id = 'vnf1'", "rl", null, ctx));
+        assertTrue(executor.request instanceof RelationshipListRequest);
+        assertEquals("2", ctx.getAttribute("rl.relationship_length"));
+        assertEquals("vserver", ctx.getAttribute("rl.relationship[0].related-to"));
+        assertEquals("vs1", ctx.getAttribute("rl.relationship[0].relationship-data[0].relationship-value"));
+        assertEquals("l3-network", ctx.getAttribute("rl.relationship[1].related-to"));
+        assertEquals("net1", ctx.getAttribute("rl.relationship[1].relationship-data[0].relationship-value"));
+    }
+
+    static class ResponseExecutor extends GenericVnfTest.TestExecutor {
+        private String response;
+        private AAIRequest request;
+
+        @Override
+        public String get(AAIRequest request) throws AAIServiceException {
+            this.request = request;
+            return response;
+        }
+    }
+}
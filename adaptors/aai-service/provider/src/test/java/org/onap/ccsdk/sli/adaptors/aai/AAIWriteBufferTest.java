@@ -0,0 +1,295 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.inventory.v25.GenericVnf;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.sli.SvcLogicResource.QueryStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+
+public class AAIWriteBufferTest {
+
+    private static final String ERROR = "{\"requestError\":{\"serviceException\":{\"messageId\":\"SVC3000\","
+            + "\"text\":\"Invalid input performing %1\",\"variables\":[\"PUT\"]}}}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private HttpServer server;
+    private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+    // The operations of each bulk transaction received
+    private final List<JsonNode> transactions = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean failBulk = false;
+    private AAIService service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            received.add(exchange.getRequestMethod() + " " + path);
+            byte[] request = readAll(exchange.getRequestBody());
+
+            int code;
+            String body = null;
+            if(path.endsWith("/bulk/single-transaction")) {
+                if(failBulk) {
+                    code = 400;
+                    body = ERROR;
+                } else {
+                    JsonNode operations = mapper.readTree(request).get("operations");
+                    transactions.add(operations);
+                    // One response per operation, the way A&AI answers
+                    ArrayNode responses = mapper.createArrayNode();
+                    for(JsonNode operation : operations) {
+                        ObjectNode response = responses.addObject();
+                        response.put("action", operation.get("action").asText());
+                        response.put("uri", operation.get("uri").asText());
+                        response.put("response-status-code", "delete".equals(operation.get("action").asText()) ? 204 : 201);
+                        response.putNull("response-body");
+                    }
+                    code = 201;
+                    body = mapper.createObjectNode().set("operation-responses", responses).toString();
+                }
+            } else if(path.endsWith("/missing")) {
+                code = 404;
+                body = ERROR;
+            } else if("DELETE".equals(exchange.getRequestMethod())) {
+                code = 204;
+            } else if("GET".equals(exchange.getRequestMethod())) {
+                code = 200;
+                body = mapper.createObjectNode()
+                        .put("vnf-id", path.substring(path.lastIndexOf('/') + 1))
+                        .put("resource-version", "5").toString();
+            } else {
+                code = 200;
+                body = "{}";
+            }
+
+            if(body == null) {
+                exchange.sendResponseHeaders(code, -1);
+            } else {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(code, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            }
+            exchange.close();
+        });
+        server.start();
+
+        Properties properties = new Properties();
+        properties.setProperty("org.onap.ccsdk.sli.adaptors.aai.uri", "http://localhost:" + server.getAddress().getPort());
+        properties.setProperty(AAIService.CLIENT_TRANSPORT, "pooled");
+        properties.setProperty(AAIService.WRITE_BUFFER_MAX_OPERATIONS, "2");
+        service = new AAIService(properties);
+    }
+
+    @After
+    public void tearDown() {
+        service.cleanUp();
+        server.stop(0);
+    }
+
+    private static byte[] readAll(InputStream in) throws java.io.IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while((count = in.read(buffer)) > 0) {
+            out.write(buffer, 0, count);
+        }
+        in.close();
+        return out.toByteArray();
+    }
+
+    private AAIRequest createRequest(String vnfId) {
+        Map<String, String> nameValues = new HashMap<>();
+        nameValues.put("generic_vnf.vnf_id", vnfId);
+        AAIRequest request = AAIRequest.createRequest("generic-vnf", nameValues);
+        request.processRequestPathValues(nameValues);
+        return request;
+    }
+
+    private AAIWriteBuffer bufferWrites(SvcLogicContext ctx) throws Exception {
+        assertEquals(QueryStatus.SUCCESS, service.notify(AAIWriteBuffer.RESOURCE, "begin", "'writes'", ctx));
+        AAIWriteBuffer buffer = AAIWriteBuffer.get(ctx);
+        assertNotNull(buffer);
+
+        AAIRequest put = createRequest("vnf1");
+        GenericVnf vnf = new GenericVnf();
+        vnf.setVnfId("vnf1");
+        vnf.setVnfName("name1");
+        put.setRequestObject(vnf);
+        buffer.put("generic-vnf", put);
+
+        Map<String, String> params = new HashMap<>();
+        params.put("orchestration-status", "Active");
+        buffer.patch("generic-vnf", new UpdateRequest(createRequest("vnf2"), params), "2");
+        buffer.delete("generic-vnf", createRequest("missing"), "3");
+        assertEquals(3, buffer.size());
+        return buffer;
+    }
+
+    @Test
+    public void testFlush() throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        assertEquals(QueryStatus.NOT_FOUND, service.notify(AAIWriteBuffer.RESOURCE, "flush", null, ctx));
+        bufferWrites(ctx);
+        assertTrue(received.isEmpty());
+
+        assertEquals(QueryStatus.SUCCESS, service.notify(AAIWriteBuffer.RESOURCE, "flush", null, ctx));
+        // Two transactions of at most two writes
+        assertEquals(2, received.size());
+        assertTrue(received.get(0).startsWith("POST ") && received.get(0).endsWith("/bulk/single-transaction"));
+        assertEquals("success", ctx.getAttribute("writes.status"));
+        assertEquals("3", ctx.getAttribute("writes.operation_length"));
+        assertEquals("put", ctx.getAttribute("writes.operation[0].action"));
+        assertTrue(ctx.getAttribute("writes.operation[0].uri").endsWith("/generic-vnf/vnf1"));
+        assertEquals("bulk", ctx.getAttribute("writes.operation[0].sent"));
+        assertEquals("201", ctx.getAttribute("writes.operation[0].response-code"));
+        assertEquals("patch", ctx.getAttribute("writes.operation[1].action"));
+        assertEquals("204", ctx.getAttribute("writes.operation[2].response-code"));
+        assertEquals("success", ctx.getAttribute("writes.operation[2].status"));
+
+        // The whole object is put, without an empty orchestration status
+        assertEquals(2, transactions.size());
+        JsonNode put = transactions.get(0).get(0);
+        assertEquals("put", put.get("action").asText());
+        assertFalse(put.get("uri").asText().contains("?"));
+        assertEquals("vnf1", put.get("body").get("vnf-id").asText());
+        assertEquals("name1", put.get("body").get("vnf-name").asText());
+        assertFalse(put.get("body").has("orchestration-status"));
+        assertFalse(put.get("body").has("resource-version"));
+        // The resource version goes in the body instead of the uri
+        JsonNode patch = transactions.get(0).get(1);
+        assertEquals("patch", patch.get("action").asText());
+        assertFalse(patch.get("uri").asText().contains("?"));
+        assertEquals("Active", patch.get("body").get("orchestration-status").asText());
+        assertEquals("2", patch.get("body").get("resource-version").asText());
+        JsonNode delete = transactions.get(1).get(0);
+        assertEquals("delete", delete.get("action").asText());
+        assertTrue(delete.get("uri").asText().endsWith("/generic-vnf/missing"));
+        assertEquals(1, delete.get("body").size());
+        assertEquals("3", delete.get("body").get("resource-version").asText());
+
+        // Nothing left to send
+        assertEquals(QueryStatus.SUCCESS, service.notify(AAIWriteBuffer.RESOURCE, "flush", null, ctx));
+        assertEquals(2, received.size());
+        assertEquals("0", ctx.getAttribute("writes.operation_length"));
+        assertNull(ctx.getAttribute("writes.operation[0].action"));
+    }
+
+    @Test
+    public void testServiceWrites() throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        assertEquals(QueryStatus.SUCCESS, service.notify(AAIWriteBuffer.RESOURCE, "begin", "'writes'", ctx));
+        // The writes are already buffered under another prefix
+        assertEquals(QueryStatus.SUCCESS, service.notify(AAIWriteBuffer.RESOURCE, "begin", "'other'", ctx));
+        assertEquals("writes", AAIWriteBuffer.get(ctx).getPrefix());
+
+        Map<String, String> params = new HashMap<>();
+        params.put("vnf-name", "name3");
+        params.put("vnf-type", "type3");
+        assertEquals(QueryStatus.SUCCESS, service.save("generic-vnf", false, false, "generic-vnf.vnf-id = 'vnf3'", params, "vnf", ctx));
+        assertTrue(received.isEmpty());
+
+        params = new HashMap<>();
+        params.put("orchestration-status", "Active");
+        assertEquals(QueryStatus.SUCCESS, service.update("generic-vnf", "generic-vnf.vnf-id = 'vnf4'", params, "vnf", ctx));
+        // Only the resource version was read
+        assertEquals(1, received.size());
+        assertTrue(received.get(0).startsWith("GET ") && received.get(0).endsWith("/generic-vnf/vnf4"));
+        assertEquals(2, AAIWriteBuffer.get(ctx).size());
+
+        assertEquals(QueryStatus.SUCCESS, service.notify(AAIWriteBuffer.RESOURCE, "flush", null, ctx));
+        assertEquals(2, received.size());
+        assertEquals(1, transactions.size());
+        JsonNode put = transactions.get(0).get(0);
+        assertEquals("put", put.get("action").asText());
+        assertTrue(put.get("uri").asText().endsWith("/generic-vnf/vnf3"));
+        assertEquals("vnf3", put.get("body").get("vnf-id").asText());
+        assertEquals("name3", put.get("body").get("vnf-name").asText());
+        assertEquals("type3", put.get("body").get("vnf-type").asText());
+        assertFalse(put.get("body").has("orchestration-status"));
+        JsonNode patch = transactions.get(0).get(1);
+        assertEquals("patch", patch.get("action").asText());
+        assertTrue(patch.get("uri").asText().endsWith("/generic-vnf/vnf4"));
+        assertEquals("Active", patch.get("body").get("orchestration-status").asText());
+        assertEquals("5", patch.get("body").get("resource-version").asText());
+        assertEquals("success", ctx.getAttribute("writes.status"));
+        assertEquals("2", ctx.getAttribute("writes.operation_length"));
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        failBulk = true;
+        SvcLogicContext ctx = new SvcLogicContext();
+        AAIWriteBuffer buffer = bufferWrites(ctx);
+
+        assertTrue(!buffer.flush(ctx));
+        // Both transactions failed, and their writes were sent one at a time
+        assertEquals(5, received.size());
+        assertTrue(received.get(1).startsWith("PUT ") && received.get(1).endsWith("/generic-vnf/vnf1"));
+        assertTrue(received.get(2).startsWith("PATCH ") && received.get(2).endsWith("/generic-vnf/vnf2"));
+        assertTrue(received.get(4).startsWith("DELETE ") && received.get(4).endsWith("/generic-vnf/missing"));
+        assertEquals("failure", ctx.getAttribute("writes.status"));
+        assertEquals("single", ctx.getAttribute("writes.operation[0].sent"));
+        assertEquals("success", ctx.getAttribute("writes.operation[0].status"));
+        assertEquals("success", ctx.getAttribute("writes.operation[1].status"));
+        assertEquals("not-found", ctx.getAttribute("writes.operation[2].status"));
+    }
+
+    @Test
+    public void testGraphEnd() throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        ctx.enterGraph();
+        bufferWrites(ctx);
+        assertTrue(received.isEmpty());
+
+        ctx.exitGraph();
+        assertEquals(2, received.size());
+        assertEquals("3", ctx.getAttribute("writes.operation_length"));
+        assertNull(AAIWriteBuffer.get(ctx));
+    }
+}
@@ -0,0 +1,217 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *                         reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.aai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Test;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.sli.SvcLogicResource.QueryStatus;
+import org.onap.logging.ref.slf4j.ONAPLogConstants;
+import org.slf4j.MDC;
+
+public class CachingAAIExecutorTest {
+
+    private static final String VNF_KEY = "generic-vnf.vnf-id = 'vnf1'";
+
+    private CountingExecutor counter = new CountingExecutor();
+
+    @After
+    public void tearDown() {
+        MDC.remove(ONAPLogConstants.MDCs.REQUEST_ID);
+    }
+
+    private AAIService createService(String size, String ttl, String scope) {
+        Properties properties = new Properties();
+        properties.setProperty("org.onap.ccsdk.sli.adaptors.aai.uri", "http://localhost:8181");
+        properties.setProperty(AAIService.RESPONSE_CACHE_SIZE, size);
+        properties.setProperty(AAIService.RESPONSE_CACHE_TTL, ttl);
+        properties.setProperty(AAIService.RESPONSE_CACHE_SCOPE, scope);
+        AAIService service = new AAIService(properties);
+        service.setExecutor(counter);
+        return service;
+    }
+
+    private QueryStatus queryVnf(AAIService service, String key) throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        QueryStatus status = service.query("generic-vnf", false, null, key, "vnf", null, ctx);
+        assertEquals("1520720941585", ctx.getAttribute("vnf.resource-version"));
+        return status;
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        AAIService service = createService("0", "30000", "global");
+        assertNull(service.getResponseCache());
+        queryVnf(service, VNF_KEY);
+        queryVnf(service, VNF_KEY);
+        assertEquals(2, counter.getCount);
+    }
+
+    @Test
+    public void testHitsAndInvalidation() throws Exception {
+        AAIService service = createService("100", "30000", "global");
+        CachingAAIExecutor cache = service.getResponseCache();
+        assertNotNull(cache);
+
+        assertEquals(QueryStatus.SUCCESS, queryVnf(service, VNF_KEY));
+        assertEquals(QueryStatus.SUCCESS, queryVnf(service, VNF_KEY));
+        assertEquals(1, counter.getCount);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // A different depth is a different response
+        queryVnf(service, VNF_KEY + " AND depth = 'all'");
+        assertEquals(2, counter.getCount);
+        assertEquals(2, cache.getSize());
+
+        // Writing to a child drops the cached parents
+        Map<String, String> nameValues = new HashMap<>();
+        nameValues.put("generic_vnf.vnf_id", "vnf1");
+        nameValues.put("vf_module.vf_module_id", "module1");
+        AAIRequest request = AAIRequest.createRequest("vf-module", nameValues);
+        request.processRequestPathValues(nameValues);
+        cache.patch(request, "1");
+        assertEquals(0, cache.getSize());
+        assertEquals(2, cache.getInvalidationCount());
+
+        queryVnf(service, VNF_KEY);
+        assertEquals(3, counter.getCount);
+
+        // Writing to another object does not
+        nameValues.put("generic_vnf.vnf_id", "vnf2");
+        request = AAIRequest.createRequest("vf-module", nameValues);
+        request.processRequestPathValues(nameValues);
+        cache.delete(request, "1");
+        queryVnf(service, VNF_KEY);
+        assertEquals(3, counter.getCount);
+
+        // Updates through the adaptor go through the cache as well
+        Map<String, String> params = new HashMap<>();
+        params.put("orchestration-status", "active");
+        assertEquals(QueryStatus.SUCCESS, service.update("generic-vnf", VNF_KEY, params, "vnf", new SvcLogicContext()));
+        assertEquals(1, counter.patchCount);
+        queryVnf(service, VNF_KEY);
+        assertEquals(4, counter.getCount);
+
+        cache.bulkUpdate(new BulkUpdateRequest());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        AAIService service = createService("100", "0", "global");
+        queryVnf(service, VNF_KEY);
+        queryVnf(service, VNF_KEY);
+        assertEquals(2, counter.getCount);
+        assertEquals(0, service.getResponseCache().getHitCount());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        AAIService service = createService("2", "30000", "global");
+        for (int i = 0; i < 4; i++) {
+            queryVnf(service, "generic-vnf.vnf-id = 'vnf" + i + "'");
+        }
+        assertEquals(2, service.getResponseCache().getSize());
+        assertEquals(2, service.getResponseCache().getEvictionCount());
+        queryVnf(service, "generic-vnf.vnf-id = 'vnf3'");
+        assertEquals(4, counter.getCount);
+    }
+
+    @Test
+    public void testRequestScope() throws Exception {
+        AAIService service = createService("100", "30000", "request");
+
+        // Not cached without a request id
+        queryVnf(service, VNF_KEY);
+        queryVnf(service, VNF_KEY);
+        assertEquals(2, counter.getCount);
+
+        MDC.put(ONAPLogConstants.MDCs.REQUEST_ID, "request1");
+        queryVnf(service, VNF_KEY);
+        queryVnf(service, VNF_KEY);
+        assertEquals(3, counter.getCount);
+
+        MDC.put(ONAPLogConstants.MDCs.REQUEST_ID, "request2");
+        queryVnf(service, VNF_KEY);
+        assertEquals(4, counter.getCount);
+    }
+
+    @Test
+    public void testStaleResourceVersion() throws Exception {
+        AAIService service = createService("100", "30000", "global");
+        queryVnf(service, VNF_KEY);
+
+        // The first write is rejected as the object changed behind the cache
+        counter.failNextWrite = true;
+        assertEquals(QueryStatus.SUCCESS, service.delete("generic-vnf", VNF_KEY, new SvcLogicContext()));
+        assertEquals(2, counter.deleteCount);
+        assertEquals(2, counter.getCount);
+
+        // Without a cache, the failure is returned as is
+        service = createService("0", "30000", "global");
+        counter.failNextWrite = true;
+        assertEquals(QueryStatus.FAILURE, service.delete("generic-vnf", VNF_KEY, new SvcLogicContext()));
+    }
+
+    static class CountingExecutor extends GenericVnfTest.TestExecutor {
+        private int getCount = 0;
+        private int patchCount = 0;
+        private int deleteCount = 0;
+        private boolean failNextWrite = false;
+
+        @Override
+        public String get(AAIRequest request) throws AAIServiceException {
+            getCount++;
+            return super.get(request);
+        }
+
+        @Override
+        public Boolean patch(AAIRequest request, String resourceVersion) throws AAIServiceException {
+            patchCount++;
+            checkWrite();
+            return super.patch(request, resourceVersion);
+        }
+
+        @Override
+        public Boolean delete(AAIRequest request, String resourceVersion) throws AAIServiceException {
+            deleteCount++;
+            checkWrite();
+            return super.delete(request, resourceVersion);
+        }
+
+        private void checkWrite() throws AAIServiceException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                throw new AAIServiceException(412, null);
+            }
+        }
+    }
+}
@@ -29,15 +29,19 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.function.BiConsumer;
 
 import javax.sql.rowset.CachedRowSet;
 
 import org.apache.commons.lang3.StringUtils;
 import org.onap.ccsdk.sli.core.dblib.DBResourceManager;
 import org.onap.ccsdk.sli.core.dblib.DbLibService;
+import org.onap.ccsdk.sli.core.dblib.RowHandler;
 import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
 import org.onap.ccsdk.sli.core.sli.SvcLogicException;
 import org.onap.ccsdk.sli.core.sli.SvcLogicJavaPlugin;
@@ -59,10 +63,15 @@ public class SqlResource implements SvcLogicResource, SvcLogicJavaPlugin {
 
     private static final String DBLIB_SERVICE = "org.onap.ccsdk.sli.core.dblib.DbLibService";
 
+    private static final String FETCH_SIZE_PROP = "org.onap.sdnc.resource.sql.fetchsize";
+
     private static String CRYPT_KEY = "QtfJMKggVk";
 
     DbLibService dblibSvc = null;
 
+    // Fetch size hint for queries saved to context as arrays, 0 for driver default
+    private int fetchSize = 0;
+
     public SqlResource() {
         this(new SqlResourcePropertiesProviderImpl(), null);
     }
@@ -84,6 +93,7 @@ public class SqlResource implements SvcLogicResource, SvcLogicJavaPlugin {
         }
 
         SqlResource.setCryptKey(cryptKey);
+        setFetchSize(properties);
     }
 
     @Reference
@@ -105,6 +115,7 @@ public class SqlResource implements SvcLogicResource, SvcLogicJavaPlugin {
         }
 
         SqlResource.setCryptKey(cryptKey);
+        setFetchSize(properties);
     }
 
     // For sql-resource, is-available is the same as exists
@@ -162,15 +173,11 @@ public class SqlResource implements SvcLogicResource, SvcLogicJavaPlugin {
 
         try {
 
-            CachedRowSet results = dblibSvc.getData(sqlQuery, null, null);
-
             QueryStatus retval = QueryStatus.SUCCESS;
 
-            if (!results.next()) {
+            if (saveQueryResultsToCtx(sqlQuery, null, ctx, prefix, dblibSvc) == 0) {
                 retval = QueryStatus.NOT_FOUND;
                 LOG.debug("No data found");
-            } else {
-                saveCachedRowSetToCtx(results, ctx, prefix, dblibSvc);
             }
             return (retval);
         } catch (Exception e) {
@@ -187,49 +194,136 @@ public class SqlResource implements SvcLogicResource, SvcLogicJavaPlugin {
                 String pfx = prefix.substring(0, prefix.length() - 2);
                 int idx = 0;
                 do {
-                    ResultSetMetaData rsMeta = results.getMetaData();
-                    int numCols = rsMeta.getColumnCount();
-
-                    for (int i = 0; i < numCols; i++) {
-                        String colValue = null;
-                        String tableName = rsMeta.getTableName(i + 1);
-                        if (rsMeta.getColumnType(i + 1) == java.sql.Types.VARBINARY) {
-                            colValue = decryptColumn(tableName, rsMeta.getColumnName(i + 1), results.getBytes(i + 1),
-                                    dblibSvc);
-                        } else {
-                            colValue = results.getString(i + 1);
-                        }
-                        LOG.debug("Setting " + pfx + "[" + idx + "]."
-                                + rsMeta.getColumnLabel(i + 1).replaceAll("_", "-") + " = " + colValue);
-                        ctx.setAttribute(pfx + "[" + idx + "]." + rsMeta.getColumnLabel(i + 1).replaceAll("_", "-"),
-                                colValue);
-                    }
+                    saveRowToCtx(results, ctx::setAttribute, pfx, idx, dblibSvc, null);
                     idx++;
                 } while (results.next());
                 LOG.debug("Setting " + pfx + "_length = " + idx);
                 ctx.setAttribute(pfx + "_length", "" + idx);
             } else {
-                ResultSetMetaData rsMeta = results.getMetaData();
-                int numCols = rsMeta.getColumnCount();
-
-                for (int i = 0; i < numCols; i++) {
-                    String colValue = null;
-                    String tableName = rsMeta.getTableName(i + 1);
-                    if ("VARBINARY".equalsIgnoreCase(rsMeta.getColumnTypeName(i + 1))) {
-                        colValue = decryptColumn(tableName, rsMeta.getColumnName(i + 1), results.getBytes(i + 1),
-                                dblibSvc);
-                    } else {
-                        colValue = results.getString(i + 1);
-                    }
-                    if (prefix != null) {
-                        LOG.debug("Setting " + prefix + "." + rsMeta.getColumnLabel(i + 1).replaceAll("_", "-") + " = "
-                                + colValue);
-                        ctx.setAttribute(prefix + "." + rsMeta.getColumnLabel(i + 1).replaceAll("_", "-"), colValue);
-                    } else {
-                        LOG.debug("Setting " + rsMeta.getColumnLabel(i + 1).replaceAll("_", "-") + " = " + colValue);
-                        ctx.setAttribute(rsMeta.getColumnLabel(i + 1).replaceAll("_", "-"), colValue);
-                    }
+                saveRowToCtx(results, ctx::setAttribute, prefix, -1, dblibSvc, null);
+            }
+        }
+    }
+
+    /**
+     * Runs a query and saves its results to ctx in the same way as
+     * saveCachedRowSetToCtx, but reading rows as they are saved rather than
+     * holding the whole result in a CachedRowSet. Unless prefix asks for an
+     * array, only the first row is read. Binary columns are decrypted once all
+     * rows have been read, as decrypting takes a connection of its own. Rows are
+     * copied to ctx only once the query has succeeded, so a query failing part
+     * way leaves ctx as it was.
+     *
+     * @return the number of rows read, 0 if the query returned no data
+     */
+    private int saveQueryResultsToCtx(String query, ArrayList<String> arguments, SvcLogicContext ctx,
+            String prefix, DbLibService dblibSvc) throws SQLException {
+        List<BinaryColumn> binaryColumns = new ArrayList<>();
+        // Null values are kept, so that they remove the attribute from ctx
+        Map<String, String> rows = new LinkedHashMap<>();
+        int numRows;
+        String lengthAttr = null;
+        if ((ctx == null) || (prefix == null) || !prefix.endsWith("[]")) {
+            numRows = dblibSvc.processData(query, arguments, null, 1, results -> {
+                if (ctx != null) {
+                    saveRowToCtx(results, rows::put, prefix, -1, dblibSvc, binaryColumns);
                 }
+                return false;
+            });
+        } else {
+            String pfx = prefix.substring(0, prefix.length() - 2);
+            RowHandler handler = new RowHandler() {
+                private int idx = 0;
+
+                @Override
+                public boolean handleRow(ResultSet results) throws SQLException {
+                    saveRowToCtx(results, rows::put, pfx, idx++, dblibSvc, binaryColumns);
+                    return true;
+                }
+            };
+            numRows = dblibSvc.processData(query, arguments, null, fetchSize, handler);
+            lengthAttr = pfx + "_length";
+        }
+
+        for (BinaryColumn column : binaryColumns) {
+            String colValue = decryptColumn(column.tableName, column.colName, column.value, dblibSvc);
+            LOG.debug("Setting " + column.attrName + " = " + colValue);
+            rows.put(column.attrName, colValue);
+        }
+        for (Entry<String, String> attr : rows.entrySet()) {
+            ctx.setAttribute(attr.getKey(), attr.getValue());
+        }
+        if (lengthAttr != null && numRows > 0) {
+            LOG.debug("Setting " + lengthAttr + " = " + numRows);
+            ctx.setAttribute(lengthAttr, "" + numRows);
+        }
+        return numRows;
+    }
+
+    /**
+     * Saves the current row of results through setAttribute, as element idx of
+     * the array pfx, or directly under pfx if idx is negative. Binary columns
+     * are added to binaryColumns to be decrypted later, or decrypted right away
+     * if binaryColumns is null.
+     */
+    private void saveRowToCtx(ResultSet results, BiConsumer<String, String> setAttribute, String pfx, int idx,
+            DbLibService dblibSvc, List<BinaryColumn> binaryColumns) throws SQLException {
+        ResultSetMetaData rsMeta = results.getMetaData();
+        int numCols = rsMeta.getColumnCount();
+
+        for (int i = 0; i < numCols; i++) {
+            String colName = rsMeta.getColumnLabel(i + 1).replaceAll("_", "-");
+            String attrName;
+            if (idx >= 0) {
+                attrName = pfx + "[" + idx + "]." + colName;
+            } else if (pfx != null) {
+                attrName = pfx + "." + colName;
+            } else {
+                attrName = colName;
+            }
+
+            String colValue = null;
+            String tableName = rsMeta.getTableName(i + 1);
+            boolean isBinary = (idx >= 0) ? (rsMeta.getColumnType(i + 1) == java.sql.Types.VARBINARY)
+                    : "VARBINARY".equalsIgnoreCase(rsMeta.getColumnTypeName(i + 1));
+            if (isBinary) {
+                if (binaryColumns != null) {
+                    binaryColumns.add(new BinaryColumn(attrName, tableName, rsMeta.getColumnName(i + 1),
+                            results.getBytes(i + 1)));
+                    continue;
+                }
+                colValue = decryptColumn(tableName, rsMeta.getColumnName(i + 1), results.getBytes(i + 1),
+                        dblibSvc);
+            } else {
+                colValue = results.getString(i + 1);
+            }
+            LOG.debug("Setting " + attrName + " = " + colValue);
+            setAttribute.accept(attrName, colValue);
+        }
+    }
+
+    // A binary column value read from a query, waiting to be decrypted
+    private static class BinaryColumn {
+        private final String attrName;
+        private final String tableName;
+        private final String colName;
+        private final byte[] value;
+
+        BinaryColumn(String attrName, String tableName, String colName, byte[] value) {
+            this.attrName = attrName;
+            this.tableName = tableName;
+            this.colName = colName;
+            this.value = value;
+        }
+    }
+
+    private void setFetchSize(Properties properties) {
+        String value = properties.getProperty(FETCH_SIZE_PROP);
+        if ((value != null) && (value.length() > 0)) {
+            try {
+                fetchSize = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOG.warn("Invalid value for " + FETCH_SIZE_PROP + ": " + value);
             }
         }
     }
@@ -549,11 +643,8 @@ public class SqlResource implements SvcLogicResource, SvcLogicJavaPlugin {
                     return "false";
                 }
             } else if (query.startsWith("select") || query.startsWith("SELECT")) {
-                CachedRowSet results = dblibSvc.getData(query, arguments, null);
-                if (!results.next()) {
+                if (saveQueryResultsToCtx(query, arguments, ctx, prefix, dblibSvc) == 0) {
                     return mapQueryStatus(QueryStatus.NOT_FOUND);
-                } else {
-                    saveCachedRowSetToCtx(results, ctx, prefix, dblibSvc);
                 }
             } else {
                 if (!dblibSvc.writeData(query, arguments, null)) {
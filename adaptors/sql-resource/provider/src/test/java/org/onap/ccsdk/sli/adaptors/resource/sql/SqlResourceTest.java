@@ -0,0 +1,145 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ *             reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.adaptors.resource.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.ccsdk.sli.core.dblib.DbLibService;
+import org.onap.ccsdk.sli.core.dblib.RowHandler;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.sli.SvcLogicResource.QueryStatus;
+
+public class SqlResourceTest {
+
+    private static final byte[] ENCRYPTED = {1, 2, 3};
+
+    private boolean reading = false;
+    private boolean failAfterFirstRow = false;
+    // For each connection taken to decrypt a column, whether a query was still reading rows
+    private final List<Boolean> decryptConnections = new ArrayList<>();
+    private SqlResource resource;
+
+    @Before
+    public void setUp() {
+        DbLibService dblibSvc = (DbLibService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {DbLibService.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "processData":
+                            return processData((RowHandler) args[4]);
+                        case "getConnection":
+                            decryptConnections.add(reading);
+                            throw new SQLException("No database");
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        resource = new SqlResource(Properties::new, dblibSvc);
+    }
+
+    private int processData(RowHandler handler) throws SQLException {
+        CachedRowSet results = RowSetProvider.newFactory().createCachedRowSet();
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(2);
+        metaData.setColumnName(1, "vnf_name");
+        metaData.setColumnLabel(1, "vnf_name");
+        metaData.setColumnType(1, Types.VARCHAR);
+        metaData.setColumnTypeName(1, "VARCHAR");
+        metaData.setColumnName(2, "password");
+        metaData.setColumnLabel(2, "password");
+        metaData.setColumnType(2, Types.VARBINARY);
+        metaData.setColumnTypeName(2, "VARBINARY");
+        results.setMetaData(metaData);
+        for (String name : Arrays.asList("vnf1", "vnf2")) {
+            results.moveToInsertRow();
+            results.updateString(1, name);
+            results.updateBytes(2, ENCRYPTED);
+            results.insertRow();
+        }
+        results.moveToCurrentRow();
+        results.beforeFirst();
+
+        reading = true;
+        try {
+            int count = 0;
+            while (results.next()) {
+                count++;
+                if (!handler.handleRow(results)) {
+                    break;
+                }
+                if (failAfterFirstRow) {
+                    throw new SQLException("Connection lost");
+                }
+            }
+            return count;
+        } finally {
+            reading = false;
+        }
+    }
+
+    @Test
+    public void testDecryptAfterReadingArray() throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        assertEquals(QueryStatus.SUCCESS, resource.query("SQL", false, null, "SELECT * FROM VNF", "vnf[]", null, ctx));
+
+        // Decrypting must not take a second connection while the query holds one
+        assertEquals(Arrays.asList(false, false), decryptConnections);
+        assertEquals("2", ctx.getAttribute("vnf_length"));
+        assertEquals("vnf2", ctx.getAttribute("vnf[1].vnf-name"));
+        // Decryption failed, so the raw value is kept
+        assertEquals(new String(ENCRYPTED, StandardCharsets.UTF_8), ctx.getAttribute("vnf[1].password"));
+    }
+
+    @Test
+    public void testDecryptAfterReadingRow() throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        assertEquals(QueryStatus.SUCCESS, resource.query("SQL", false, null, "SELECT * FROM VNF", "vnf", null, ctx));
+
+        assertEquals(Arrays.asList(false), decryptConnections);
+        assertEquals("vnf1", ctx.getAttribute("vnf.vnf-name"));
+        assertEquals(new String(ENCRYPTED, StandardCharsets.UTF_8), ctx.getAttribute("vnf.password"));
+    }
+
+    @Test
+    public void testFailedQueryLeavesNoRows() throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        ctx.setAttribute("vnf[0].vnf-name", "old");
+        failAfterFirstRow = true;
+        assertEquals(QueryStatus.FAILURE, resource.query("SQL", false, null, "SELECT * FROM VNF", "vnf[]", null, ctx));
+
+        assertEquals("old", ctx.getAttribute("vnf[0].vnf-name"));
+        assertNull(ctx.getAttribute("vnf[0].password"));
+        assertNull(ctx.getAttribute("vnf_length"));
+    }
+}
@@ -35,10 +35,17 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Observer;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.sql.DataSource;
 import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
 import javax.sql.rowset.RowSetProvider;
 
 import org.apache.tomcat.jdbc.pool.PoolExhaustedException;
@@ -89,6 +96,16 @@ public abstract class CachedDataSource implements DataSource, SQLExecutionMonito
 
     private boolean isDerby = false;
 
+    public static final long DEFAULT_ROLE_STALENESS = 30000L;
+
+    // Looked up on first use rather than for every query
+    private static volatile RowSetFactory rowSetFactory = null;
+
+    // Result of the last read_only probe, used by isSlaveCached
+    private volatile Boolean cachedSlave = null;
+    private volatile long roleProbeTime = 0L;
+    private long roleStaleness = DEFAULT_ROLE_STALENESS;
+
     public CachedDataSource(BaseDBConfiguration jdbcElem) throws DBConfigException {
         ds = configure(jdbcElem);
         index = initializeIndex(jdbcElem);
@@ -103,6 +120,14 @@ public abstract class CachedDataSource implements DataSource, SQLExecutionMonito
     protected abstract DataSource configure(BaseDBConfiguration jdbcElem) throws DBConfigException;
     protected abstract int getAvailableConnections();
 
+    /**
+     * Returns the number of connections of this data source that are in use,
+     * or 0 if that is not known.
+     */
+    protected int getActiveConnections() {
+        return 0;
+    }
+
     protected int initializeIndex(BaseDBConfiguration jdbcElem) {
         if(jdbcElem.containsKey(BaseDBConfiguration.DATABASE_HOSTS)) {
             String hosts = jdbcElem.getProperty(BaseDBConfiguration.DATABASE_HOSTS);
@@ -162,6 +187,145 @@ public abstract class CachedDataSource implements DataSource, SQLExecutionMonito
         }
     }
 
+    /**
+     * Runs a query and hands each row to handler while the statement is open,
+     * instead of copying the result into a CachedRowSet. The request stops
+     * being monitored once the query has returned, so the time taken by
+     * handler does not count against the expected completion time.
+     *
+     * @param fetchSize passed to Statement.setFetchSize, unless 0
+     * @return the number of rows handed to handler
+     */
+    public int processData(String statement, List<Object> arguments, int fetchSize, RowHandler handler)
+            throws SQLException {
+        TestObject testObject = monitor.registerRequest();
+        long time = System.currentTimeMillis();
+
+        try (Connection connection = this.getConnection()) {
+            if (connection == null) {
+                throw new SQLException("Connection invalid");
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Obtained connection <{}>: {}", connectionName, connection);
+            }
+            try (PreparedStatement ps = prepareQuery(connection, statement, arguments, fetchSize);
+                    ResultSet rs = ps.executeQuery()) {
+                monitor.deregisterRequest(testObject);
+                testObject = null;
+
+                int count = 0;
+                while (rs.next()) {
+                    count++;
+                    if (!handler.handleRow(rs)) {
+                        break;
+                    }
+                }
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("SQL SUCCESS. rows processed: {}, time(ms): {}", count,
+                            (System.currentTimeMillis() - time));
+                }
+                return count;
+            } catch (SQLException exc) {
+                handleSqlExceptionForExecuteStatement(connection, statement, arguments, exc, time);
+                throw exc;
+            }
+        } finally {
+            monitor.deregisterRequest(testObject);
+        }
+    }
+
+    /**
+     * Runs a query and returns its rows, read as the stream is consumed. The
+     * connection, statement and result set are closed when the stream is
+     * closed. An SQLException while reading rows is rethrown as an
+     * IllegalStateException.
+     *
+     * @param fetchSize passed to Statement.setFetchSize, unless 0
+     */
+    public Stream<Map<String, Object>> streamData(String statement, List<Object> arguments, int fetchSize)
+            throws SQLException {
+        TestObject testObject = monitor.registerRequest();
+        long time = System.currentTimeMillis();
+
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            connection = this.getConnection();
+            if (connection == null) {
+                throw new SQLException("Connection invalid");
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Obtained connection <{}>: {}", connectionName, connection);
+            }
+            ps = prepareQuery(connection, statement, arguments, fetchSize);
+            rs = ps.executeQuery();
+        } catch (SQLException exc) {
+            try {
+                if (connection != null) {
+                    handleSqlExceptionForExecuteStatement(connection, statement, arguments, exc, time);
+                }
+                throw exc;
+            } finally {
+                closeQuery(rs, ps, connection);
+            }
+        } finally {
+            monitor.deregisterRequest(testObject);
+        }
+
+        final Connection streamConnection = connection;
+        final PreparedStatement streamStatement = ps;
+        final ResultSet streamResults = rs;
+        return StreamSupport.stream(new RowSpliterator(streamResults), false)
+                .onClose(() -> closeQuery(streamResults, streamStatement, streamConnection));
+    }
+
+    private static PreparedStatement prepareQuery(Connection conn, String statement, List<Object> arguments,
+            int fetchSize) throws SQLException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SQL Statement: {}", statement);
+            if (arguments != null && !arguments.isEmpty()) {
+                LOGGER.debug("Argunments: {}", arguments);
+            }
+        }
+        PreparedStatement ps = conn.prepareStatement(statement);
+        try {
+            if (fetchSize != 0) {
+                ps.setFetchSize(fetchSize);
+            }
+            if (arguments != null) {
+                for (int i = 0, max = arguments.size(); i < max; i++) {
+                    ps.setObject(i + 1, arguments.get(i));
+                }
+            }
+        } catch (SQLException exc) {
+            ps.close();
+            throw exc;
+        }
+        return ps;
+    }
+
+    private static void closeQuery(ResultSet rs, Statement ps, Connection conn) {
+        for (AutoCloseable resource : new AutoCloseable[] {rs, ps, conn}) {
+            try {
+                if (resource != null) {
+                    resource.close();
+                }
+            } catch (Exception exc) {
+                LOGGER.error(exc.getLocalizedMessage(), exc);
+            }
+        }
+    }
+
+    private static RowSetFactory getRowSetFactory() throws SQLException {
+        RowSetFactory factory = rowSetFactory;
+        if (factory == null) {
+            factory = RowSetProvider.newFactory();
+            rowSetFactory = factory;
+        }
+        return factory;
+    }
+
     CachedRowSet executePreparedStatement(Connection conn, String statement, List<Object> arguments, boolean close)
             throws SQLException {
         long time = System.currentTimeMillis();
@@ -176,7 +340,7 @@ public abstract class CachedDataSource implements DataSource, SQLExecutionMonito
 
         ResultSet rs = null;
         try (PreparedStatement ps = conn.prepareStatement(statement)) {
-            data = RowSetProvider.newFactory().createCachedRowSet();
+            data = getRowSetFactory().createCachedRowSet();
             if (arguments != null) {
                 for (int i = 0, max = arguments.size(); i < max; i++) {
                     ps.setObject(i + 1, arguments.get(i));
@@ -239,15 +403,13 @@ public abstract class CachedDataSource implements DataSource, SQLExecutionMonito
             throws SQLException {
         long time = System.currentTimeMillis();
 
-        try (PreparedStatement ps = conn.prepareStatement(statement);
-            CachedRowSet data = RowSetProvider.newFactory().createCachedRowSet()) {
+        try (PreparedStatement ps = conn.prepareStatement(statement)) {
             if (arguments != null) {
                 prepareStatementForExecuteUpdate(arguments, ps);
             }
-            ps.executeUpdate();
-            // Point the rowset Cursor to the start
+            int count = ps.executeUpdate();
             if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("SQL SUCCESS. rows returned: {}, time(ms): {}", data.size(),
+                LOGGER.debug("SQL SUCCESS. rows updated: {}, time(ms): {}", count,
                         (System.currentTimeMillis() - time));
             }
         } catch (SQLException exc) {
@@ -513,6 +675,8 @@ public abstract class CachedDataSource implements DataSource, SQLExecutionMonito
             LOGGER.error("", e);
             isSlave = true;
         }
+        cachedSlave = isSlave;
+        roleProbeTime = System.currentTimeMillis();
         if (isSlave) {
             LOGGER.debug("SQL SLAVE : {} on server {}, pool {}", connectionName, getDbConnectionName(), getAvailableConnections());
         } else {
@@ -521,6 +685,38 @@ public abstract class CachedDataSource implements DataSource, SQLExecutionMonito
         return isSlave;
     }
 
+    /**
+     * Returns the role found by the last isSlave probe, as long as that probe
+     * is not older than the role staleness window. Otherwise the database is
+     * probed again. DBResourceManager refreshes the role of active data sources
+     * in the background, so that this normally does not need to go to the
+     * database.
+     */
+    protected boolean isSlaveCached() throws PoolExhaustedException {
+        Boolean slave = cachedSlave;
+        if (slave == null || roleStaleness <= 0L
+                || System.currentTimeMillis() - roleProbeTime > roleStaleness) {
+            return isSlave();
+        }
+        return slave;
+    }
+
+    /**
+     * Forgets the cached role, so that the next isSlaveCached call probes the
+     * database.
+     */
+    public void invalidateRole() {
+        cachedSlave = null;
+    }
+
+    public long getRoleStaleness() {
+        return roleStaleness;
+    }
+
+    public void setRoleStaleness(long value) {
+        roleStaleness = value;
+    }
+
     public boolean isFabric() {
         return false;
     }
@@ -585,6 +781,29 @@ public abstract class CachedDataSource implements DataSource, SQLExecutionMonito
         return globalHostName;
     }
 
+    // Reads one row of a result set for each tryAdvance call
+    private static class RowSpliterator extends Spliterators.AbstractSpliterator<Map<String, Object>> {
+        private final ResultSet rs;
+
+        RowSpliterator(ResultSet rs) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map<String, Object>> action) {
+            try {
+                if (!rs.next()) {
+                    return false;
+                }
+                action.accept(DbLibService.toRowMap(rs, rs.getMetaData()));
+                return true;
+            } catch (SQLException exc) {
+                throw new IllegalStateException(exc.getMessage(), exc);
+            }
+        }
+    }
+
     static class LapsedTimer {
         private final long msTime = System.currentTimeMillis();
  
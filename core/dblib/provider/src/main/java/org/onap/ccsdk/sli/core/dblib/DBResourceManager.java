@@ -38,6 +38,7 @@ import java.util.Comparator;
 import java.util.Map;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Observable;
 import java.util.Properties;
 import java.util.Set;
@@ -45,7 +46,12 @@ import java.util.SortedSet;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 import javax.sql.rowset.CachedRowSet;
@@ -92,6 +98,11 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
     protected final long monitoringInitialDelay;
     protected final long expectedCompletionTime;
     protected final long unprocessedFailoverThreshold;
+    protected final long roleProbeInterval;
+    protected final long roleStaleness;
+    private final ScheduledExecutorService roleProber;
+    protected final ReadRouting readRouting;
+    private final AtomicInteger readCounter = new AtomicInteger();
     private static final String LOGGER_ALARM_MSG="Generated alarm: DBResourceManager.getData - No active DB connection pools are available.";
     private static final String EXCEPTION_MSG= "No active DB connection pools are available in RequestDataNoRecovery call.";
 
@@ -128,6 +139,11 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
         monitoringInitialDelay = getLongFromProperties(configProps, "org.onap.dblib.connection.monitor.startdelay", 5000L);
         expectedCompletionTime = getLongFromProperties(configProps, "org.onap.dblib.connection.monitor.expectedcompletiontime", 5000L);
         unprocessedFailoverThreshold = getLongFromProperties(configProps, "org.onap.dblib.connection.monitor.unprocessedfailoverthreshold", 3L);
+        // get properties for master/slave role tracking
+        roleProbeInterval = getLongFromProperties(configProps, "org.onap.dblib.connection.role.interval", 10000L);
+        roleStaleness = getLongFromProperties(configProps, "org.onap.dblib.connection.role.staleness", CachedDataSource.DEFAULT_ROLE_STALENESS);
+        // get policy for routing reads away from the master
+        readRouting = getReadRoutingFromProperties(configProps, "org.onap.dblib.connection.read.routing", ReadRouting.MASTER);
 
         // initialize performance monitor
         PollingWorker.createInistance(configProps);
@@ -138,6 +154,19 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
         worker.setDaemon(true);
         worker.start();
 
+        // initialize role probe, which keeps the cached master/slave role of the
+        // data sources fresh so that queries do not have to check it
+        if(roleProbeInterval > 0 && roleStaleness > 0) {
+            roleProber = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "DBResourceManagerRoleProbe");
+                t.setDaemon(true);
+                return t;
+            });
+            roleProber.scheduleWithFixedDelay(this::probeRoles, roleProbeInterval, roleProbeInterval, TimeUnit.MILLISECONDS);
+        } else {
+            roleProber = null;
+        }
+
         try {
             this.config(configProps);
         } catch (final Exception e) {
@@ -205,6 +234,7 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
                     cachedDS[i].setInitialDelay(monitoringInitialDelay);
                     cachedDS[i].setExpectedCompletionTime(expectedCompletionTime);
                     cachedDS[i].setUnprocessedFailoverThreshold(unprocessedFailoverThreshold);
+                    cachedDS[i].setRoleStaleness(roleStaleness);
                 cachedDS[i].addObserver(DBResourceManager.this);
             }
 
@@ -249,12 +279,12 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
                     return -1;
                 }
 
-                boolean leftMaster = !left.isSlave();
+                boolean leftMaster = !left.isSlaveCached();
                 if(leftMaster) {
                     if(left.getIndex() <= right.getIndex())
                         return -1;
                     else {
-                        boolean rightMaster = !right.isSlave();
+                        boolean rightMaster = !right.isSlaveCached();
                         if(rightMaster) {
                             if(left.getIndex() <= right.getIndex())
                                 return -1;
@@ -267,7 +297,7 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
                         }
                     }
                 }
-                if(!right.isSlave())
+                if(!right.isSlaveCached())
                     return 1;
 
                 if(left.getIndex() <= right.getIndex())
@@ -354,6 +384,19 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
 
     }
 
+    private ReadRouting getReadRoutingFromProperties(Properties props, String property, ReadRouting defaultValue)
+    {
+        String value = props.getProperty(property);
+        if(value == null || value.trim().isEmpty())
+            return defaultValue;
+        try {
+            return ReadRouting.valueOf(value.trim().toUpperCase().replace('-', '_'));
+        } catch(IllegalArgumentException exc) {
+            LOGGER.warn("'"+property+"'=" + value+" is invalid. It should be one of " + Arrays.toString(ReadRouting.values()));
+            return defaultValue;
+        }
+    }
+
     private boolean getBooleanFromProperties(Properties props, String property, boolean defaultValue)
     {
         boolean tmpValue = defaultValue;
@@ -484,14 +527,7 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
 
             long time = System.currentTimeMillis();
             try {
-                if(!active.isFabric()) {
-                    if(this.dsQueue.size() > 1 && active.isSlave()) {
-                    CachedDataSource master = findMaster();
-                    if(master != null) {
-                        active = master;
-                    }
-                }
-                }
+                active = selectReader(selectMaster(active), preferredDS);
 
                 return active.getData(statement, arguments);
             } catch(SQLDataException | SQLSyntaxErrorException | SQLIntegrityConstraintViolationException exc){
@@ -543,14 +579,7 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
         CachedDataSource active = this.dsQueue.first();
         long time = System.currentTimeMillis();
         try {
-            if(!active.isFabric()) {
-                if(this.dsQueue.size() > 1 && active.isSlave()) {
-                CachedDataSource master = findMaster();
-                    if(master != null) {
-                    active = master;
-            }
-                }
-            }
+            active = selectReader(selectMaster(active), preferredDS);
             return active.getData(statement, arguments);
 
         } catch(Throwable exc){
@@ -574,6 +603,109 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
     }
 
 
+    /**
+     * Hands the rows of a query to handler as they are read from the active
+     * data source. In recovery mode a failed request is retried on another
+     * data source, as with getData, but only if no row reached handler yet.
+     */
+    @Override
+    public int processData(String statement, ArrayList<String> arguments, String preferredDS, int fetchSize,
+            RowHandler handler) throws SQLException {
+        ArrayList<Object> newList= new ArrayList<>();
+        if(arguments != null && !arguments.isEmpty()) {
+            newList.addAll(arguments);
+        }
+        if(dsQueue.isEmpty()){
+            LOGGER.error(LOGGER_ALARM_MSG);
+            throw new DBLibException(EXCEPTION_MSG);
+        }
+
+        final int[] handled = {0};
+        RowHandler countingHandler = results -> {
+            handled[0]++;
+            return handler.handleRow(results);
+        };
+        for(int attempt = 1; ; attempt++) {
+            CachedDataSource active = this.dsQueue.first();
+            long time = System.currentTimeMillis();
+            try {
+                active = selectReader(selectMaster(active), preferredDS);
+                return active.processData(statement, newList, fetchSize, countingHandler);
+            } catch(Throwable exc){
+                if(handled[0] > 0 || !canRetryRequest(attempt, exc)) {
+                    throw toSQLException(active, exc);
+                }
+                LOGGER.error("Generated alarm: {}", active.getDbConnectionName(), exc);
+                handleGetConnectionException(active, exc);
+            } finally {
+                if(LOGGER.isDebugEnabled()){
+                    time = System.currentTimeMillis() - time;
+                    LOGGER.debug(">> processData : {} {}  miliseconds.", active.getDbConnectionName(), time);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the rows of a query on the active data source as a stream that
+     * holds its connection until closed. In recovery mode a request that fails
+     * before the stream is returned is retried on another data source, as with
+     * getData. Failures while reading the stream are not retried.
+     */
+    @Override
+    public Stream<Map<String, Object>> streamData(String statement, ArrayList<String> arguments, String preferredDS,
+            int fetchSize) throws SQLException {
+        ArrayList<Object> newList= new ArrayList<>();
+        if(arguments != null && !arguments.isEmpty()) {
+            newList.addAll(arguments);
+        }
+        if(dsQueue.isEmpty()){
+            LOGGER.error(LOGGER_ALARM_MSG);
+            throw new DBLibException(EXCEPTION_MSG);
+        }
+
+        for(int attempt = 1; ; attempt++) {
+            CachedDataSource active = this.dsQueue.first();
+            try {
+                active = selectReader(selectMaster(active), preferredDS);
+                return active.streamData(statement, newList, fetchSize);
+            } catch(Throwable exc){
+                if(!canRetryRequest(attempt, exc)) {
+                    throw toSQLException(active, exc);
+                }
+                LOGGER.error("Generated alarm: {}", active.getDbConnectionName(), exc);
+                handleGetConnectionException(active, exc);
+            }
+        }
+    }
+
+    /**
+     * Whether a read that failed with exc on its given attempt may be sent to
+     * the next data source, following the rules of requestDataWithRecovery.
+     */
+    private boolean canRetryRequest(int attempt, Throwable exc) {
+        if(!recoveryMode || attempt >= 2 || dsQueue.size() < 2) {
+            return false;
+        }
+        if(exc instanceof SQLDataException || exc instanceof SQLSyntaxErrorException
+                || exc instanceof SQLIntegrityConstraintViolationException) {
+            return false;
+        }
+        return !(exc instanceof SQLException && "07001".equals(((SQLException)exc).getSQLState()));
+    }
+
+    private SQLException toSQLException(CachedDataSource active, Throwable exc) {
+        String message = exc.getMessage();
+        if(message == null)
+            message = exc.getClass().getName();
+        LOGGER.error("Generated alarm: {} - {}",active.getDbConnectionName(), message);
+        if(exc instanceof SQLException)
+            return (SQLException)exc;
+        DBLibException excptn = new DBLibException(exc.getMessage());
+        excptn.setStackTrace(exc.getStackTrace());
+        return excptn;
+    }
+
     /* (non-Javadoc)
      * @see org.onap.ccsdk.sli.resource.dblib.DbLibService#writeData(java.lang.String, java.util.ArrayList, java.lang.String)
      */
@@ -588,11 +720,78 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
         return writeDataNoRecovery(statement, newList, preferredDS);
     }
 
+    /**
+     * Returns the data source to use instead of active when active is known to
+     * be a slave, based on the cached role of each data source.
+     */
+    private CachedDataSource selectMaster(CachedDataSource active) throws SQLException {
+        if(!active.isFabric()) {
+            if(this.dsQueue.size() > 1 && active.isSlaveCached()) {
+                LOGGER.debug("Forcing reorder on: {}", dsQueue);
+                CachedDataSource master = findMaster(true);
+                if(master != null) {
+                    return master;
+                }
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Returns the data source to send a read to. Unless reads are routed away
+     * from the master, or the caller asked for a particular data source, this
+     * is the master. Otherwise it is one of the other active data sources,
+     * picked according to the read routing policy, or the master if there is
+     * no other active data source.
+     */
+    private CachedDataSource selectReader(CachedDataSource master, String preferredDS) {
+        if(readRouting == ReadRouting.MASTER || preferredDS != null || dsQueue.size() < 2) {
+            return master;
+        }
+
+        List<CachedDataSource> replicas = new ArrayList<>(dsQueue.size());
+        for(CachedDataSource ds : dsQueue) {
+            if(ds != master && !ds.isFabric()) {
+                replicas.add(ds);
+            }
+        }
+        if(replicas.isEmpty()) {
+            return master;
+        }
+
+        CachedDataSource reader;
+        if(readRouting == ReadRouting.ROUND_ROBIN) {
+            int next = readCounter.getAndIncrement() & Integer.MAX_VALUE;
+            reader = replicas.get(next % replicas.size());
+        } else {
+            reader = replicas.get(0);
+            for(CachedDataSource ds : replicas) {
+                if(ds.getActiveConnections() < reader.getActiveConnections()) {
+                    reader = ds;
+                }
+            }
+        }
+        if(LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Routing read to {}", reader.getDbConnectionName());
+        }
+        return reader;
+    }
+
     synchronized CachedDataSource findMaster() throws SQLException {
+        return findMaster(false);
+    }
+
+    /**
+     * Finds the first master in the active queue and moves it to the front.
+     *
+     * @param useCachedRole if false, every data source is probed again
+     */
+    synchronized CachedDataSource findMaster(boolean useCachedRole) throws SQLException {
         final CachedDataSource[] clone = this.dsQueue.toArray(new CachedDataSource[0]);
 
         for(final CachedDataSource  dss : clone) {
-            if(!dss.isSlave()) {
+            boolean slave = useCachedRole ? dss.isSlaveCached() : dss.isSlave();
+            if(!slave) {
                 final CachedDataSource first = this.dsQueue.first();
                 if(first != dss) {
                     if(LOGGER.isDebugEnabled())
@@ -623,14 +822,7 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
         while(initialRequest) {
             initialRequest = false;
             try {
-                if(!active.isFabric()) {
-                    if(this.dsQueue.size() > 1 && active.isSlave()) {
-                    CachedDataSource master = findMaster();
-                    if(master != null) {
-                        active = master;
-                    }
-                }
-                }
+                active = selectMaster(active);
 
                 return active.writeData(statement, arguments);
             } catch(Throwable exc){
@@ -643,6 +835,8 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
                     // handle read-only exception
                     if(sqlExc.getErrorCode() == 1290 && "HY000".equals(sqlExc.getSQLState())) {
                         LOGGER.warn("retrying due to: {}", sqlExc.getMessage());
+                        // the cached role is out of date, so probe all data sources again
+                        active.invalidateRole();
                         this.findMaster();
                         if(retryAllowed){
                             retryAllowed = false;
@@ -666,6 +860,28 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
         return true;
     }
 
+    /**
+     * Refreshes the cached role of every active data source, and moves a master
+     * to the front of the queue if the current first data source became a slave.
+     */
+    void probeRoles() {
+        if(terminating || dsQueue.size() < 2) {
+            return;
+        }
+        try {
+            for(CachedDataSource ds : dsQueue.toArray(new CachedDataSource[0])) {
+                if(!ds.isFabric()) {
+                    ds.isSlave();
+                }
+            }
+            if(dsQueue.first().isSlaveCached()) {
+                findMaster(true);
+            }
+        } catch(Exception exc) {
+            LOGGER.warn("Failed to refresh data source roles", exc);
+        }
+    }
+
     public void setDataSource(CachedDataSource dataSource) {
         if(this.dsQueue.contains(dataSource))
             return;
@@ -691,15 +907,7 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
         try {
             active = dsQueue.first();
 
-            if(!active.isFabric()) {
-                if(this.dsQueue.size() > 1 && active.isSlave()) {
-                LOGGER.debug("Forcing reorder on: {}", dsQueue.toString());
-                    CachedDataSource master = findMaster();
-                    if(master != null) {
-                        active = master;
-                    }
-                }
-            }
+            active = selectMaster(active);
             return new DBLibConnection(active.getConnection(), active);
         } catch(javax.sql.rowset.spi.SyncFactoryException exc){
             LOGGER.debug("Free memory (bytes): " + Runtime.getRuntime().freeMemory());
@@ -761,14 +969,7 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
 
         try {
             active = dsQueue.first();
-            if(!active.isFabric()) {
-                if(this.dsQueue.size() > 1 && active.isSlave()) {
-                    CachedDataSource master = findMaster();
-                    if(master != null) {
-                        active = master;
-                    }
-                }
-            }
+            active = selectMaster(active);
             return active.getConnection(username, password);
         } catch(Throwable exc){
             if(recoveryMode){
@@ -822,6 +1023,9 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
 
     @Deactivate
     public void cleanUp() {
+        if(roleProber != null) {
+            roleProber.shutdownNow();
+        }
         for(Iterator<CachedDataSource> it=dsQueue.iterator();it.hasNext();){
             CachedDataSource cds = it.next();
             it.remove();
@@ -987,4 +1191,17 @@ public class DBResourceManager implements DataSource, DataAccessor, DBResourceOb
     public int poolSize() {
         return dsQueue.size();
     }
+
+    /**
+     * Where reads that do not name a preferred data source are sent. Writes
+     * and connections handed out by getConnection always use the master.
+     */
+    public enum ReadRouting {
+        // All reads go to the master
+        MASTER,
+        // Reads go to the other active data sources in turn
+        ROUND_ROBIN,
+        // Reads go to the other active data source with the fewest connections in use
+        LEAST_ACTIVE
+    }
 }
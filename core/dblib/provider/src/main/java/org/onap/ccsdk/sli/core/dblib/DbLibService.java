@@ -21,8 +21,14 @@
 package org.onap.ccsdk.sli.core.dblib;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 import javax.sql.rowset.CachedRowSet;
@@ -43,6 +49,60 @@ public interface DbLibService extends DataSource {
             ArrayList<String> arguments, String preferredDS)
             throws SQLException;
 
+    /**
+     * Runs a query and hands each row to handler as it is read, instead of
+     * copying the whole result into a CachedRowSet. The connection is held
+     * until the last row has been handled.
+     *
+     * @param fetchSize hint for the number of rows the driver fetches at a
+     *        time, or 0 to use the driver default
+     * @return the number of rows handed to handler
+     */
+    default int processData(String statement, ArrayList<String> arguments, String preferredDS,
+            int fetchSize, RowHandler handler) throws SQLException {
+        CachedRowSet results = getData(statement, arguments, preferredDS);
+        int count = 0;
+        while (results.next()) {
+            count++;
+            if (!handler.handleRow(results)) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Runs a query and returns its rows as maps from column label to value,
+     * read from the database as the stream is consumed. The connection is
+     * held until the stream is closed, so callers must close it, typically
+     * with try-with-resources.
+     *
+     * @param fetchSize hint for the number of rows the driver fetches at a
+     *        time, or 0 to use the driver default
+     */
+    default Stream<Map<String, Object>> streamData(String statement, ArrayList<String> arguments,
+            String preferredDS, int fetchSize) throws SQLException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        processData(statement, arguments, preferredDS, fetchSize, results -> {
+            rows.add(toRowMap(results, results.getMetaData()));
+            return true;
+        });
+        return rows.stream();
+    }
+
+    /**
+     * Returns the current row of results as a map from column label to
+     * value, in column order.
+     */
+    static Map<String, Object> toRowMap(ResultSet results, ResultSetMetaData meta) throws SQLException {
+        int numCols = meta.getColumnCount();
+        Map<String, Object> row = new LinkedHashMap<>(numCols * 2);
+        for (int i = 1; i <= numCols; i++) {
+            row.put(meta.getColumnLabel(i), results.getObject(i));
+        }
+        return row;
+    }
+
     boolean isActive();
 
     Connection getConnection() throws SQLException;
@@ -198,4 +198,9 @@ public class JdbcDBCachedDataSource extends CachedDataSource {
     protected int getAvailableConnections() {
         return org.apache.tomcat.jdbc.pool.DataSource.class.cast(ds).getSize();
     }
+
+    @Override
+    protected int getActiveConnections() {
+        return org.apache.tomcat.jdbc.pool.DataSource.class.cast(ds).getActive();
+    }
 }
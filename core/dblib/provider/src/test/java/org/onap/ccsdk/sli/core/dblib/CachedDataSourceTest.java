@@ -8,7 +8,12 @@ import static org.junit.Assert.assertTrue;
 
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.List;
 import java.util.Properties;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -118,4 +123,73 @@ public class CachedDataSourceTest {
 		ds.setGlobalHostName("hostName");
 		assertEquals("hostName", ds.getGlobalHostName());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testGetSetRoleStaleness() {
+		assertEquals(CachedDataSource.DEFAULT_ROLE_STALENESS, ds.getRoleStaleness());
+		ds.setRoleStaleness(1000L);
+		assertEquals(1000L, ds.getRoleStaleness());
+		ds.invalidateRole();
+		ds.setRoleStaleness(CachedDataSource.DEFAULT_ROLE_STALENESS);
+	}
+
+	@Test
+	public void testIsSlaveCached() throws Exception {
+		ProbeCountingDataSource probed = new ProbeCountingDataSource(new JDBCConfiguration(new Properties()));
+
+		// The first call probes, later ones reuse the role within the window
+		probed.setRoleStaleness(60000L);
+		assertFalse(probed.isSlaveCached());
+		assertFalse(probed.isSlaveCached());
+		assertEquals(1, probed.probes);
+
+		// A role change is only seen once the cached role is forgotten
+		probed.readOnly = true;
+		assertFalse(probed.isSlaveCached());
+		probed.invalidateRole();
+		assertTrue(probed.isSlaveCached());
+		assertTrue(probed.isSlaveCached());
+		assertEquals(2, probed.probes);
+
+		// or once it is older than the window
+		probed.readOnly = false;
+		probed.setRoleStaleness(1L);
+		Thread.sleep(10L);
+		assertFalse(probed.isSlaveCached());
+		assertEquals(3, probed.probes);
+
+		// A window of 0 probes every time
+		probed.setRoleStaleness(0L);
+		probed.isSlaveCached();
+		probed.isSlaveCached();
+		assertEquals(5, probed.probes);
+	}
+
+	// Answers the read_only probe of isSlave without a database
+	private static class ProbeCountingDataSource extends TerminatingCachedDataSource {
+		private int probes = 0;
+		private boolean readOnly = false;
+
+		ProbeCountingDataSource(BaseDBConfiguration config) {
+			super(config);
+		}
+
+		@Override
+		public CachedRowSet getData(String statement, List<Object> arguments) throws SQLException {
+			probes++;
+			RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+			metaData.setColumnCount(2);
+			metaData.setColumnType(1, Types.BOOLEAN);
+			metaData.setColumnType(2, Types.VARCHAR);
+			CachedRowSet rs = RowSetProvider.newFactory().createCachedRowSet();
+			rs.setMetaData(metaData);
+			rs.moveToInsertRow();
+			rs.updateBoolean(1, readOnly);
+			rs.updateString(2, "dbhost");
+			rs.insertRow();
+			rs.moveToCurrentRow();
+			rs.beforeFirst();
+			return rs;
+		}
+	}
+}
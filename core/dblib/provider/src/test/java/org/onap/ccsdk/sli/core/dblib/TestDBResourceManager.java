@@ -1,13 +1,19 @@
 package org.onap.ccsdk.sli.core.dblib;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 import java.io.InputStream;
 import java.net.URL;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -57,6 +63,31 @@ public class TestDBResourceManager {
 
     }
 
+    @Test
+    public void testProcessAndStreamData() throws SQLException {
+        for (String name : new String[] {"alpha", "beta", "gamma"}) {
+            ArrayList<String> args = new ArrayList<>();
+            args.add(name);
+            dblibSvc.writeData("INSERT INTO DBLIB_TEST (name) VALUES (?)", args, null);
+        }
+
+        List<String> names = new ArrayList<>();
+        int count = dblibSvc.processData("SELECT name FROM DBLIB_TEST ORDER BY name", null, null, 2, results -> {
+            names.add(results.getString(1));
+            return names.size() < 2;
+        });
+        assertEquals(2, count);
+        assertEquals("alpha", names.get(0));
+        assertEquals("beta", names.get(1));
+
+        try (Stream<Map<String, Object>> rows =
+                dblibSvc.streamData("SELECT name FROM DBLIB_TEST ORDER BY name", null, null, 2)) {
+            List<Object> streamed = rows.map(row -> row.get("NAME")).collect(Collectors.toList());
+            assertEquals(3, streamed.size());
+            assertEquals("gamma", streamed.get(2));
+        }
+    }
+
     @Test
     public void testGetLogWriter() throws SQLException {
         assertNull(dbm.getLogWriter());
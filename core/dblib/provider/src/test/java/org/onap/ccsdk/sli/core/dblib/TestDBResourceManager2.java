@@ -22,22 +22,44 @@
   22  */
 package org.onap.ccsdk.sli.core.dblib;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.InputStream;
 import java.net.URL;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.onap.ccsdk.sli.core.dblib.config.BaseDBConfiguration;
+import org.onap.ccsdk.sli.core.dblib.config.JDBCConfiguration;
 
 public class TestDBResourceManager2 {
 
     DbLibService dblibSvc;
     DBResourceManager dbm;
+    Properties props;
 
     @Before
     public void setUp() throws Exception {
@@ -45,7 +67,7 @@ public class TestDBResourceManager2 {
 
         InputStream propStr = getClass().getResourceAsStream("/dblib.properties");
 
-        Properties props = new Properties();
+        props = new Properties();
 
         props.load(propStr);
 
@@ -70,6 +92,72 @@ public class TestDBResourceManager2 {
         dbm.testForceRecovery();
     }
 
+    @Test
+    public void testReadRouting() throws SQLException {
+        props.setProperty("org.onap.dblib.connection.read.routing", "round-robin");
+        DBResourceManager manager = new DBResourceManager(props);
+        assertEquals(DBResourceManager.ReadRouting.ROUND_ROBIN, manager.readRouting);
+        // With a single data source, reads still go to the master
+        assertNotNull(manager.getData("SELECT * FROM DBLIB_TEST2", null, null));
+    }
+
+    @Test
+    public void testRoundRobinReads() throws SQLException {
+        props.setProperty("org.onap.dblib.connection.read.routing", "round-robin");
+        DBResourceManager manager = new DBResourceManager(props);
+        StubDataSource master = new StubDataSource("db0", false);
+        StubDataSource replica1 = new StubDataSource("db1", true);
+        StubDataSource replica2 = new StubDataSource("db2", true);
+        useDataSources(manager, master, replica1, replica2);
+
+        // Reads alternate between the replicas
+        manager.getData("SELECT * FROM DBLIB_TEST2", null, null);
+        assertEquals(1, replica1.queries);
+        assertEquals(0, replica2.queries);
+        manager.getData("SELECT * FROM DBLIB_TEST2", null, null);
+        assertEquals(1, replica2.queries);
+        manager.getData("SELECT * FROM DBLIB_TEST2", null, null);
+        manager.getData("SELECT * FROM DBLIB_TEST2", null, null);
+        assertEquals(2, replica1.queries);
+        assertEquals(2, replica2.queries);
+        assertEquals(0, master.queries);
+
+        // unless a data source is asked for, and writes stay on the master
+        manager.getData("SELECT * FROM DBLIB_TEST2", null, "db2");
+        assertEquals(1, master.queries);
+        manager.writeData("INSERT INTO DBLIB_TEST2 VALUES ('a')", null, null);
+        assertEquals(1, master.writes);
+        assertEquals(0, replica1.writes + replica2.writes);
+    }
+
+    @Test
+    public void testLeastActiveReads() throws SQLException {
+        props.setProperty("org.onap.dblib.connection.read.routing", "least-active");
+        DBResourceManager manager = new DBResourceManager(props);
+        assertEquals(DBResourceManager.ReadRouting.LEAST_ACTIVE, manager.readRouting);
+        StubDataSource master = new StubDataSource("db0", false);
+        StubDataSource replica1 = new StubDataSource("db1", true);
+        StubDataSource replica2 = new StubDataSource("db2", true);
+        useDataSources(manager, master, replica1, replica2);
+
+        // Reads go to the replica with the fewest connections in use, even if
+        // the master has fewer
+        master.activeConnections = 0;
+        replica1.activeConnections = 5;
+        replica2.activeConnections = 2;
+        manager.getData("SELECT * FROM DBLIB_TEST2", null, null);
+        manager.getData("SELECT * FROM DBLIB_TEST2", null, null);
+        assertEquals(2, replica2.queries);
+
+        replica1.activeConnections = 1;
+        manager.getData("SELECT * FROM DBLIB_TEST2", null, null);
+        assertEquals(1, replica1.queries);
+        assertEquals(0, master.queries);
+
+        manager.writeData("INSERT INTO DBLIB_TEST2 VALUES ('a')", null, null);
+        assertEquals(1, master.writes);
+    }
+
     @Test
     public void testGetConnection() throws SQLException {
         assertNotNull(dbm.getConnection());
@@ -87,4 +175,185 @@ public class TestDBResourceManager2 {
         assertNull(dbm.getLogWriter());
     }
 
+    @Test
+    public void testProcessDataFailover() throws SQLException {
+        StubDataSource master = new StubDataSource("db0", false);
+        StubDataSource failing = new StubDataSource("db1", true);
+        StubDataSource replica = new StubDataSource("db2", true);
+        useDataSources(dbm, master, failing, replica);
+
+        // The first read goes to db1, which fails before handing out a row
+        failing.failure = new SQLException("Connection refused", "08001");
+        List<String> names = new ArrayList<>();
+        assertEquals(2, dbm.processData("SELECT name FROM DBLIB_TEST2", null, null, 0, results -> {
+            names.add(results.getString("name"));
+            return true;
+        }));
+        assertEquals(Arrays.asList("a", "b"), names);
+        assertEquals(1, failing.queries);
+        assertEquals(1, replica.queries);
+        assertTrue(dbm.broken.contains(failing));
+        assertFalse(dbm.dsQueue.contains(failing));
+    }
+
+    @Test
+    public void testProcessDataNotRetriedAfterRows() {
+        StubDataSource master = new StubDataSource("db0", false);
+        StubDataSource failing = new StubDataSource("db1", true);
+        StubDataSource replica = new StubDataSource("db2", true);
+        useDataSources(dbm, master, failing, replica);
+
+        // Retrying would hand the first row to the handler twice
+        failing.failure = new SQLException("Connection reset", "08S01");
+        failing.failAfterRows = 1;
+        List<String> names = new ArrayList<>();
+        try {
+            dbm.processData("SELECT name FROM DBLIB_TEST2", null, null, 0, results -> {
+                names.add(results.getString("name"));
+                return true;
+            });
+            fail("Expected SQLException");
+        } catch (SQLException e) {
+            assertSame(failing.failure, e);
+        }
+        assertEquals(Arrays.asList("a"), names);
+        assertEquals(0, replica.queries);
+        assertTrue(dbm.dsQueue.contains(failing));
+    }
+
+    @Test
+    public void testStreamDataFailover() throws SQLException {
+        StubDataSource master = new StubDataSource("db0", false);
+        StubDataSource failing = new StubDataSource("db1", true);
+        StubDataSource replica = new StubDataSource("db2", true);
+        useDataSources(dbm, master, failing, replica);
+
+        failing.failure = new SQLException("Connection refused", "08001");
+        try (Stream<Map<String, Object>> rows = dbm.streamData("SELECT name FROM DBLIB_TEST2", null, null, 0)) {
+            assertEquals(Arrays.asList("a", "b"), rows.map(row -> row.get("name")).collect(Collectors.toList()));
+        }
+        assertEquals(1, replica.queries);
+        assertTrue(dbm.broken.contains(failing));
+    }
+
+    private static void useDataSources(DBResourceManager manager, CachedDataSource... dataSources) {
+        manager.dsQueue.clear();
+        manager.dsQueue.addAll(Arrays.asList(dataSources));
+    }
+
+    /**
+     * A data source with a fixed role that answers queries with the names
+     * "a" and "b", without a database. The position of its name in the hosts
+     * list orders it in the active queue.
+     */
+    static class StubDataSource extends CachedDataSource {
+        private final boolean slave;
+        int activeConnections = 0;
+        int queries = 0;
+        int writes = 0;
+        SQLException failure = null;
+        int failAfterRows = 0;
+
+        StubDataSource(String name, boolean slave) {
+            super(createConfiguration(name));
+            this.slave = slave;
+        }
+
+        private static BaseDBConfiguration createConfiguration(String name) {
+            Properties props = new Properties();
+            props.setProperty(BaseDBConfiguration.DATABASE_HOSTS, "db0,db1,db2");
+            props.setProperty(BaseDBConfiguration.CONNECTION_NAME, name);
+            return new JDBCConfiguration(props);
+        }
+
+        @Override
+        protected DataSource configure(BaseDBConfiguration jdbcElem) {
+            setDbConnectionName(jdbcElem.getDbConnectionName());
+            return null;
+        }
+
+        @Override
+        protected int getAvailableConnections() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            return null;
+        }
+
+        @Override
+        protected int getActiveConnections() {
+            return activeConnections;
+        }
+
+        @Override
+        protected boolean isSlave() {
+            return slave;
+        }
+
+        @Override
+        protected boolean isSlaveCached() {
+            return slave;
+        }
+
+        @Override
+        public CachedRowSet getData(String statement, List<Object> arguments) throws SQLException {
+            queries++;
+            return RowSetProvider.newFactory().createCachedRowSet();
+        }
+
+        @Override
+        public boolean writeData(String statement, List<Object> arguments) throws SQLException {
+            writes++;
+            return true;
+        }
+
+        @Override
+        public int processData(String statement, List<Object> arguments, int fetchSize, RowHandler handler)
+                throws SQLException {
+            queries++;
+            CachedRowSet results = RowSetProvider.newFactory().createCachedRowSet();
+            RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+            metaData.setColumnCount(1);
+            metaData.setColumnName(1, "name");
+            metaData.setColumnLabel(1, "name");
+            metaData.setColumnType(1, Types.VARCHAR);
+            results.setMetaData(metaData);
+            for (Map<String, Object> row : rows()) {
+                results.moveToInsertRow();
+                results.updateObject(1, row.get("name"));
+                results.insertRow();
+            }
+            results.moveToCurrentRow();
+            results.beforeFirst();
+
+            int count = 0;
+            while (results.next()) {
+                if (failure != null && count == failAfterRows) {
+                    throw failure;
+                }
+                count++;
+                if (!handler.handleRow(results)) {
+                    break;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public Stream<Map<String, Object>> streamData(String statement, List<Object> arguments, int fetchSize)
+                throws SQLException {
+            queries++;
+            if (failure != null) {
+                throw failure;
+            }
+            return rows().stream();
+        }
+
+        private static List<Map<String, Object>> rows() {
+            return Arrays.asList(Collections.<String, Object>singletonMap("name", "a"),
+                    Collections.<String, Object>singletonMap("name", "b"));
+        }
+    }
 }
@@ -34,6 +34,22 @@ public class ActivationEntry {
         this.mode = mode;
     }
     
+    public String getModule() {
+        return module;
+    }
+
+    public String getRpc() {
+        return rpc;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
     @Override
     public String toString() {
         return "ActivationEntry [module=" + module + ", rpc=" + rpc + ", version=" + version + ", mode=" + mode + "]";
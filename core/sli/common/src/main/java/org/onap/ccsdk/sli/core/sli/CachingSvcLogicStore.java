@@ -0,0 +1,358 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP : CCSDK
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 						reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.core.sli;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SvcLogicStore decorator that keeps deserialized graphs in memory, so that
+ * repeated executions and call nodes do not go back to the database for every
+ * fetch. Entries are keyed by module, rpc, version and mode; a null version
+ * caches the active version lookup. Writes through this store invalidate the
+ * affected entries, and an optional poller compares cached md5sums against the
+ * database to pick up graphs loaded by other cluster members.
+ */
+public class CachingSvcLogicStore implements SvcLogicStore {
+    private static final Logger LOG = LoggerFactory.getLogger(CachingSvcLogicStore.class);
+
+    public static final String CACHE_ENABLED_PROP = "org.onap.ccsdk.sli.cache.enabled";
+    public static final String CACHE_MAX_ENTRIES_PROP = "org.onap.ccsdk.sli.cache.maxEntries";
+    public static final String CACHE_POLL_INTERVAL_PROP = "org.onap.ccsdk.sli.cache.md5PollInterval";
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final SvcLogicStore delegate;
+    private final Map<GraphKey, SvcLogicGraph> cache;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private ScheduledExecutorService poller = null;
+    // Bumped by every invalidation, guarded by cache
+    private long generation = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CachingSvcLogicStore(SvcLogicStore delegate) {
+        this.delegate = delegate;
+        this.cache = new LinkedHashMap<GraphKey, SvcLogicGraph>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GraphKey, SvcLogicGraph> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static boolean isEnabled(Properties props) {
+        return props != null && Boolean.parseBoolean(props.getProperty(CACHE_ENABLED_PROP, "false").trim());
+    }
+
+    public SvcLogicStore getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Reads the cache settings from props. The delegate is expected to have been
+     * initialized already, as is the case for stores handed out by
+     * SvcLogicStoreFactory.
+     */
+    @Override
+    public void init(Properties props) throws SvcLogicException {
+        String maxStr = props.getProperty(CACHE_MAX_ENTRIES_PROP);
+        if (maxStr != null && maxStr.trim().length() > 0) {
+            try {
+                maxEntries = Integer.parseInt(maxStr.trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException("invalid value for " + CACHE_MAX_ENTRIES_PROP + " (" + maxStr + ")", e);
+            }
+        }
+
+        String pollStr = props.getProperty(CACHE_POLL_INTERVAL_PROP);
+        long pollInterval = 0;
+        if (pollStr != null && pollStr.trim().length() > 0) {
+            try {
+                pollInterval = Long.parseLong(pollStr.trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException("invalid value for " + CACHE_POLL_INTERVAL_PROP + " (" + pollStr + ")", e);
+            }
+        }
+
+        if (pollInterval > 0) {
+            startPolling(pollInterval);
+        }
+        LOG.info("Service logic graph cache enabled with maxEntries={}, md5PollInterval={}s", maxEntries, pollInterval);
+    }
+
+    @Override
+    public boolean hasGraph(String module, String rpc, String version, String mode) throws SvcLogicException {
+        synchronized (cache) {
+            if (cache.containsKey(new GraphKey(module, rpc, version, mode))) {
+                return true;
+            }
+        }
+        return delegate.hasGraph(module, rpc, version, mode);
+    }
+
+    @Override
+    public SvcLogicGraph fetch(String module, String rpc, String version, String mode) throws SvcLogicException {
+        GraphKey key = new GraphKey(module, rpc, version, mode);
+        long fetchGeneration;
+        synchronized (cache) {
+            SvcLogicGraph graph = cache.get(key);
+            if (graph != null) {
+                hits.incrementAndGet();
+                return graph;
+            }
+            fetchGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        SvcLogicGraph graph = delegate.fetch(module, rpc, version, mode);
+
+        // Missing graphs are not cached, since they may be loaded at any time.
+        // Neither is a graph fetched while an invalidation ran, as it may be
+        // the one that invalidation replaced.
+        if (graph != null) {
+            synchronized (cache) {
+                if (generation == fetchGeneration) {
+                    cache.put(key, graph);
+                }
+            }
+        }
+        return graph;
+    }
+
+    @Override
+    public void store(SvcLogicGraph graph) throws SvcLogicException {
+        delegate.store(graph);
+        if (graph != null) {
+            invalidate(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode());
+        }
+    }
+
+    @Override
+    public void storeAll(List<SvcLogicGraph> graphs) throws SvcLogicException {
+        delegate.storeAll(graphs);
+        for (SvcLogicGraph graph : graphs) {
+            invalidate(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode());
+        }
+    }
+
+    @Override
+    public void delete(String module, String rpc, String version, String mode) throws SvcLogicException {
+        delegate.delete(module, rpc, version, mode);
+        invalidate(module, rpc, version, mode);
+    }
+
+    @Override
+    public void activate(SvcLogicGraph graph) throws SvcLogicException {
+        delegate.activate(graph);
+        invalidate(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode());
+    }
+
+    @Override
+    public void activate(String module, String rpc, String version, String mode) throws SvcLogicException {
+        delegate.activate(module, rpc, version, mode);
+        invalidate(module, rpc, version, mode);
+    }
+
+    @Override
+    public List<ActivationEntry> activateAll(List<ActivationEntry> entries) throws SvcLogicException {
+        List<ActivationEntry> notFound = delegate.activateAll(entries);
+        for (ActivationEntry entry : entries) {
+            invalidate(entry.module, entry.rpc, entry.version, entry.mode);
+        }
+        return notFound;
+    }
+
+    @Override
+    public String getMd5sum(String module, String rpc, String version, String mode) throws SvcLogicException {
+        return delegate.getMd5sum(module, rpc, version, mode);
+    }
+
+    @Override
+    public List<String> getMd5sums(List<SvcLogicGraph> graphs) throws SvcLogicException {
+        return delegate.getMd5sums(graphs);
+    }
+
+    /**
+     * Drops the entry for the given version along with the active version entry
+     * for the same module, rpc and mode, since either may now resolve to a
+     * different graph.
+     */
+    public void invalidate(String module, String rpc, String version, String mode) {
+        synchronized (cache) {
+            generation++;
+            if (cache.remove(new GraphKey(module, rpc, version, mode)) != null) {
+                invalidations.incrementAndGet();
+            }
+            if (version != null && cache.remove(new GraphKey(module, rpc, null, mode)) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            generation++;
+            invalidations.addAndGet(cache.size());
+            cache.clear();
+        }
+    }
+
+    /**
+     * Compares the md5sum of every cached graph with the one currently in the
+     * backing store and drops entries that no longer match.
+     */
+    public void refresh() {
+        List<Map.Entry<GraphKey, SvcLogicGraph>> entries;
+        synchronized (cache) {
+            entries = new ArrayList<>(cache.entrySet());
+        }
+
+        for (Map.Entry<GraphKey, SvcLogicGraph> entry : entries) {
+            GraphKey key = entry.getKey();
+            String cachedMd5 = entry.getValue().getMd5sum();
+            String storedMd5;
+            try {
+                storedMd5 = delegate.getMd5sum(key.module, key.rpc, key.version, key.mode);
+            } catch (SvcLogicException e) {
+                LOG.warn("Could not check md5sum for cached graph {}", key, e);
+                continue;
+            }
+            if (storedMd5 == null || !storedMd5.equals(cachedMd5)) {
+                LOG.debug("Graph {} changed in store, removing from cache", key);
+                synchronized (cache) {
+                    if (cache.get(key) == entry.getValue()) {
+                        cache.remove(key);
+                        invalidations.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    private void startPolling(long intervalSecs) {
+        stopPolling();
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "svclogic-cache-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::refresh, intervalSecs, intervalSecs, TimeUnit.SECONDS);
+    }
+
+    public void stopPolling() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    public int getSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CachingSvcLogicStore [size=" + getSize() + ", hits=" + hits.get() + ", misses=" + misses.get()
+                + ", evictions=" + evictions.get() + ", invalidations=" + invalidations.get() + "]";
+    }
+
+    private static final class GraphKey {
+        private final String module;
+        private final String rpc;
+        private final String version;
+        private final String mode;
+        private final int hash;
+
+        GraphKey(String module, String rpc, String version, String mode) {
+            this.module = module;
+            this.rpc = rpc;
+            this.version = version;
+            this.mode = mode;
+            this.hash = Objects.hash(module, rpc, version, mode);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof GraphKey)) {
+                return false;
+            }
+            GraphKey other = (GraphKey) obj;
+            return Objects.equals(module, other.module) && Objects.equals(rpc, other.rpc)
+                    && Objects.equals(version, other.version) && Objects.equals(mode, other.mode);
+        }
+
+        @Override
+        public String toString() {
+            return "[" + module + "," + rpc + "," + (version == null ? "active" : version) + "," + mode + "]";
+        }
+    }
+}
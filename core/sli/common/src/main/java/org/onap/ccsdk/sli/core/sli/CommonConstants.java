@@ -30,6 +30,7 @@ public interface CommonConstants {
     String JDBC_SELECT_COUNT = "SELECT count(*) FROM ";
     String RESULTSET_CLOSE_ERR = "ResultSet close error: ";
     String JDBC_SELECT_GRAPGH = "SELECT graph FROM ";
+    String JDBC_SELECT_MD5SUM = "SELECT md5sum FROM ";
     String JDBC_INSERT = "INSERT INTO ";
     String JDBC_DELETE = "DELETE FROM ";
     String JDBC_UPDATE = "UPDATE ";
@@ -21,12 +21,25 @@
 
 package org.onap.ccsdk.sli.core.sli;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -42,18 +55,85 @@ public class SvcLogicContext {
     private final SecurePrinter securePrinter = new SecurePrinter();
     public static final String CTX_NULL_VALUE="";
     private static final String LENGTH="_length";
+    private static final String REPORT_CDATA_PROP = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    // Sort order for attribute names when converting to JSON, so that arrays
+    // are reconstructed in proper order
+    static final Comparator<String> ATTRIBUTE_NAME_ORDER = new Comparator<String>() {
+        @Override
+        public int compare(String a, String b){
+            int aLength = a.length();
+            int bLength = b.length();
+            int minSize = Math.min(aLength, bLength);
+            char aChar, bChar;
+            boolean aNumber, bNumber;
+            boolean asNumeric = false;
+            int lastNumericCompare = 0;
+            for (int i = 0; i < minSize; i++) {
+                aChar = a.charAt(i);
+                bChar = b.charAt(i);
+                aNumber = aChar >= '0' && aChar <= '9';
+                bNumber = bChar >= '0' && bChar <= '9';
+                if (asNumeric)
+                    if (aNumber && bNumber) {
+                        if (lastNumericCompare == 0)
+                            lastNumericCompare = aChar - bChar;
+                    } else if (aNumber)
+                        return 1;
+                    else if (bNumber)
+                        return -1;
+                    else if (lastNumericCompare == 0) {
+                        if (aChar != bChar)
+                            return aChar - bChar;
+                        asNumeric = false;
+                    } else
+                        return lastNumericCompare;
+                else if (aNumber && bNumber) {
+                    asNumeric = true;
+                    if (lastNumericCompare == 0)
+                        lastNumericCompare = aChar - bChar;
+                } else if (aChar != bChar)
+                    return aChar - bChar;
+            }
+            if (asNumeric)
+                if (aLength > bLength && a.charAt(bLength) >= '0' && a.charAt(bLength) <= '9') // as number
+                    return 1;  // a has bigger size, thus b is smaller
+                else if (bLength > aLength && b.charAt(aLength) >= '0' && b.charAt(aLength) <= '9') // as number
+                    return -1;  // b has bigger size, thus a is smaller
+                else if (lastNumericCompare == 0)
+                    return aLength - bLength;
+                else
+                    return lastNumericCompare;
+            else
+                return aLength - bLength;
+        }
+    };
 
     private HashMap<String, String> attributes;
 
+    // Sorted copy of the attribute names, so that all names sharing a prefix
+    // can be found without scanning the whole context. Only updated when a
+    // name is added or removed, so lookups and value updates stay O(1).
+    private TreeSet<String> attributeIndex;
+
+    private final Set<String> attributeKeySet = new AttributeKeySet();
+
     private String status = SvcLogicConstants.SUCCESS;
 
+    // Called when the outermost graph executed with this context ends
+    private Map<String, SvcLogicCompletionListener> completionListeners = null;
+    private int graphDepth = 0;
+
     public SvcLogicContext() {
         this.attributes = new HashMap<>();
+        this.attributeIndex = new TreeSet<>();
 
     }
 
     public SvcLogicContext(Properties props) {
         this.attributes = new HashMap<>();
+        this.attributeIndex = new TreeSet<>();
 
         if (props.containsKey(CommonConstants.SERVICE_LOGIC_STATUS)) {
             this.status = props.getProperty(CommonConstants.SERVICE_LOGIC_STATUS);
@@ -61,30 +141,155 @@ public class SvcLogicContext {
 
         for (Object nameObj : props.keySet()) {
             String propName = (String) nameObj;
-            attributes.put(propName, props.getProperty(propName));
+            setAttribute(propName, props.getProperty(propName));
         }
     }
 
-    public String getAttribute(String name) {
-        if (attributes.containsKey(name)) {
-            return attributes.get(name);
-        } else {
-            return null;
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        // CDATA sections are separate text nodes in the DOM, so they need to be
+        // reported separately (the JDK parser reports them as characters by default)
+        if (factory.isPropertySupported(REPORT_CDATA_PROP)) {
+            factory.setProperty(REPORT_CDATA_PROP, true);
         }
+        return factory;
+    }
+
+    public String getAttribute(String name) {
+        return attributes.get(name);
     }
 
     public void setAttribute(String name, String value) {
         if (value == null) {
-            if (attributes.containsKey(name)) {
-                attributes.remove(name);
+            if (attributes.remove(name) != null) {
+                attributeIndex.remove(name);
             }
-        } else {
-            attributes.put(name, value);
+        } else if (attributes.put(name, value) == null) {
+            attributeIndex.add(name);
         }
     }
 
+    /**
+     * Returns a live view of the attribute names. Removing a name through the
+     * view removes the attribute.
+     */
     public Set<String> getAttributeKeySet() {
-        return attributes.keySet();
+        return attributeKeySet;
+    }
+
+    /**
+     * Returns the names of all attributes starting with prefix, in sorted order.
+     * The cost is proportional to the number of matching names rather than to
+     * the size of the context. The returned set is a snapshot, so attributes may
+     * be set or removed while iterating over it.
+     *
+     * @param prefix attribute name prefix (e.g. "service-data.")
+     */
+    public SortedSet<String> getAttributeKeySet(String prefix) {
+        return new TreeSet<>(prefixRange(prefix));
+    }
+
+    /**
+     * Copies every attribute whose name starts with srcPrefix to the name
+     * obtained by replacing srcPrefix with destPrefix.
+     *
+     * @return the number of attributes copied
+     */
+    public int copyAttributes(String srcPrefix, String destPrefix) {
+        int srcLength = srcPrefix.length();
+        Map<String, String> toCopy = new LinkedHashMap<>();
+        for (String name : prefixRange(srcPrefix)) {
+            toCopy.put(destPrefix + name.substring(srcLength), attributes.get(name));
+        }
+        for (Map.Entry<String, String> entry : toCopy.entrySet()) {
+            setAttribute(entry.getKey(), entry.getValue());
+        }
+        return toCopy.size();
+    }
+
+    /**
+     * Removes every attribute whose name starts with prefix.
+     *
+     * @return the number of attributes removed
+     */
+    public int removeAttributes(String prefix) {
+        List<String> names = new ArrayList<>(prefixRange(prefix));
+        for (String name : names) {
+            attributes.remove(name);
+            attributeIndex.remove(name);
+        }
+        return names.size();
+    }
+
+    private SortedSet<String> prefixRange(String prefix) {
+        if (prefix.isEmpty()) {
+            return attributeIndex;
+        }
+        char last = prefix.charAt(prefix.length() - 1);
+        if (last == Character.MAX_VALUE) {
+            SortedSet<String> range = new TreeSet<>();
+            for (String name : attributeIndex.tailSet(prefix)) {
+                if (!name.startsWith(prefix)) {
+                    break;
+                }
+                range.add(name);
+            }
+            return range;
+        }
+        String upperBound = prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+        return attributeIndex.subSet(prefix, upperBound);
+    }
+
+    /**
+     * Adds a listener to call once the graph this context is being executed
+     * with ends, after the graphs it calls. Listeners are called in the order
+     * they were added, and replace any listener added under the same name.
+     */
+    public void addCompletionListener(String name, SvcLogicCompletionListener listener) {
+        if (completionListeners == null) {
+            completionListeners = new LinkedHashMap<>();
+        }
+        completionListeners.put(name, listener);
+    }
+
+    public SvcLogicCompletionListener getCompletionListener(String name) {
+        return completionListeners == null ? null : completionListeners.get(name);
+    }
+
+    public SvcLogicCompletionListener removeCompletionListener(String name) {
+        return completionListeners == null ? null : completionListeners.remove(name);
+    }
+
+    /**
+     * Called by the service logic engine before it executes a graph with this
+     * context.
+     */
+    public void enterGraph() {
+        graphDepth++;
+    }
+
+    /**
+     * Called by the service logic engine after a graph executed with this
+     * context ends, however it ends. When the outermost graph ends, the
+     * completion listeners are removed and called. Their exceptions are
+     * logged, so that they don't hide the outcome of the graph.
+     */
+    public void exitGraph() {
+        if (--graphDepth > 0) {
+            return;
+        }
+        graphDepth = 0;
+        while (completionListeners != null && !completionListeners.isEmpty()) {
+            Iterator<Map.Entry<String, SvcLogicCompletionListener>> iter = completionListeners.entrySet().iterator();
+            Map.Entry<String, SvcLogicCompletionListener> entry = iter.next();
+            iter.remove();
+            try {
+                entry.getValue().graphCompleted(this);
+            } catch (Exception e) {
+                LOG.error("Caught exception from completion listener " + entry.getKey(), e);
+            }
+        }
     }
 
     public Boolean isSuccess() {
@@ -200,21 +405,181 @@ public class SvcLogicContext {
 
     }
 
+    /**
+     * Merges an XML document into the context as it is read, using StAX rather
+     * than a DOM tree. Attribute names, values and _length counts are the same
+     * as those set by mergeDocument(String, Document) for the parsed document.
+     *
+     * @param pfx prefix for the attribute names (may be null)
+     * @param xml reader positioned at the start of the document
+     * @throws XMLStreamException if the document cannot be parsed
+     */
+    public void mergeDocument(String pfx, Reader xml) throws XMLStreamException {
+        String prefix = "";
+
+        if (pfx != null) {
+            prefix = pfx;
+        }
+
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(xml);
+        try {
+            Deque<XmlElementFrame> stack = new ArrayDeque<>();
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        String tagName = reader.getPrefix() == null || reader.getPrefix().isEmpty()
+                                ? reader.getLocalName() : reader.getPrefix() + ":" + reader.getLocalName();
+                        XmlElementFrame parent = stack.peek();
+                        if (parent == null) {
+                            stack.push(new XmlElementFrame(Collections.singletonList(prefix + "." + tagName), -1));
+                        } else {
+                            parent.flushText(this);
+                            stack.push(parent.startChild(this, tagName));
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        stack.pop().flushText(this);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                        if (!stack.isEmpty()) {
+                            stack.peek().text.append(reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.CDATA:
+                        // A CDATA section is a separate text node in the DOM
+                        if (!stack.isEmpty()) {
+                            XmlElementFrame frame = stack.peek();
+                            frame.flushText(this);
+                            frame.text.append(reader.getText());
+                            frame.flushText(this);
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        if (!stack.isEmpty()) {
+                            stack.peek().flushText(this);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
     public void mergeJson(String pfx, String jsonString) {
+        mergeJson(pfx, new StringReader(jsonString));
+    }
 
-        JsonParser jp = new JsonParser();
-        JsonElement element = jp.parse(jsonString);
-        String root = "";
+    /**
+     * Merges a JSON document into the context as it is read, without building
+     * a JsonElement tree first. Attribute names and _length values are the same
+     * as those produced by writeJsonObject and handleJsonArray. Since attributes
+     * are set while reading, a malformed document may leave the attributes read
+     * before the error in the context.
+     *
+     * @param pfx prefix for the attribute names (may be null)
+     * @param json reader positioned at the start of the document
+     * @throws JsonSyntaxException if the document is not valid JSON
+     * @throws JsonIOException if the document cannot be read
+     */
+    public void mergeJson(String pfx, Reader json) {
+        JsonReader reader = new JsonReader(json);
+        reader.setLenient(true);
+
+        StringBuilder path = new StringBuilder();
         if ((pfx != null) && (pfx.length() > 0)) {
-            root = pfx + ".";
+            path.append(pfx).append('.');
+        }
+
+        boolean isEmpty = true;
+        try {
+            JsonToken token = reader.peek();
+            isEmpty = false;
+            if (token == JsonToken.BEGIN_OBJECT) {
+                readJsonObject(reader, path);
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                readJsonArray(reader, path, "");
+            } else {
+                reader.skipValue();
+            }
+            if (token != JsonToken.NULL && reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Did not consume the entire document.");
+            }
+        } catch (EOFException e) {
+            if (!isEmpty) {
+                throw new JsonSyntaxException(e);
+            }
+        } catch (MalformedJsonException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    private void readJsonObject(JsonReader reader, StringBuilder path) throws IOException {
+        int rootLength = path.length();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_OBJECT) {
+                path.append(key).append('.');
+                readJsonObject(reader, path);
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                readJsonArray(reader, path, key);
+            } else {
+                // Same as writeJsonObject, a value directly under a root that does
+                // not end in "." adds one to the root for the remaining entries
+                if ((rootLength == 0) || (path.charAt(rootLength - 1) != '.')) {
+                    path.append('.');
+                    rootLength++;
+                }
+                path.append(key);
+                this.setAttribute(path.toString(), nextJsonValue(reader));
+            }
+            path.setLength(rootLength);
         }
-        if (element.isJsonObject()) {
-            writeJsonObject(element.getAsJsonObject(), root);
-        } else if (element.isJsonArray()) {
-            handleJsonArray("", element.getAsJsonArray(), root);
+        reader.endObject();
+    }
+
+    private void readJsonArray(JsonReader reader, StringBuilder path, String key) throws IOException {
+        int rootLength = path.length();
+        int arrayIdx = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            path.append(key).append('[').append(arrayIdx).append(']');
+            JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_ARRAY) {
+                readJsonArray(reader, path, key);
+            } else if (token == JsonToken.BEGIN_OBJECT) {
+                path.append('.');
+                readJsonObject(reader, path);
+            } else {
+                this.setAttribute(path.toString(), nextJsonValue(reader));
+            }
+            path.setLength(rootLength);
+            arrayIdx++;
         }
+        reader.endArray();
+        this.setAttribute(path + key + LENGTH, String.valueOf(arrayIdx));
     }
 
+    private static String nextJsonValue(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return CTX_NULL_VALUE;
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            default:
+                // Numbers are kept as written, as JsonPrimitive.getAsString does
+                return reader.nextString();
+        }
+    }
 
     protected void writeJsonObject(JsonObject obj, String root) {
         for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
@@ -301,13 +666,13 @@ public class SvcLogicContext {
      * @return
      */
     public String toJsonString(String pfx) {
-        if (!pfx.endsWith(".")) {
-            pfx = pfx + ".";
+        Map<String, String> filteredAttributes = getAttributesWithPrefix(pfx);
+
+        if (filteredAttributes.size() < 1){
+            return "";
         }
 
-        String finalPfx = pfx;
-        return toJsonString(k -> k.startsWith(finalPfx),
-                            k -> k.split(finalPfx)[1]);
+        return convertAttrsToJsonString(filteredAttributes);
     }
 
     /**
@@ -340,6 +705,36 @@ public class SvcLogicContext {
         return convertAttrsToJsonString(attributes);
     }
 
+    /**
+     * Writes the same JSON as toJsonString(pfx) to out, without building it
+     * as a String first. Nothing is written if no attribute has the prefix.
+     */
+    public void writeJson(String pfx, Writer out) throws IOException {
+        Map<String, String> filteredAttributes = getAttributesWithPrefix(pfx);
+
+        if (filteredAttributes.size() > 0) {
+            writeAttrsAsJson(filteredAttributes, out);
+        }
+    }
+
+    /**
+     * Writes the same JSON as toJsonString() to out, without building it as a
+     * String first.
+     */
+    public void writeJson(Writer out) throws IOException {
+        writeAttrsAsJson(attributes, out);
+    }
+
+    private Map<String, String> getAttributesWithPrefix(String pfx) {
+        if (!pfx.endsWith(".")) {
+            pfx = pfx + ".";
+        }
+
+        String finalPfx = pfx;
+        return prefixRange(pfx).stream()
+                .collect( Collectors.toMap(x -> x.split(finalPfx)[1] , x -> getAttribute(x)) );
+    }
+
     public void printProperties(Properties props) {
         securePrinter.printProperties(props);
     }
@@ -356,7 +751,130 @@ public class SvcLogicContext {
         securePrinter.printAttributes(attributes, subpath);
     }
 
+    /**
+     * State for an element being read by mergeDocument(String, Reader). Since
+     * mergeElement merges the children of every non-root element under both
+     * the plain and the indexed name, an element keeps all the attribute name
+     * prefixes it is known by.
+     */
+    private static class XmlElementFrame {
+        private final List<String> prefixes;
+        private final int idx;
+        private final Map<String, Integer> childCounts = new HashMap<>();
+        private final StringBuilder text = new StringBuilder();
+
+        XmlElementFrame(List<String> prefixes, int idx) {
+            this.prefixes = prefixes;
+            this.idx = idx;
+        }
+
+        XmlElementFrame startChild(SvcLogicContext ctx, String tagName) {
+            int childIdx = childCounts.getOrDefault(tagName, 0);
+            childCounts.put(tagName, childIdx + 1);
+
+            List<String> childPrefixes = new ArrayList<>(idx < 0 ? prefixes.size() : prefixes.size() * 2);
+            for (String prefix : prefixes) {
+                childPrefixes.add(prefix + "." + tagName);
+            }
+            if (idx >= 0) {
+                for (String prefix : prefixes) {
+                    childPrefixes.add(prefix + "[" + idx + "]." + tagName);
+                }
+            }
+            for (String childPrefix : childPrefixes) {
+                ctx.setAttribute(childPrefix + LENGTH, Integer.toString(childIdx + 1));
+            }
+            return new XmlElementFrame(childPrefixes, childIdx);
+        }
+
+        void flushText(SvcLogicContext ctx) {
+            if (text.length() > 0) {
+                String value = text.toString();
+                for (String prefix : prefixes) {
+                    ctx.setAttribute(prefix, value);
+                }
+                text.setLength(0);
+            }
+        }
+    }
+
+    private class AttributeKeySet extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            final Iterator<String> iter = attributes.keySet().iterator();
+            return new Iterator<String>() {
+                private String current = null;
+
+                @Override
+                public boolean hasNext() {
+                    return iter.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    current = iter.next();
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    iter.remove();
+                    attributeIndex.remove(current);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return attributes.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return attributes.containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (attributes.containsKey(o)) {
+                attributes.remove(o);
+                attributeIndex.remove(o);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            attributes.clear();
+            attributeIndex.clear();
+        }
+    }
+
+    private void writeAttrsAsJson(Map<String, String> attrs, Writer out) throws IOException {
+        if (!SvcLogicContextJsonWriter.write(attrs, out)) {
+            out.write(convertAttrsToJsonTree(attrs));
+        }
+    }
+
     private String convertAttrsToJsonString(Map<String, String> attrs) {
+        StringWriter out = new StringWriter();
+        try {
+            writeAttrsAsJson(attrs, out);
+        } catch (IOException e) {
+            // Not thrown by StringWriter
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Converts attributes to JSON by building a Gson tree. Used for attribute
+     * sets that SvcLogicContextJsonWriter does not handle, so that the result
+     * for those is unchanged.
+     */
+    private String convertAttrsToJsonTree(Map<String, String> attrs) {
         JsonObject root = new JsonObject();
         JsonElement lastJsonObject = root;
         JsonElement currJsonLeaf = root;
@@ -365,56 +883,7 @@ public class SvcLogicContext {
         String attrVal = null;
 
         // Sort properties so that arrays will be reconstructed in proper order
-        TreeMap<String, String> sortedAttributes = new TreeMap<>(new Comparator<String>(
-        ) {
-            @Override
-            public int compare(String a, String b){
-                int aLength = a.length();
-                int bLength = b.length();
-                int minSize = Math.min(aLength, bLength);
-                char aChar, bChar;
-                boolean aNumber, bNumber;
-                boolean asNumeric = false;
-                int lastNumericCompare = 0;
-                for (int i = 0; i < minSize; i++) {
-                    aChar = a.charAt(i);
-                    bChar = b.charAt(i);
-                    aNumber = aChar >= '0' && aChar <= '9';
-                    bNumber = bChar >= '0' && bChar <= '9';
-                    if (asNumeric)
-                        if (aNumber && bNumber) {
-                            if (lastNumericCompare == 0)
-                                lastNumericCompare = aChar - bChar;
-                        } else if (aNumber)
-                            return 1;
-                        else if (bNumber)
-                            return -1;
-                        else if (lastNumericCompare == 0) {
-                            if (aChar != bChar)
-                                return aChar - bChar;
-                            asNumeric = false;
-                        } else
-                            return lastNumericCompare;
-                    else if (aNumber && bNumber) {
-                        asNumeric = true;
-                        if (lastNumericCompare == 0)
-                            lastNumericCompare = aChar - bChar;
-                    } else if (aChar != bChar)
-                        return aChar - bChar;
-                }
-                if (asNumeric)
-                    if (aLength > bLength && a.charAt(bLength) >= '0' && a.charAt(bLength) <= '9') // as number
-                        return 1;  // a has bigger size, thus b is smaller
-                    else if (bLength > aLength && b.charAt(aLength) >= '0' && b.charAt(aLength) <= '9') // as number
-                        return -1;  // b has bigger size, thus a is smaller
-                    else if (lastNumericCompare == 0)
-                        return aLength - bLength;
-                    else
-                        return lastNumericCompare;
-                else
-                    return aLength - bLength;
-            }
-        });
+        TreeMap<String, String> sortedAttributes = new TreeMap<>(ATTRIBUTE_NAME_ORDER);
         sortedAttributes.putAll(attrs);
 
         // Loop through properties, sorted by key
@@ -0,0 +1,280 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP : CCSDK
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 						reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.core.sli;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes context attributes as JSON in a single pass. Attribute names are
+ * sorted once, using the same order as SvcLogicContext.toJsonString, and
+ * added to a tree of objects and arrays, reusing the part of the path shared
+ * with the previous name. The tree is then written to a JsonWriter.
+ * <p>
+ * Only attribute sets that the Gson based conversion in SvcLogicContext would
+ * turn into the same JSON are handled here: names with empty parts, array
+ * indexes that are not contiguous, or names that are used as both a value and
+ * a container are reported back to the caller, which then uses the Gson based
+ * conversion so that its output (or error) is unchanged.
+ */
+final class SvcLogicContextJsonWriter {
+
+    private static final String LENGTH = "_length";
+
+    private SvcLogicContextJsonWriter() {
+        // Utility class
+    }
+
+    /**
+     * Writes attrs to out as a JSON object.
+     *
+     * @return false, without writing anything, if the attributes cannot be
+     *         written by this class
+     */
+    static boolean write(Map<String, String> attrs, Writer out) throws IOException {
+        ObjectNode root = buildTree(attrs);
+        if (root == null) {
+            return false;
+        }
+
+        JsonWriter writer = new JsonWriter(out);
+        writer.setLenient(true);
+        writeObject(writer, root);
+        writer.flush();
+        return true;
+    }
+
+    private static ObjectNode buildTree(Map<String, String> attrs) {
+        String[] names = attrs.keySet().toArray(new String[attrs.size()]);
+        try {
+            Arrays.sort(names, SvcLogicContext.ATTRIBUTE_NAME_ORDER);
+        } catch (IllegalArgumentException e) {
+            // Comparator found to be inconsistent for these names
+            return null;
+        }
+
+        ObjectNode root = new ObjectNode();
+
+        // Containers for each part of the previous name, and where each part ends
+        List<ObjectNode> containers = new ArrayList<>();
+        List<Integer> partEnds = new ArrayList<>();
+        String prevName = "";
+
+        for (String name : names) {
+            if (name.isEmpty() || (name.charAt(name.length() - 1) == '.')) {
+                return null;
+            }
+
+            // Skip the parts shared with the previous name
+            int common = commonPrefixLength(prevName, name);
+            int depth = 0;
+            while ((depth < partEnds.size()) && (partEnds.get(depth) < common)) {
+                depth++;
+            }
+            trim(containers, depth + 1);
+            trim(partEnds, depth);
+            if (containers.isEmpty()) {
+                containers.add(root);
+            }
+
+            ObjectNode container = containers.get(depth);
+            int start = (depth == 0) ? 0 : partEnds.get(depth - 1) + 1;
+
+            while (true) {
+                int end = name.indexOf('.', start);
+                boolean isLast = end < 0;
+                if (isLast) {
+                    end = name.length();
+                }
+                if (end == start) {
+                    return null;
+                }
+
+                String part = name.substring(start, end);
+                container = addPart(container, part, isLast, attrs.get(name));
+                if (isLast) {
+                    break;
+                }
+                if (container == null) {
+                    return null;
+                }
+                containers.add(container);
+                partEnds.add(end);
+                start = end + 1;
+            }
+            if (container == INVALID) {
+                return null;
+            }
+            prevName = name;
+        }
+        return root;
+    }
+
+    // Returned by addPart for a last part that cannot be added
+    private static final ObjectNode INVALID = new ObjectNode();
+
+    /**
+     * Adds one part of a name under container. For a part that is not the last
+     * one, returns the object node for the rest of the name, or null if the
+     * part cannot be handled. For the last part, returns container, or INVALID.
+     */
+    private static ObjectNode addPart(ObjectNode container, String part, boolean isLast, String value) {
+        int bracket = part.indexOf('[');
+        if (bracket < 0) {
+            Object member = container.members.get(part);
+            if (isLast) {
+                if (part.endsWith(LENGTH)) {
+                    return container;
+                }
+                if (member != null) {
+                    return INVALID;
+                }
+                container.members.put(part, value);
+                return container;
+            }
+            if (member == null) {
+                ObjectNode child = new ObjectNode();
+                container.members.put(part, child);
+                return child;
+            }
+            return (member instanceof ObjectNode) ? (ObjectNode) member : null;
+        }
+
+        int index = parseIndex(part, bracket);
+        if (index < 0) {
+            return isLast ? INVALID : null;
+        }
+        String arrayName = part.substring(0, bracket);
+        Object member = container.members.get(arrayName);
+        ArrayNode array;
+        if (member == null) {
+            array = new ArrayNode();
+            container.members.put(arrayName, array);
+        } else if (member instanceof ArrayNode) {
+            array = (ArrayNode) member;
+        } else {
+            return isLast ? INVALID : null;
+        }
+
+        int size = array.elements.size();
+        if (isLast) {
+            if (arrayName.endsWith(LENGTH)) {
+                return container;
+            }
+            if (index != size) {
+                return INVALID;
+            }
+            array.elements.add(value);
+            return container;
+        }
+        if (index == size) {
+            ObjectNode child = new ObjectNode();
+            array.elements.add(child);
+            return child;
+        }
+        if ((index == size - 1) && (array.elements.get(index) instanceof ObjectNode)) {
+            return (ObjectNode) array.elements.get(index);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of a part of the form name[n], where n is written
+     * without leading zeros, or -1 for any other use of brackets.
+     */
+    private static int parseIndex(String part, int bracket) {
+        int last = part.length() - 1;
+        if ((part.charAt(last) != ']') || (last - bracket < 2) || (last - bracket > 10)) {
+            return -1;
+        }
+        if ((part.charAt(bracket + 1) == '0') && (last - bracket > 2)) {
+            return -1;
+        }
+        long index = 0;
+        for (int i = bracket + 1; i < last; i++) {
+            char c = part.charAt(i);
+            if ((c < '0') || (c > '9')) {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return (index > Integer.MAX_VALUE) ? -1 : (int) index;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while ((i < max) && (a.charAt(i) == b.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void trim(List<?> list, int size) {
+        while (list.size() > size) {
+            list.remove(list.size() - 1);
+        }
+    }
+
+    private static void writeObject(JsonWriter writer, ObjectNode node) throws IOException {
+        writer.beginObject();
+        for (Map.Entry<String, Object> member : node.members.entrySet()) {
+            writer.name(member.getKey());
+            writeValue(writer, member.getValue());
+        }
+        writer.endObject();
+    }
+
+    private static void writeValue(JsonWriter writer, Object value) throws IOException {
+        if (value instanceof ObjectNode) {
+            writeObject(writer, (ObjectNode) value);
+        } else if (value instanceof ArrayNode) {
+            writer.beginArray();
+            for (Object element : ((ArrayNode) value).elements) {
+                writeValue(writer, element);
+            }
+            writer.endArray();
+        } else if ("true".equals(value) || "false".equals(value)) {
+            writer.value(Boolean.parseBoolean((String) value));
+        } else if ("null".equals(value)) {
+            writer.nullValue();
+        } else {
+            writer.value((String) value);
+        }
+    }
+
+    // Members are String values, ObjectNodes or ArrayNodes
+    private static final class ObjectNode {
+        private final Map<String, Object> members = new LinkedHashMap<>();
+    }
+
+    // Elements are String values or ObjectNodes
+    private static final class ArrayNode {
+        private final List<Object> elements = new ArrayList<>();
+    }
+}
@@ -31,6 +31,11 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import javax.sql.rowset.CachedRowSet;
 import org.onap.ccsdk.sli.core.dblib.DbLibService;
@@ -267,6 +272,127 @@ public class SvcLogicDblibStore implements SvcLogicStore {
 		}
 	}
 
+	/**
+	 * Looks up the md5sums of all the graphs of each module with one query.
+	 */
+	@Override
+	public List<String> getMd5sums(List<SvcLogicGraph> graphs) throws SvcLogicException {
+		Map<String, Map<List<String>, String>> modules = new HashMap<>();
+		List<String> md5sums = new ArrayList<>(graphs.size());
+		for (SvcLogicGraph graph : graphs) {
+			Map<List<String>, String> moduleMd5sums = modules.get(graph.getModule());
+			if (moduleMd5sums == null) {
+				moduleMd5sums = getModuleMd5sums(graph.getModule());
+				modules.put(graph.getModule(), moduleMd5sums);
+			}
+			md5sums.add(moduleMd5sums.get(Arrays.asList(graph.getRpc(), graph.getVersion(), graph.getMode())));
+		}
+		return md5sums;
+	}
+
+	// Returns the md5sums of all the graphs of module, keyed by rpc, version and mode
+	private Map<List<String>, String> getModuleMd5sums(String module) throws SvcLogicException {
+		String md5sumModuleSql = "SELECT rpc, version, mode, md5sum FROM SVC_LOGIC WHERE module = ?";
+
+		ArrayList<String> args = new ArrayList<>();
+		args.add(module);
+
+		Map<List<String>, String> md5sums = new HashMap<>();
+		CachedRowSet results = null;
+		try {
+			results = dbSvc.getData(md5sumModuleSql, args, null);
+			while (results.next()) {
+				md5sums.put(Arrays.asList(results.getString(1), results.getString(2), results.getString(3)),
+						results.getString(4));
+			}
+		} catch (Exception e) {
+			throw new ConfigurationException("SQL query failed", e);
+		} finally {
+			if (results != null) {
+				try {
+					results.close();
+				} catch (SQLException x) {
+					LOG.error("Failed to close CachedRowSet", x);
+				}
+			}
+		}
+		return md5sums;
+	}
+
+	/**
+	 * Deletes and inserts all the graphs with two JDBC batches, in a single
+	 * transaction. If the same graph appears more than once, the last one is
+	 * stored.
+	 */
+	@Override
+	public void storeAll(List<SvcLogicGraph> graphs) throws SvcLogicException {
+		String deleteGraphSql = "DELETE FROM SVC_LOGIC WHERE module = ? AND rpc = ? AND version = ? AND mode = ?";
+		String storeGraphSql = "INSERT INTO SVC_LOGIC (module, rpc, version, mode, active, graph, md5sum)"
+				+ " VALUES(?, ?, ?, ?, ?, ?, ?)";
+
+		Map<List<String>, SvcLogicGraph> graphsByKey = new LinkedHashMap<>();
+		for (SvcLogicGraph graph : graphs) {
+			if (graph == null) {
+				throw new SvcLogicException("graph cannot be null");
+			}
+			graphsByKey.put(Arrays.asList(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode()),
+					graph);
+		}
+		if (graphsByKey.isEmpty()) {
+			return;
+		}
+
+		List<byte[]> graphBytes = new ArrayList<>(graphsByKey.size());
+		for (SvcLogicGraph graph : graphsByKey.values()) {
+			try (ByteArrayOutputStream byteStr = new ByteArrayOutputStream();
+				ObjectOutputStream goutStr = new ObjectOutputStream(byteStr)) {
+				goutStr.writeObject(graph);
+				goutStr.flush();
+				graphBytes.add(byteStr.toByteArray());
+			} catch (Exception e) {
+				throw new SvcLogicException("could not serialize graph", e);
+			}
+		}
+
+		try (Connection dbConn = dbSvc.getConnection();
+			PreparedStatement deleteGraphStmt = dbConn.prepareStatement(deleteGraphSql);
+			PreparedStatement storeGraphStmt = dbConn.prepareStatement(storeGraphSql)) {
+			boolean oldAutoCommit = dbConn.getAutoCommit();
+			dbConn.setAutoCommit(false);
+			try {
+				for (SvcLogicGraph graph : graphsByKey.values()) {
+					deleteGraphStmt.setString(1, graph.getModule());
+					deleteGraphStmt.setString(2, graph.getRpc());
+					deleteGraphStmt.setString(3, graph.getVersion());
+					deleteGraphStmt.setString(4, graph.getMode());
+					deleteGraphStmt.addBatch();
+				}
+				deleteGraphStmt.executeBatch();
+
+				int i = 0;
+				for (SvcLogicGraph graph : graphsByKey.values()) {
+					storeGraphStmt.setString(1, graph.getModule());
+					storeGraphStmt.setString(2, graph.getRpc());
+					storeGraphStmt.setString(3, graph.getVersion());
+					storeGraphStmt.setString(4, graph.getMode());
+					storeGraphStmt.setString(5, "N");
+					storeGraphStmt.setBlob(6, new ByteArrayInputStream(graphBytes.get(i++)));
+					storeGraphStmt.setString(7, graph.getMd5sum());
+					storeGraphStmt.addBatch();
+				}
+				storeGraphStmt.executeBatch();
+				dbConn.commit();
+			} catch (SQLException e) {
+				dbConn.rollback();
+				throw e;
+			} finally {
+				dbConn.setAutoCommit(oldAutoCommit);
+			}
+		} catch (Exception e) {
+			throw new SvcLogicException("Could not write objects to database", e);
+		}
+	}
+
 	public void delete(String module, String rpc, String version, String mode)
 			throws SvcLogicException {
 		String deleteGraphSql = "DELETE FROM SVC_LOGIC WHERE module = ? AND rpc = ? AND version = ? AND mode = ?";
@@ -304,6 +430,112 @@ public class SvcLogicDblibStore implements SvcLogicStore {
 		}
 	}
 
+	/**
+	 * Deactivates the current versions and activates the new ones with two JDBC
+	 * batches, in a single transaction. Entries for graphs that are not stored,
+	 * which are looked up with one query per module, are skipped, and only the
+	 * last entry for a given module, rpc and mode is activated.
+	 */
+	@Override
+	public List<ActivationEntry> activateAll(List<ActivationEntry> entries) throws SvcLogicException {
+		String deactivateSql = "UPDATE SVC_LOGIC SET active = 'N' WHERE module = ? AND rpc = ? AND mode = ?";
+		String activateSql = "UPDATE SVC_LOGIC SET active = 'Y' WHERE module = ? AND rpc = ? AND mode = ? AND version = ?";
+
+		List<ActivationEntry> notFound = new ArrayList<>();
+		Map<String, Map<List<String>, String>> modules = new HashMap<>();
+		Map<List<String>, ActivationEntry> entriesByKey = new LinkedHashMap<>();
+		for (ActivationEntry entry : entries) {
+			Map<List<String>, String> moduleMd5sums = modules.get(entry.module);
+			if (moduleMd5sums == null) {
+				moduleMd5sums = getModuleMd5sums(entry.module);
+				modules.put(entry.module, moduleMd5sums);
+			}
+			if (moduleMd5sums.containsKey(Arrays.asList(entry.rpc, entry.version, entry.mode))) {
+				List<String> key = Arrays.asList(entry.module, entry.rpc, entry.mode);
+				entriesByKey.remove(key);
+				entriesByKey.put(key, entry);
+			} else {
+				notFound.add(entry);
+			}
+		}
+		if (entriesByKey.isEmpty()) {
+			return notFound;
+		}
+
+		try (Connection dbConn = dbSvc.getConnection();
+			PreparedStatement deactivateStmt = dbConn.prepareStatement(deactivateSql);
+			PreparedStatement activateStmt = dbConn.prepareStatement(activateSql)) {
+			boolean oldAutoCommit = dbConn.getAutoCommit();
+			dbConn.setAutoCommit(false);
+			try {
+				for (ActivationEntry entry : entriesByKey.values()) {
+					deactivateStmt.setString(1, entry.module);
+					deactivateStmt.setString(2, entry.rpc);
+					deactivateStmt.setString(3, entry.mode);
+					deactivateStmt.addBatch();
+				}
+				deactivateStmt.executeBatch();
+
+				for (ActivationEntry entry : entriesByKey.values()) {
+					activateStmt.setString(1, entry.module);
+					activateStmt.setString(2, entry.rpc);
+					activateStmt.setString(3, entry.mode);
+					activateStmt.setString(4, entry.version);
+					activateStmt.addBatch();
+				}
+				activateStmt.executeBatch();
+				dbConn.commit();
+			} catch (SQLException e) {
+				dbConn.rollback();
+				throw e;
+			} finally {
+				dbConn.setAutoCommit(oldAutoCommit);
+			}
+		} catch (Exception e) {
+			throw new SvcLogicException("Could not activate graphs", e);
+		}
+		return notFound;
+	}
+
+    @Override
+    public String getMd5sum(String module, String rpc, String version, String mode) throws SvcLogicException {
+        String md5sumVersionSql = "SELECT md5sum FROM SVC_LOGIC"
+                + " WHERE module = ? AND rpc = ? AND mode = ? AND version = ?";
+
+        String md5sumActiveSql = "SELECT md5sum FROM SVC_LOGIC"
+                + " WHERE module = ? AND rpc = ? AND mode = ? AND active = 'Y'";
+
+        ArrayList<String> args = new ArrayList<>();
+        args.add(module);
+        args.add(rpc);
+        args.add(mode);
+
+        CachedRowSet results = null;
+        try {
+            if (version == null) {
+                results = dbSvc.getData(md5sumActiveSql, args, null);
+            } else {
+                args.add(version);
+                results = dbSvc.getData(md5sumVersionSql, args, null);
+            }
+
+            if (results.next()) {
+                return results.getString(1);
+            }
+            return null;
+        } catch (Exception e) {
+            throw new ConfigurationException("SQL query failed", e);
+        } finally {
+            if (results != null) {
+                try {
+                    results.close();
+                } catch (SQLException x) {
+                    LOG.error("Failed to close CachedRowSet", x);
+                }
+            }
+        }
+    }
+
     @Override
     public void activate(String module, String rpc, String version, String mode) throws SvcLogicException {
 
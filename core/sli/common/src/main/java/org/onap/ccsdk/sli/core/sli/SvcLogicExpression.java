@@ -31,6 +31,9 @@ import java.util.List;
 public abstract class SvcLogicExpression implements Serializable {
 	
 	private List<SvcLogicExpression> operands = new LinkedList<>();
+
+	// Evaluator specific form of this expression, built on first evaluation
+	private transient volatile Object compiledForm = null;
 	
 	
 	public void addOperand(SvcLogicExpression expr)
@@ -47,6 +50,14 @@ public abstract class SvcLogicExpression implements Serializable {
 		return(operands.size());
 	}
 	
+	public Object getCompiledForm() {
+		return compiledForm;
+	}
+
+	public void setCompiledForm(Object compiledForm) {
+		this.compiledForm = compiledForm;
+	}
+	
 	public abstract String asParsedExpr();
 
 }
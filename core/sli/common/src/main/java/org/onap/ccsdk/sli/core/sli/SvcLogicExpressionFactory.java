@@ -24,6 +24,8 @@ package org.onap.ccsdk.sli.core.sli;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -38,7 +40,37 @@ public class SvcLogicExpressionFactory {
 	private static final Logger LOG = LoggerFactory
 			.getLogger(SvcLogicExpressionFactory.class);
 
-	
+
+	// Expression text in service logic is finite (it comes from the graphs), so
+	// the cache only needs a ceiling as protection against dynamic keys
+	private static final int MAX_CACHED_EXPRESSIONS = 10000;
+	private static final ConcurrentMap<String, SvcLogicExpression> parsedExpressions = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the parsed form of exprStr, parsing it only the first time a given
+	 * expression text is seen. Parsed expressions are not modified during
+	 * evaluation, so the same instance can be shared between nodes and threads.
+	 * Callers must not modify the returned expression.
+	 */
+	public static SvcLogicExpression parseCached(String exprStr) throws IOException
+	{
+		SvcLogicExpression expr = parsedExpressions.get(exprStr);
+		if (expr == null)
+		{
+			expr = parse(exprStr);
+			if (parsedExpressions.size() < MAX_CACHED_EXPRESSIONS)
+			{
+				parsedExpressions.putIfAbsent(exprStr, expr);
+			}
+		}
+		return(expr);
+	}
+
+	public static void clearCache()
+	{
+		parsedExpressions.clear();
+	}
+
 	public static SvcLogicExpression parse(String exprStr) throws IOException
 	{
 		InputStream exprStream = new ByteArrayInputStream(exprStr.getBytes());
@@ -34,6 +34,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,6 +59,9 @@ public class SvcLogicJdbcStore implements SvcLogicStore {
     private PreparedStatement hasVersionGraphStmt = null;
     private PreparedStatement fetchActiveGraphStmt = null;
     private PreparedStatement fetchVersionGraphStmt = null;
+    private PreparedStatement md5sumActiveGraphStmt = null;
+    private PreparedStatement md5sumVersionGraphStmt = null;
+    private PreparedStatement md5sumModuleStmt = null;
     private PreparedStatement storeGraphStmt = null;
     private PreparedStatement deleteGraphStmt = null;
 
@@ -198,6 +207,33 @@ public class SvcLogicJdbcStore implements SvcLogicStore {
 
         }
 
+        String md5sumVersionGraphSql = CommonConstants.JDBC_SELECT_MD5SUM + dbName + CommonConstants.SVCLOGIC_TABLE
+                + CommonConstants.JDBC_GRAPH_QUERY;
+
+        try {
+            md5sumVersionGraphStmt = dbConn.prepareStatement(md5sumVersionGraphSql);
+        } catch (Exception e) {
+            throw new ConfigurationException(CommonConstants.JDBC_STATEMENT_ERR + md5sumVersionGraphSql, e);
+        }
+
+        String md5sumActiveGraphSql = CommonConstants.JDBC_SELECT_MD5SUM + dbName + CommonConstants.SVCLOGIC_TABLE
+                + CommonConstants.JDBC_ACTIVE_GRAPH_QUERY;
+
+        try {
+            md5sumActiveGraphStmt = dbConn.prepareStatement(md5sumActiveGraphSql);
+        } catch (Exception e) {
+            throw new ConfigurationException(CommonConstants.JDBC_STATEMENT_ERR + md5sumActiveGraphSql, e);
+        }
+
+        String md5sumModuleSql = "SELECT rpc, version, mode, md5sum FROM " + dbName + CommonConstants.SVCLOGIC_TABLE
+                + " WHERE module = ?";
+
+        try {
+            md5sumModuleStmt = dbConn.prepareStatement(md5sumModuleSql);
+        } catch (Exception e) {
+            throw new ConfigurationException(CommonConstants.JDBC_STATEMENT_ERR + md5sumModuleSql, e);
+        }
+
         String storeGraphSql = CommonConstants.JDBC_INSERT + dbName
                 + ".SVC_LOGIC (module, rpc, version, mode, active, graph, md5sum) VALUES(?, ?, ?, ?, ?, ?, ?)";
 
@@ -430,8 +466,8 @@ public class SvcLogicJdbcStore implements SvcLogicStore {
         return retval;
     }
 
-    public void store(SvcLogicGraph graph) throws SvcLogicException {
-
+    @Override
+    public synchronized String getMd5sum(String module, String rpc, String version, String mode) throws SvcLogicException {
 
         if (!isDbConnValid()) {
 
@@ -443,23 +479,125 @@ public class SvcLogicJdbcStore implements SvcLogicStore {
             }
         }
 
-        if (graph == null) {
-            throw new SvcLogicException("graph cannot be null");
+        String retval = null;
+        ResultSet results = null;
+
+        PreparedStatement md5sumStmt;
+        if (version == null) {
+            md5sumStmt = md5sumActiveGraphStmt;
+        } else {
+            md5sumStmt = md5sumVersionGraphStmt;
         }
+        try {
+            md5sumStmt.setString(1, module);
+            md5sumStmt.setString(2, rpc);
+            md5sumStmt.setString(3, mode);
 
-        byte[] graphBytes;
+            if (version != null) {
+                md5sumStmt.setString(4, version);
+            }
+            boolean oldAutoCommit = dbConn.getAutoCommit();
+            dbConn.setAutoCommit(false);
+            results = md5sumStmt.executeQuery();
+            dbConn.commit();
+            dbConn.setAutoCommit(oldAutoCommit);
 
-        try (ByteArrayOutputStream byteStr = new ByteArrayOutputStream();
-                ObjectOutputStream goutStr = new ObjectOutputStream(byteStr)) {
+            if (results.next()) {
+                retval = results.getString(1);
+            }
+        } catch (Exception e) {
+            throw new ConfigurationException("SQL query failed", e);
+        } finally {
+            if (results != null) {
+                try {
+                    results.close();
+                } catch (SQLException x) {
+                    LOG.error(CommonConstants.RESULTSET_CLOSE_ERR, x);
+                }
+            }
+        }
 
-            goutStr.writeObject(graph);
+        return retval;
+    }
+
+    /**
+     * Looks up the md5sums of all the graphs of each module with one query.
+     */
+    @Override
+    public synchronized List<String> getMd5sums(List<SvcLogicGraph> graphs) throws SvcLogicException {
+
+        if (!isDbConnValid()) {
 
-            graphBytes = byteStr.toByteArray();
+            // Try reinitializing
+            initDbResources();
 
+            if (!isDbConnValid()) {
+                throw new ConfigurationException(CommonConstants.JDBC_CONN_ERR);
+            }
+        }
+
+        Map<String, Map<List<String>, String>> modules = new HashMap<>();
+        List<String> md5sums = new ArrayList<>(graphs.size());
+        for (SvcLogicGraph graph : graphs) {
+            Map<List<String>, String> moduleMd5sums = modules.get(graph.getModule());
+            if (moduleMd5sums == null) {
+                moduleMd5sums = getModuleMd5sums(graph.getModule());
+                modules.put(graph.getModule(), moduleMd5sums);
+            }
+            md5sums.add(moduleMd5sums.get(Arrays.asList(graph.getRpc(), graph.getVersion(), graph.getMode())));
+        }
+        return md5sums;
+    }
+
+    // Returns the md5sums of all the graphs of module, keyed by rpc, version and mode
+    private Map<List<String>, String> getModuleMd5sums(String module) throws SvcLogicException {
+        Map<List<String>, String> md5sums = new HashMap<>();
+        ResultSet results = null;
+        try {
+            md5sumModuleStmt.setString(1, module);
+            boolean oldAutoCommit = dbConn.getAutoCommit();
+            dbConn.setAutoCommit(false);
+            results = md5sumModuleStmt.executeQuery();
+            dbConn.commit();
+            dbConn.setAutoCommit(oldAutoCommit);
+
+            while (results.next()) {
+                md5sums.put(Arrays.asList(results.getString(1), results.getString(2), results.getString(3)),
+                        results.getString(4));
+            }
         } catch (Exception e) {
-            throw new SvcLogicException("could not serialize graph", e);
+            throw new ConfigurationException("SQL query failed", e);
+        } finally {
+            if (results != null) {
+                try {
+                    results.close();
+                } catch (SQLException x) {
+                    LOG.error(CommonConstants.RESULTSET_CLOSE_ERR, x);
+                }
+            }
+        }
+        return md5sums;
+    }
+
+    public void store(SvcLogicGraph graph) throws SvcLogicException {
+
+
+        if (!isDbConnValid()) {
+
+            // Try reinitializing
+            initDbResources();
+
+            if (!isDbConnValid()) {
+                throw new ConfigurationException(CommonConstants.JDBC_CONN_ERR);
+            }
+        }
+
+        if (graph == null) {
+            throw new SvcLogicException("graph cannot be null");
         }
 
+        byte[] graphBytes = serialize(graph);
+
         // If object already stored in database, delete it
         if (hasGraph(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode())) {
             delete(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode());
@@ -485,6 +623,80 @@ public class SvcLogicJdbcStore implements SvcLogicStore {
         }
     }
 
+    /**
+     * Deletes and inserts all the graphs with two JDBC batches, in a single
+     * transaction. If the same graph appears more than once, the last one is
+     * stored.
+     */
+    @Override
+    public synchronized void storeAll(List<SvcLogicGraph> graphs) throws SvcLogicException {
+
+        if (!isDbConnValid()) {
+
+            // Try reinitializing
+            initDbResources();
+
+            if (!isDbConnValid()) {
+                throw new ConfigurationException(CommonConstants.JDBC_CONN_ERR);
+            }
+        }
+
+        Map<List<String>, SvcLogicGraph> graphsByKey = new LinkedHashMap<>();
+        for (SvcLogicGraph graph : graphs) {
+            if (graph == null) {
+                throw new SvcLogicException("graph cannot be null");
+            }
+            graphsByKey.put(Arrays.asList(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode()),
+                    graph);
+        }
+        if (graphsByKey.isEmpty()) {
+            return;
+        }
+
+        List<byte[]> graphBytes = new ArrayList<>(graphsByKey.size());
+        for (SvcLogicGraph graph : graphsByKey.values()) {
+            graphBytes.add(serialize(graph));
+        }
+
+        try {
+            boolean oldAutoCommit = dbConn.getAutoCommit();
+            dbConn.setAutoCommit(false);
+            try {
+                for (SvcLogicGraph graph : graphsByKey.values()) {
+                    deleteGraphStmt.setString(1, graph.getModule());
+                    deleteGraphStmt.setString(2, graph.getRpc());
+                    deleteGraphStmt.setString(3, graph.getVersion());
+                    deleteGraphStmt.setString(4, graph.getMode());
+                    deleteGraphStmt.addBatch();
+                }
+                deleteGraphStmt.executeBatch();
+
+                int i = 0;
+                for (SvcLogicGraph graph : graphsByKey.values()) {
+                    storeGraphStmt.setString(1, graph.getModule());
+                    storeGraphStmt.setString(2, graph.getRpc());
+                    storeGraphStmt.setString(3, graph.getVersion());
+                    storeGraphStmt.setString(4, graph.getMode());
+                    storeGraphStmt.setString(5, "N");
+                    storeGraphStmt.setBlob(6, new ByteArrayInputStream(graphBytes.get(i++)));
+                    storeGraphStmt.setString(7, graph.getMd5sum());
+                    storeGraphStmt.addBatch();
+                }
+                storeGraphStmt.executeBatch();
+                dbConn.commit();
+            } catch (SQLException e) {
+                dbConn.rollback();
+                throw e;
+            } finally {
+                deleteGraphStmt.clearBatch();
+                storeGraphStmt.clearBatch();
+                dbConn.setAutoCommit(oldAutoCommit);
+            }
+        } catch (Exception e) {
+            throw new SvcLogicException("Could not write objects to database", e);
+        }
+    }
+
     @Override
     public void delete(String module, String rpc, String version, String mode) throws SvcLogicException {
         if (!isDbConnValid()) {
@@ -573,4 +785,93 @@ public class SvcLogicJdbcStore implements SvcLogicStore {
     }
 
 
+
+    /**
+     * Deactivates the current versions and activates the new ones with two JDBC
+     * batches, in a single transaction. Entries for graphs that are not stored,
+     * which are looked up with one query per module, are skipped, and only the
+     * last entry for a given module, rpc and mode is activated.
+     */
+    @Override
+    public synchronized List<ActivationEntry> activateAll(List<ActivationEntry> entries) throws SvcLogicException {
+        if (!isDbConnValid()) {
+
+            // Try reinitializing
+            initDbResources();
+
+            if (!isDbConnValid()) {
+                throw new ConfigurationException(CommonConstants.JDBC_CONN_ERR);
+            }
+        }
+
+        List<ActivationEntry> notFound = new ArrayList<>();
+        Map<String, Map<List<String>, String>> modules = new HashMap<>();
+        Map<List<String>, ActivationEntry> entriesByKey = new LinkedHashMap<>();
+        for (ActivationEntry entry : entries) {
+            Map<List<String>, String> moduleMd5sums = modules.get(entry.module);
+            if (moduleMd5sums == null) {
+                moduleMd5sums = getModuleMd5sums(entry.module);
+                modules.put(entry.module, moduleMd5sums);
+            }
+            if (moduleMd5sums.containsKey(Arrays.asList(entry.rpc, entry.version, entry.mode))) {
+                List<String> key = Arrays.asList(entry.module, entry.rpc, entry.mode);
+                entriesByKey.remove(key);
+                entriesByKey.put(key, entry);
+            } else {
+                notFound.add(entry);
+            }
+        }
+        if (entriesByKey.isEmpty()) {
+            return notFound;
+        }
+
+        try {
+            boolean oldAutoCommit = dbConn.getAutoCommit();
+            dbConn.setAutoCommit(false);
+            try {
+                for (ActivationEntry entry : entriesByKey.values()) {
+                    deactivateStmt.setString(1, entry.module);
+                    deactivateStmt.setString(2, entry.rpc);
+                    deactivateStmt.setString(3, entry.mode);
+                    deactivateStmt.addBatch();
+                }
+                deactivateStmt.executeBatch();
+
+                for (ActivationEntry entry : entriesByKey.values()) {
+                    activateStmt.setString(1, entry.module);
+                    activateStmt.setString(2, entry.rpc);
+                    activateStmt.setString(3, entry.version);
+                    activateStmt.setString(4, entry.mode);
+                    activateStmt.addBatch();
+                }
+                activateStmt.executeBatch();
+                dbConn.commit();
+            } catch (SQLException e) {
+                dbConn.rollback();
+                throw e;
+            } finally {
+                deactivateStmt.clearBatch();
+                activateStmt.clearBatch();
+                dbConn.setAutoCommit(oldAutoCommit);
+            }
+        } catch (Exception e) {
+            throw new SvcLogicException("Could not activate graphs", e);
+        }
+        return notFound;
+    }
+
+    private static byte[] serialize(SvcLogicGraph graph) throws SvcLogicException {
+        try (ByteArrayOutputStream byteStr = new ByteArrayOutputStream();
+                ObjectOutputStream goutStr = new ObjectOutputStream(byteStr)) {
+
+            goutStr.writeObject(graph);
+            goutStr.flush();
+
+            return byteStr.toByteArray();
+
+        } catch (Exception e) {
+            throw new SvcLogicException("could not serialize graph", e);
+        }
+    }
+
 }
@@ -31,17 +31,48 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Loads all the graphs found under a directory into a SvcLogicStore and
+ * activates the versions listed in the .versions files found there. Graph
+ * files are parsed in parallel, graphs whose md5sum matches the one already
+ * stored are skipped, and the others are stored in batches through
+ * {@link SvcLogicStore#storeAll(List)}.
+ */
 public class SvcLogicLoader {
     private static final Logger LOGGER = LoggerFactory.getLogger(SvcLogicLoader.class);
+
+    public static final String THREADS_PROP = "org.onap.ccsdk.sli.loader.threads";
+    public static final String BATCH_SIZE_PROP = "org.onap.ccsdk.sli.loader.batchSize";
+    public static final String SKIP_UNCHANGED_PROP = "org.onap.ccsdk.sli.loader.skipUnchanged";
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
     protected SvcLogicStore store;
     protected String directoryRoot;
     protected SvcLogicParser parser;
+    protected int threads = Integer.getInteger(THREADS_PROP, Runtime.getRuntime().availableProcessors());
+    protected int batchSize = Integer.getInteger(BATCH_SIZE_PROP, DEFAULT_BATCH_SIZE);
+    protected boolean skipUnchanged = !"false".equalsIgnoreCase(System.getProperty(SKIP_UNCHANGED_PROP));
+
+    // SvcLogicParser is not thread safe, so each parsing thread has its own
+    private final ThreadLocal<SvcLogicParser> threadParser = ThreadLocal.withInitial(SvcLogicParser::new);
+
+    // Statistics of the last loadAndActivate
+    private final Map<String, Long> phaseTimes = new LinkedHashMap<>();
+    private int storedCount = 0;
+    private int unchangedCount = 0;
+    private int failedCount = 0;
 
     public SvcLogicLoader(String directoryRoot, SvcLogicStore store) {
         this.store = store;
@@ -55,12 +86,73 @@ public class SvcLogicLoader {
         this.parser = new SvcLogicParser();
     }
 
+    /**
+     * Sets the number of threads used to parse graph files; 1 parses them in
+     * the calling thread.
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Sets the maximum number of graph files parsed and stored together, which
+     * bounds the number of parsed graphs held in memory.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Sets whether graphs whose md5sum matches the stored graph are skipped.
+     */
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
     public void loadAndActivate() throws IOException {
+        phaseTimes.clear();
+        storedCount = 0;
+        unchangedCount = 0;
+        failedCount = 0;
+
+        long start = System.nanoTime();
         SvcLogicCrawler slc = new SvcLogicCrawler();
         Files.walkFileTree(Paths.get(directoryRoot), slc);
+        addPhaseTime("crawl", start);
+
         loadGraphs(slc.getGraphPaths(), directoryRoot);
+
+        start = System.nanoTime();
         List<ActivationEntry> activationEntries = processActivationFiles(slc.getActivationPaths());
         activateGraphs(activationEntries);
+        addPhaseTime("activate", start);
+
+        LOGGER.info("Loaded {} graph files from {}: {} graphs stored, {} unchanged, {} files failed, times (ms) {}",
+                slc.getGraphPaths().size(), directoryRoot, storedCount, unchangedCount, failedCount, phaseTimes);
+    }
+
+    /**
+     * Returns the time in milliseconds spent in each phase (crawl, parse,
+     * compare, store and activate) of the last loadAndActivate.
+     */
+    public Map<String, Long> getPhaseTimes() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(phaseTimes));
+    }
+
+    public int getStoredCount() {
+        return storedCount;
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    private void addPhaseTime(String phase, long start) {
+        phaseTimes.merge(phase, (System.nanoTime() - start) / 1000000, Long::sum);
     }
 
     protected List<ActivationEntry> processActivationFiles(List<Path> activationPaths) {
@@ -72,11 +164,22 @@ public class SvcLogicLoader {
     }
 
     protected void activateGraphs(List<ActivationEntry> activationEntries) {
+        for (ActivationEntry entry : activationEntries) {
+            LOGGER.info("Activating SvcLogicGraph [module=" + entry.module + ", rpc=" + entry.rpc + ", mode="
+                    + entry.mode + ", version=" + entry.version + "]");
+        }
+        try {
+            for (ActivationEntry entry : store.activateAll(activationEntries)) {
+                LOGGER.error("hasGraph returned false for " + entry.toString());
+            }
+            return;
+        } catch (SvcLogicException e) {
+            LOGGER.warn("Could not activate graphs together, activating them one at a time", e);
+        }
+
         for (ActivationEntry entry : activationEntries) {
             try {
                 if (store.hasGraph(entry.module, entry.rpc, entry.version, entry.mode)) {
-                    LOGGER.info("Activating SvcLogicGraph [module=" + entry.module + ", rpc=" + entry.rpc + ", mode="
-                            + entry.mode + ", version=" + entry.version + "]");
                     store.activate(entry.module, entry.rpc, entry.version, entry.mode);
                 } else {
                     LOGGER.error("hasGraph returned false for " + entry.toString());
@@ -111,16 +214,125 @@ public class SvcLogicLoader {
     }
 
     protected void loadGraphs(List<Path> graphPaths, String directoryRoot) {
+        int poolSize = Math.min(threads, graphPaths.size());
+        ExecutorService executor = null;
+        if (poolSize > 1) {
+            executor = Executors.newFixedThreadPool(poolSize, r -> {
+                Thread thread = new Thread(r, "SvcLogicLoader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            for (int from = 0; from < graphPaths.size(); from += batchSize) {
+                List<Path> batch = graphPaths.subList(from, Math.min(from + batchSize, graphPaths.size()));
+
+                long start = System.nanoTime();
+                List<SvcLogicGraph> graphs = parseGraphs(batch, executor);
+                addPhaseTime("parse", start);
+
+                start = System.nanoTime();
+                if (skipUnchanged) {
+                    graphs = getChangedGraphs(graphs);
+                }
+                addPhaseTime("compare", start);
+
+                start = System.nanoTime();
+                storeGraphs(graphs);
+                addPhaseTime("store", start);
+            }
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while loading graphs from " + directoryRoot, e);
+            Thread.currentThread().interrupt();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    // Returns the graphs in all the files, in file order
+    private List<SvcLogicGraph> parseGraphs(List<Path> graphPaths, ExecutorService executor)
+            throws InterruptedException {
+        List<SvcLogicGraph> graphs = new ArrayList<>();
+        if (executor == null) {
+            for (Path graphPath : graphPaths) {
+                try {
+                    graphs.addAll(parseGraph(graphPath.toString(), parser));
+                } catch (Exception e) {
+                    LOGGER.error("Couldn't load graph at " + graphPath, e);
+                    failedCount++;
+                }
+            }
+            return graphs;
+        }
+
+        List<Future<LinkedList<SvcLogicGraph>>> results = new ArrayList<>(graphPaths.size());
         for (Path graphPath : graphPaths) {
+            results.add(executor.submit(() -> parseGraph(graphPath.toString(), threadParser.get())));
+        }
+        for (int i = 0; i < results.size(); i++) {
             try {
-                saveGraph(graphPath.toString());
-            } catch (Exception e) {
-                LOGGER.error("Couldn't load graph at " + graphPath, e);
+                graphs.addAll(results.get(i).get());
+            } catch (ExecutionException e) {
+                LOGGER.error("Couldn't load graph at " + graphPaths.get(i), e.getCause());
+                failedCount++;
             }
         }
+        return graphs;
     }
 
-    protected void saveGraph(String xmlFile) throws SvcLogicException {
+    // Drops the graphs that are stored with the same md5sum
+    private List<SvcLogicGraph> getChangedGraphs(List<SvcLogicGraph> graphs) {
+        List<String> storedMd5sums;
+        try {
+            storedMd5sums = store.getMd5sums(graphs);
+        } catch (SvcLogicException e) {
+            LOGGER.warn("Couldn't get md5sums of stored graphs, saving all of them", e);
+            return graphs;
+        }
+
+        List<SvcLogicGraph> changed = new ArrayList<>(graphs.size());
+        for (int i = 0; i < graphs.size(); i++) {
+            SvcLogicGraph graph = graphs.get(i);
+            String md5sum = graph.getMd5sum();
+            if (md5sum != null && md5sum.equals(storedMd5sums.get(i))) {
+                LOGGER.debug("Skipping unchanged {}", graph);
+                unchangedCount++;
+            } else {
+                changed.add(graph);
+            }
+        }
+        return changed;
+    }
+
+    private void storeGraphs(List<SvcLogicGraph> graphs) {
+        if (graphs.isEmpty()) {
+            return;
+        }
+        for (SvcLogicGraph graph : graphs) {
+            LOGGER.info("Saving " + graph.toString() + " to database");
+        }
+        try {
+            store.storeAll(graphs);
+            storedCount += graphs.size();
+            return;
+        } catch (SvcLogicException e) {
+            LOGGER.warn("Could not save graphs together, saving them one at a time", e);
+        }
+
+        for (SvcLogicGraph graph : graphs) {
+            try {
+                store.store(graph);
+                storedCount++;
+            } catch (SvcLogicException e) {
+                LOGGER.error("Couldn't save " + graph.toString(), e);
+                failedCount++;
+            }
+        }
+    }
+
+    protected LinkedList<SvcLogicGraph> parseGraph(String xmlFile, SvcLogicParser parser) throws SvcLogicException {
         File f = new File(xmlFile);
         if (!f.canRead()) {
             throw new ConfigurationException("Cannot read xml file (" + xmlFile + ")");
@@ -137,9 +349,11 @@ public class SvcLogicLoader {
         if (graphs == null) {
             throw new SvcLogicException("Could not parse " + xmlFile);
         }
+        return graphs;
+    }
 
-        for (Iterator<SvcLogicGraph> iter = graphs.iterator(); iter.hasNext();) {
-            SvcLogicGraph graph = iter.next();
+    protected void saveGraph(String xmlFile) throws SvcLogicException {
+        for (SvcLogicGraph graph : parseGraph(xmlFile, parser)) {
             try {
                 LOGGER.info("Saving " + graph.toString() + " to database");
                 store.store(graph);
@@ -21,6 +21,8 @@
 
 package org.onap.ccsdk.sli.core.sli;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 public interface SvcLogicStore {
@@ -33,4 +35,57 @@ public interface SvcLogicStore {
 	public void activate(SvcLogicGraph graph) throws SvcLogicException;
 	public void activate(String module, String rpc, String version, String mode) throws SvcLogicException;
 
+	/**
+	 * Returns the md5sum recorded for a graph, or null if there is no such graph.
+	 * Stores backed by a database should override this with a query that does
+	 * not need to deserialize the graph itself.
+	 */
+	public default String getMd5sum(String module, String rpc, String version, String mode) throws SvcLogicException {
+		SvcLogicGraph graph = fetch(module, rpc, version, mode);
+		return (graph == null ? null : graph.getMd5sum());
+	}
+
+	/**
+	 * Returns the md5sums recorded for a number of graphs, in the same order,
+	 * with null for the graphs that are not stored. Stores backed by a database
+	 * should override this to look them up with as few queries as possible.
+	 */
+	public default List<String> getMd5sums(List<SvcLogicGraph> graphs) throws SvcLogicException {
+		List<String> md5sums = new ArrayList<>(graphs.size());
+		for (SvcLogicGraph graph : graphs) {
+			md5sums.add(getMd5sum(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode()));
+		}
+		return md5sums;
+	}
+
+	/**
+	 * Stores a number of graphs, replacing any stored graph with the same module,
+	 * rpc, version and mode. Stores backed by a database should override this to
+	 * write all the graphs in a single transaction.
+	 */
+	public default void storeAll(List<SvcLogicGraph> graphs) throws SvcLogicException {
+		for (SvcLogicGraph graph : graphs) {
+			store(graph);
+		}
+	}
+
+	/**
+	 * Activates a number of graph versions, in order, so that the last entry for
+	 * a given module, rpc and mode wins. Stores backed by a database should
+	 * override this to update all the graphs in a single transaction.
+	 *
+	 * @return the entries that were not activated because there is no such graph
+	 */
+	public default List<ActivationEntry> activateAll(List<ActivationEntry> entries) throws SvcLogicException {
+		List<ActivationEntry> notFound = new ArrayList<>();
+		for (ActivationEntry entry : entries) {
+			if (hasGraph(entry.module, entry.rpc, entry.version, entry.mode)) {
+				activate(entry.module, entry.rpc, entry.version, entry.mode);
+			} else {
+				notFound.add(entry);
+			}
+		}
+		return notFound;
+	}
+
 }
@@ -95,6 +95,12 @@ public class SvcLogicStoreFactory {
 
 
 		retval.init(props);
+
+		if (CachingSvcLogicStore.isEnabled(props)) {
+			SvcLogicStore cachingStore = new CachingSvcLogicStore(retval);
+			cachingStore.init(props);
+			retval = cachingStore;
+		}
 		return retval;
 	}
 
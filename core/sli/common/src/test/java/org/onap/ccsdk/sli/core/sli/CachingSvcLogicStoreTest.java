@@ -0,0 +1,195 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP : CCSDK
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 						reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.core.sli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingSvcLogicStoreTest {
+
+    private CountingStore backingStore;
+    private CachingSvcLogicStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        backingStore = new CountingStore();
+        store = new CachingSvcLogicStore(backingStore);
+        Properties props = new Properties();
+        props.setProperty(CachingSvcLogicStore.CACHE_MAX_ENTRIES_PROP, "2");
+        store.init(props);
+    }
+
+    @Test
+    public void testFetchIsCached() throws Exception {
+        store.store(createGraph("rpc1", "1.0.0", "abc"));
+        store.activate("mod", "rpc1", "1.0.0", "sync");
+
+        SvcLogicGraph first = store.fetch("mod", "rpc1", null, "sync");
+        SvcLogicGraph second = store.fetch("mod", "rpc1", null, "sync");
+        assertSame(first, second);
+        assertEquals(1, backingStore.fetchCount);
+        assertEquals(1, store.getHitCount());
+        assertEquals(1, store.getMissCount());
+    }
+
+    @Test
+    public void testMissingGraphNotCached() throws Exception {
+        assertNull(store.fetch("mod", "missing", null, "sync"));
+        assertNull(store.fetch("mod", "missing", null, "sync"));
+        assertEquals(2, backingStore.fetchCount);
+        assertEquals(0, store.getSize());
+    }
+
+    @Test
+    public void testStoreAndActivateInvalidate() throws Exception {
+        store.store(createGraph("rpc1", "1.0.0", "abc"));
+        store.activate("mod", "rpc1", "1.0.0", "sync");
+        SvcLogicGraph first = store.fetch("mod", "rpc1", null, "sync");
+
+        store.store(createGraph("rpc1", "2.0.0", "def"));
+        store.activate("mod", "rpc1", "2.0.0", "sync");
+        SvcLogicGraph second = store.fetch("mod", "rpc1", null, "sync");
+
+        assertNotSame(first, second);
+        assertEquals("2.0.0", second.getVersion());
+
+        store.delete("mod", "rpc1", "2.0.0", "sync");
+        assertEquals(0, store.getSize());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        store.store(createGraph("rpc1", "1.0.0", "abc"));
+        store.store(createGraph("rpc2", "1.0.0", "abc"));
+        store.store(createGraph("rpc3", "1.0.0", "abc"));
+
+        store.fetch("mod", "rpc1", "1.0.0", "sync");
+        store.fetch("mod", "rpc2", "1.0.0", "sync");
+        store.fetch("mod", "rpc3", "1.0.0", "sync");
+
+        assertEquals(2, store.getSize());
+        assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    public void testRefreshDropsChangedGraphs() throws Exception {
+        store.store(createGraph("rpc1", "1.0.0", "abc"));
+        store.fetch("mod", "rpc1", "1.0.0", "sync");
+
+        // Simulate another cluster member replacing the graph
+        backingStore.store(createGraph("rpc1", "1.0.0", "def"));
+        store.refresh();
+
+        assertEquals(0, store.getSize());
+        assertEquals("def", store.fetch("mod", "rpc1", "1.0.0", "sync").getMd5sum());
+    }
+
+    @Test
+    public void testActivateDuringFetchNotLost() throws Exception {
+        store.store(createGraph("rpc1", "1.0.0", "abc"));
+        store.store(createGraph("rpc1", "2.0.0", "def"));
+        store.activate("mod", "rpc1", "1.0.0", "sync");
+
+        // Activate 2.0.0 after the backing store returned 1.0.0, but before
+        // the caching store saves it
+        backingStore.afterFetch = () -> {
+            backingStore.afterFetch = null;
+            try {
+                store.activate("mod", "rpc1", "2.0.0", "sync");
+            } catch (SvcLogicException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        assertEquals("1.0.0", store.fetch("mod", "rpc1", null, "sync").getVersion());
+        assertEquals(0, store.getSize());
+        assertEquals("2.0.0", store.fetch("mod", "rpc1", null, "sync").getVersion());
+        assertEquals("2.0.0", store.fetch("mod", "rpc1", null, "sync").getVersion());
+        assertEquals(1, store.getHitCount());
+    }
+
+    private static SvcLogicGraph createGraph(String rpc, String version, String md5sum) {
+        SvcLogicGraph graph = new SvcLogicGraph();
+        graph.setModule("mod");
+        graph.setRpc(rpc);
+        graph.setVersion(version);
+        graph.setMode("sync");
+        graph.setMd5sum(md5sum);
+        return graph;
+    }
+
+    private static class CountingStore implements SvcLogicStore {
+        private final Map<String, SvcLogicGraph> graphs = new HashMap<>();
+        private final Map<String, String> active = new HashMap<>();
+        private int fetchCount = 0;
+        private Runnable afterFetch = null;
+
+        @Override
+        public void init(Properties props) throws SvcLogicException {
+            // noop
+        }
+
+        @Override
+        public boolean hasGraph(String module, String rpc, String version, String mode) throws SvcLogicException {
+            return fetch(module, rpc, version, mode) != null;
+        }
+
+        @Override
+        public SvcLogicGraph fetch(String module, String rpc, String version, String mode) throws SvcLogicException {
+            fetchCount++;
+            if (version == null) {
+                version = active.get(module + ":" + rpc + ":" + mode);
+            }
+            SvcLogicGraph graph = graphs.get(module + ":" + rpc + ":" + version + ":" + mode);
+            if (afterFetch != null) {
+                afterFetch.run();
+            }
+            return graph;
+        }
+
+        @Override
+        public void store(SvcLogicGraph graph) throws SvcLogicException {
+            graphs.put(graph.getModule() + ":" + graph.getRpc() + ":" + graph.getVersion() + ":" + graph.getMode(), graph);
+        }
+
+        @Override
+        public void delete(String module, String rpc, String version, String mode) throws SvcLogicException {
+            graphs.remove(module + ":" + rpc + ":" + version + ":" + mode);
+        }
+
+        @Override
+        public void activate(SvcLogicGraph graph) throws SvcLogicException {
+            activate(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode());
+        }
+
+        @Override
+        public void activate(String module, String rpc, String version, String mode) throws SvcLogicException {
+            active.put(module + ":" + rpc + ":" + mode, version);
+        }
+    }
+}
@@ -25,10 +25,12 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.xml.parsers.DocumentBuilder;
@@ -397,4 +399,149 @@ public class SvcLogicContextTest extends TestCase {
 			LOG.warn("Test failed, but could be known error condition.  Error is {}",e.getMessage());
 		}
 	}
+
+	@Test
+	public void testPrefixKeySet() {
+		SvcLogicContext ctx = new SvcLogicContext();
+		ctx.setAttribute("a.b", "1");
+		ctx.setAttribute("a.c[0].d", "2");
+		ctx.setAttribute("ab.c", "3");
+		ctx.setAttribute("b.c", "4");
+
+		assertEquals(new TreeSet<>(Arrays.asList("a.b", "a.c[0].d")), ctx.getAttributeKeySet("a."));
+		assertEquals(3, ctx.getAttributeKeySet("a").size());
+		assertEquals(4, ctx.getAttributeKeySet("").size());
+		assertTrue(ctx.getAttributeKeySet("c.").isEmpty());
+
+		ctx.setAttribute("a.b", null);
+		assertEquals(1, ctx.getAttributeKeySet("a.").size());
+
+		ctx.getAttributeKeySet().remove("a.c[0].d");
+		assertNull(ctx.getAttribute("a.c[0].d"));
+		assertTrue(ctx.getAttributeKeySet("a.").isEmpty());
+	}
+
+	@Test
+	public void testCopyAndRemoveAttributes() {
+		SvcLogicContext ctx = new SvcLogicContext();
+		ctx.setAttribute("src.x", "1");
+		ctx.setAttribute("src.y[0]", "2");
+		ctx.setAttribute("src_length", "3");
+		ctx.setAttribute("dest.z", "4");
+
+		assertEquals(2, ctx.copyAttributes("src.", "dest."));
+		assertEquals("1", ctx.getAttribute("dest.x"));
+		assertEquals("2", ctx.getAttribute("dest.y[0]"));
+		assertEquals("4", ctx.getAttribute("dest.z"));
+
+		assertEquals(3, ctx.removeAttributes("dest."));
+		assertTrue(ctx.getAttributeKeySet("dest.").isEmpty());
+		assertNull(ctx.getAttribute("dest.x"));
+		assertEquals("1", ctx.getAttribute("src.x"));
+		assertEquals(3, ctx.getAttributeKeySet().size());
+	}
+
+	@Test
+	public void testStreamingMergeDocument() throws Exception {
+		DocumentBuilder db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+		SvcLogicContext domCtx = new SvcLogicContext();
+		domCtx.mergeDocument("test-merge", db.parse(getClass().getResourceAsStream("/mergetest.xml")));
+
+		SvcLogicContext streamCtx = new SvcLogicContext();
+		try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/mergetest.xml"),
+				StandardCharsets.UTF_8)) {
+			streamCtx.mergeDocument("test-merge", reader);
+		}
+
+		assertEquals(domCtx.toProperties(), streamCtx.toProperties());
+	}
+
+	@Test
+	public void testStreamingMergeJson() throws Exception {
+		SvcLogicContext ctx = new SvcLogicContext();
+		try (Reader reader = Files.newBufferedReader(Paths.get("src/test/resources/ArrayMenu.json"))) {
+			ctx.mergeJson("testPath", reader);
+		}
+
+		assertEquals("plain", ctx.getAttribute("testPath.[0].name"));
+		assertEquals(SvcLogicContext.CTX_NULL_VALUE, ctx.getAttribute("testPath.[1].calories"));
+		assertEquals("2", ctx.getAttribute("testPath.[1].topping_length"));
+		assertEquals("pepperoni", ctx.getAttribute("testPath.[1].topping[1].name"));
+		assertEquals("1500", ctx.getAttribute("testPath.[2].calories"));
+	}
+
+	@Test
+	public void testWriteJson() throws Exception {
+		SvcLogicContext ctx = new SvcLogicContext();
+		ctx.setAttribute("svc.name", "vnf1");
+		ctx.setAttribute("svc.enabled", "true");
+		ctx.setAttribute("svc.owner", "null");
+		ctx.setAttribute("svc.vm[0].id", "1");
+		ctx.setAttribute("svc.vm[1].id", "2");
+		ctx.setAttribute("svc.vm[10].id", "11");
+		ctx.setAttribute("svc.vm_length", "3");
+		ctx.setAttribute("svc.ip[0]", "10.0.0.1");
+		ctx.setAttribute("other.name", "x");
+
+		StringWriter out = new StringWriter();
+		ctx.writeJson("svc", out);
+		assertEquals(ctx.toJsonString("svc"), out.toString());
+		JSONAssert.assertEquals("{\"enabled\":true,\"ip\":[\"10.0.0.1\"],\"name\":\"vnf1\",\"owner\":null,"
+				+ "\"vm\":[{\"id\":\"1\"},{\"id\":\"2\"},{\"id\":\"11\"}]}", out.toString(), true);
+
+		out = new StringWriter();
+		ctx.writeJson("missing", out);
+		assertEquals("", out.toString());
+
+		out = new StringWriter();
+		ctx.writeJson(out);
+		assertEquals(ctx.toJsonString(), out.toString());
+	}
+
+	@Test
+	public void testWriteJsonIrregularNames() throws Exception {
+		// Value and container under the same name, and an array with a gap
+		SvcLogicContext ctx = new SvcLogicContext();
+		ctx.setAttribute("a.b", "1");
+		ctx.setAttribute("a.b.c", "2");
+		ctx.setAttribute("a.d[0]", "3");
+		ctx.setAttribute("a.d[2]", "4");
+
+		StringWriter out = new StringWriter();
+		ctx.writeJson(out);
+		assertEquals("{\"a\":{\"b\":{\"c\":\"2\"},\"d\":[\"3\",\"4\"]}}", out.toString());
+	}
+
+	@Test
+	public void testCompletionListeners() throws Exception {
+		SvcLogicContext ctx = new SvcLogicContext();
+		StringBuilder calls = new StringBuilder();
+		ctx.addCompletionListener("first", c -> calls.append("first:").append(c.getAttribute("a")).append(' '));
+		ctx.addCompletionListener("failing", c -> {
+			throw new SvcLogicException("failed");
+		});
+		ctx.addCompletionListener("last", c -> {
+			calls.append("last ");
+			// Listeners added while completing are called too
+			c.addCompletionListener("added", c2 -> calls.append("added"));
+		});
+		ctx.addCompletionListener("removed", c -> calls.append("removed "));
+		assertNotNull(ctx.removeCompletionListener("removed"));
+
+		// Only the outermost graph calls them
+		ctx.enterGraph();
+		ctx.enterGraph();
+		ctx.setAttribute("a", "1");
+		ctx.exitGraph();
+		assertEquals("", calls.toString());
+		assertNotNull(ctx.getCompletionListener("first"));
+		ctx.exitGraph();
+		assertEquals("first:1 last added", calls.toString());
+		assertNull(ctx.getCompletionListener("first"));
+
+		// Each listener is called once
+		ctx.enterGraph();
+		ctx.exitGraph();
+		assertEquals("first:1 last added", calls.toString());
+	}
 }
@@ -63,4 +63,14 @@ public class SvcLogicExpressionParserTest extends TestCase {
 		}
 	}
 
+	public void testParseCached() throws Exception {
+		SvcLogicExpressionFactory.clearCache();
+		String exprStr = "service-data.vnf[$i].vnf-id";
+
+		SvcLogicExpression first = SvcLogicExpressionFactory.parseCached(exprStr);
+		SvcLogicExpression second = SvcLogicExpressionFactory.parseCached(exprStr);
+		assertSame(first, second);
+		assertEquals(SvcLogicExpressionFactory.parse(exprStr).asParsedExpr(), first.asParsedExpr());
+	}
+
 }
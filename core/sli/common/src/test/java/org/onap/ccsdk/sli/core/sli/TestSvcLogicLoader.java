@@ -5,6 +5,13 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import org.junit.Test;
 import org.onap.ccsdk.sli.core.utils.common.EnvProperties;
@@ -36,4 +43,113 @@ public class TestSvcLogicLoader {
 
 
 
+    @Test
+    public void testLoadAndActivateSkipsUnchanged() throws Exception {
+        Path graphDirectory = Files.createTempDirectory("graphs");
+        StringBuilder versions = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            writeGraph(graphDirectory, "rpc" + i, "ok");
+            versions.append("TEST rpc").append(i).append(" 1.0.0 sync\n");
+        }
+        versions.append("TEST no-such-rpc 1.0.0 sync\n");
+        Files.write(graphDirectory.resolve("graph.versions"), versions.toString().getBytes(StandardCharsets.UTF_8));
+        Files.write(graphDirectory.resolve("bad.xml"), "<service-logic".getBytes(StandardCharsets.UTF_8));
+
+        MapStore store = new MapStore();
+        SvcLogicLoader loader = new SvcLogicLoader(graphDirectory.toString(), store);
+        loader.setThreads(4);
+        loader.setBatchSize(8);
+        loader.loadAndActivate();
+        assertEquals(20, loader.getStoredCount());
+        assertEquals(0, loader.getUnchangedCount());
+        assertEquals(1, loader.getFailedCount());
+        assertEquals(20, store.graphs.size());
+        assertEquals(20, store.active.size());
+        // 21 files in batches of 8, one of which fails to parse
+        assertEquals(3, store.storeAllCount);
+        assertEquals(0, store.storeCount);
+        assertTrue(loader.getPhaseTimes().keySet().containsAll(
+                java.util.Arrays.asList("crawl", "parse", "compare", "store", "activate")));
+
+        // Only the changed graph is stored again
+        String md5sum = store.graphs.get("TEST:rpc7:1.0.0:sync").getMd5sum();
+        writeGraph(graphDirectory, "rpc7", "changed");
+        loader.loadAndActivate();
+        assertEquals(1, loader.getStoredCount());
+        assertEquals(19, loader.getUnchangedCount());
+        assertNotEquals(md5sum, store.graphs.get("TEST:rpc7:1.0.0:sync").getMd5sum());
+
+        // Same results when parsing in the calling thread
+        MapStore sequentialStore = new MapStore();
+        loader = new SvcLogicLoader(graphDirectory.toString(), sequentialStore);
+        loader.setThreads(1);
+        loader.loadAndActivate();
+        assertEquals(20, loader.getStoredCount());
+        assertEquals(store.graphs.keySet(), sequentialStore.graphs.keySet());
+        assertEquals(store.active, sequentialStore.active);
+    }
+
+    private static void writeGraph(Path directory, String rpc, String value) throws IOException {
+        String xml = "<service-logic xmlns='http://www.onap.org/sdnc/svclogic' module='TEST' version='1.0.0'>"
+                + "<method rpc='" + rpc + "' mode='sync'><block>"
+                + "<set><parameter name='" + rpc + "' value='" + value + "'/></set>"
+                + "</block></method></service-logic>";
+        Files.write(directory.resolve(rpc + ".xml"), xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class MapStore implements SvcLogicStore {
+        private final Map<String, SvcLogicGraph> graphs = new HashMap<>();
+        private final Map<String, String> active = new HashMap<>();
+        private int storeCount = 0;
+        private int storeAllCount = 0;
+
+        @Override
+        public void init(Properties props) throws SvcLogicException {
+            // noop
+        }
+
+        @Override
+        public boolean hasGraph(String module, String rpc, String version, String mode) throws SvcLogicException {
+            return fetch(module, rpc, version, mode) != null;
+        }
+
+        @Override
+        public SvcLogicGraph fetch(String module, String rpc, String version, String mode) throws SvcLogicException {
+            if (version == null) {
+                version = active.get(module + ":" + rpc + ":" + mode);
+            }
+            return graphs.get(module + ":" + rpc + ":" + version + ":" + mode);
+        }
+
+        @Override
+        public void store(SvcLogicGraph graph) throws SvcLogicException {
+            storeCount++;
+            graphs.put(graph.getModule() + ":" + graph.getRpc() + ":" + graph.getVersion() + ":" + graph.getMode(), graph);
+        }
+
+        @Override
+        public void storeAll(List<SvcLogicGraph> graphs) throws SvcLogicException {
+            storeAllCount++;
+            for (SvcLogicGraph graph : graphs) {
+                store(graph);
+                storeCount--;
+            }
+        }
+
+        @Override
+        public void delete(String module, String rpc, String version, String mode) throws SvcLogicException {
+            graphs.remove(module + ":" + rpc + ":" + version + ":" + mode);
+        }
+
+        @Override
+        public void activate(SvcLogicGraph graph) throws SvcLogicException {
+            activate(graph.getModule(), graph.getRpc(), graph.getVersion(), graph.getMode());
+        }
+
+        @Override
+        public void activate(String module, String rpc, String version, String mode) throws SvcLogicException {
+            active.put(module + ":" + rpc + ":" + mode, version);
+        }
+    }
+
 }
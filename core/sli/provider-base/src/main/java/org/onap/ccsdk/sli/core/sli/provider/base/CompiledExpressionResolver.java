@@ -0,0 +1,617 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP : CCSDK
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 						reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.core.sli.provider.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang.StringUtils;
+import org.onap.ccsdk.sli.core.sli.SvcLogicAtom;
+import org.onap.ccsdk.sli.core.sli.SvcLogicAtom.AtomType;
+import org.onap.ccsdk.sli.core.sli.SvcLogicBinaryExpression;
+import org.onap.ccsdk.sli.core.sli.SvcLogicBinaryExpression.OperatorType;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.sli.SvcLogicException;
+import org.onap.ccsdk.sli.core.sli.SvcLogicExpression;
+import org.onap.ccsdk.sli.core.sli.SvcLogicFunctionCall;
+import org.onap.ccsdk.sli.core.sli.SvcLogicNode;
+import org.onap.ccsdk.sli.core.sli.SvcLogicVariableTerm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Alternate evaluator for SvcLogicExpression trees. Each expression is compiled
+ * once into a tree of evaluators, which is kept on the expression itself.
+ * Arithmetic results are passed between evaluators as longs and comparisons and
+ * logic operators as booleans, so they are not formatted and reparsed at every
+ * level. Results are the same as those of the interpreted evaluation in
+ * SvcLogicExpressionResolver, including its handling of mixed string and
+ * numeric operands. Expressions the compiler does not recognize (including
+ * malformed ones) are handed to the interpreted evaluation.
+ */
+public class CompiledExpressionResolver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledExpressionResolver.class);
+    private static final String INVALID_EXPRESSION_MSG = "Invalid expression (";
+    private static final String EXPRESSION_DEBUG_PATTERN =
+            "Expression: ({}) resolves to: (${}) which has the value: ({})";
+
+    private CompiledExpressionResolver() {
+        // Utility class
+    }
+
+    public static String evaluate(SvcLogicExpression expr, SvcLogicNode node, SvcLogicContext ctx)
+            throws SvcLogicException {
+        if (expr == null) {
+            return null;
+        }
+        return compile(expr).evaluate(node, ctx);
+    }
+
+    public static CompiledExpression compile(SvcLogicExpression expr) {
+        Object compiled = expr.getCompiledForm();
+        if (compiled instanceof CompiledExpression) {
+            return (CompiledExpression) compiled;
+        }
+        CompiledExpression retval = doCompile(expr);
+        expr.setCompiledForm(retval);
+        return retval;
+    }
+
+    private static CompiledExpression doCompile(SvcLogicExpression expr) {
+        if (expr instanceof SvcLogicAtom) {
+            return compileAtom((SvcLogicAtom) expr);
+        } else if (expr instanceof SvcLogicBinaryExpression) {
+            return compileBinary((SvcLogicBinaryExpression) expr);
+        } else if (expr instanceof SvcLogicFunctionCall) {
+            return compileFunction((SvcLogicFunctionCall) expr);
+        }
+        return new Interpreted(expr);
+    }
+
+    private static CompiledExpression compileAtom(SvcLogicAtom atom) {
+        AtomType atomType = atom.getAtomType();
+        if (atomType == null) {
+            return new Interpreted(atom);
+        }
+        switch (atomType) {
+            case NUMBER:
+            case STRING:
+                return new Constant(atom.toString());
+            case CONTEXT_VAR:
+            case IDENTIFIER:
+                return new Variable(atom, atomType == AtomType.CONTEXT_VAR);
+            default:
+                return new Interpreted(atom);
+        }
+    }
+
+    private static CompiledExpression compileBinary(SvcLogicBinaryExpression binExpr) {
+        List<OperatorType> operators = binExpr.getOperators();
+        List<SvcLogicExpression> operands = binExpr.getOperands();
+
+        if (operators.isEmpty()) {
+            if (operands.size() == 1) {
+                return compile(operands.get(0));
+            }
+            return new Interpreted(binExpr);
+        }
+
+        if (operators.get(0) == null || operands.size() != operators.size() + 1) {
+            return new Interpreted(binExpr);
+        }
+
+        switch (operators.get(0)) {
+            case addOp:
+            case subOp:
+            case multOp:
+            case divOp:
+                return new Arithmetic(compileAll(operands), operators.toArray(new OperatorType[0]));
+            case equalOp:
+            case neOp:
+            case ltOp:
+            case leOp:
+            case gtOp:
+            case geOp:
+                if (operators.size() != 1) {
+                    return new Interpreted(binExpr);
+                }
+                return new Comparison(operators.get(0), compile(operands.get(0)), compile(operands.get(1)));
+            case andOp:
+            case orOp:
+                return new Logic(binExpr, compileAll(operands), operators.toArray(new OperatorType[0]));
+            default:
+                return new Interpreted(binExpr);
+        }
+    }
+
+    private static CompiledExpression compileFunction(SvcLogicFunctionCall func) {
+        String funcName = func.getFunctionName();
+        CompiledExpression[] args = compileAll(func.getOperands());
+
+        if ("length".equalsIgnoreCase(funcName) && args.length == 1) {
+            return new Length(args[0]);
+        } else if ("substr".equalsIgnoreCase(funcName) && args.length == 3) {
+            return new Substr(args[0], args[1], args[2]);
+        } else if ("toUpperCase".equalsIgnoreCase(funcName) && args.length == 1) {
+            return new ChangeCase(args[0], true);
+        } else if ("toLowerCase".equalsIgnoreCase(funcName) && args.length == 1) {
+            return new ChangeCase(args[0], false);
+        } else if ("convertBase".equalsIgnoreCase(funcName) && (args.length == 2 || args.length == 3)) {
+            return new ConvertBase(args);
+        }
+
+        // Unknown functions and bad argument counts fail at evaluation time
+        return new Interpreted(func);
+    }
+
+    private static CompiledExpression[] compileAll(List<SvcLogicExpression> exprs) {
+        CompiledExpression[] retval = new CompiledExpression[exprs.size()];
+        int i = 0;
+        for (SvcLogicExpression expr : exprs) {
+            retval[i++] = compile(expr);
+        }
+        return retval;
+    }
+
+    /*
+     * Helpers applying the interpreted evaluator's string tests to typed values.
+     * An arithmetic result is a Long, which the interpreted evaluator would have
+     * seen as Long.toString(value).
+     */
+
+    private static String asString(Object value) {
+        return (value == null ? null : value.toString());
+    }
+
+    private static boolean isLongValue(Object value) {
+        if (value instanceof Long) {
+            return (Long) value >= 0;
+        }
+        String str = asString(value);
+        return (str.length() > 0) && StringUtils.isNumeric(str);
+    }
+
+    private static boolean isNumericOperand(Object value) {
+        if (value instanceof Long) {
+            return (Long) value >= 0;
+        }
+        String str = asString(value);
+        return StringUtils.isNotEmpty(str) && StringUtils.isNumeric(str);
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        return Long.parseLong(asString(value));
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Long) {
+            return ((Long) value).doubleValue();
+        }
+        return Double.parseDouble(asString(value));
+    }
+
+    public abstract static class CompiledExpression {
+
+        public abstract String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException;
+
+        /**
+         * Returns the value as a Long for arithmetic results, and as a String
+         * otherwise.
+         */
+        Object evaluateTyped(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            return evaluate(node, ctx);
+        }
+
+        public boolean evaluateBoolean(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            return Boolean.parseBoolean(evaluate(node, ctx));
+        }
+    }
+
+    private static final class Constant extends CompiledExpression {
+        private final String value;
+
+        Constant(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) {
+            return value;
+        }
+    }
+
+    private static final class Variable extends CompiledExpression {
+        private final SvcLogicAtom atom;
+        private final boolean isContextVar;
+
+        // Name is fixedParts[0] + subscripts[0] + "]" + fixedParts[1] ... ; a name
+        // without subscripts is resolved once here
+        private final String staticName;
+        private final String[] fixedParts;
+        private final CompiledExpression[] subscripts;
+
+        Variable(SvcLogicAtom atom, boolean isContextVar) {
+            this.atom = atom;
+            this.isContextVar = isContextVar;
+
+            List<String> parts = new ArrayList<>();
+            List<CompiledExpression> subs = new ArrayList<>();
+            StringBuilder buff = new StringBuilder();
+            boolean needDot = false;
+            for (SvcLogicExpression term : atom.getOperands()) {
+                if (needDot) {
+                    buff.append('.');
+                }
+                if (term instanceof SvcLogicVariableTerm) {
+                    SvcLogicVariableTerm vterm = (SvcLogicVariableTerm) term;
+                    buff.append(vterm.getName());
+                    if (vterm.numOperands() > 0) {
+                        buff.append('[');
+                        parts.add(buff.toString());
+                        subs.add(compile(vterm.getSubscript()));
+                        buff.setLength(0);
+                        buff.append(']');
+                    }
+                } else {
+                    buff.append(term.toString());
+                }
+                needDot = true;
+            }
+            parts.add(buff.toString());
+
+            if (subs.isEmpty()) {
+                staticName = parts.get(0);
+                fixedParts = null;
+                subscripts = null;
+            } else {
+                staticName = null;
+                fixedParts = parts.toArray(new String[0]);
+                subscripts = subs.toArray(new CompiledExpression[0]);
+            }
+        }
+
+        private String resolveName(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            if (staticName != null) {
+                return staticName;
+            }
+            StringBuilder buff = new StringBuilder();
+            for (int i = 0; i < subscripts.length; i++) {
+                buff.append(fixedParts[i]);
+                buff.append(subscripts[i].evaluate(node, ctx));
+            }
+            buff.append(fixedParts[subscripts.length]);
+            return buff.toString();
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            String varName = resolveName(node, ctx);
+
+            if (isContextVar) {
+                String varValue = ctx.getAttribute(varName);
+                if (varValue == null) {
+                    LOG.trace("Context variable: (${}) unset - treating as empty string", varName);
+                    varValue = "";
+                }
+                LOG.trace(EXPRESSION_DEBUG_PATTERN, atom, varName, varValue);
+                return varValue;
+            }
+
+            SvcLogicExpression parm = node.getParameter(varName);
+            if (parm != null) {
+                String value = compile(parm).evaluate(node, ctx);
+                LOG.trace(EXPRESSION_DEBUG_PATTERN, atom, varName, value);
+                return value;
+            }
+            LOG.trace(EXPRESSION_DEBUG_PATTERN, atom, varName, varName);
+            return varName;
+        }
+    }
+
+    private static final class Arithmetic extends CompiledExpression {
+        private final CompiledExpression[] operands;
+        private final OperatorType[] operators;
+
+        Arithmetic(CompiledExpression[] operands, OperatorType[] operators) {
+            this.operands = operands;
+            this.operators = operators;
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            return asString(evaluateTyped(node, ctx));
+        }
+
+        /*
+         * Same rules as the interpreted evaluator: the result is numeric only if
+         * the first operand and every added operand are non-negative integers,
+         * otherwise it is the concatenation of the first operand and the added
+         * operands.
+         */
+        @Override
+        Object evaluateTyped(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            Object first = operands[0].evaluateTyped(node, ctx);
+            StringBuilder strValue = null;
+            long longValue = 0;
+            boolean valueIsLong = false;
+
+            try {
+                if (isLongValue(first)) {
+                    longValue = toLong(first);
+                    valueIsLong = true;
+                }
+                for (int i = 0; i < operators.length; i++) {
+                    Object cur = operands[i + 1].evaluateTyped(node, ctx);
+                    switch (operators[i]) {
+                        case addOp:
+                            if (strValue == null) {
+                                strValue = new StringBuilder(asString(first));
+                            }
+                            strValue.append(asString(cur));
+                            if (valueIsLong) {
+                                if (isLongValue(cur)) {
+                                    longValue = longValue + toLong(cur);
+                                } else {
+                                    valueIsLong = false;
+                                }
+                            }
+                            break;
+                        case subOp:
+                            longValue = longValue - toLong(cur);
+                            break;
+                        case multOp:
+                            longValue = longValue * toLong(cur);
+                            break;
+                        case divOp:
+                            longValue = longValue / toLong(cur);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new SvcLogicException("Illegal value in arithmetic expression", e);
+            }
+
+            if (valueIsLong) {
+                return longValue;
+            }
+            return (strValue == null ? asString(first) : strValue.toString());
+        }
+    }
+
+    private static final class Comparison extends CompiledExpression {
+        private final OperatorType operator;
+        private final CompiledExpression left;
+        private final CompiledExpression right;
+
+        Comparison(OperatorType operator, CompiledExpression left, CompiledExpression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            return Boolean.toString(evaluateBoolean(node, ctx));
+        }
+
+        @Override
+        public boolean evaluateBoolean(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            Object op1Value = left.evaluateTyped(node, ctx);
+            Object op2Value = right.evaluateTyped(node, ctx);
+
+            if (isNumericOperand(op1Value) && isNumericOperand(op2Value)) {
+                double op1dbl;
+                double op2dbl;
+                try {
+                    op1dbl = toDouble(op1Value);
+                    op2dbl = toDouble(op2Value);
+                } catch (NumberFormatException e) {
+                    throw new SvcLogicException("Caught exception trying to compare numeric values", e);
+                }
+
+                switch (operator) {
+                    case equalOp:
+                        return op1dbl == op2dbl;
+                    case neOp:
+                        return op1dbl != op2dbl;
+                    case ltOp:
+                        return op1dbl < op2dbl;
+                    case leOp:
+                        return op1dbl <= op2dbl;
+                    case gtOp:
+                        return op1dbl > op2dbl;
+                    default:
+                        return op1dbl >= op2dbl;
+                }
+            }
+
+            String op1Str = asString(op1Value);
+            String op2Str = asString(op2Value);
+            int compResult;
+            if (op1Str == null) {
+                compResult = -1;
+            } else if (op2Str == null) {
+                compResult = 1;
+            } else {
+                compResult = op1Str.compareToIgnoreCase(op2Str);
+            }
+
+            switch (operator) {
+                case equalOp:
+                    return compResult == 0;
+                case neOp:
+                    return compResult != 0;
+                case ltOp:
+                    return compResult < 0;
+                case leOp:
+                    return compResult <= 0;
+                case gtOp:
+                    return compResult > 0;
+                default:
+                    return compResult >= 0;
+            }
+        }
+    }
+
+    private static final class Logic extends CompiledExpression {
+        private final SvcLogicExpression expr;
+        private final CompiledExpression[] operands;
+        private final OperatorType[] operators;
+
+        Logic(SvcLogicExpression expr, CompiledExpression[] operands, OperatorType[] operators) {
+            this.expr = expr;
+            this.operands = operands;
+            this.operators = operators;
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            return Boolean.toString(evaluateBoolean(node, ctx));
+        }
+
+        /*
+         * Operands are consumed in order as they are evaluated, so an operand
+         * skipped by short-circuiting leaves the next operator paired with it,
+         * exactly as in the interpreted evaluator.
+         */
+        @Override
+        public boolean evaluateBoolean(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            try {
+                boolean retval = operands[0].evaluateBoolean(node, ctx);
+                int i = 1;
+                for (OperatorType operator : operators) {
+                    if (operator == OperatorType.andOp) {
+                        if (retval) {
+                            retval = operands[i++].evaluateBoolean(node, ctx);
+                        }
+                    } else if (!retval) {
+                        retval = operands[i++].evaluateBoolean(node, ctx);
+                    }
+                }
+                return retval;
+            } catch (Exception e) {
+                throw new SvcLogicException(INVALID_EXPRESSION_MSG + expr + ")");
+            }
+        }
+    }
+
+    private static final class Length extends CompiledExpression {
+        private final CompiledExpression arg;
+
+        Length(CompiledExpression arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            return Integer.toString(arg.evaluate(node, ctx).length());
+        }
+    }
+
+    private static final class Substr extends CompiledExpression {
+        private final CompiledExpression str;
+        private final CompiledExpression begin;
+        private final CompiledExpression end;
+
+        Substr(CompiledExpression str, CompiledExpression begin, CompiledExpression end) {
+            this.str = str;
+            this.begin = begin;
+            this.end = end;
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            String op1Value = str.evaluate(node, ctx);
+            String op2Value = begin.evaluate(node, ctx);
+            String op3Value = end.evaluate(node, ctx);
+
+            if (!StringUtils.isNumeric(op2Value) || !StringUtils.isNumeric(op3Value)) {
+                throw new SvcLogicException("Invalid arguments to substr() function");
+            }
+
+            try {
+                return op1Value.substring(Integer.parseInt(op2Value), Integer.parseInt(op3Value));
+            } catch (Exception e) {
+                throw new SvcLogicException("Caught exception trying to take substring", e);
+            }
+        }
+    }
+
+    private static final class ChangeCase extends CompiledExpression {
+        private final CompiledExpression arg;
+        private final boolean upper;
+
+        ChangeCase(CompiledExpression arg, boolean upper) {
+            this.arg = arg;
+            this.upper = upper;
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            String opValue = arg.evaluate(node, ctx);
+            if (opValue == null) {
+                return "";
+            }
+            return upper ? opValue.toUpperCase() : opValue.toLowerCase();
+        }
+    }
+
+    private static final class ConvertBase extends CompiledExpression {
+        private final CompiledExpression[] args;
+
+        ConvertBase(CompiledExpression[] args) {
+            this.args = args;
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            String srcString = args[0].evaluate(node, ctx);
+            int fromBase = 10;
+            int toBase;
+            if (args.length == 2) {
+                toBase = Integer.parseInt(args[1].evaluate(node, ctx));
+            } else {
+                fromBase = Integer.parseInt(args[1].evaluate(node, ctx));
+                toBase = Integer.parseInt(args[2].evaluate(node, ctx));
+            }
+            return Long.toString(Long.parseLong(srcString, fromBase), toBase);
+        }
+    }
+
+    private static final class Interpreted extends CompiledExpression {
+        private final SvcLogicExpression expr;
+
+        Interpreted(SvcLogicExpression expr) {
+            this.expr = expr;
+        }
+
+        @Override
+        public String evaluate(SvcLogicNode node, SvcLogicContext ctx) throws SvcLogicException {
+            return SvcLogicExpressionResolver.interpret(expr, node, ctx);
+        }
+    }
+}
@@ -23,8 +23,7 @@
 
 package org.onap.ccsdk.sli.core.sli.provider.base;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.Map;
 import org.onap.ccsdk.sli.core.sli.SvcLogicConstants;
 import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
@@ -39,6 +38,7 @@ public class ExecuteNodeExecutor extends AbstractSvcLogicNodeExecutor {
 	private static final Logger LOG = LoggerFactory
 			.getLogger(ExecuteNodeExecutor.class);
 	private static final String FAILURE=SvcLogicConstants.FAILURE;
+	private static final PluginMethodDispatcher DISPATCHER = new PluginMethodDispatcher();
 
 	private static final String pluginErrorMessage = "Could not execute plugin. SvcLogic status will be set to failure.";
 	public SvcLogicNode execute(SvcLogicServiceBase svc, SvcLogicNode node,
@@ -60,47 +60,42 @@ public class ExecuteNodeExecutor extends AbstractSvcLogicNodeExecutor {
 		} else {
 
 			String methodName = evaluate(node.getAttribute("method"),  node, ctx);
+			SvcLogicNodeStatistics.setExecuteTarget(pluginName, methodName);
 
-			Class pluginClass = plugin.getClass();
-
-			Method pluginMethod = null;
+			MethodHandle pluginMethod = null;
 
 			try {
 				LOG.debug("executing method {} on plugin {}", methodName, pluginName);
-				pluginMethod = pluginClass.getMethod(methodName, Map.class, SvcLogicContext.class);
+				pluginMethod = DISPATCHER.getMethodHandle(plugin.getClass(), methodName);
 			} catch (NoSuchMethodException e) {
 				LOG.error(pluginErrorMessage, e);
+			} catch (IllegalAccessException e) {
+				LOG.error(pluginErrorMessage, e);
+				ctx.markFailed();
+				return (getNextNode(node, FAILURE));
 			}
 
 			if (pluginMethod == null) {
 				outValue = "unsupported-method";
 			} else {
+			    Map<String, String> parmMap = getResolvedParameters(node,ctx);
+				Object o = null;
+				boolean invoked = false;
 				try {
-
-
-				    Map<String, String> parmMap = getResolvedParameters(node,ctx);
-					Object o = pluginMethod.invoke(plugin, parmMap, ctx);
-			        String emitsOutcome = SvcLogicExpressionResolver.evaluate(node.getAttribute("emitsOutcome"),  node, ctx);
-
-					outValue = mapOutcome(o, emitsOutcome);
-
-				} catch (InvocationTargetException e) {
-				    if(e.getCause() != null){
-	                    LOG.error(pluginErrorMessage, e.getCause());
-				    }else{
+					o = DISPATCHER.invoke(pluginMethod, plugin, parmMap, ctx);
+					invoked = true;
+				} catch (Throwable e) {
+					// Anything thrown by the plugin itself maps to the failure outcome,
+					// as it did when the method was called through reflection
 					LOG.error(pluginErrorMessage, e);
-				    }
 					outValue = FAILURE;
-                    ctx.markFailed();
-				} catch (IllegalAccessException e) {
-                    LOG.error(pluginErrorMessage, e);
-                    outValue = FAILURE;
-                    ctx.markFailed();
-                } catch (IllegalArgumentException e) {
-                    LOG.error(pluginErrorMessage, e);
-                    outValue = FAILURE;
                     ctx.markFailed();
                 }
+
+				if (invoked) {
+			        String emitsOutcome = SvcLogicExpressionResolver.evaluate(node.getAttribute("emitsOutcome"),  node, ctx);
+					outValue = mapOutcome(o, emitsOutcome);
+				}
 			}
 
 		}
@@ -0,0 +1,85 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP : CCSDK
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 						reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.core.sli.provider.base;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+
+/**
+ * Resolves plugin methods of the form {@code method(Map, SvcLogicContext)} to
+ * method handles once per plugin class and method name. Handles are held per
+ * class through a ClassValue, so a plugin bundle that is refreshed (and so
+ * loaded by a new class loader) gets new handles, and the old ones can be
+ * collected along with the old class.
+ */
+public class PluginMethodDispatcher {
+
+    private static final MethodType PLUGIN_METHOD_TYPE =
+            MethodType.methodType(Object.class, Object.class, Map.class, SvcLogicContext.class);
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private final ClassValue<ConcurrentMap<String, MethodHandle>> handles =
+            new ClassValue<ConcurrentMap<String, MethodHandle>>() {
+                @Override
+                protected ConcurrentMap<String, MethodHandle> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * Returns a handle for the named plugin method, adapted to the type
+     * (Object, Map, SvcLogicContext)Object.
+     *
+     * @throws NoSuchMethodException if the class has no public method with that
+     *         name taking (Map, SvcLogicContext)
+     * @throws IllegalAccessException if the method is not accessible
+     */
+    public MethodHandle getMethodHandle(Class<?> pluginClass, String methodName)
+            throws NoSuchMethodException, IllegalAccessException {
+        ConcurrentMap<String, MethodHandle> classHandles = handles.get(pluginClass);
+        MethodHandle handle = classHandles.get(methodName);
+        if (handle == null) {
+            Method method = pluginClass.getMethod(methodName, Map.class, SvcLogicContext.class);
+            handle = lookup.unreflect(method).asType(PLUGIN_METHOD_TYPE);
+            classHandles.putIfAbsent(methodName, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Invokes a handle returned by getMethodHandle. Exceptions thrown by the
+     * plugin method are rethrown as is, rather than wrapped in an
+     * InvocationTargetException.
+     */
+    public Object invoke(MethodHandle handle, Object plugin, Map<String, String> parameters, SvcLogicContext ctx)
+            throws Throwable {
+        return handle.invokeExact(plugin, (Map) parameters, ctx);
+    }
+
+}
@@ -23,7 +23,7 @@
 
 package org.onap.ccsdk.sli.core.sli.provider.base;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
@@ -66,10 +66,10 @@ public class SetNodeExecutor extends AbstractSvcLogicNodeExecutor {
                 if (curName.trim().startsWith("`")) {
                     int lastParen = curName.lastIndexOf("`");
                     String evalExpr = curName.trim().substring(1, lastParen);
-                    SvcLogicExpression lhsExpr = SvcLogicExpressionFactory.parse(evalExpr);
+                    SvcLogicExpression lhsExpr = SvcLogicExpressionFactory.parseCached(evalExpr);
                     lhsVarName = SvcLogicExpressionResolver.evaluate(lhsExpr, node, ctx);
                 } else {
-                    SvcLogicExpression lhsExpr = SvcLogicExpressionFactory.parse(curName);
+                    SvcLogicExpression lhsExpr = SvcLogicExpressionFactory.parseCached(curName);
                     lhsVarName = SvcLogicExpressionResolver.resolveVariableName(lhsExpr, node, ctx);
                 }
             } catch (Exception e) {
@@ -92,7 +92,7 @@ public class SetNodeExecutor extends AbstractSvcLogicNodeExecutor {
 
                         // SDNGC-2321 : rhsRoot is variable name, possibly with subscript(s) to be resolved
                         try {
-                            SvcLogicExpression rhsExpr = SvcLogicExpressionFactory.parse(rhsRoot);
+                            SvcLogicExpression rhsExpr = SvcLogicExpressionFactory.parseCached(rhsRoot);
                             rhsRoot = SvcLogicExpressionResolver.resolveVariableName(rhsExpr, node, ctx);
                         } catch (Exception e) {
                             LOG.warn("Caught exception trying to resolve variable name (" + rhsRoot + ")", e);
@@ -113,18 +113,8 @@ public class SetNodeExecutor extends AbstractSvcLogicNodeExecutor {
                             lhsPrefix = lhsPrefix.substring(0, lhsPrefix.length() - 1);
                         }
 
-                        HashMap<String, String> parmsToAdd = new HashMap<>();
-
-                        for (String sourceVarName : ctx.getAttributeKeySet()) {
-                            if (sourceVarName.startsWith(rhsRoot)) {
-                                String targetVar = lhsPrefix + "." + sourceVarName.substring(rhsRoot.length());
-                                LOG.debug("Copying {} value to {}", sourceVarName, targetVar);
-                                parmsToAdd.put(targetVar, ctx.getAttribute(sourceVarName));
-                            }
-                        }
-                        for (String newParmName : parmsToAdd.keySet()) {
-                            ctx.setAttribute(newParmName, parmsToAdd.get(newParmName));
-                        }
+                        int copied = ctx.copyAttributes(rhsRoot, lhsPrefix + ".");
+                        LOG.debug("Copied {} values from {} to {}", copied, rhsRoot, lhsPrefix);
                     } else {
                         // If RHS is empty, unset attributes in LHS
                         LinkedList<String> parmsToRemove = new LinkedList<>();
@@ -134,7 +124,7 @@ public class SetNodeExecutor extends AbstractSvcLogicNodeExecutor {
                         String lengthParamName = lhsVarName + "_length";
                         LOG.debug("Unsetting {} because prefix {} is being cleared.", lengthParamName, prefix);
 
-                        for (String curCtxVarname : ctx.getAttributeKeySet()) {
+                        for (String curCtxVarname : getClearCandidates(ctx, prefix, lengthParamName, arrayPrefix)) {
                             String curCtxVarnameMatchingValue = curCtxVarname;
                             //Special handling for reseting array values, strips out brackets and any numbers between the brackets
                             //when testing if a context memory value starts with a prefix
@@ -175,5 +165,27 @@ public class SetNodeExecutor extends AbstractSvcLogicNodeExecutor {
             }
         }
     }
-}
 
+    /**
+     * Returns the context variables that may match one of the prefixes being
+     * cleared, using the context's prefix index instead of scanning every
+     * variable. When prefix has no brackets, variable names are compared with
+     * their [n] subscripts removed, so names that differ from a prefix only
+     * from their first '[' on are also returned. The caller still applies the
+     * exact matching rules to each candidate.
+     */
+    protected Set<String> getClearCandidates(SvcLogicContext ctx, String prefix, String lengthParamName,
+            String arrayPrefix) {
+        Set<String> candidates = new HashSet<>();
+        boolean stripSubscripts = !prefix.contains("[");
+        for (String matchPrefix : new String[] {prefix, lengthParamName, arrayPrefix}) {
+            candidates.addAll(ctx.getAttributeKeySet(matchPrefix));
+            if (stripSubscripts) {
+                for (int i = 0; i < matchPrefix.length(); i++) {
+                    candidates.addAll(ctx.getAttributeKeySet(matchPrefix.substring(0, i) + "["));
+                }
+            }
+        }
+        return candidates;
+    }
+}
@@ -45,9 +45,32 @@ public class SvcLogicExpressionResolver {
 			.getLogger(SvcLogicExpressionResolver.class);
 	private static final String INVALID_EXPRESSION_MSG= "Invalid expression (";
     private static final String EXPRESSION_DEBUG_PATTERN = "Expression: ({}) resolves to: (${}) which has the value: ({})";
+    public static final String COMPILED_EVALUATION_PROP = "org.onap.ccsdk.sli.expression.compiled";
+
+    private static volatile boolean compiledEvaluation = Boolean.getBoolean(COMPILED_EVALUATION_PROP);
+
+    /**
+     * Selects whether expressions are evaluated by CompiledExpressionResolver
+     * (true) or interpreted directly from the parse tree (false, the default).
+     */
+    public static void setCompiledEvaluation(boolean enabled) {
+        compiledEvaluation = enabled;
+    }
+
+    public static boolean isCompiledEvaluation() {
+        return compiledEvaluation;
+    }
 
 	public static String evaluate(SvcLogicExpression expr, SvcLogicNode node,
 			SvcLogicContext ctx) throws SvcLogicException {
+		if (compiledEvaluation) {
+			return (CompiledExpressionResolver.evaluate(expr, node, ctx));
+		}
+		return (interpret(expr, node, ctx));
+	}
+
+	static String interpret(SvcLogicExpression expr, SvcLogicNode node,
+			SvcLogicContext ctx) throws SvcLogicException {
 		if (expr == null) {
 			return (null);
 		}
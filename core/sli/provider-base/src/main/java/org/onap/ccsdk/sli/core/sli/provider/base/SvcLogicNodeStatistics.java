@@ -0,0 +1,504 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP : CCSDK
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 						reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.core.sli.provider.base;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.onap.ccsdk.sli.core.sli.SvcLogicGraph;
+import org.onap.ccsdk.sli.core.sli.SvcLogicNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per node execution statistics for a SvcLogicServiceImplBase. For every
+ * (graph, node id, node type) executed, and for execute nodes every plugin and
+ * method called, it counts invocations and failures, and in timing mode also
+ * keeps the total time spent in the node, the time spent in the node itself
+ * (excluding the nodes it executed, such as the children of a block or the
+ * graph run by a call node), and a histogram of the latter for percentiles.
+ * <p>
+ * Statistics are off by default, in which case the only cost per node is a
+ * volatile read. The mode is read from the org.onap.ccsdk.sli.nodeStatistics.mode
+ * property (off, counts or timing) and can be changed at run time through JMX
+ * or setMode.
+ */
+public class SvcLogicNodeStatistics implements SvcLogicNodeStatisticsMBean {
+    private static final Logger LOG = LoggerFactory.getLogger(SvcLogicNodeStatistics.class);
+
+    public static final String MODE_PROP = "org.onap.ccsdk.sli.nodeStatistics.mode";
+    public static final String OBJECT_NAME = "org.onap.ccsdk.sli:type=SvcLogicNodeStatistics";
+
+    public enum Mode {
+        OFF, COUNTS, TIMING;
+
+        public static Mode parse(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return OFF;
+            }
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // Nodes being executed by the current thread, innermost last
+    private static final ThreadLocal<Frames> CURRENT = new ThreadLocal<>();
+
+    private volatile Mode mode = Mode.OFF;
+    private final ConcurrentMap<NodeKey, NodeStats> stats = new ConcurrentHashMap<>();
+    private volatile long resetTime = System.currentTimeMillis();
+    private ObjectName registeredName = null;
+
+    public SvcLogicNodeStatistics() {
+        String value = System.getProperty(MODE_PROP);
+        if (value != null) {
+            setMode(value);
+        }
+    }
+
+    /**
+     * Sets the mode from props, if the mode property is set there.
+     */
+    public void configure(Properties props) {
+        String value = (props == null ? null : props.getProperty(MODE_PROP));
+        if (value != null) {
+            LOG.info("Setting {} to {}", MODE_PROP, value);
+            setMode(value);
+        }
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    @Override
+    public String getMode() {
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @throws IllegalArgumentException if value is not off, counts or timing
+     */
+    @Override
+    public void setMode(String value) {
+        mode = Mode.parse(value);
+    }
+
+    /**
+     * Marks the start of the execution of a node by the current thread. Must be
+     * followed by a call to {@link #end(SvcLogicNode, boolean)}, in a finally
+     * block, on the same thread.
+     */
+    public void begin() {
+        Frames frames = CURRENT.get();
+        if (frames == null) {
+            frames = new Frames();
+            CURRENT.set(frames);
+        }
+        frames.push(mode == Mode.TIMING ? System.nanoTime() : -1L);
+    }
+
+    /**
+     * Records the execution of node, started by the matching call to begin.
+     *
+     * @param node node executed
+     * @param failed true if the node execution threw an exception
+     */
+    public void end(SvcLogicNode node, boolean failed) {
+        Frames frames = CURRENT.get();
+        int depth = --frames.depth;
+        long start = frames.starts[depth];
+        String target = frames.targets[depth];
+        frames.targets[depth] = null;
+
+        NodeStats nodeStats = getStats(node, target);
+        nodeStats.count.increment();
+        if (failed) {
+            nodeStats.failures.increment();
+        }
+        if (start >= 0) {
+            long elapsed = System.nanoTime() - start;
+            long self = elapsed - frames.childNanos[depth];
+            if (depth > 0) {
+                frames.childNanos[depth - 1] += elapsed;
+            }
+            nodeStats.record(elapsed, self);
+        }
+    }
+
+    /**
+     * Records the plugin and method called by the execute node being executed
+     * by the current thread, if statistics are being collected for it.
+     */
+    public static void setExecuteTarget(String pluginName, String methodName) {
+        Frames frames = CURRENT.get();
+        if (frames != null && frames.depth > 0) {
+            frames.targets[frames.depth - 1] = pluginName + "." + methodName;
+        }
+    }
+
+    private NodeStats getStats(SvcLogicNode node, String target) {
+        NodeKey key = new NodeKey(node, target);
+        NodeStats nodeStats = stats.get(key);
+        if (nodeStats == null) {
+            nodeStats = stats.computeIfAbsent(key, k -> new NodeStats());
+        }
+        return nodeStats;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of every node executed since the
+     * last reset, the nodes with the highest self time first.
+     */
+    public List<NodeSnapshot> getSnapshots() {
+        List<NodeSnapshot> snapshots = new ArrayList<>(stats.size());
+        for (java.util.Map.Entry<NodeKey, NodeStats> entry : stats.entrySet()) {
+            snapshots.add(new NodeSnapshot(entry.getKey(), entry.getValue()));
+        }
+        snapshots.sort(Comparator.comparingLong(NodeSnapshot::getSelfNanos)
+                .thenComparingLong(NodeSnapshot::getCount).reversed());
+        return snapshots;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return stats.size();
+    }
+
+    @Override
+    public long getInvocationCount() {
+        long count = 0;
+        for (NodeStats nodeStats : stats.values()) {
+            count += nodeStats.count.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        stats.clear();
+        resetTime = System.currentTimeMillis();
+    }
+
+    @Override
+    public String dump() {
+        return dump(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the statistics of the maxNodes nodes with the highest self time,
+     * one node per line, with times in microseconds.
+     */
+    @Override
+    public String dump(int maxNodes) {
+        List<NodeSnapshot> snapshots = getSnapshots();
+        StringBuilder sb = new StringBuilder();
+        sb.append("# mode=").append(getMode())
+                .append(" since=").append(new java.util.Date(resetTime))
+                .append(" nodes=").append(snapshots.size()).append('\n');
+        sb.append("# graph|nodeId|nodeType|target|count|failures|totalUs|selfUs|meanSelfUs|p50SelfUs|p90SelfUs|p99SelfUs|maxSelfUs\n");
+        int n = 0;
+        for (NodeSnapshot s : snapshots) {
+            if (n++ >= maxNodes) {
+                break;
+            }
+            sb.append(s.getGraph()).append('|').append(s.getNodeId()).append('|').append(s.getNodeType())
+                    .append('|').append(s.getTarget() == null ? "" : s.getTarget())
+                    .append('|').append(s.getCount()).append('|').append(s.getFailures())
+                    .append('|').append(s.getTotalNanos() / 1000).append('|').append(s.getSelfNanos() / 1000)
+                    .append('|').append(s.getCount() == 0 ? 0 : s.getSelfNanos() / s.getCount() / 1000)
+                    .append('|').append(s.getSelfPercentile(50) / 1000)
+                    .append('|').append(s.getSelfPercentile(90) / 1000)
+                    .append('|').append(s.getSelfPercentile(99) / 1000)
+                    .append('|').append(s.getMaxSelfNanos() / 1000).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Registers this object as a platform MBean, replacing any object already
+     * registered under the same name.
+     */
+    public synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            registeredName = name;
+        } catch (JMException e) {
+            LOG.warn("Could not register {}", OBJECT_NAME, e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(registeredName)) {
+                server.unregisterMBean(registeredName);
+            }
+        } catch (JMException e) {
+            LOG.warn("Could not unregister {}", registeredName, e);
+        }
+        registeredName = null;
+    }
+
+    // Per thread stack of the nodes being executed
+    private static final class Frames {
+        private long[] starts = new long[16];
+        private long[] childNanos = new long[16];
+        private String[] targets = new String[16];
+        private int depth = 0;
+
+        private void push(long start) {
+            if (depth == starts.length) {
+                starts = Arrays.copyOf(starts, depth * 2);
+                childNanos = Arrays.copyOf(childNanos, depth * 2);
+                targets = Arrays.copyOf(targets, depth * 2);
+            }
+            starts[depth] = start;
+            childNanos[depth] = 0;
+            depth++;
+        }
+    }
+
+    private static final class NodeKey {
+        private final String module;
+        private final String rpc;
+        private final String version;
+        private final String graphMode;
+        private final int nodeId;
+        private final String nodeType;
+        private final String target;
+        private final int hash;
+
+        private NodeKey(SvcLogicNode node, String target) {
+            SvcLogicGraph graph = node.getGraph();
+            this.module = (graph == null ? null : graph.getModule());
+            this.rpc = (graph == null ? null : graph.getRpc());
+            this.version = (graph == null ? null : graph.getVersion());
+            this.graphMode = (graph == null ? null : graph.getMode());
+            this.nodeId = node.getNodeId();
+            this.nodeType = node.getNodeType();
+            this.target = target;
+            this.hash = Objects.hash(module, rpc, version, graphMode, nodeId, nodeType, target);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof NodeKey)) {
+                return false;
+            }
+            NodeKey other = (NodeKey) o;
+            return hash == other.hash && nodeId == other.nodeId && Objects.equals(module, other.module)
+                    && Objects.equals(rpc, other.rpc) && Objects.equals(version, other.version)
+                    && Objects.equals(graphMode, other.graphMode) && Objects.equals(nodeType, other.nodeType)
+                    && Objects.equals(target, other.target);
+        }
+    }
+
+    private static final class NodeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder selfNanos = new LongAdder();
+        private final AtomicLong maxSelfNanos = new AtomicLong();
+        private final LatencyHistogram selfHistogram = new LatencyHistogram();
+
+        private void record(long elapsed, long self) {
+            totalNanos.add(elapsed);
+            selfNanos.add(self);
+            selfHistogram.record(self);
+            long max = maxSelfNanos.get();
+            while (self > max && !maxSelfNanos.compareAndSet(max, self)) {
+                max = maxSelfNanos.get();
+            }
+        }
+    }
+
+    /**
+     * Histogram of nanosecond values with 8 buckets per power of two, so that
+     * percentiles are within 1/8 (12.5%) of the recorded values. Values of 2^40
+     * ns (about 18 minutes) and more all fall in the last bucket.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_EXPONENT = 40;
+        static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        void record(long value) {
+            counts.incrementAndGet(bucket(value));
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return value < 0 ? 0 : (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            if (exponent > MAX_EXPONENT) {
+                return BUCKETS - 1;
+            }
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        // Returns the highest value that falls in bucket
+        static long highestValue(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long subBucket = bucket % SUB_BUCKETS;
+            long width = 1L << (exponent - SUB_BUCKET_BITS);
+            return ((SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+        }
+
+        /**
+         * Returns the value below which percentile percent of the recorded
+         * values fall, rounded up to the end of its bucket, or 0 if there are
+         * no values.
+         */
+        long percentile(double percentile) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank && snapshot[i] > 0) {
+                    return highestValue(i);
+                }
+            }
+            return highestValue(BUCKETS - 1);
+        }
+    }
+
+    /**
+     * Statistics of one node, as of the time the snapshot was taken.
+     */
+    public static final class NodeSnapshot {
+        private final String graph;
+        private final int nodeId;
+        private final String nodeType;
+        private final String target;
+        private final long count;
+        private final long failures;
+        private final long totalNanos;
+        private final long selfNanos;
+        private final long maxSelfNanos;
+        private final LatencyHistogram histogram;
+
+        private NodeSnapshot(NodeKey key, NodeStats nodeStats) {
+            this.graph = key.module + "/" + key.rpc + "/" + key.version + "/" + key.graphMode;
+            this.nodeId = key.nodeId;
+            this.nodeType = key.nodeType;
+            this.target = key.target;
+            this.count = nodeStats.count.sum();
+            this.failures = nodeStats.failures.sum();
+            this.totalNanos = nodeStats.totalNanos.sum();
+            this.selfNanos = nodeStats.selfNanos.sum();
+            this.maxSelfNanos = nodeStats.maxSelfNanos.get();
+            this.histogram = nodeStats.selfHistogram;
+        }
+
+        /** Returns module/rpc/version/mode of the graph the node belongs to. */
+        public String getGraph() {
+            return graph;
+        }
+
+        public int getNodeId() {
+            return nodeId;
+        }
+
+        public String getNodeType() {
+            return nodeType;
+        }
+
+        /** Returns plugin.method for execute nodes, null for other nodes. */
+        public String getTarget() {
+            return target;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getSelfNanos() {
+            return selfNanos;
+        }
+
+        public long getMaxSelfNanos() {
+            return maxSelfNanos;
+        }
+
+        /**
+         * Returns the self time below which percentile percent of the
+         * executions fall, within the 12.5% precision of the histogram.
+         */
+        public long getSelfPercentile(double percentile) {
+            return Math.min(histogram.percentile(percentile), maxSelfNanos);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP : CCSDK
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 						reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.core.sli.provider.base;
+
+/**
+ * JMX interface of SvcLogicNodeStatistics.
+ */
+public interface SvcLogicNodeStatisticsMBean {
+
+    /** Returns off, counts or timing. */
+    String getMode();
+
+    void setMode(String mode);
+
+    /** Returns the number of distinct nodes executed since the last reset. */
+    int getNodeCount();
+
+    /** Returns the number of node executions since the last reset. */
+    long getInvocationCount();
+
+    void reset();
+
+    String dump();
+
+    String dump(int maxNodes);
+}
@@ -77,4 +77,12 @@ public interface SvcLogicServiceBase {
 
     SvcLogicNode executeNode(SvcLogicNode nextNode, SvcLogicContext ctx) throws SvcLogicException;
 
+    /**
+     * Returns the per node execution statistics of this service, or null if
+     * it does not keep any.
+     */
+    default SvcLogicNodeStatistics getNodeStatistics() {
+        return null;
+    }
+
 }
@@ -69,6 +69,7 @@ public class SvcLogicServiceImplBase implements SvcLogicServiceBase {
     protected HashMap<String, AbstractSvcLogicNodeExecutor> nodeExecutors = null;
     protected Properties properties;
     protected SvcLogicStore store;
+    protected final SvcLogicNodeStatistics nodeStatistics = new SvcLogicNodeStatistics();
     protected static final String CURRENT_GRAPH="currentGraph";
 
     public SvcLogicServiceImplBase(SvcLogicStore store, SvcLogicResolver resolver) {
@@ -103,6 +104,7 @@ public class SvcLogicServiceImplBase implements SvcLogicServiceBase {
 
         SvcLogicNode curNode = graph.getRootNode();
         LOG.info("About to execute graph {}", graph.toString());
+        ctx.enterGraph();
 		try {
 			while (curNode != null) {
 				SvcLogicNode nextNode = executeNode(curNode, ctx);
@@ -110,6 +112,8 @@ public class SvcLogicServiceImplBase implements SvcLogicServiceBase {
 			}
 		} catch (ExitNodeException e) {
             LOG.debug("SvcLogicServiceImpl caught ExitNodeException");
+		} finally {
+			ctx.exitGraph();
 		}
         MDC.remove("nodeId");
         MDC.remove(CURRENT_GRAPH);
@@ -122,18 +126,34 @@ public class SvcLogicServiceImplBase implements SvcLogicServiceBase {
             return (null);
         }
 
-		LOG.info("About to execute node #{} {} node in graph {}", node.getNodeId(), node.getNodeType(), node.getGraph().toString());
+		LOG.info("About to execute node #{} {} node in graph {}", node.getNodeId(), node.getNodeType(), node.getGraph());
 
         AbstractSvcLogicNodeExecutor executor = nodeExecutors.get(node.getNodeType());
 
         if (executor != null) {
     		MDC.put("nodeId", node.getNodeId() + " (" + node.getNodeType() + ")");
-            return (executor.execute(this, node, ctx));
+            if (!nodeStatistics.isEnabled()) {
+                return (executor.execute(this, node, ctx));
+            }
+            boolean failed = true;
+            nodeStatistics.begin();
+            try {
+                SvcLogicNode nextNode = executor.execute(this, node, ctx);
+                failed = false;
+                return (nextNode);
+            } finally {
+                nodeStatistics.end(node, failed);
+            }
         } else {
             throw new SvcLogicException("Attempted to execute a node of type " + node.getNodeType() + ", but no executor was registered for this type");
         }
     }
 
+    @Override
+    public SvcLogicNodeStatistics getNodeStatistics() {
+        return nodeStatistics;
+    }
+
     @Override
     public boolean hasGraph(String module, String rpc, String version, String mode) throws SvcLogicException {
         return (store.hasGraph(module, rpc, version, mode));
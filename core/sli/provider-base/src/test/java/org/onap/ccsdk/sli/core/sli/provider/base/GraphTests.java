@@ -45,6 +45,15 @@ public class GraphTests {
         assertEquals("3", ctx.getAttribute("a")); // incrementing a happens before the break so a should be idx + 1
     }
 
+    @Test
+    public void testCompletionListener() throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        StringBuilder completed = new StringBuilder();
+        ctx.addCompletionListener("test", c -> completed.append(c.getAttribute("a")));
+        executeGraph("src/test/resources/breakGraph.xml", ctx);
+        assertEquals("3", completed.toString());
+    }
+
     public SvcLogicContext executeGraph(String pathToGraph) throws SvcLogicException {
         return executeGraph(pathToGraph, new SvcLogicContext());
     }
@@ -0,0 +1,59 @@
+package org.onap.ccsdk.sli.core.sli.provider.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import java.lang.invoke.MethodHandle;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.sli.SvcLogicException;
+import org.onap.ccsdk.sli.core.sli.SvcLogicJavaPlugin;
+
+public class PluginMethodDispatcherTest {
+
+    @Test
+    public void testHandleIsReused() throws Throwable {
+        PluginMethodDispatcher dispatcher = new PluginMethodDispatcher();
+        MethodHandle first = dispatcher.getMethodHandle(LunchSelectorPlugin.class, "selectLunch");
+        MethodHandle second = dispatcher.getMethodHandle(LunchSelectorPlugin.class, "selectLunch");
+        assertSame(first, second);
+
+        Map<String, String> parmMap = new HashMap<>();
+        parmMap.put("day", "friday");
+        assertEquals("bbq", dispatcher.invoke(first, new LunchSelectorPlugin(), parmMap, new SvcLogicContext()));
+    }
+
+    @Test
+    public void testVoidMethod() throws Throwable {
+        PluginMethodDispatcher dispatcher = new PluginMethodDispatcher();
+        SvcLogicJavaPlugin plugin = new SvcLogicJavaPlugin() {
+            public void dummy(Map<String, String> parameters, SvcLogicContext ctx) throws SvcLogicException {
+                ctx.setAttribute("dummy", "called");
+            }
+        };
+        SvcLogicContext ctx = new SvcLogicContext();
+        MethodHandle handle = dispatcher.getMethodHandle(plugin.getClass(), "dummy");
+        assertNull(dispatcher.invoke(handle, plugin, new HashMap<>(), ctx));
+        assertEquals("called", ctx.getAttribute("dummy"));
+    }
+
+    @Test
+    public void testPluginExceptionIsNotWrapped() throws Throwable {
+        PluginMethodDispatcher dispatcher = new PluginMethodDispatcher();
+        MethodHandle handle = dispatcher.getMethodHandle(LunchSelectorPlugin.class, "selectLunch");
+        try {
+            dispatcher.invoke(handle, new LunchSelectorPlugin(), new HashMap<>(), new SvcLogicContext());
+            fail("Expected UnknownLunchDayException");
+        } catch (LunchSelectorPlugin.UnknownLunchDayException e) {
+            assertEquals("What day is it?", e.getMessage());
+        }
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void testMissingMethod() throws Throwable {
+        new PluginMethodDispatcher().getMethodHandle(LunchSelectorPlugin.class, "skipLunch");
+    }
+}
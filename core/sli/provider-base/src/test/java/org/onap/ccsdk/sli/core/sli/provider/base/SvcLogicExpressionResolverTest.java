@@ -46,6 +46,26 @@ public class SvcLogicExpressionResolverTest extends TestCase {
 	private static final Logger LOG = LoggerFactory
 			.getLogger(SvcLogicExpressionResolver.class);
 	
+	public void testCompiledEvaluate()
+	{
+		SvcLogicExpressionResolver.setCompiledEvaluation(true);
+		try {
+			testEvaluate();
+		} finally {
+			SvcLogicExpressionResolver.setCompiledEvaluation(false);
+		}
+	}
+
+	public void testCompiledSvcLogicExpressions() throws Exception
+	{
+		SvcLogicExpressionResolver.setCompiledEvaluation(true);
+		try {
+			testSvcLogicExpressions();
+		} finally {
+			SvcLogicExpressionResolver.setCompiledEvaluation(false);
+		}
+	}
+
 	public void testEvaluate()
 	{
 		InputStream testStr = getClass().getResourceAsStream("/expression.tests");
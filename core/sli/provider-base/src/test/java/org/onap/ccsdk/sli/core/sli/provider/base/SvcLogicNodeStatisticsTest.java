@@ -0,0 +1,213 @@
+package org.onap.ccsdk.sli.core.sli.provider.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.Test;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.sli.SvcLogicGraph;
+import org.onap.ccsdk.sli.core.sli.SvcLogicNode;
+import org.onap.ccsdk.sli.core.sli.SvcLogicParser;
+import org.onap.ccsdk.sli.core.sli.SvcLogicStore;
+import org.onap.ccsdk.sli.core.sli.provider.base.SvcLogicNodeStatistics.LatencyHistogram;
+import org.onap.ccsdk.sli.core.sli.provider.base.SvcLogicNodeStatistics.NodeSnapshot;
+
+public class SvcLogicNodeStatisticsTest {
+
+    private SvcLogicServiceImplBase executeBreakGraph(String mode) throws Exception {
+        SvcLogicStore store = new InMemorySvcLogicStore();
+        SvcLogicServiceImplBase svc = new SvcLogicServiceImplBase(store, new HashMapResolver());
+        Properties props = new Properties();
+        props.setProperty(SvcLogicNodeStatistics.MODE_PROP, mode);
+        svc.getNodeStatistics().configure(props);
+
+        LinkedList<SvcLogicGraph> graphList = new SvcLogicParser().parse("src/test/resources/breakGraph.xml");
+        SvcLogicGraph graph = graphList.get(0);
+        SvcLogicContext ctx = svc.execute(graph, new SvcLogicContext());
+        assertEquals("3", ctx.getAttribute("a"));
+        return svc;
+    }
+
+    private static Map<String, Long> countsByType(List<NodeSnapshot> snapshots) {
+        Map<String, Long> counts = new HashMap<>();
+        for (NodeSnapshot snapshot : snapshots) {
+            assertEquals("JUNIT/BREAK/1/sync", snapshot.getGraph());
+            counts.merge(snapshot.getNodeType(), snapshot.getCount(), Long::sum);
+        }
+        return counts;
+    }
+
+    @Test
+    public void testOff() throws Exception {
+        SvcLogicServiceImplBase svc = executeBreakGraph("off");
+        assertEquals("off", svc.getNodeStatistics().getMode());
+        assertEquals(0, svc.getNodeStatistics().getNodeCount());
+        assertEquals(0, svc.getNodeStatistics().getInvocationCount());
+    }
+
+    @Test
+    public void testCounts() throws Exception {
+        SvcLogicServiceImplBase svc = executeBreakGraph("counts");
+        SvcLogicNodeStatistics nodeStatistics = svc.getNodeStatistics();
+
+        // block, for, 2 sets, record, switch and break nodes
+        assertEquals(7, nodeStatistics.getNodeCount());
+        // The loop runs 3 times and breaks out on the third
+        assertEquals(13, nodeStatistics.getInvocationCount());
+        Map<String, Long> counts = countsByType(nodeStatistics.getSnapshots());
+        assertEquals(Long.valueOf(1), counts.get("block"));
+        assertEquals(Long.valueOf(1), counts.get("for"));
+        assertEquals(Long.valueOf(4), counts.get("set"));
+        assertEquals(Long.valueOf(3), counts.get("record"));
+        assertEquals(Long.valueOf(3), counts.get("switch"));
+        assertEquals(Long.valueOf(1), counts.get("break"));
+        for (NodeSnapshot snapshot : nodeStatistics.getSnapshots()) {
+            assertEquals(0, snapshot.getTotalNanos());
+            assertEquals(0, snapshot.getSelfPercentile(99));
+        }
+
+        nodeStatistics.reset();
+        assertEquals(0, nodeStatistics.getNodeCount());
+    }
+
+    @Test
+    public void testTiming() throws Exception {
+        SvcLogicServiceImplBase svc = executeBreakGraph("timing");
+        List<NodeSnapshot> snapshots = svc.getNodeStatistics().getSnapshots();
+        assertEquals(7, snapshots.size());
+
+        long blockTotal = 0;
+        long selfSum = 0;
+        long previousSelf = Long.MAX_VALUE;
+        for (NodeSnapshot snapshot : snapshots) {
+            assertTrue(snapshot.getSelfNanos() <= previousSelf);
+            previousSelf = snapshot.getSelfNanos();
+            assertTrue(snapshot.getSelfNanos() <= snapshot.getTotalNanos());
+            assertTrue(snapshot.getSelfPercentile(50) <= snapshot.getSelfPercentile(99));
+            assertTrue(snapshot.getMaxSelfNanos() <= snapshot.getSelfPercentile(100));
+            selfSum += snapshot.getSelfNanos();
+            if ("block".equals(snapshot.getNodeType())) {
+                blockTotal = snapshot.getTotalNanos();
+            }
+        }
+        // The block node is the root, so the self times of all nodes add up to its total
+        assertEquals(blockTotal, selfSum);
+
+        String dump = svc.getNodeStatistics().dump(3);
+        assertTrue(dump.startsWith("# mode=timing"));
+        assertEquals(5, dump.split("\n").length);
+    }
+
+    @Test
+    public void testExecuteTarget() throws Exception {
+        SvcLogicGraph graph = new SvcLogicGraph();
+        graph.setModule("TEST");
+        graph.setRpc("target");
+        graph.setMode("sync");
+        graph.setVersion("1");
+        SvcLogicNode block = new SvcLogicNode(1, "block", graph);
+        SvcLogicNode execute = new SvcLogicNode(2, "execute", graph);
+
+        // Not collecting for this thread
+        SvcLogicNodeStatistics.setExecuteTarget("plugin", "ignored");
+
+        SvcLogicNodeStatistics nodeStatistics = new SvcLogicNodeStatistics();
+        nodeStatistics.setMode("timing");
+        nodeStatistics.begin();
+        for (String method : new String[] {"first", "second", "first"}) {
+            nodeStatistics.begin();
+            SvcLogicNodeStatistics.setExecuteTarget("plugin", method);
+            nodeStatistics.end(execute, "second".equals(method));
+        }
+        nodeStatistics.end(block, false);
+
+        Map<String, NodeSnapshot> byTarget = new HashMap<>();
+        for (NodeSnapshot snapshot : nodeStatistics.getSnapshots()) {
+            byTarget.put(snapshot.getTarget(), snapshot);
+        }
+        assertEquals(3, byTarget.size());
+        assertEquals("block", byTarget.get(null).getNodeType());
+        assertEquals(2, byTarget.get("plugin.first").getCount());
+        assertEquals(0, byTarget.get("plugin.first").getFailures());
+        assertEquals(1, byTarget.get("plugin.second").getCount());
+        assertEquals(1, byTarget.get("plugin.second").getFailures());
+        assertEquals("TEST/target/1/sync", byTarget.get("plugin.second").getGraph());
+        assertTrue(nodeStatistics.dump().contains("|2|execute|plugin.first|2|0|"));
+    }
+
+    @Test
+    public void testMode() {
+        SvcLogicNodeStatistics nodeStatistics = new SvcLogicNodeStatistics();
+        nodeStatistics.setMode("COUNTS");
+        assertEquals("counts", nodeStatistics.getMode());
+        assertTrue(nodeStatistics.isEnabled());
+        nodeStatistics.setMode("");
+        assertEquals("off", nodeStatistics.getMode());
+        nodeStatistics.configure(new Properties());
+        assertEquals("off", nodeStatistics.getMode());
+        try {
+            nodeStatistics.setMode("sometimes");
+            assertTrue(false);
+        } catch (IllegalArgumentException e) {
+            assertEquals("off", nodeStatistics.getMode());
+        }
+        assertNull(new SvcLogicServiceBase() {
+            public boolean hasGraph(String module, String rpc, String version, String mode) {
+                return false;
+            }
+
+            public Properties execute(String module, String rpc, String version, String mode, Properties parms) {
+                return null;
+            }
+
+            public SvcLogicContext execute(String module, String rpc, String version, String mode,
+                    SvcLogicContext ctx) {
+                return null;
+            }
+
+            public SvcLogicStore getStore() {
+                return null;
+            }
+
+            public SvcLogicContext execute(SvcLogicGraph calledGraph, SvcLogicContext ctx) {
+                return null;
+            }
+
+            public SvcLogicNode executeNode(SvcLogicNode nextNode, SvcLogicContext ctx) {
+                return null;
+            }
+        }.getNodeStatistics());
+    }
+
+    @Test
+    public void testHistogram() {
+        int previous = 0;
+        for (long value = 0; value < 1L << 42; value = value < 64 ? value + 1 : value + value / 7) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(bucket >= previous);
+            assertTrue(bucket < LatencyHistogram.BUCKETS);
+            previous = bucket;
+            if (bucket < LatencyHistogram.BUCKETS - 1) {
+                long highest = LatencyHistogram.highestValue(bucket);
+                assertTrue(highest >= value);
+                assertTrue(highest - value <= value / 8);
+                assertEquals(bucket, LatencyHistogram.bucket(highest));
+                assertEquals(bucket + 1, LatencyHistogram.bucket(highest + 1));
+            }
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(50));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(500000, histogram.percentile(50), 500000 / 8);
+        assertEquals(990000, histogram.percentile(99), 990000 / 8);
+        assertTrue(histogram.percentile(100) >= 1000000);
+    }
+}
@@ -26,7 +26,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.onap.ccsdk.sli.core.sli.SvcLogicAdaptor;
 import org.onap.ccsdk.sli.core.sli.SvcLogicJavaPlugin;
@@ -35,10 +37,14 @@ import org.onap.ccsdk.sli.core.sli.SvcLogicResource;
 import org.onap.ccsdk.sli.core.sli.provider.base.SvcLogicResolver;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
 import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +55,9 @@ public class SvcLogicClassResolver implements SvcLogicResolver {
 	private static final String CLASS_RESOLVER_PROPERTIES="classresolver.properties";
 	private static final String ALLOWED_PACKAGES = "org.onap.ccsdk.sli.allowed.packages";
 	private static HashMap<String, SvcLogicAdaptor> adaptorMap = new HashMap<>();
+	private final Map<String, CachedService> serviceCache = new ConcurrentHashMap<>();
+	private volatile ServiceListener serviceListener = null;
+	private volatile BundleContext listenerContext = null;
 	List<String> allowedPackages = new ArrayList<String>();
 
 	@Activate
@@ -119,10 +128,33 @@ public class SvcLogicClassResolver implements SvcLogicResolver {
 			}
 
 		} else {
+			CachedService cached = serviceCache.get(className);
+			if (cached != null) {
+				return cached.service;
+			}
+
 			BundleContext bctx = bundle.getBundleContext();
-			ServiceReference sref = bctx.getServiceReference(className);
+			registerServiceListener(bctx);
+			ServiceReference<?> sref = bctx.getServiceReference(className);
 			if (sref != null) {
-				return bctx.getService(sref);
+				Object service = bctx.getService(sref);
+				if (service == null) {
+					return null;
+				}
+
+				cached = new CachedService(bctx, sref, service);
+				CachedService previous = serviceCache.putIfAbsent(className, cached);
+				if (previous != null) {
+					// Another thread resolved it first
+					cached.release();
+					return previous.service;
+				}
+				// The listener does not see an unregistration that happened
+				// before the entry was added, so check the reference again
+				if (sref.getBundle() == null && serviceCache.remove(className, cached)) {
+					cached.release();
+				}
+				return service;
 			} else {
 
 				LOG.warn("Could not find service reference object for class " + className);
@@ -131,6 +163,61 @@ public class SvcLogicClassResolver implements SvcLogicResolver {
 		}
 	}
 
+	/*
+	 * Resolved services are cached by class name so that execute nodes do not go
+	 * to the service registry every time. Any registry change for one of those
+	 * names drops the cached entry and releases the service, so the next lookup
+	 * picks up the current service (e.g. after a plugin bundle is refreshed).
+	 */
+	private void registerServiceListener(BundleContext bctx) {
+		if (serviceListener != null) {
+			return;
+		}
+		synchronized (serviceCache) {
+			if (serviceListener == null) {
+				ServiceListener listener = new ServiceListener() {
+					@Override
+					public void serviceChanged(ServiceEvent event) {
+						Object objectClass = event.getServiceReference().getProperty(Constants.OBJECTCLASS);
+						if (objectClass instanceof String[]) {
+							for (String name : (String[]) objectClass) {
+								CachedService cached = serviceCache.remove(name);
+								if (cached != null) {
+									cached.release();
+									LOG.info("Service {} changed, removed from resolver cache", name);
+								}
+							}
+						}
+					}
+				};
+				bctx.addServiceListener(listener);
+				listenerContext = bctx;
+				serviceListener = listener;
+			}
+		}
+	}
+
+	@Deactivate
+	public void deactivate() {
+		synchronized (serviceCache) {
+			if (serviceListener != null) {
+				try {
+					listenerContext.removeServiceListener(serviceListener);
+				} catch (IllegalStateException e) {
+					LOG.debug("Bundle context is no longer valid", e);
+				}
+				serviceListener = null;
+				listenerContext = null;
+			}
+		}
+		for (String name : serviceCache.keySet()) {
+			CachedService cached = serviceCache.remove(name);
+			if (cached != null) {
+				cached.release();
+			}
+		}
+	}
+
 	private boolean isAllowedClassName(String className) {
 		if (className == null) {
 			return false;
@@ -167,4 +254,25 @@ public class SvcLogicClassResolver implements SvcLogicResolver {
 		return getAdaptorInstance(adaptorName);
 	}
 
+	private static final class CachedService {
+		private final BundleContext bctx;
+		private final ServiceReference<?> reference;
+		private final Object service;
+
+		CachedService(BundleContext bctx, ServiceReference<?> reference, Object service) {
+			this.bctx = bctx;
+			this.reference = reference;
+			this.service = service;
+		}
+
+		// Releases the use count taken by getService
+		void release() {
+			try {
+				bctx.ungetService(reference);
+			} catch (IllegalStateException e) {
+				LOG.debug("Bundle context is no longer valid", e);
+			}
+		}
+	}
+
 }
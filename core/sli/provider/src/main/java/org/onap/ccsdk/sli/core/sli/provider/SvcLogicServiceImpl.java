@@ -25,17 +25,20 @@ package org.onap.ccsdk.sli.core.sli.provider;
 
 import java.util.Properties;
 import org.onap.ccsdk.sli.core.dblib.DbLibService;
+import org.onap.ccsdk.sli.core.sli.CachingSvcLogicStore;
 import org.onap.ccsdk.sli.core.sli.ConfigurationException;
 import org.onap.ccsdk.sli.core.sli.SvcLogicDblibStore;
 import org.onap.ccsdk.sli.core.sli.SvcLogicException;
 import org.onap.ccsdk.sli.core.sli.SvcLogicStore;
 import org.onap.ccsdk.sli.core.sli.SvcLogicStoreFactory;
+import org.onap.ccsdk.sli.core.sli.provider.base.SvcLogicExpressionResolver;
 import org.onap.ccsdk.sli.core.sli.provider.base.SvcLogicPropertiesProvider;
 import org.onap.ccsdk.sli.core.sli.provider.base.SvcLogicResolver;
 import org.onap.ccsdk.sli.core.sli.provider.base.SvcLogicServiceImplBase;
 import org.opendaylight.mdsal.dom.api.DOMDataBroker;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +52,8 @@ public class SvcLogicServiceImpl extends SvcLogicServiceImplBase implements SvcL
             throws SvcLogicException {
         super(null, resolver);
         properties = resourceProvider.getProperties();
+        configureExpressionEvaluation();
+        nodeStatistics.configure(properties);
         this.store = getStore();
     }
 
@@ -58,7 +63,29 @@ public class SvcLogicServiceImpl extends SvcLogicServiceImplBase implements SvcL
                                @Reference final SvcLogicResolver resolver) throws SvcLogicException {
         super(null, resolver);
         properties = resourceProvider.getProperties();
+        configureExpressionEvaluation();
+        nodeStatistics.configure(properties);
+        nodeStatistics.registerMBean();
         this.store = new SvcLogicDblibStore(dbSvc);
+        if (CachingSvcLogicStore.isEnabled(properties)) {
+            SvcLogicStore cachingStore = new CachingSvcLogicStore(this.store);
+            cachingStore.init(properties);
+            this.store = cachingStore;
+        }
+    }
+
+    @Deactivate
+    public void deactivate() {
+        nodeStatistics.unregisterMBean();
+    }
+
+    private void configureExpressionEvaluation() {
+        String compiled = (properties == null ? null
+                : properties.getProperty(SvcLogicExpressionResolver.COMPILED_EVALUATION_PROP));
+        if (compiled != null) {
+            LOG.info("Setting {} to {}", SvcLogicExpressionResolver.COMPILED_EVALUATION_PROP, compiled);
+            SvcLogicExpressionResolver.setCompiledEvaluation(Boolean.parseBoolean(compiled.trim()));
+        }
     }
 
     @Override
@@ -33,6 +33,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -90,7 +91,9 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 	 * Removes 1 or more elements from a list in context memory.
 	 * <p>
 	 * Values are removed based on either the index in the list, a key-value
-	 * pair, or a list of key-value pairs that all must match in the element.
+	 * pair, a key and a list of values (values_length and values[i]) any of
+	 * which may match, or a list of key-value pairs that all must match in the
+	 * element.
 	 * @param parameters
 	 * @param ctx Reference to context memory
 	 * @throws SvcLogicException All exceptions are wrapped in
@@ -109,6 +112,7 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 			String param_key = parameters.get("key");
 			String param_value = parameters.get("value");
 			String param_keys_length = parameters.get("keys_length");
+			String param_values_length = parameters.get("values_length");
 
 			// Initialize context memory list mimic
 			SvcLogicContextList list;
@@ -116,6 +120,8 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 			// Process based on input parameters:
 			//   index: remove object at specific index
 			//   key & value: remove all objects with key-value pair
+			//   key & values_length: remove all objects whose key has any
+			//                of the values in list
 			//   keys_length: remove all objects that match all key-value pairs
 			//                in list
 			if( param_index != null ) {
@@ -146,6 +152,37 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 				LOG.trace(LOG_MSG1);
 				list.remove( param_key, param_value );
 			}
+			else if( param_values_length != null ) {
+				if( param_key == null ) { param_key = ""; }
+
+				// Parse values_length
+				LOG.trace("executing remove by key-value list logic");
+				int values_length;
+				try {
+					values_length = Integer.parseInt(param_values_length);
+				}
+				catch( NumberFormatException e ) {
+					throw new IllegalArgumentException("\"values_length\" parameter is not a number. values_length = " + param_values_length, e);
+				}
+
+				// Obtain values to check from parameters
+				LOG.trace("reading values parameter list");
+				HashSet<String> values = new HashSet<>();
+				for( int i = 0; i < values_length; i++ ) {
+					String value = parameters.get("values[" + i + "]");
+					if( value == null ) {
+						throw new IllegalArgumentException("Required parameter \"values[" + i + "]\" missing");
+					}
+					values.add(value);
+				}
+
+				// Extract list from context memory & remove objects with any
+				// of the values in a single pass
+				LOG.trace(LOG_MSG);
+				list = SvcLogicContextList.extract(ctx, list_pfx);
+				LOG.trace(LOG_MSG1);
+				list.removeAll( param_key, values );
+			}
 			else if( param_keys_length != null ) {
 				// Parse keys_length
 				LOG.trace("executing remove by key-value pair list logic");
@@ -172,7 +209,7 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 				list.remove(keys_values);
 			}
 			else {
-				throw new IllegalArgumentException("Required parameters missing. Requires one of: index, key & value, or keys_length array");
+				throw new IllegalArgumentException("Required parameters missing. Requires one of: index, key & value, key & values_length array, or keys_length array");
 			}
 
 			// Remove index from list
@@ -187,6 +224,94 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 		}
 	}
 
+	/**
+	 * Performs several bulk copies and erases of context memory in one
+	 * execute node, replacing a chain of ctxBulkCopy and ctxBulkErase calls.
+	 * <p>
+	 * Every copy reads its source attributes as they were before the node
+	 * ran, and every erase is done before any copy is written. A destination
+	 * can therefore be erased and refilled, and a source erased after it has
+	 * been copied (a move), by the same node. Each prefix is looked up in the
+	 * context's attribute name index, so only the matching attributes are
+	 * visited.
+	 * @param parameters HashMap&lt;String,String&gt; of parameters passed by the DG to this function
+	 * <table border="1">
+	 *  <thead><th>parameter</th><th>Mandatory/Optional</th><th>description</th></thead>
+	 *  <tbody>
+	 *      <tr><td>copies_length</td><td>Optional</td><td>Number of copies; each copy has copies[i].src_pfx and copies[i].dest_pfx, used as in ctxBulkCopy</td></tr>
+	 *      <tr><td>erases_length</td><td>Optional</td><td>Number of erases; each erase has a prefix erases[i], used as in ctxBulkErase</td></tr>
+	 *      <tr><td>outputPath</td><td>Optional</td><td>If set, the number of attributes copied and erased is written to outputPath.copied and outputPath.erased</td></tr>
+	 *  </tbody>
+	 * </table>
+	 * @param ctx Reference to context memory
+	 * @throws SvcLogicException All exceptions are wrapped in
+	 * SvcLogicException for compatibility with SLI.
+	 */
+	public void ctxBulkOperations( Map<String,String> parameters, SvcLogicContext ctx ) throws SvcLogicException {
+		try {
+			LOG.debug( "ENTERING Execute Node \"ctxBulkOperations\"" );
+			logExecuteNodeParameters(parameters, LOG, LogLevel.DEBUG);
+
+			int copies_length = getLengthParameter(parameters, "copies_length");
+			int erases_length = getLengthParameter(parameters, "erases_length");
+			if( copies_length == 0 && erases_length == 0 ) {
+				throw new IllegalArgumentException("Required parameters missing. Requires copies_length array, erases_length array, or both");
+			}
+
+			// Read every copy's source attributes before changing anything
+			Map<String,String> copies = new LinkedHashMap<>();
+			for( int i = 0; i < copies_length; i++ ) {
+				String src_pfx = getListParameter(parameters, "copies[" + i + "].src_pfx");
+				String dest_pfx = getListParameter(parameters, "copies[" + i + "].dest_pfx");
+				for( String key : ctx.getAttributeKeySet(src_pfx) ) {
+					copies.put(bulkCopyKey(key, src_pfx, dest_pfx), ctx.getAttribute(key));
+				}
+			}
+
+			int erased = 0;
+			for( int i = 0; i < erases_length; i++ ) {
+				erased += ctx.removeAttributes(getListParameter(parameters, "erases[" + i + "]"));
+			}
+			for( Map.Entry<String,String> entry : copies.entrySet() ) {
+				ctx.setAttribute(entry.getKey(), entry.getValue());
+			}
+
+			LOG.debug("ctxBulkOperations copied {} and erased {} attribute(s)", copies.size(), erased);
+			String outputPath = parameters.get("outputPath");
+			if( outputPath != null && !outputPath.isEmpty() ) {
+				ctx.setAttribute(outputPath + ".copied", String.valueOf(copies.size()));
+				ctx.setAttribute(outputPath + ".erased", String.valueOf(erased));
+			}
+		}
+		catch( Exception e ) {
+			throw new SvcLogicException( "An error occurred in the ctxBulkOperations Execute node", e );
+		}
+		finally {
+			LOG.debug( "EXITING Execute Node \"ctxBulkOperations\"" );
+		}
+	}
+
+	private static int getLengthParameter( Map<String,String> parameters, String name ) {
+		String value = parameters.get(name);
+		if( value == null ) {
+			return 0;
+		}
+		try {
+			return Integer.parseInt(value);
+		}
+		catch( NumberFormatException e ) {
+			throw new IllegalArgumentException("\"" + name + "\" parameter is not a number. " + name + " = " + value, e);
+		}
+	}
+
+	private static String getListParameter( Map<String,String> parameters, String name ) {
+		String value = parameters.get(name);
+		if( value == null || value.isEmpty() ) {
+			throw new IllegalArgumentException("Required parameter \"" + name + "\" missing");
+		}
+		return value;
+	}
+
     /**
      * ctxSortList
      * @param parameters - the set of required parameters must contain list and delimiter.
@@ -212,7 +337,7 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 		}
 		Collections.sort(list);
 
-		ctxBulkErase(ctx, ctx_list_str);
+		ctx.removeAttributes(ctx_list_str);
 		int i = 0;
 		for( SortableCtxListElement list_element : list ) {
 			for( Map.Entry<String,String> entry : list_element.child_elements.entrySet() ) {
@@ -225,7 +350,7 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 			}
 			i++;
 		}
-		// Reset list length (removed by ctxBulkErase above)
+		// Reset list length (removed by removeAttributes above)
 		ctx.setAttribute(ctx_list_str+LENGTH, Integer.toString(listSz));
 	}
 
@@ -328,12 +453,7 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 	 * @since 1.0
 	 */
 	public static final void ctxBulkErase( SvcLogicContext ctx, String pfx ) {
-		ArrayList<String> Keys = new ArrayList<>(ctx.getAttributeKeySet());
-		for( String key : Keys ) {
-			if( key.startsWith( pfx ) ) {
-				ctx.setAttribute( pfx + key.substring(pfx.length()) , null);
-			}
-		}
+		ctx.removeAttributes(pfx);
 	}
 
 	/**
@@ -351,26 +471,34 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 	 * @since 1.0
 	 */
 	public static final void ctxBulkCopy( SvcLogicContext ctx, String src_pfx, String dest_pfx ) {
+		// For each context key that begins with src_pfx, set the value of the
+		// key dest_pfx + the suffix of the key to the key's value. The key set
+		// is a snapshot, so the destination may be under the source.
+		for( String key : ctx.getAttributeKeySet(src_pfx) ) {
+			ctx.setAttribute(bulkCopyKey(key, src_pfx, dest_pfx), ctx.getAttribute(key));
+		}
+	}
+
+	/**
+	 * Returns the key that ctxBulkCopy copies key to: dest_pfx without any
+	 * trailing period, a period, and the suffix of key after src_pfx without
+	 * any leading period.
+	 */
+	private static String bulkCopyKey( String key, String src_pfx, String dest_pfx ) {
 		// Remove trailing period from dest_pfx
 		if( dest_pfx.charAt(dest_pfx.length()-1) == '.' ) {
 			dest_pfx = dest_pfx.substring(0,dest_pfx.length()-1);
 		}
 
-		// For each context key that begins with src_pfx, set the value of the
-		// key dest_pfx + the suffix of the key to the key's value
-		ArrayList<String> Keys = new ArrayList<>(ctx.getAttributeKeySet());
-		for( String key : Keys ) {
-			if( key.startsWith(src_pfx) ) {
-				// Get suffix (no leading period)
-				String suffix = key.substring(src_pfx.length());
-				if( suffix.charAt(0) == '.') {
-					suffix = suffix.substring(1);
-				}
-
-				// Set destination's value to key's value
-				ctx.setAttribute(dest_pfx + '.' + suffix, ctx.getAttribute(key));
-			}
+		// Get suffix (no leading period)
+		String suffix = key.substring(src_pfx.length());
+		if( suffix.isEmpty() ) {
+			return dest_pfx;
+		}
+		if( suffix.charAt(0) == '.') {
+			suffix = suffix.substring(1);
 		}
+		return dest_pfx + '.' + suffix;
 	}
 
 	/**
@@ -384,10 +512,8 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 	public static final Map<String, String> ctxGetBeginsWith( SvcLogicContext ctx, String prefix ) {
 		Map<String, String> prefixMap = new HashMap<>();
 
-		for( String key : ctx.getAttributeKeySet() ) {
-			if( key.startsWith(prefix) ) {
-				prefixMap.put( key, ctx.getAttribute(key) );
-			}
+		for( String key : ctx.getAttributeKeySet(prefix) ) {
+			prefixMap.put( key, ctx.getAttribute(key) );
 		}
 
 		return prefixMap;
@@ -643,15 +769,13 @@ public class SliPluginUtils implements SvcLogicJavaPlugin {
 		public SortableCtxListElement( SvcLogicContext ctx, String root, String[] sort_fields ) {
 			this.sort_fields = sort_fields;
 
-			for( String key : ctx.getAttributeKeySet() ) {
-				if( key.startsWith(root) ) {
-					if( key.length() == root.length() ) {
-						child_elements.put("", ctx.getAttribute(key));
-						break;
-					}
-					else {
-						child_elements.put(key.substring(root.length()+1), ctx.getAttribute(key));
-					}
+			for( String key : ctx.getAttributeKeySet(root) ) {
+				if( key.length() == root.length() ) {
+					child_elements.put("", ctx.getAttribute(key));
+					break;
+				}
+				else {
+					child_elements.put(key.substring(root.length()+1), ctx.getAttribute(key));
 				}
 			}
 		}
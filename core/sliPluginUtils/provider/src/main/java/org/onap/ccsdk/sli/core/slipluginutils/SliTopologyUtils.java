@@ -17,18 +17,16 @@
  */
 package org.onap.ccsdk.sli.core.slipluginutils;
 
-import com.google.common.collect.ImmutableSet;
 import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import org.apache.commons.lang3.StringUtils;
 import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
 import org.onap.ccsdk.sli.core.sli.SvcLogicException;
 import org.onap.ccsdk.sli.core.sli.SvcLogicJavaPlugin;
 import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.JsonParserHelper;
-import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.DijkstraGraphSearch;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.TopologyGraphCache;
 import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Graph;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.KShortestPathsSearch;
 import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Path;
 import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.topology.*;
 import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.topology.LogicalLink;
@@ -46,6 +44,9 @@ public class SliTopologyUtils implements SvcLogicJavaPlugin {
     public static final String FAILURE_CONSTANT = "failure";
     public static final String NOT_FOUND_CONSTANT = "not-found";
 
+    // Graphs built for the topologies recently read into context memory
+    private static final TopologyGraphCache GRAPH_CACHE = new TopologyGraphCache(16);
+
 
     @Activate
     public SliTopologyUtils(){};
@@ -62,6 +63,8 @@ public class SliTopologyUtils implements SvcLogicJavaPlugin {
      * 		<tr><td>dst-node</td><td>Mandatory</td><td>Destination pnf name.</td></tr>
      * 		<tr><td>response-pfx</td><td>Mandatory</td><td>Prefix in context memory to populate the resulting attributes in.</td></tr>
      * 		<tr><td>output-end-to-end-path</td><td>Optional</td><td>true or false to output end to end full path. If not included, only output cross domain path</td></tr>
+     * 		<tr><td>max-paths</td><td>Optional</td><td>Maximum number of paths to compute, 1 if not included. If greater than 1, all paths found are also output in the paths array, shortest first</td></tr>
+     * 		<tr><td>disjoint-paths</td><td>Optional</td><td>true to only compute paths that share no pnf other than the source and destination. If not included, the k shortest paths are computed</td></tr>
      * 	</tbody>
      * </table>
      * @param ctx Reference to context memory
@@ -71,6 +74,8 @@ public class SliTopologyUtils implements SvcLogicJavaPlugin {
 
         LOG.debug( "ENTERING Execute Node \"computePath\"" );
         boolean outputFullPath = false;
+        boolean disjointPaths = false;
+        int maxPaths = 1;
         Graph<Pnf, LogicalLink> graph;
         Pnf src;
         Pnf dst;
@@ -86,20 +91,15 @@ public class SliTopologyUtils implements SvcLogicJavaPlugin {
                 LOG.debug( "OutputEndToEndPath enabled");
             }
 
-            String pnfsStr = ctx.toJsonString( parameters.get("pnfs-pfx"));
-            String lkStr = ctx.toJsonString( parameters.get("links-pfx"));
-
-            if (pnfsStr.isEmpty()){
-                LOG.warn("Pnf Array attributes are empty");
-                throw new Exception( "Pnf Array attributes are empty");
-            }
-
-            if (lkStr.isEmpty()){
-                LOG.warn("Logical-links Array attributes are empty");
-                throw new Exception( "Logical-links Array attributes are empty");
+            String maxPathsStr = parameters.get("max-paths");
+            if (maxPathsStr != null && !maxPathsStr.isEmpty()){
+                maxPaths = Integer.parseInt(maxPathsStr);
+                if (maxPaths < 1){
+                    LOG.warn("max-paths must be positive");
+                    throw new Exception("max-paths must be positive");
+                }
             }
-
-            LOG.debug("Pnf Json String is: {}", pnfsStr);
+            disjointPaths = "true".equals(parameters.get("disjoint-paths"));
 
             String srcNodeStr = parameters.get("src-node");
             String dstNodeStr = parameters.get("dst-node");
@@ -109,12 +109,8 @@ public class SliTopologyUtils implements SvcLogicJavaPlugin {
                 throw new Exception("Src or Dst node is empty");
             }
 
-            JsonParser jp = new JsonParser();
-
-            JsonArray pnfArr = ((JsonObject) jp.parse(pnfsStr)).getAsJsonArray("pnf");
-            JsonArray lkArr = ((JsonObject) jp.parse(lkStr)).getAsJsonArray("logical-link");
-            LOG.debug("Creating graph with {} pnf(s) and {} link(s)", pnfArr.size(), lkArr.size());
-            graph = buildGraph(pnfArr, lkArr);
+            graph = GRAPH_CACHE.getGraph(ctx, parameters.get("pnfs-pfx"), parameters.get("links-pfx"));
+            LOG.debug("Using graph with {} pnf(s) and {} link(s)", graph.getVertexes().size(), graph.getEdges().size());
 
             src = new Pnf(srcNodeStr);
             dst = new Pnf(dstNodeStr);
@@ -130,35 +126,24 @@ public class SliTopologyUtils implements SvcLogicJavaPlugin {
         }
 
         try {
-            DijkstraGraphSearch.Result result =
-                    new DijkstraGraphSearch<Pnf, LogicalLink>().search(graph, src, dst, null, -1);
-            LOG.debug("Path Computing results: {}", result.paths().toString());
+            KShortestPathsSearch<Pnf, LogicalLink> search = new KShortestPathsSearch<>();
+            List<Path<Pnf, LogicalLink>> paths = disjointPaths
+                    ? search.searchDisjoint(graph, src, dst, null, maxPaths)
+                    : search.search(graph, src, dst, null, maxPaths);
+            LOG.debug("Path Computing results: {}", paths);
 
-            if (result.paths().size() > 0) {
+            if (!paths.isEmpty()) {
                 JsonObject root = new JsonObject();
-                JsonArray solnList = new JsonArray();
-
-                Path<Pnf, LogicalLink> path = (Path<Pnf, LogicalLink>) result.paths().iterator().next();
-                for (LogicalLink logicalLink : path.edges()) {
-                    if (!outputFullPath && ((OtnLink) logicalLink.underlayLink()).isInnerDomain()) {
-                        //Ignore inner domain links
-                    } else {
-                        JsonObject curLink = new JsonObject();
-                        String srcNode = logicalLink.src().toString();
-                        String dstNode = logicalLink.dst().toString();
-                        String srcPInterface = ((OtnLink) logicalLink.underlayLink()).src().pInterfaceName().getName();
-                        String dstPInterface = ((OtnLink) logicalLink.underlayLink()).dst().pInterfaceName().getName();
-                        String linkName = ((OtnLink) logicalLink.underlayLink()).linkName();
-                        curLink.addProperty("src_node", srcNode);
-                        curLink.addProperty("dst_node", dstNode);
-                        curLink.addProperty("src_pinterface", srcPInterface);
-                        curLink.addProperty("dst_pinterface", dstPInterface);
-                        curLink.addProperty("original_link", linkName);
-
-                        solnList.add(curLink);
+                root.add("solutions", toSolutions(paths.get(0), outputFullPath));
+                if (maxPaths > 1) {
+                    JsonArray pathList = new JsonArray();
+                    for (Path<Pnf, LogicalLink> path : paths) {
+                        JsonObject curPath = new JsonObject();
+                        curPath.add("solutions", toSolutions(path, outputFullPath));
+                        pathList.add(curPath);
                     }
+                    root.add("paths", pathList);
                 }
-                root.add("solutions", solnList);
                 //Write result back to context memory;
                 String pp = parameters.get("response-pfx").isEmpty() ? "" : parameters.get("response-pfx") + ".";
                 Map<String, String> mm = null;
@@ -183,83 +168,28 @@ public class SliTopologyUtils implements SvcLogicJavaPlugin {
         }
     }
 
-    private static Graph<Pnf, LogicalLink> buildGraph(JsonArray pnfs, JsonArray llks) {
-        ImmutableSet.Builder pnfSetBlder = ImmutableSet.builder();
-        ImmutableSet.Builder lkSetBlder = ImmutableSet.builder();
-
-        //Create Immutable set of Pnf;
-        for (int i = 0,e = pnfs.size(); i < e; i++){
-            JsonElement pnfName = ((JsonObject) pnfs.get(i)).get("pnf-name");
-
-            if (pnfName != null){
-                String pnfNameStr = pnfName.getAsString();
-
-                if (pnfNameStr != null && !pnfNameStr.isEmpty()){
-                    pnfSetBlder.add(new Pnf(pnfNameStr));
-                }
-
+    private static JsonArray toSolutions(Path<Pnf, LogicalLink> path, boolean outputFullPath) {
+        JsonArray solnList = new JsonArray();
+        for (LogicalLink logicalLink : path.edges()) {
+            if (!outputFullPath && ((OtnLink) logicalLink.underlayLink()).isInnerDomain()) {
+                //Ignore inner domain links
             } else {
-                LOG.debug("SliTopologyUtils: invalid pnf: {}", ((JsonObject) pnfs.get(i)).toString());
-            }
-        }
-
-        //Create Immutable set of Logical-Link
-        for (int i = 0,e = llks.size(); i < e; i++){
-            JsonObject lkRoot = ((JsonObject) llks.get(i));
-            JsonElement relationList = lkRoot.get("relationship-list");
-
-            if (relationList != null) {
-                JsonElement relationListArray = ((JsonObject) relationList).get("relationship");
-
-                if (relationListArray != null){
-                    List<String> pnfNameStrList = new ArrayList<>();
-                    List<String> pInterfaceStrList= new ArrayList<>();
-
-                    for (int j = 0,k = ((JsonArray) relationListArray).size(); j < k; j++){
-                        JsonObject relation = ((JsonArray) relationListArray).get(j).getAsJsonObject();
-                        JsonElement relatedTo = relation.getAsJsonPrimitive("related-to");
-
-                        if (relatedTo != null && relatedTo.getAsString().equals("p-interface")){
-                            JsonArray data = relation.getAsJsonArray("relationship-data");
-                            for (int m = 0, n = data.size(); m < n; m++){
-                                JsonObject dataKeyValue = data.get(m).getAsJsonObject();
-
-                                if (dataKeyValue.get("relationship-key").getAsString().equals("pnf.pnf-name")){
-                                    pnfNameStrList.add(dataKeyValue.get("relationship-value").getAsString());
-                                } else if (dataKeyValue.get("relationship-key").getAsString()
-                                        .equals("p-interface.interface-name")){
-                                    pInterfaceStrList.add(dataKeyValue.get("relationship-value").getAsString());
-                                }
-                            }
-                        }
-                    }
-
-                    if (pnfNameStrList.size() == 2 && pInterfaceStrList.size() == 2){
-                        String pnf1NameStr = pnfNameStrList.get(0);
-                        String pnf2NameStr = pnfNameStrList.get(1);
-                        String pI1NameStr = pInterfaceStrList.get(0);
-                        String pI2NameStr = pInterfaceStrList.get(1);
-                        Pnf pnf1 = new Pnf(pnf1NameStr);
-                        Pnf pnf2 = new Pnf(pnf2NameStr);
-                        PInterfaceName pI1Name = PInterfaceName.of(pI1NameStr);
-                        PInterfaceName pI2Name = PInterfaceName.of(pI2NameStr);
-                        PInterface pI1 = new PInterface(pnf1NameStr, pI1Name);
-                        PInterface pI2 = new PInterface(pnf1NameStr, pI2Name);
-                        String linkName_f = pI1Name.getNetworkId() + "-linkId-"
-                                                + pI1Name.getPnfId() + "-"
-                                                + pI1Name.getLtpId();
-                        String linkName_b = pI2Name.getNetworkId()
-                                + "-linkId-" + pI2Name.getPnfId()
-                                + "-" + pI2Name.getLtpId();
-                        OtnLink link_f = new OtnLink(linkName_f, pI1, pI2);
-                        OtnLink link_b = new OtnLink(linkName_b, pI2, pI1);
-                        lkSetBlder.add(new LogicalLink(pnf1, pnf2, link_f));
-                        lkSetBlder.add(new LogicalLink(pnf2, pnf1, link_b));
-                    }
-                }
+                JsonObject curLink = new JsonObject();
+                String srcNode = logicalLink.src().toString();
+                String dstNode = logicalLink.dst().toString();
+                String srcPInterface = ((OtnLink) logicalLink.underlayLink()).src().pInterfaceName().getName();
+                String dstPInterface = ((OtnLink) logicalLink.underlayLink()).dst().pInterfaceName().getName();
+                String linkName = ((OtnLink) logicalLink.underlayLink()).linkName();
+                curLink.addProperty("src_node", srcNode);
+                curLink.addProperty("dst_node", dstNode);
+                curLink.addProperty("src_pinterface", srcPInterface);
+                curLink.addProperty("dst_pinterface", dstPInterface);
+                curLink.addProperty("original_link", linkName);
+
+                solnList.add(curLink);
             }
         }
-        return new Graph<Pnf, LogicalLink>(pnfSetBlder.build(), lkSetBlder.build());
+        return solnList;
     }
 
     /**
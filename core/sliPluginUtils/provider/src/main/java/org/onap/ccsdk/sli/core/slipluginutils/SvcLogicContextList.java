@@ -22,9 +22,9 @@
 package org.onap.ccsdk.sli.core.slipluginutils;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.ListIterator;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
@@ -65,23 +65,22 @@ public class SvcLogicContextList {
             this.list.add(i, new HashMap<String,String>());
         }
 
-        // Populate "elements" in list
+        // Populate "elements" in list. Only the keys of this list are read,
+        // rather than every key in context memory.
         String prefix_bracket = this.prefix + '[';
-        for (String key : new HashSet<String>(ctx.getAttributeKeySet())) {
-            if( key.startsWith(prefix_bracket) ) {
-                // Extract the index of the list
-                int index = getCtxListIndex(key, this.prefix, capacity);
-
-                // Store the
-                String suffix = key.substring((prefix_bracket + index + ']').length());
-                suffix = suffix.isEmpty() ? suffix : suffix.substring(1);
-                this.list.get(index).put( suffix, ctx.getAttribute(key));
-
-                // If flag to extract set, remove data from context memory as
-                // it is read into this list
-                if( operation == OperType.EXTRACT ) {
-                    ctx.setAttribute(key, null);
-                }
+        for (String key : ctx.getAttributeKeySet(prefix_bracket)) {
+            // Extract the index of the list
+            int index = getCtxListIndex(key, this.prefix, capacity);
+
+            // Store the
+            String suffix = key.substring((prefix_bracket + index + ']').length());
+            suffix = suffix.isEmpty() ? suffix : suffix.substring(1);
+            this.list.get(index).put( suffix, ctx.getAttribute(key));
+
+            // If flag to extract set, remove data from context memory as
+            // it is read into this list
+            if( operation == OperType.EXTRACT ) {
+                ctx.setAttribute(key, null);
             }
         }
 
@@ -120,31 +119,39 @@ public class SvcLogicContextList {
             throw new IllegalArgumentException("value cannot be null");
         }
 
-        ListIterator<HashMap<String,String>> itr = this.list.listIterator();
-        while( itr.hasNext() ) {
-            if( value.equals(itr.next().get(key)) ) {
-                itr.remove();
-            }
+        this.list.removeIf( list_element -> value.equals(list_element.get(key)) );
+    }
+
+    /**
+     * Removes every element whose value for key is one of values, in a single
+     * pass over the list.
+     */
+    public void removeAll( String key, Collection<String> values ) {
+        if( values.contains(null) ) {
+            throw new IllegalArgumentException("values cannot contain null");
         }
+
+        this.list.removeIf( list_element -> values.contains(list_element.get(key)) );
     }
 
     // TODO javadoc
     public void remove( Map<String,String> primary_key ) {
-        ListIterator<HashMap<String,String>> itr = this.list.listIterator();
-        while( itr.hasNext() ) {
-            boolean found = true;
-            HashMap<String,String> list_element = itr.next();
+        this.list.removeIf( list_element -> {
             for( Map.Entry<String,String> key : primary_key.entrySet() ) {
                 if( !key.getValue().equals(list_element.get(key.getKey())) ) {
-                    found = false;
-                    break;
+                    return false;
                 }
             }
+            return true;
+        });
+    }
 
-            if( found ) {
-                itr.remove();
-            }
-        }
+    /**
+     * Sorts the elements of the list in place. The sort is stable, so
+     * elements that compare equal keep their order.
+     */
+    public void sort( Comparator<? super HashMap<String,String>> comparator ) {
+        this.list.sort(comparator);
     }
 
     // TODO: javadoc
@@ -0,0 +1,288 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * ONAP : CCSDK
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 			reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils;
+
+import com.google.common.collect.ImmutableSet;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Graph;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.topology.LogicalLink;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.topology.OtnLink;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.topology.PInterface;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.topology.PInterfaceName;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.topology.Pnf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds the pnf/logical-link graph used for path computation directly from
+ * the pnf and logical-link attributes in context memory, and keeps the most
+ * recently used graphs. Graphs are keyed by the prefixes and the attributes
+ * they are built from (pnf names and p-interface relationships), so the same
+ * topology is only built once even if it is read into context memory again.
+ * Graphs are immutable and can be shared between threads.
+ */
+public class TopologyGraphCache {
+    private static final Logger LOG = LoggerFactory.getLogger(TopologyGraphCache.class);
+
+    private static final String PNF = "pnf[";
+    private static final String PNF_NAME = ".pnf-name";
+    private static final String LOGICAL_LINK = "logical-link[";
+    private static final String RELATIONSHIP = ".relationship-list.relationship[";
+    private static final String RELATED_TO = ".related-to";
+    private static final String RELATIONSHIP_DATA = ".relationship-data[";
+    private static final String RELATIONSHIP_KEY = ".relationship-key";
+    private static final String RELATIONSHIP_VALUE = ".relationship-value";
+
+    // Keys are the two prefixes followed by attribute names and values
+    private final Map<List<String>, Graph<Pnf, LogicalLink>> graphs;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    /**
+     * @param maxEntries maximum number of graphs kept
+     */
+    public TopologyGraphCache(final int maxEntries) {
+        this.graphs = new LinkedHashMap<List<String>, Graph<Pnf, LogicalLink>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, Graph<Pnf, LogicalLink>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the graph for the pnfs under pnfsPfx (pnfsPfx.pnf[i].pnf-name)
+     * and the logical links under linksPfx (linksPfx.logical-link[i]...),
+     * building it if it is not cached.
+     *
+     * @throws IllegalArgumentException if there are no attributes under one of
+     *         the prefixes
+     */
+    public Graph<Pnf, LogicalLink> getGraph(SvcLogicContext ctx, String pnfsPfx, String linksPfx) {
+        String pnfsBase = pnfsPfx.endsWith(".") ? pnfsPfx : pnfsPfx + ".";
+        String linksBase = linksPfx.endsWith(".") ? linksPfx : linksPfx + ".";
+        List<String> topology = new ArrayList<>();
+        topology.add(pnfsBase);
+        topology.add(linksBase);
+        if (!readAttributes(ctx, pnfsBase, PNF, topology)) {
+            LOG.warn("Pnf Array attributes are empty");
+            throw new IllegalArgumentException("Pnf Array attributes are empty");
+        }
+        int linksStart = topology.size();
+        if (!readAttributes(ctx, linksBase, LOGICAL_LINK, topology)) {
+            LOG.warn("Logical-links Array attributes are empty");
+            throw new IllegalArgumentException("Logical-links Array attributes are empty");
+        }
+
+        synchronized (graphs) {
+            Graph<Pnf, LogicalLink> graph = graphs.get(topology);
+            if (graph != null) {
+                hitCount++;
+                return graph;
+            }
+            missCount++;
+        }
+
+        Graph<Pnf, LogicalLink> graph = buildGraph(topology, linksStart);
+        synchronized (graphs) {
+            graphs.put(topology, graph);
+        }
+        return graph;
+    }
+
+    public int getSize() {
+        synchronized (graphs) {
+            return graphs.size();
+        }
+    }
+
+    public long getHitCount() {
+        synchronized (graphs) {
+            return hitCount;
+        }
+    }
+
+    public long getMissCount() {
+        synchronized (graphs) {
+            return missCount;
+        }
+    }
+
+    public void clear() {
+        synchronized (graphs) {
+            graphs.clear();
+        }
+    }
+
+    /**
+     * Adds the names and values of the attributes under base that the graph is
+     * built from to topology, in sorted order.
+     *
+     * @return false if there are no attributes under base at all
+     */
+    private static boolean readAttributes(SvcLogicContext ctx, String base, String list, List<String> topology) {
+        if (ctx.getAttributeKeySet(base).isEmpty()) {
+            return false;
+        }
+        for (String name : ctx.getAttributeKeySet(base + list)) {
+            if (isTopologyAttribute(name, base.length())) {
+                topology.add(name);
+                topology.add(ctx.getAttribute(name));
+            }
+        }
+        return true;
+    }
+
+    // Checks the part of name from start on, which is known to begin with
+    // either "pnf[" or "logical-link["
+    private static boolean isTopologyAttribute(String name, int start) {
+        int end = name.indexOf(']', start);
+        if (end < 0) {
+            return false;
+        }
+        if (name.startsWith(PNF, start)) {
+            return endsAt(name, end + 1, PNF_NAME);
+        }
+        if (!name.startsWith(RELATIONSHIP, end + 1)) {
+            return false;
+        }
+        end = name.indexOf(']', end + 1);
+        if (end < 0) {
+            return false;
+        }
+        if (endsAt(name, end + 1, RELATED_TO)) {
+            return true;
+        }
+        if (!name.startsWith(RELATIONSHIP_DATA, end + 1)) {
+            return false;
+        }
+        end = name.indexOf(']', end + 1);
+        return end >= 0 && (endsAt(name, end + 1, RELATIONSHIP_KEY) || endsAt(name, end + 1, RELATIONSHIP_VALUE));
+    }
+
+    // Returns true if the rest of name from start on is suffix
+    private static boolean endsAt(String name, int start, String suffix) {
+        return name.length() - start == suffix.length() && name.startsWith(suffix, start);
+    }
+
+    private static Graph<Pnf, LogicalLink> buildGraph(List<String> topology, int linksStart) {
+        int pnfStart = topology.get(0).length() + PNF.length();
+        int linkStart = topology.get(1).length() + LOGICAL_LINK.length();
+
+        // Sort list elements by index, as the names sort "[10]" before "[2]"
+        TreeMap<Integer, String> pnfNames = new TreeMap<>();
+        TreeMap<Integer, TreeMap<Integer, Relationship>> links = new TreeMap<>();
+        for (int i = 2; i < topology.size(); i += 2) {
+            String name = topology.get(i);
+            String value = topology.get(i + 1);
+            try {
+                if (i < linksStart) {
+                    pnfNames.put(index(name, pnfStart), value);
+                } else {
+                    int relationshipStart = name.indexOf(']', linkStart) + 1 + RELATIONSHIP.length();
+                    int relationshipEnd = name.indexOf(']', relationshipStart);
+                    Relationship relationship = links
+                            .computeIfAbsent(index(name, linkStart), k -> new TreeMap<>())
+                            .computeIfAbsent(index(name, relationshipStart), k -> new Relationship());
+                    if (endsAt(name, relationshipEnd + 1, RELATED_TO)) {
+                        relationship.relatedTo = value;
+                    } else {
+                        int dataStart = relationshipEnd + 1 + RELATIONSHIP_DATA.length();
+                        String[] data = relationship.data
+                                .computeIfAbsent(index(name, dataStart), k -> new String[2]);
+                        data[name.endsWith(RELATIONSHIP_KEY) ? 0 : 1] = value;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                LOG.debug("SliTopologyUtils: ignoring invalid topology attribute: {}", name);
+            }
+        }
+
+        ImmutableSet.Builder<Pnf> pnfSetBlder = ImmutableSet.builder();
+        ImmutableSet.Builder<LogicalLink> lkSetBlder = ImmutableSet.builder();
+
+        //Create Immutable set of Pnf;
+        for (String pnfNameStr : pnfNames.values()) {
+            if (pnfNameStr != null && !pnfNameStr.isEmpty()) {
+                pnfSetBlder.add(new Pnf(pnfNameStr));
+            }
+        }
+
+        //Create Immutable set of Logical-Link
+        for (TreeMap<Integer, Relationship> relationships : links.values()) {
+            List<String> pnfNameStrList = new ArrayList<>();
+            List<String> pInterfaceStrList = new ArrayList<>();
+
+            for (Relationship relation : relationships.values()) {
+                if ("p-interface".equals(relation.relatedTo)) {
+                    for (String[] dataKeyValue : relation.data.values()) {
+                        if ("pnf.pnf-name".equals(dataKeyValue[0])) {
+                            pnfNameStrList.add(dataKeyValue[1]);
+                        } else if ("p-interface.interface-name".equals(dataKeyValue[0])) {
+                            pInterfaceStrList.add(dataKeyValue[1]);
+                        }
+                    }
+                }
+            }
+
+            if (pnfNameStrList.size() == 2 && pInterfaceStrList.size() == 2) {
+                String pnf1NameStr = pnfNameStrList.get(0);
+                String pnf2NameStr = pnfNameStrList.get(1);
+                String pI1NameStr = pInterfaceStrList.get(0);
+                String pI2NameStr = pInterfaceStrList.get(1);
+                Pnf pnf1 = new Pnf(pnf1NameStr);
+                Pnf pnf2 = new Pnf(pnf2NameStr);
+                PInterfaceName pI1Name = PInterfaceName.of(pI1NameStr);
+                PInterfaceName pI2Name = PInterfaceName.of(pI2NameStr);
+                PInterface pI1 = new PInterface(pnf1NameStr, pI1Name);
+                PInterface pI2 = new PInterface(pnf1NameStr, pI2Name);
+                String linkName_f = pI1Name.getNetworkId() + "-linkId-"
+                                        + pI1Name.getPnfId() + "-"
+                                        + pI1Name.getLtpId();
+                String linkName_b = pI2Name.getNetworkId()
+                        + "-linkId-" + pI2Name.getPnfId()
+                        + "-" + pI2Name.getLtpId();
+                OtnLink link_f = new OtnLink(linkName_f, pI1, pI2);
+                OtnLink link_b = new OtnLink(linkName_b, pI2, pI1);
+                lkSetBlder.add(new LogicalLink(pnf1, pnf2, link_f));
+                lkSetBlder.add(new LogicalLink(pnf2, pnf1, link_b));
+            }
+        }
+        return new Graph<>(pnfSetBlder.build(), lkSetBlder.build());
+    }
+
+    // Parses the list index starting at start and ending with ']'
+    private static int index(String name, int start) {
+        return Integer.parseInt(name.substring(start, name.indexOf(']', start)));
+    }
+
+    private static class Relationship {
+        private String relatedTo;
+        private final TreeMap<Integer, String[]> data = new TreeMap<>();
+    }
+}
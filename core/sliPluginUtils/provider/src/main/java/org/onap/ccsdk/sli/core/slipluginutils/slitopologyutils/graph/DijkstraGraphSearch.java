@@ -316,9 +316,11 @@ public class DijkstraGraphSearch<V extends Vertex, E extends Edge<V>> {
 
         // Use the min priority queue to progressively find each nearest
         // vertex until we reach the desired destination, if one was given,
-        // or until we reach all possible destinations.
-        Heap<V> minQueue = createMinQueue(graph.getVertexes(),
-                new PathCostComparator(result));
+        // or until we reach all possible destinations. Only vertexes that
+        // have been reached are queued, and a vertex whose cost is lowered
+        // is moved up in place, so each step is O(log V).
+        IndexedHeap<V> minQueue = new IndexedHeap<>(new PathCostComparator(result));
+        minQueue.insert(src);
         while (!minQueue.isEmpty()) {
             // Get the nearest vertex
             V nearest = minQueue.extractExtreme();
@@ -326,19 +328,21 @@ public class DijkstraGraphSearch<V extends Vertex, E extends Edge<V>> {
                 break;
             }
 
-            // Find its cost and use it to determine if the vertex is reachable.
-            if (result.hasCost(nearest)) {
-                Weight cost = result.cost(nearest);
-
-                // If the vertex is reachable, relax all its egress edges.
-                for (E e : graph.getEdgesFrom(nearest)) {
-                    if (!e.isPermitted(src, dst)) continue;
-                    result.relaxEdge(e, cost, weigher, true);
+            // Relax all its egress edges, queueing the vertexes reached for
+            // the first time and re-prioritizing those reached at lower cost.
+            Weight cost = result.cost(nearest);
+            for (E e : graph.getEdgesFrom(nearest)) {
+                if (!isPermitted(e, src, dst)) continue;
+                V v = e.dst();
+                boolean reached = result.hasCost(v);
+                if (result.relaxEdge(e, cost, weigher, true)) {
+                    if (minQueue.contains(v)) {
+                        minQueue.update(v);
+                    } else if (!reached) {
+                        minQueue.insert(v);
+                    }
                 }
             }
-
-            // Re-prioritize the min queue.
-            minQueue.heapify();
         }
 
         // Now construct a set of paths from the results.
@@ -346,6 +350,19 @@ public class DijkstraGraphSearch<V extends Vertex, E extends Edge<V>> {
         return result;
     }
 
+    /**
+     * Indicates whether the search may use the specified edge. By default this
+     * is up to the edge itself; subclasses may restrict it further.
+     *
+     * @param edge edge to test
+     * @param src  source of the search
+     * @param dst  optional destination of the search
+     * @return true if the edge may be used
+     */
+    protected boolean isPermitted(E edge, V src, V dst) {
+        return edge.isPermitted(src, dst);
+    }
+
     // Compares path weights using their accrued costs; used for sorting the
     // min priority queue.
     private final class PathCostComparator implements Comparator<V> {
@@ -370,9 +387,4 @@ public class DijkstraGraphSearch<V extends Vertex, E extends Edge<V>> {
         }
     }
 
-    // Creates a min priority queue from the specified vertexes and comparator.
-    private Heap<V> createMinQueue(Set<V> vertexes, Comparator<V> comparator) {
-        return new Heap<>(new ArrayList<>(vertexes), comparator);
-    }
-
 }
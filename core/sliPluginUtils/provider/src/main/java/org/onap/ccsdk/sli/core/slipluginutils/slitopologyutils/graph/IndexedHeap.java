@@ -0,0 +1,179 @@
+package org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Array-backed heap that keeps track of the position of each of its items,
+ * so that an item whose priority has changed can be moved to its new place
+ * in O(log n), rather than re-arranging the whole heap.
+ * <p>
+ * As with {@link Heap}, the extreme of the heap is the greatest item according
+ * to the provided comparator. Items must have consistent equals and hashCode
+ * methods, and each item can be in the heap only once.
+ * </p>
+ * <p>
+ * This class is not thread-safe and care must be taken to prevent concurrent
+ * modifications.
+ * </p>
+ *
+ * @param <T> type of the items on the heap
+ */
+public class IndexedHeap<T> {
+
+    private final List<T> data = new ArrayList<>();
+    private final Map<T, Integer> positions = new HashMap<>();
+    private final Comparator<T> comparator;
+
+    /**
+     * Creates a new empty heap.
+     *
+     * @param comparator comparator for ordering the heap items
+     */
+    public IndexedHeap(Comparator<T> comparator) {
+        this.comparator = checkNotNull(comparator, "Comparator cannot be null");
+    }
+
+    /**
+     * Returns the current size of the heap.
+     *
+     * @return number of items in the heap
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Returns true if there are no items in the heap.
+     *
+     * @return true if heap is empty
+     */
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    /**
+     * Returns true if the item is in the heap.
+     *
+     * @param item item to look for
+     * @return true if the item is in the heap
+     */
+    public boolean contains(T item) {
+        return positions.containsKey(item);
+    }
+
+    /**
+     * Returns the most extreme item in the heap.
+     *
+     * @return heap extreme or null if the heap is empty
+     */
+    public T extreme() {
+        return data.isEmpty() ? null : data.get(0);
+    }
+
+    /**
+     * Extracts and returns the most extreme item from the heap.
+     *
+     * @return heap extreme or null if the heap is empty
+     */
+    public T extractExtreme() {
+        if (data.isEmpty()) {
+            return null;
+        }
+        T extreme = data.get(0);
+        T last = data.remove(data.size() - 1);
+        positions.remove(extreme);
+        if (!data.isEmpty()) {
+            set(0, last);
+            siftDown(0);
+        }
+        return extreme;
+    }
+
+    /**
+     * Inserts the specified item into the heap.
+     *
+     * @param item item to be inserted
+     * @return the heap self
+     * @throws IllegalArgumentException if the item is already in the heap
+     */
+    public IndexedHeap<T> insert(T item) {
+        checkArgument(!positions.containsKey(item), "Item is already in the heap");
+        data.add(item);
+        positions.put(item, data.size() - 1);
+        siftUp(data.size() - 1);
+        return this;
+    }
+
+    /**
+     * Restores the heap property after the priority of the specified item has
+     * changed, in either direction.
+     *
+     * @param item item whose priority has changed
+     * @throws IllegalArgumentException if the item is not in the heap
+     */
+    public void update(T item) {
+        Integer position = positions.get(item);
+        checkArgument(position != null, "Item is not in the heap");
+        siftDown(siftUp(position));
+    }
+
+    // Moves the item at the specified position up until its parent is at
+    // least as extreme; returns its new position.
+    private int siftUp(int child) {
+        T item = data.get(child);
+        while (child > 0) {
+            int parent = (child - 1) / 2;
+            if (comparator.compare(item, data.get(parent)) <= 0) {
+                break;
+            }
+            set(child, data.get(parent));
+            child = parent;
+        }
+        set(child, item);
+        return child;
+    }
+
+    // Moves the item at the specified position down until it is at least as
+    // extreme as both of its children.
+    private void siftDown(int parent) {
+        T item = data.get(parent);
+        int size = data.size();
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && comparator.compare(data.get(child + 1), data.get(child)) > 0) {
+                child++;
+            }
+            if (comparator.compare(data.get(child), item) <= 0) {
+                break;
+            }
+            set(parent, data.get(child));
+            parent = child;
+        }
+        set(parent, item);
+    }
+
+    private void set(int position, T item) {
+        data.set(position, item);
+        positions.put(item, position);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("data", data)
+                .add("comparator", comparator)
+                .toString();
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Finds several loop-free paths between two vertexes, either the k shortest
+ * ones (Yen's algorithm) or paths that share no vertex other than the source
+ * and destination. Each path is found by a {@link DijkstraGraphSearch}, so
+ * edges must have non-negative weights.
+ */
+public class KShortestPathsSearch<V extends Vertex, E extends Edge<V>> {
+
+    /**
+     * Returns up to maxPaths shortest loop-free paths from src to dst, in
+     * order of increasing cost.
+     *
+     * @param graph    graph to search
+     * @param src      source vertex
+     * @param dst      destination vertex
+     * @param weigher  optional edge weight function
+     * @param maxPaths maximum number of paths to return; must be positive
+     * @return paths found; empty if dst cannot be reached
+     */
+    public List<Path<V, E>> search(Graph<V, E> graph, V src, V dst,
+                                   EdgeWeigher<V, E> weigher, int maxPaths) {
+        checkArgument(maxPaths > 0, "Number of paths must be positive");
+        EdgeWeigher<V, E> ew = weigher != null ? weigher : new DefaultEdgeWeigher<>();
+
+        List<Path<V, E>> paths = new ArrayList<>();
+        Path<V, E> shortest = shortestPath(graph, src, dst, ew, Collections.emptySet(),
+                Collections.emptySet(), src, dst);
+        if (shortest == null) {
+            return paths;
+        }
+        paths.add(shortest);
+
+        PriorityQueue<Path<V, E>> candidates = new PriorityQueue<>((p1, p2) -> p1.cost().compareTo(p2.cost()));
+        Set<List<E>> known = new HashSet<>();
+        known.add(shortest.edges());
+
+        while (paths.size() < maxPaths) {
+            // Deviate from the last path found at each of its vertexes in turn:
+            // keep the path up to that vertex (the root) and find the shortest
+            // way on from there that no path found so far takes, without going
+            // back through the root.
+            List<E> previous = paths.get(paths.size() - 1).edges();
+            for (int i = 0; i < previous.size(); i++) {
+                V spurVertex = previous.get(i).src();
+                List<E> root = previous.subList(0, i);
+
+                Set<E> excludedEdges = new HashSet<>();
+                for (Path<V, E> path : paths) {
+                    List<E> edges = path.edges();
+                    if (edges.size() > i && edges.subList(0, i).equals(root)) {
+                        excludedEdges.add(edges.get(i));
+                    }
+                }
+                Set<V> excludedVertexes = new HashSet<>();
+                for (E edge : root) {
+                    excludedVertexes.add(edge.src());
+                }
+
+                Path<V, E> spur = shortestPath(graph, spurVertex, dst, ew, excludedEdges,
+                        excludedVertexes, src, dst);
+                if (spur != null) {
+                    List<E> edges = new ArrayList<>(root);
+                    edges.addAll(spur.edges());
+                    if (known.add(edges)) {
+                        candidates.add(new DefaultPath<>(edges, cost(edges, ew)));
+                    }
+                }
+            }
+
+            Path<V, E> next = candidates.poll();
+            if (next == null) {
+                break;
+            }
+            paths.add(next);
+        }
+        return paths;
+    }
+
+    /**
+     * Returns up to maxPaths paths from src to dst that share no vertex other
+     * than src and dst, and no edge. The paths are found one after the other,
+     * each being the shortest path that avoids the ones found before, so fewer
+     * paths may be returned than the graph actually has.
+     *
+     * @param graph    graph to search
+     * @param src      source vertex
+     * @param dst      destination vertex
+     * @param weigher  optional edge weight function
+     * @param maxPaths maximum number of paths to return; must be positive
+     * @return paths found, in the order they were found
+     */
+    public List<Path<V, E>> searchDisjoint(Graph<V, E> graph, V src, V dst,
+                                           EdgeWeigher<V, E> weigher, int maxPaths) {
+        checkArgument(maxPaths > 0, "Number of paths must be positive");
+        EdgeWeigher<V, E> ew = weigher != null ? weigher : new DefaultEdgeWeigher<>();
+
+        List<Path<V, E>> paths = new ArrayList<>();
+        Set<E> excludedEdges = new HashSet<>();
+        Set<V> excludedVertexes = new HashSet<>();
+        while (paths.size() < maxPaths) {
+            Path<V, E> path = shortestPath(graph, src, dst, ew, excludedEdges, excludedVertexes, src, dst);
+            if (path == null) {
+                break;
+            }
+            paths.add(path);
+            for (E edge : path.edges()) {
+                excludedEdges.add(edge);
+                if (!edge.dst().equals(dst)) {
+                    excludedVertexes.add(edge.dst());
+                }
+            }
+        }
+        return paths;
+    }
+
+    // Returns the shortest path from the specified vertex to dst that uses none
+    // of the excluded edges and does not enter any of the excluded vertexes, or
+    // null if there is none. Edges are permitted based on the source and
+    // destination of the whole search, not those of this path.
+    private Path<V, E> shortestPath(Graph<V, E> graph, V from, V dst, EdgeWeigher<V, E> weigher,
+                                    Set<E> excludedEdges, Set<V> excludedVertexes, V searchSrc, V searchDst) {
+        DijkstraGraphSearch<V, E> search = new DijkstraGraphSearch<V, E>() {
+            @Override
+            protected boolean isPermitted(E edge, V src, V dst) {
+                return edge.isPermitted(searchSrc, searchDst)
+                        && !excludedEdges.contains(edge)
+                        && !excludedVertexes.contains(edge.dst());
+            }
+        };
+        DijkstraGraphSearch<V, E>.Result result = search.search(graph, from, dst, weigher, 1);
+        return result.paths().isEmpty() ? null : result.paths().iterator().next();
+    }
+
+    private Weight cost(List<E> edges, EdgeWeigher<V, E> weigher) {
+        Weight cost = weigher.getInitialWeight();
+        for (E edge : edges) {
+            cost = cost.merge(weigher.weight(edge));
+        }
+        return cost;
+    }
+
+}
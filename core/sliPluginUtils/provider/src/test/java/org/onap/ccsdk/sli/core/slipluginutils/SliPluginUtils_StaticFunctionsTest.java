@@ -27,6 +27,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
@@ -181,6 +182,96 @@ public class SliPluginUtils_StaticFunctionsTest {
         assertEquals("device-host-name_1", ctx.getAttribute("service-data.vnf-l3[3].device-host-name"));
     }
 
+    @Test
+    public final void testCtxListRemove_keyValues() throws SvcLogicException {
+        LOG.trace("=== testCtxListRemove_keyValues ===");
+        ctx.setAttribute("service-data.vnf-l3[0].vnf-host-name", "vnf-host-name_0");
+        ctx.setAttribute("service-data.vnf-l3[1].vnf-host-name", "vnf-host-name_1");
+        ctx.setAttribute("service-data.vnf-l3[2].vnf-host-name", "vnf-host-name_2");
+        ctx.setAttribute("service-data.vnf-l3[3].vnf-host-name", "vnf-host-name_3");
+        ctx.setAttribute("service-data.vnf-l3[4].vnf-host-name", "vnf-host-name_1");
+        ctx.setAttribute("service-data.vnf-l3_length", "5");
+
+        parameters.put("list_pfx", "service-data.vnf-l3");
+        parameters.put("key", "vnf-host-name");
+        parameters.put("values_length", "2");
+        parameters.put("values[0]", "vnf-host-name_1");
+        parameters.put("values[1]", "vnf-host-name_3");
+
+        utils.ctxListRemove(parameters, ctx);
+        SliPluginUtils.logContextMemory(ctx, LOG, SliPluginUtils.LogLevel.TRACE);
+
+        assertEquals("2", ctx.getAttribute("service-data.vnf-l3_length"));
+        assertEquals("vnf-host-name_0", ctx.getAttribute("service-data.vnf-l3[0].vnf-host-name"));
+        assertEquals("vnf-host-name_2", ctx.getAttribute("service-data.vnf-l3[1].vnf-host-name"));
+        assertNull(ctx.getAttribute("service-data.vnf-l3[2].vnf-host-name"));
+        assertNull(ctx.getAttribute("service-data.vnf-l3[4].vnf-host-name"));
+    }
+
+    @Test
+    public final void testCtxBulkCopy() {
+        ctx.setAttribute("tmp.vnf.vnf-id", "vnf-1");
+        ctx.setAttribute("tmp.vnf.vnf-type", "type-1");
+        ctx.setAttribute("tmp.vnfc", "not-copied");
+
+        SliPluginUtils.ctxBulkCopy(ctx, "tmp.vnf.", "service-data.vnf.");
+
+        assertEquals("vnf-1", ctx.getAttribute("service-data.vnf.vnf-id"));
+        assertEquals("type-1", ctx.getAttribute("service-data.vnf.vnf-type"));
+        assertNull(ctx.getAttribute("service-data.vnf.vnfc"));
+
+        SliPluginUtils.ctxBulkErase(ctx, "tmp.");
+        assertEquals(2, ctx.getAttributeKeySet().size());
+    }
+
+    @Test
+    public final void testCtxBulkOperations() throws SvcLogicException {
+        LOG.trace("=== testCtxBulkOperations ===");
+        ctx.setAttribute("tmp.vnf.vnf-id", "vnf-1");
+        ctx.setAttribute("tmp.vnf.vnf-type", "type-1");
+        ctx.setAttribute("tmp.aai.resource-version", "1");
+        ctx.setAttribute("service-data.vnf.vnf-id", "old-vnf");
+        ctx.setAttribute("service-data.vnf.old-key", "old-value");
+        ctx.setAttribute("service-data.oper-status.order-status", "InProgress");
+
+        // Replace service-data.vnf with tmp.vnf, keep a copy of the order
+        // status and remove all of tmp
+        parameters.put("copies_length", "2");
+        parameters.put("copies[0].src_pfx", "tmp.vnf.");
+        parameters.put("copies[0].dest_pfx", "service-data.vnf.");
+        parameters.put("copies[1].src_pfx", "service-data.oper-status.");
+        parameters.put("copies[1].dest_pfx", "saved.oper-status");
+        parameters.put("erases_length", "2");
+        parameters.put("erases[0]", "service-data.vnf.");
+        parameters.put("erases[1]", "tmp.");
+        parameters.put("outputPath", "bulk");
+
+        utils.ctxBulkOperations(parameters, ctx);
+        SliPluginUtils.logContextMemory(ctx, LOG, SliPluginUtils.LogLevel.TRACE);
+
+        assertEquals("vnf-1", ctx.getAttribute("service-data.vnf.vnf-id"));
+        assertEquals("type-1", ctx.getAttribute("service-data.vnf.vnf-type"));
+        assertNull(ctx.getAttribute("service-data.vnf.old-key"));
+        assertEquals("InProgress", ctx.getAttribute("service-data.oper-status.order-status"));
+        assertEquals("InProgress", ctx.getAttribute("saved.oper-status.order-status"));
+        assertTrue(ctx.getAttributeKeySet("tmp.").isEmpty());
+        assertEquals("3", ctx.getAttribute("bulk.copied"));
+        assertEquals("5", ctx.getAttribute("bulk.erased"));
+    }
+
+    @Test(expected = SvcLogicException.class)
+    public final void testCtxBulkOperations_missingPrefix() throws SvcLogicException {
+        parameters.put("copies_length", "1");
+        parameters.put("copies[0].src_pfx", "tmp.vnf.");
+
+        utils.ctxBulkOperations(parameters, ctx);
+    }
+
+    @Test(expected = SvcLogicException.class)
+    public final void testCtxBulkOperations_noOperations() throws SvcLogicException {
+        utils.ctxBulkOperations(parameters, ctx);
+    }
+
     // TODO: javadoc
     @Test(expected = SvcLogicException.class)
     public final void testCtxListRemove_nullListLength() throws SvcLogicException {
@@ -278,9 +369,14 @@ public class SliPluginUtils_StaticFunctionsTest {
     }
 
     @Test
-    public void testPrintContext() throws SvcLogicException {
-        parameters.put("filename", "testFileName");
-        SliPluginUtils.printContext(parameters, ctx);
+    public void testPrintContext() throws Exception {
+        Path file = Files.createTempFile("testFileName", null);
+        try {
+            parameters.put("filename", file.toString());
+            SliPluginUtils.printContext(parameters, ctx);
+        } finally {
+            Files.delete(file);
+        }
     }
 
     @Test
@@ -4,14 +4,23 @@ import org.junit.Before;
 import org.junit.Test;
 import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
 import org.onap.ccsdk.sli.core.sli.SvcLogicException;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.TopologyGraphCache;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Graph;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.topology.LogicalLink;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.topology.Pnf;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class SliTopologyUtilsTest {
@@ -73,4 +82,84 @@ public class SliTopologyUtilsTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testComputeMaxPaths() throws SvcLogicException {
+
+        param.put("pnfs-pfx", "ccsdkTopopnfs");
+        param.put("links-pfx", "ccsdkTopologicalLinks");
+        param.put("response-pfx", "prefix");
+        param.put("output-end-to-end-path", "true");
+        param.put("max-paths", "3");
+
+        param.put("src-node","networkId-providerId-30-clientId-0-topologyId-1-nodeId-10.3.1.3" );
+        param.put("dst-node", "networkId-providerId-50-clientId-0-topologyId-1-nodeId-10.5.1.2");
+
+        assertEquals(SliTopologyUtils.SUCCESS_CONSTANT, SliTopologyUtils.computePath(param, ctx));
+        int pathCount = Integer.parseInt(this.ctx.getAttribute("prefix.paths_length"));
+        assertTrue(pathCount > 1 && pathCount <= 3);
+        assertEquals(this.ctx.getAttribute("prefix.solutions_length"),
+                this.ctx.getAttribute("prefix.paths[0].solutions_length"));
+        for (int i = 0; i < pathCount; i++) {
+            int hops = Integer.parseInt(this.ctx.getAttribute("prefix.paths[" + i + "].solutions_length"));
+            assertEquals(param.get("src-node"), this.ctx.getAttribute("prefix.paths[" + i + "].solutions[0].src_node"));
+            assertEquals(param.get("dst-node"),
+                    this.ctx.getAttribute("prefix.paths[" + i + "].solutions[" + (hops - 1) + "].dst_node"));
+        }
+    }
+
+    @Test
+    public void testComputeDisjointPaths() throws SvcLogicException {
+
+        param.put("pnfs-pfx", "ccsdkTopopnfs");
+        param.put("links-pfx", "ccsdkTopologicalLinks");
+        param.put("response-pfx", "prefix");
+        param.put("output-end-to-end-path", "true");
+        param.put("max-paths", "2");
+        param.put("disjoint-paths", "true");
+
+        param.put("src-node","networkId-providerId-30-clientId-0-topologyId-1-nodeId-10.3.1.3" );
+        param.put("dst-node", "networkId-providerId-50-clientId-0-topologyId-1-nodeId-10.5.1.2");
+
+        assertEquals(SliTopologyUtils.SUCCESS_CONSTANT, SliTopologyUtils.computePath(param, ctx));
+        int pathCount = Integer.parseInt(this.ctx.getAttribute("prefix.paths_length"));
+        Set<String> nodes = new HashSet<>();
+        for (int i = 0; i < pathCount; i++) {
+            int hops = Integer.parseInt(this.ctx.getAttribute("prefix.paths[" + i + "].solutions_length"));
+            for (int j = 0; j < hops - 1; j++) {
+                assertTrue(nodes.add(this.ctx.getAttribute("prefix.paths[" + i + "].solutions[" + j + "].dst_node")));
+            }
+        }
+    }
+
+    @Test
+    public void testGraphCache() {
+        TopologyGraphCache cache = new TopologyGraphCache(2);
+        Graph<Pnf, LogicalLink> graph = cache.getGraph(ctx, "ccsdkTopopnfs", "ccsdkTopologicalLinks");
+        assertTrue(graph.getVertexes().size() > 0);
+        assertTrue(graph.getEdges().size() > 0);
+        assertSame(graph, cache.getGraph(ctx, "ccsdkTopopnfs.", "ccsdkTopologicalLinks"));
+
+        // Same topology read again into another context
+        SvcLogicContext other = new SvcLogicContext();
+        for (String key : ctx.getAttributeKeySet()) {
+            other.setAttribute(key, ctx.getAttribute(key));
+        }
+        other.setAttribute("ccsdkTopopnfs.pnf[0].in-maint", "true");
+        assertSame(graph, cache.getGraph(other, "ccsdkTopopnfs", "ccsdkTopologicalLinks"));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+
+        // Changed topology
+        other.setAttribute("ccsdkTopopnfs.pnf[0].pnf-name", "changed");
+        Graph<Pnf, LogicalLink> changed = cache.getGraph(other, "ccsdkTopopnfs", "ccsdkTopologicalLinks");
+        assertNotSame(graph, changed);
+        assertTrue(changed.getVertexes().contains(new Pnf("changed")));
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGraphCacheNoPnfs() {
+        new TopologyGraphCache(2).getGraph(ctx, "nopnfs", "ccsdkTopologicalLinks");
+    }
+}
@@ -24,6 +24,8 @@ package org.onap.ccsdk.sli.core.slipluginutils;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 
 import org.junit.Before;
@@ -271,6 +273,49 @@ public class SvcLogicContextListTest {
 		assertEquals("2001::4", list.get(3).get("ipv6"));
 	}
 
+	@Test
+	public final void testRemoveAll() {
+		ctx.setAttribute("list[0]", "5");
+		ctx.setAttribute("list[1]", "6");
+		ctx.setAttribute("list[2]", "7");
+		ctx.setAttribute("list[3]", "6");
+		ctx.setAttribute("list[4]", "9");
+		ctx.setAttribute("list_length", "5");
+
+		SvcLogicContextList list = new SvcLogicContextList( ctx, "list" );
+		list.removeAll("", Arrays.asList("6", "9"));
+
+		assertEquals(2, list.size());
+		assertEquals("5", list.get(0).get(""));
+		assertEquals("7", list.get(1).get(""));
+	}
+
+	@Test
+	public final void testSort() {
+		ctx.setAttribute("list[0].name", "b");
+		ctx.setAttribute("list[0].id", "0");
+		ctx.setAttribute("list[1].name", "a");
+		ctx.setAttribute("list[1].id", "1");
+		ctx.setAttribute("list[2].name", "b");
+		ctx.setAttribute("list[2].id", "2");
+		ctx.setAttribute("list[3].name", "a");
+		ctx.setAttribute("list[3].id", "3");
+		ctx.setAttribute("list_length", "4");
+		ctx.setAttribute("list_other", "other");
+
+		SvcLogicContextList list = SvcLogicContextList.extract( ctx, "list" );
+		list.sort(Comparator.comparing(element -> element.get("name")));
+		list.writeToContext(ctx);
+
+		// Elements with the same name keep their order
+		assertEquals("1", ctx.getAttribute("list[0].id"));
+		assertEquals("3", ctx.getAttribute("list[1].id"));
+		assertEquals("0", ctx.getAttribute("list[2].id"));
+		assertEquals("2", ctx.getAttribute("list[3].id"));
+		assertEquals("4", ctx.getAttribute("list_length"));
+		assertEquals("other", ctx.getAttribute("list_other"));
+	}
+
 	// TODO: javadoc
 	@Test
 	public final void testWriteToContext() {
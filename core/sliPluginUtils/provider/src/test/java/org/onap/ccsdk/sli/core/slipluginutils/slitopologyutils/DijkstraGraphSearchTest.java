@@ -1,4 +1,189 @@
 package org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils;
 
+import org.junit.Test;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.DijkstraGraphSearch;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Edge;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.EdgeWeigher;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Graph;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Path;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.ScalarWeight;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Vertex;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Weight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 public class DijkstraGraphSearchTest {
+
+    static class TestVertex implements Vertex {
+        private final String name;
+
+        TestVertex(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static class TestEdge implements Edge<TestVertex> {
+        private final TestVertex src;
+        private final TestVertex dst;
+        private final double weight;
+
+        TestEdge(TestVertex src, TestVertex dst, double weight) {
+            this.src = src;
+            this.dst = dst;
+            this.weight = weight;
+        }
+
+        @Override
+        public TestVertex src() {
+            return src;
+        }
+
+        @Override
+        public TestVertex dst() {
+            return dst;
+        }
+
+        @Override
+        public String toString() {
+            return src + "->" + dst;
+        }
+    }
+
+    static class TestWeigher implements EdgeWeigher<TestVertex, TestEdge> {
+        @Override
+        public Weight weight(TestEdge edge) {
+            return new ScalarWeight(edge.weight);
+        }
+
+        @Override
+        public Weight getInitialWeight() {
+            return new ScalarWeight(0);
+        }
+
+        @Override
+        public Weight getNonViableWeight() {
+            return ScalarWeight.NON_VIABLE_WEIGHT;
+        }
+    }
+
+    static double cost(Path<TestVertex, TestEdge> path) {
+        return ((ScalarWeight) path.cost()).value();
+    }
+
+    private final TestVertex a = new TestVertex("A");
+    private final TestVertex b = new TestVertex("B");
+    private final TestVertex c = new TestVertex("C");
+    private final TestVertex d = new TestVertex("D");
+    private final TestVertex e = new TestVertex("E");
+
+    @Test
+    public void testShortestPath() {
+        TestEdge ab = new TestEdge(a, b, 4);
+        TestEdge ac = new TestEdge(a, c, 1);
+        TestEdge cb = new TestEdge(c, b, 2);
+        TestEdge bd = new TestEdge(b, d, 1);
+        TestEdge cd = new TestEdge(c, d, 5);
+        Graph<TestVertex, TestEdge> graph = new Graph<>(new HashSet<>(Arrays.asList(a, b, c, d, e)),
+                new HashSet<>(Arrays.asList(ab, ac, cb, bd, cd)));
+
+        DijkstraGraphSearch<TestVertex, TestEdge>.Result result =
+                new DijkstraGraphSearch<TestVertex, TestEdge>().search(graph, a, d, new TestWeigher(), 1);
+        assertEquals(1, result.paths().size());
+        Path<TestVertex, TestEdge> path = result.paths().iterator().next();
+        assertEquals(Arrays.asList(ac, cb, bd), path.edges());
+        assertEquals(4.0, cost(path), 0.0);
+
+        // Unreachable destination
+        result = new DijkstraGraphSearch<TestVertex, TestEdge>().search(graph, a, e, new TestWeigher(), 1);
+        assertTrue(result.paths().isEmpty());
+    }
+
+    @Test
+    public void testEqualCostPaths() {
+        TestEdge ab = new TestEdge(a, b, 1);
+        TestEdge ac = new TestEdge(a, c, 1);
+        TestEdge bd = new TestEdge(b, d, 1);
+        TestEdge cd = new TestEdge(c, d, 1);
+        Graph<TestVertex, TestEdge> graph = new Graph<>(new HashSet<>(Arrays.asList(a, b, c, d)),
+                new HashSet<>(Arrays.asList(ab, ac, bd, cd)));
+
+        DijkstraGraphSearch<TestVertex, TestEdge>.Result result =
+                new DijkstraGraphSearch<TestVertex, TestEdge>().search(graph, a, d, null, -1);
+        assertEquals(2, result.paths().size());
+        for (Path<TestVertex, TestEdge> path : result.paths()) {
+            assertEquals(2.0, cost(path), 0.0);
+        }
+    }
+
+    @Test
+    public void testRandomGraphs() {
+        Random random = new Random(17);
+        for (int run = 0; run < 50; run++) {
+            int size = 2 + random.nextInt(60);
+            List<TestVertex> vertexes = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                vertexes.add(new TestVertex("v" + i));
+            }
+            Set<TestEdge> edges = new HashSet<>();
+            for (int i = 0, n = size * (1 + random.nextInt(4)); i < n; i++) {
+                edges.add(new TestEdge(vertexes.get(random.nextInt(size)), vertexes.get(random.nextInt(size)),
+                        random.nextInt(10)));
+            }
+            Graph<TestVertex, TestEdge> graph = new Graph<>(new HashSet<>(vertexes), edges);
+
+            TestVertex src = vertexes.get(0);
+            TestVertex dst = vertexes.get(size - 1);
+            double expected = bellmanFord(vertexes, edges, src, dst);
+            DijkstraGraphSearch<TestVertex, TestEdge>.Result result =
+                    new DijkstraGraphSearch<TestVertex, TestEdge>().search(graph, src, dst, new TestWeigher(), 1);
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertTrue(result.paths().isEmpty());
+            } else {
+                assertEquals(1, result.paths().size());
+                Path<TestVertex, TestEdge> path = result.paths().iterator().next();
+                assertEquals(expected, cost(path), 0.0);
+                double sum = 0;
+                TestVertex at = src;
+                for (TestEdge edge : path.edges()) {
+                    assertTrue(edge.src() == at);
+                    at = edge.dst();
+                    sum += edge.weight;
+                }
+                assertTrue(at == dst);
+                assertEquals(expected, sum, 0.0);
+            }
+        }
+    }
+
+    // Reference shortest path cost
+    private static double bellmanFord(List<TestVertex> vertexes, Set<TestEdge> edges,
+                                      TestVertex src, TestVertex dst) {
+        List<Double> costs = new ArrayList<>();
+        for (TestVertex v : vertexes) {
+            costs.add(v == src ? 0.0 : Double.POSITIVE_INFINITY);
+        }
+        for (int i = 0; i < vertexes.size(); i++) {
+            for (TestEdge edge : edges) {
+                double cost = costs.get(vertexes.indexOf(edge.src())) + edge.weight;
+                int dstIndex = vertexes.indexOf(edge.dst());
+                if (cost < costs.get(dstIndex)) {
+                    costs.set(dstIndex, cost);
+                }
+            }
+        }
+        return costs.get(vertexes.indexOf(dst));
+    }
 }
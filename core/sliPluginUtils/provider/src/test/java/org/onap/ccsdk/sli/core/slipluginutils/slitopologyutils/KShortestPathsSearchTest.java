@@ -0,0 +1,82 @@
+package org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils;
+
+import org.junit.Test;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.DijkstraGraphSearchTest.TestEdge;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.DijkstraGraphSearchTest.TestVertex;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.DijkstraGraphSearchTest.TestWeigher;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Graph;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.KShortestPathsSearch;
+import org.onap.ccsdk.sli.core.slipluginutils.slitopologyutils.graph.Path;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KShortestPathsSearchTest {
+
+    private final TestVertex c = new TestVertex("C");
+    private final TestVertex d = new TestVertex("D");
+    private final TestVertex e = new TestVertex("E");
+    private final TestVertex f = new TestVertex("F");
+    private final TestVertex g = new TestVertex("G");
+    private final TestVertex h = new TestVertex("H");
+
+    private final TestEdge cd = new TestEdge(c, d, 3);
+    private final TestEdge ce = new TestEdge(c, e, 2);
+    private final TestEdge df = new TestEdge(d, f, 4);
+    private final TestEdge ed = new TestEdge(e, d, 1);
+    private final TestEdge ef = new TestEdge(e, f, 2);
+    private final TestEdge eg = new TestEdge(e, g, 3);
+    private final TestEdge fg = new TestEdge(f, g, 2);
+    private final TestEdge fh = new TestEdge(f, h, 1);
+    private final TestEdge gh = new TestEdge(g, h, 2);
+
+    private final Graph<TestVertex, TestEdge> graph = new Graph<>(new HashSet<>(Arrays.asList(c, d, e, f, g, h)),
+            new HashSet<>(Arrays.asList(cd, ce, df, ed, ef, eg, fg, fh, gh)));
+
+    @Test
+    public void testSearch() {
+        List<Path<TestVertex, TestEdge>> paths =
+                new KShortestPathsSearch<TestVertex, TestEdge>().search(graph, c, h, new TestWeigher(), 3);
+        assertEquals(3, paths.size());
+        assertEquals(Arrays.asList(ce, ef, fh), paths.get(0).edges());
+        assertEquals(5.0, DijkstraGraphSearchTest.cost(paths.get(0)), 0.0);
+        assertEquals(Arrays.asList(ce, eg, gh), paths.get(1).edges());
+        assertEquals(7.0, DijkstraGraphSearchTest.cost(paths.get(1)), 0.0);
+        assertEquals(8.0, DijkstraGraphSearchTest.cost(paths.get(2)), 0.0);
+    }
+
+    @Test
+    public void testSearchAllPaths() {
+        List<Path<TestVertex, TestEdge>> paths =
+                new KShortestPathsSearch<TestVertex, TestEdge>().search(graph, c, h, new TestWeigher(), 100);
+        // Every loop-free path from C to H, each found once, cheapest first
+        assertEquals(7, paths.size());
+        Set<List<TestEdge>> distinct = new HashSet<>();
+        double previous = 0;
+        for (Path<TestVertex, TestEdge> path : paths) {
+            assertTrue(distinct.add(path.edges()));
+            double cost = DijkstraGraphSearchTest.cost(path);
+            assertTrue(cost >= previous);
+            previous = cost;
+        }
+    }
+
+    @Test
+    public void testSearchDisjoint() {
+        List<Path<TestVertex, TestEdge>> paths =
+                new KShortestPathsSearch<TestVertex, TestEdge>().searchDisjoint(graph, c, h, new TestWeigher(), 3);
+        // Once C-E-F-H is taken, no path from C to H avoids E and F
+        assertEquals(1, paths.size());
+        assertEquals(Arrays.asList(ce, ef, fh), paths.get(0).edges());
+
+        paths = new KShortestPathsSearch<TestVertex, TestEdge>().searchDisjoint(graph, e, h, new TestWeigher(), 3);
+        assertEquals(2, paths.size());
+        assertEquals(Arrays.asList(ef, fh), paths.get(0).edges());
+        assertEquals(Arrays.asList(eg, gh), paths.get(1).edges());
+    }
+}
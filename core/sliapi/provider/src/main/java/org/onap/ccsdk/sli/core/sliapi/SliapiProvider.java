@@ -38,6 +38,7 @@ import jakarta.inject.Singleton;
 import jakarta.annotation.PreDestroy;
 
 import org.onap.ccsdk.sli.core.sli.provider.SvcLogicService;
+import org.onap.ccsdk.sli.core.sli.provider.base.SvcLogicNodeStatistics;
 import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.mdsal.binding.api.RpcProviderService;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
@@ -55,6 +56,10 @@ import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.Hea
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.HealthcheckInput;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.HealthcheckOutput;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.HealthcheckOutputBuilder;
+import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.NodeStatistics;
+import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.NodeStatisticsInput;
+import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.NodeStatisticsOutput;
+import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.NodeStatisticsOutputBuilder;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.TestResults;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.Vlbcheck;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.VlbcheckInput;
@@ -178,7 +183,8 @@ public class SliapiProvider implements AutoCloseable, ExecuteGraph {
 		rpcRegistration = rpcProviderRegistry.registerRpcImplementations(
 			this,
 			(Healthcheck) this::healthcheck,
-			(Vlbcheck) this::vlbcheck);
+			(Vlbcheck) this::vlbcheck,
+			(NodeStatistics) this::nodeStatistics);
 
 		sdncStatusFile = System.getenv(SDNC_STATUS_FILE);
 		LOG.info("SDNC STATUS FILE = " + sdncStatusFile);
@@ -441,6 +447,45 @@ public class SliapiProvider implements AutoCloseable, ExecuteGraph {
 		return (Futures.immediateFuture(rpcResult));
 	}
 
+	public ListenableFuture<RpcResult<NodeStatisticsOutput>> nodeStatistics(NodeStatisticsInput input) {
+
+		RpcResult<NodeStatisticsOutput> rpcResult = null;
+		SvcLogicService svcLogic = getSvcLogicService();
+
+		NodeStatisticsOutputBuilder respBuilder = new NodeStatisticsOutputBuilder();
+		respBuilder.setAckFinalIndicator("Y");
+
+		SvcLogicNodeStatistics nodeStatistics = (svcLogic == null ? null : svcLogic.getNodeStatistics());
+		if (nodeStatistics == null) {
+			respBuilder.setResponseCode("500");
+			respBuilder.setResponseMessage("Could not locate SvcLogicService node statistics");
+
+			rpcResult = RpcResultBuilder.<NodeStatisticsOutput>failed().withResult(respBuilder.build()).build();
+			return (Futures.immediateFuture(rpcResult));
+		}
+
+		if (input != null && input.getMode() != null) {
+			LOG.info("Setting node statistics mode to " + input.getMode().getName());
+			nodeStatistics.setMode(input.getMode().getName());
+		}
+
+		int maxNodes = Integer.MAX_VALUE;
+		if (input != null && input.getMaxNodes() != null) {
+			maxNodes = (int) Math.min(Integer.MAX_VALUE, input.getMaxNodes().longValue());
+		}
+		respBuilder.setStatistics(nodeStatistics.dump(maxNodes));
+
+		if (input != null && Boolean.TRUE.equals(input.getReset())) {
+			nodeStatistics.reset();
+		}
+
+		respBuilder.setResponseCode("200");
+		respBuilder.setResponseMessage("");
+
+		rpcResult = RpcResultBuilder.<NodeStatisticsOutput>status(true).withResult(respBuilder.build()).build();
+		return (Futures.immediateFuture(rpcResult));
+	}
+
     public ListenableFuture<RpcResult<VlbcheckOutput>> vlbcheck(VlbcheckInput vlbInput) {
 
 		RpcResult<VlbcheckOutput> rpcResult = null;
@@ -19,6 +19,7 @@
  */
 package org.onap.ccsdk.sli.core.sliapi;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -73,6 +74,10 @@ import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.Exe
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.ExecuteGraphInputBuilder;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.Healthcheck;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.HealthcheckInput;
+import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.NodeStatistics;
+import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.NodeStatisticsInput;
+import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.NodeStatisticsInputBuilder;
+import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.NodeStatisticsOutput;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.Vlbcheck;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.VlbcheckInput;
 import org.opendaylight.yang.gen.v1.org.onap.ccsdk.sli.core.sliapi.rev161110.execute.graph.input.SliParameter;
@@ -131,7 +136,8 @@ public class TestSliapiProvider {
         when(rpcRegistry.registerRpcImplementations(
             any(ExecuteGraph.class),
             any(Healthcheck.class),
-            any(Vlbcheck.class))).thenReturn(rpcRegistration);
+            any(Vlbcheck.class),
+            any(NodeStatistics.class))).thenReturn(rpcRegistration);
 
         // Load svclogic.properties and get a SvcLogicStore
         InputStream propStr = TestSliapiProvider.class.getResourceAsStream("/svclogic.properties");
@@ -236,4 +242,25 @@ public class TestSliapiProvider {
         provider.healthcheck(mock(HealthcheckInput.class));
     }
 
+    /**
+     * Test method for
+     * {@link SliapiProvider#nodeStatistics(NodeStatisticsInput)}.
+     */
+    @Test
+    public void testNodeStatistics() throws Exception {
+        NodeStatisticsInputBuilder inputBuilder = new NodeStatisticsInputBuilder();
+        inputBuilder.setMode(NodeStatisticsInput.Mode.Timing);
+        inputBuilder.setReset(true);
+        NodeStatisticsOutput output = provider.nodeStatistics(inputBuilder.build()).get().getResult();
+        assertEquals("200", output.getResponseCode());
+
+        provider.healthcheck(mock(HealthcheckInput.class));
+
+        inputBuilder = new NodeStatisticsInputBuilder();
+        inputBuilder.setMode(NodeStatisticsInput.Mode.Off);
+        output = provider.nodeStatistics(inputBuilder.build()).get().getResult();
+        assertEquals("200", output.getResponseCode());
+        assertTrue(output.getStatistics().contains("sli/healthcheck/"));
+    }
+
 }
@@ -24,16 +24,21 @@
 package org.onap.ccsdk.sli.core.utils.pool;
 
 import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This class is used to manage a pool of things.
@@ -41,22 +46,67 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * The class is parameterized so that the type of objects maintained in the pool is definable by some provided type.
  * This type must implement the <code>Comparable</code> interface so that it can be managed in the pool.
  * </p>
+ * <p>
+ * When the pool is at its maximum size, {@link #reserve()} fails immediately, while {@link #reserve(long, TimeUnit)}
+ * waits for an element to be released. Waiting callers are served in the order they started waiting, and callers that
+ * arrive while others are waiting do not take elements ahead of them. The time spent waiting and the utilization of the
+ * pool are available from the getters of this class, so that they can be reported as gauges.
+ * </p>
  *
  * @param <T>
  *            The type of element being pooled
  */
 
 public class Pool<T extends Closeable> {
+
+    /**
+     * The interfaces implemented by a class and all of its superclasses, which the proxy returned by reserve must
+     * implement too. These are computed once per class rather than on every reserve.
+     */
+    private static final ClassValue<Class<?>[]> PROXY_INTERFACES = new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            List<Class<?>> interfaces = new ArrayList<Class<?>>();
+            Class<?> cls = type;
+            while (!cls.equals(Object.class)) {
+                for (Class<?> item : cls.getInterfaces()) {
+                    if (!interfaces.contains(item)) {
+                        interfaces.add(item);
+                    }
+                }
+                cls = cls.getSuperclass();
+            }
+            return interfaces.toArray(new Class<?>[interfaces.size()]);
+        }
+    };
+
     private Deque<T> free;
-    private List<T> allocated;
+    private Set<T> allocated;
     private int minPool;
     private int maxPool;
     private Allocator<T> allocator;
     private org.onap.ccsdk.sli.core.utils.pool.Destructor<T> destructor;
-    private ReadWriteLock lock;
+    private ReentrantLock lock;
     private AtomicBoolean drained;
     private Properties properties;
 
+    /**
+     * The callers waiting for an element, in the order they started waiting. Only the first one may take an element.
+     */
+    private Deque<Condition> waiters;
+
+    /*
+     * Sizes of the collections above, updated while holding the lock so that they can be read without it
+     */
+    private volatile int freeSize;
+    private volatile int allocatedSize;
+    private volatile int waitingSize;
+
+    private AtomicLong waitCount;
+    private AtomicLong timeoutCount;
+    private AtomicLong totalWaitNanos;
+    private AtomicLong maxWaitNanos;
+
     /**
      * Create the pool
      *
@@ -83,9 +133,14 @@ public class Pool<T extends Closeable> {
 
         properties = new Properties();
         free = new ArrayDeque<T>();
-        allocated = new ArrayList<T>();
-        lock = new ReentrantReadWriteLock();
+        allocated = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+        waiters = new ArrayDeque<Condition>();
+        lock = new ReentrantLock();
         drained = new AtomicBoolean(false);
+        waitCount = new AtomicLong();
+        timeoutCount = new AtomicLong();
+        totalWaitNanos = new AtomicLong();
+        maxWaitNanos = new AtomicLong();
     }
 
     /**
@@ -94,13 +149,7 @@ public class Pool<T extends Closeable> {
      * @return The number of objects on the free collection
      */
     public int getFreeSize() {
-        Lock readLock = lock.readLock();
-        readLock.lock();
-        try {
-            return free.size();
-        } finally {
-            readLock.unlock();
-        }
+        return freeSize;
     }
 
     /**
@@ -139,13 +188,60 @@ public class Pool<T extends Closeable> {
      * @return The allocate collection size
      */
     public int getAllocatedSize() {
-        Lock readLock = lock.readLock();
-        readLock.lock();
-        try {
-            return allocated.size();
-        } finally {
-            readLock.unlock();
-        }
+        return allocatedSize;
+    }
+
+    /**
+     * Returns the number of callers currently waiting in {@link #reserve(long, TimeUnit)}
+     *
+     * @return The number of waiting callers
+     */
+    public int getWaitingSize() {
+        return waitingSize;
+    }
+
+    /**
+     * Returns the fraction of the pool that is currently allocated. For a bounded pool this is relative to the maximum
+     * size, for an unbounded pool it is relative to the number of elements created so far.
+     *
+     * @return A value between 0 and 1
+     */
+    public double getUtilization() {
+        int inUse = allocatedSize;
+        int size = maxPool > 0 ? maxPool : inUse + freeSize;
+        return size == 0 ? 0.0 : (double) inUse / size;
+    }
+
+    /**
+     * @return The number of reservations that had to wait for an element to be released
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    /**
+     * @return The number of reservations that gave up waiting because their timeout expired
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * @param unit
+     *            The unit of the returned value
+     * @return The total time spent waiting for elements to be released
+     */
+    public long getTotalWaitTime(TimeUnit unit) {
+        return unit.convert(totalWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit
+     *            The unit of the returned value
+     * @return The longest time a single reservation spent waiting for an element to be released
+     */
+    public long getMaxWaitTime(TimeUnit unit) {
+        return unit.convert(maxWaitNanos.get(), TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -193,27 +289,24 @@ public class Pool<T extends Closeable> {
     }
 
     /**
-     * Drains the pool, releasing and destroying all pooled objects, even if they are currently allocated.
+     * Drains the pool, releasing and destroying all pooled objects, even if they are currently allocated. Callers
+     * waiting for an element are woken up and fail with a {@link PoolDrainedException}.
      */
     public void drain() {
         if (drained.compareAndSet(false, true)) {
-            Lock writeLock = lock.writeLock();
-            writeLock.lock();
+            lock.lock();
             try {
-                int size = getAllocatedSize();
-                /*
-                 * We can't use the "release" method call here because we are modifying the list we are iterating
-                 */
-                ListIterator<T> it = allocated.listIterator();
-                while (it.hasNext()) {
-                    T obj = it.next();
-                    it.remove();
+                for (T obj : allocated) {
                     free.addFirst(obj);
                 }
-                size = getFreeSize();
-                trim(size);
+                allocated.clear();
+                updateSizes();
+                trim(free.size());
+                for (Condition waiter : waiters) {
+                    waiter.signal();
+                }
             } finally {
-                writeLock.unlock();
+                lock.unlock();
             }
         }
     }
@@ -236,56 +329,57 @@ public class Pool<T extends Closeable> {
      * @throws org.onap.ccsdk.sli.core.utils.pool.PoolDrainedException
      *             If the caller is trying to reserve an element from a drained pool
      */
-    @SuppressWarnings("unchecked")
     public T reserve() throws org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException, org.onap.ccsdk.sli.core.utils.pool.PoolDrainedException {
-        if (isDrained()) {
-            throw new org.onap.ccsdk.sli.core.utils.pool.PoolDrainedException("The pool has been drained and cannot be used.");
-        }
+        checkDrained();
 
-        T obj = null;
-        Lock writeLock = lock.writeLock();
-        writeLock.lock();
+        T obj;
+        lock.lock();
         try {
-            int freeSize = getFreeSize();
-            int allocatedSize = getAllocatedSize();
-
-            if (freeSize == 0) {
-                if (allocatedSize == 0) {
-                    extend(minPool == 0 ? 1 : minPool);
-                } else if (allocatedSize >= maxPool && maxPool > 0) {
-                    throw new org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException(String.format("Unable to add "
-                                                                                      + "more elements, pool is at maximum size of %d", maxPool));
-                } else {
-                    extend(1);
-                }
+            obj = next();
+            if (obj == null) {
+                throw new org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException(String.format("Unable to add "
+                    + "more elements, pool is at maximum size of %d", maxPool));
             }
-
-            obj = free.removeFirst();
-            allocated.add(obj);
+            allocate(obj);
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
+        return wrap(obj);
+    }
 
-        /*
-         * Now that we have the real object, lets wrap it in a dynamic proxy so that we can intercept the close call and
-         * just return the context to the free pool. obj.getClass().getInterfaces(). We need to find ALL interfaces that
-         * the object (and all superclasses) implement and have the proxy implement them too
-         */
-        Class<?> cls = obj.getClass();
-        Class<?>[] array;
-        List<Class<?>> interfaces = new ArrayList<Class<?>>();
-        while (!cls.equals(Object.class)) {
-            array = cls.getInterfaces();
-            for (Class<?> item : array) {
-                if (!interfaces.contains(item)) {
-                    interfaces.add(item);
-                }
+    /**
+     * Reserves an object of type T from the pool for the caller and returns it, waiting up to the specified time for
+     * an element to be released if the pool is at its maximum size.
+     *
+     * @param timeout
+     *            The maximum time to wait
+     * @param unit
+     *            The unit of the timeout
+     * @return The object of type T to be used by the caller
+     * @throws org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException
+     *             If the pool cannot be extended, or no element was released before the timeout expired
+     * @throws org.onap.ccsdk.sli.core.utils.pool.PoolDrainedException
+     *             If the caller is trying to reserve an element from a drained pool, or the pool is drained while
+     *             waiting
+     * @throws InterruptedException
+     *             If the caller is interrupted while waiting
+     */
+    public T reserve(long timeout, TimeUnit unit) throws org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException,
+        org.onap.ccsdk.sli.core.utils.pool.PoolDrainedException, InterruptedException {
+        checkDrained();
+
+        T obj;
+        lock.lockInterruptibly();
+        try {
+            obj = next();
+            if (obj == null) {
+                obj = await(unit.toNanos(timeout));
             }
-            cls = cls.getSuperclass();
+            allocate(obj);
+        } finally {
+            lock.unlock();
         }
-        array = new Class<?>[interfaces.size()];
-        array = interfaces.toArray(array);
-        return org.onap.ccsdk.sli.core.utils.pool.CachedElement.newInstance(this, obj, array);
+        return wrap(obj);
     }
 
     /**
@@ -297,18 +391,134 @@ public class Pool<T extends Closeable> {
      *             If the caller is trying to release an element to a drained pool
      */
     public void release(T obj) throws org.onap.ccsdk.sli.core.utils.pool.PoolDrainedException {
+        checkDrained();
+
+        T element = unwrap(obj);
+        lock.lock();
+        try {
+            if (allocated.remove(element)) {
+                free.addFirst(element);
+                updateSizes();
+                signalNext();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkDrained() throws org.onap.ccsdk.sli.core.utils.pool.PoolDrainedException {
         if (isDrained()) {
             throw new org.onap.ccsdk.sli.core.utils.pool.PoolDrainedException("The pool has been drained and cannot be used.");
         }
-        Lock writeLock = lock.writeLock();
-        writeLock.lock();
+    }
+
+    /**
+     * Takes the next free element, extending the pool if needed. Must be called while holding the lock.
+     *
+     * @return The element, or null if the pool is at its maximum size, or if other callers are already waiting
+     * @throws org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException
+     *             If the pool cannot be extended
+     */
+    private T next() throws org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException {
+        return waiters.isEmpty() ? take() : null;
+    }
+
+    private T take() throws org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException {
+        if (free.isEmpty()) {
+            if (allocated.isEmpty()) {
+                extend(minPool == 0 ? 1 : minPool);
+            } else if (allocated.size() >= maxPool && maxPool > 0) {
+                return null;
+            } else {
+                extend(1);
+            }
+        }
+        return free.removeFirst();
+    }
+
+    /**
+     * Waits for an element to become available. Must be called while holding the lock.
+     */
+    private T await(long nanos) throws org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException,
+        org.onap.ccsdk.sli.core.utils.pool.PoolDrainedException, InterruptedException {
+        Condition turn = lock.newCondition();
+        waiters.addLast(turn);
+        updateSizes();
+        waitCount.incrementAndGet();
+        long start = System.nanoTime();
+        long remaining = nanos;
         try {
-            if (allocated.remove(obj)) {
-                free.addFirst(obj);
+            while (true) {
+                checkDrained();
+                if (waiters.peekFirst() == turn) {
+                    T obj = take();
+                    if (obj != null) {
+                        return obj;
+                    }
+                }
+                if (remaining <= 0) {
+                    timeoutCount.incrementAndGet();
+                    throw new org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException(String.format("Unable to add "
+                        + "more elements, pool is at maximum size of %d and no element was released within %d ms",
+                        maxPool, TimeUnit.NANOSECONDS.toMillis(nanos)));
+                }
+                remaining = turn.awaitNanos(remaining);
             }
         } finally {
-            writeLock.unlock();
+            waiters.remove(turn);
+            updateSizes();
+            signalNext();
+
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+    }
+
+    /**
+     * Wakes up the first waiting caller, if any, so it can check for a free element. Must be called while holding the
+     * lock.
+     */
+    private void signalNext() {
+        Condition first = waiters.peekFirst();
+        if (first != null) {
+            first.signal();
+        }
+    }
+
+    private void allocate(T obj) {
+        allocated.add(obj);
+        updateSizes();
+    }
+
+    private void updateSizes() {
+        freeSize = free.size();
+        allocatedSize = allocated.size();
+        waitingSize = waiters.size();
+    }
+
+    /**
+     * Now that we have the real object, lets wrap it in a dynamic proxy so that we can intercept the close call and
+     * just return the context to the free pool. We need to find ALL interfaces that the object (and all superclasses)
+     * implement and have the proxy implement them too.
+     */
+    private T wrap(T obj) {
+        return org.onap.ccsdk.sli.core.utils.pool.CachedElement.newInstance(this, obj, PROXY_INTERFACES.get(obj.getClass()));
+    }
+
+    /**
+     * Returns the element wrapped by a proxy returned from reserve, so that it can be found in the allocated set, or
+     * the object itself if it is not such a proxy.
+     */
+    @SuppressWarnings("unchecked")
+    private T unwrap(T obj) {
+        if (obj != null && Proxy.isProxyClass(obj.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(obj);
+            if (handler instanceof CachedElement) {
+                return (T) ((CachedElement<?>) handler).getWrappedObject();
+            }
         }
+        return obj;
     }
 
     /**
@@ -324,8 +534,7 @@ public class Pool<T extends Closeable> {
             throw new org.onap.ccsdk.sli.core.utils.pool.PoolExtensionException(String.format("Unable to extend pool "
                                                                               + "because no allocator has been specified"));
         }
-        Lock writeLock = lock.writeLock();
-        writeLock.lock();
+        lock.lock();
         try {
             for (int index = 0; index < count; index++) {
                 T obj = allocator.allocate(this);
@@ -336,7 +545,8 @@ public class Pool<T extends Closeable> {
                 free.push(obj);
             }
         } finally {
-            writeLock.unlock();
+            updateSizes();
+            lock.unlock();
         }
     }
 
@@ -348,12 +558,11 @@ public class Pool<T extends Closeable> {
      *            The number of elements to trim
      */
     private void trim(int count) {
-        Lock writeLock = lock.writeLock();
-        writeLock.lock();
+        lock.lock();
         try {
             int trimCount = count;
-            if (getFreeSize() < count) {
-                trimCount = getFreeSize();
+            if (free.size() < count) {
+                trimCount = free.size();
             }
             for (int i = 0; i < trimCount; i++) {
                 T obj = free.removeLast();
@@ -362,7 +571,8 @@ public class Pool<T extends Closeable> {
                 }
             }
         } finally {
-            writeLock.unlock();
+            updateSizes();
+            lock.unlock();
         }
     }
 }
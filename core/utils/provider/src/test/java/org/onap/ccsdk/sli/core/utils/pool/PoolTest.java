@@ -32,6 +32,11 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.onap.ccsdk.sli.core.utils.pool.*;
@@ -44,6 +49,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class PoolTest implements Allocator<Testable>, Destructor<Testable> {
 
@@ -295,6 +301,80 @@ public class PoolTest implements Allocator<Testable>, Destructor<Testable> {
         assertEquals(SIZE, destroyCount);
     }
 
+    /**
+     * Test that a timed reserve on a pool at its maximum size waits for an element to be released, and gives up once
+     * its timeout expires
+     *
+     * @throws Exception
+     *             If the pool cannot be used
+     */
+    @Test
+    public void testReserveWithTimeout() throws Exception {
+        pool = new Pool<>(1, 2);
+        pool.setAllocator(this);
+
+        Testable value1 = pool.reserve(0, TimeUnit.MILLISECONDS);
+        Testable value2 = pool.reserve(0, TimeUnit.MILLISECONDS);
+        assertEquals(2, pool.getAllocatedSize());
+        assertEquals(1.0, pool.getUtilization(), 0.0);
+
+        try {
+            pool.reserve(10, TimeUnit.MILLISECONDS);
+            fail("Expected PoolExtensionException");
+        } catch (PoolExtensionException e) {
+            assertEquals(1, pool.getTimeoutCount());
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Testable> waiting = executor.submit(() -> pool.reserve(10, TimeUnit.SECONDS));
+            while (pool.getWaitingSize() == 0) {
+                Thread.sleep(1);
+            }
+            value1.close();
+            assertEquals(value1.getId(), waiting.get(10, TimeUnit.SECONDS).getId());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, pool.getAllocatedSize());
+        assertEquals(0, pool.getWaitingSize());
+        assertEquals(2, pool.getWaitCount());
+        assertTrue(pool.getMaxWaitTime(TimeUnit.NANOSECONDS) > 0);
+
+        pool.release(value2);
+        assertEquals(1, pool.getAllocatedSize());
+        assertEquals(0.5, pool.getUtilization(), 0.0);
+    }
+
+    /**
+     * Test that callers waiting on a drained pool fail instead of waiting for their timeout
+     *
+     * @throws Exception
+     *             If the pool cannot be used
+     */
+    @Test
+    public void testDrainWakesWaiters() throws Exception {
+        pool = new Pool<>(1, 1);
+        pool.setAllocator(this);
+        pool.reserve();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Testable> waiting = executor.submit(() -> pool.reserve(10, TimeUnit.SECONDS));
+            while (pool.getWaitingSize() == 0) {
+                Thread.sleep(1);
+            }
+            pool.drain();
+            waiting.get(10, TimeUnit.SECONDS);
+            fail("Expected PoolDrainedException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof PoolDrainedException);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * @see org.onap.ccsdk.sli.core.utils.pool.Destructor#destroy(java.io.Closeable, org.onap.ccsdk.sli.core.utils.pool.Pool)
      */
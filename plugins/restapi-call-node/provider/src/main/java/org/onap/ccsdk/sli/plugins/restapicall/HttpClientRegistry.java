@@ -0,0 +1,336 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 			reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.plugins.restapicall;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
+import org.onap.ccsdk.sli.core.sli.SvcLogicException;
+
+/**
+ * Keeps the JAX-RS clients built by RestapiCallNode, so that requests with the
+ * same client settings (authentication, key store, proxy, timeouts) share a
+ * client, along with the SSLContext built from each key store. Key stores are
+ * loaded again when their file changes.
+ * <p>
+ * Each client returned by getClient must be given back with releaseClient
+ * once the request is done. A client dropped from the registry, when it is
+ * evicted or on clear, is closed as soon as no request is using it.
+ * <p>
+ * Clients use the HttpURLConnection connector, whose connections are kept
+ * alive and reused by the JVM, so the registry keeps per target counts of the
+ * requests in progress and completed rather than pool statistics.
+ */
+public class HttpClientRegistry {
+
+    public static final int DEFAULT_MAX_CLIENTS = 64;
+
+    @FunctionalInterface
+    public interface ClientFactory {
+        Client create() throws SvcLogicException;
+    }
+
+    @FunctionalInterface
+    public interface SSLContextFactory {
+        SSLContext create();
+    }
+
+    private final int maxClients;
+    private final Map<ClientKey, ClientEntry> clients;
+    // Clients in use by a request, kept or not
+    private final Map<Client, ClientEntry> leasedClients = new IdentityHashMap<>();
+    private final ConcurrentMap<String, KeyStoreContext> sslContexts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TargetStats> targets = new ConcurrentHashMap<>();
+
+    public HttpClientRegistry() {
+        this(DEFAULT_MAX_CLIENTS);
+    }
+
+    /**
+     * @param maxClients number of clients kept, least recently used first out,
+     *        or 0 to build a new client for every request
+     */
+    public HttpClientRegistry(int maxClients) {
+        this.maxClients = maxClients;
+        this.clients = new LinkedHashMap<ClientKey, ClientEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ClientKey, ClientEntry> eldest) {
+                if (size() > HttpClientRegistry.this.maxClients) {
+                    eldest.getValue().retire();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the client kept for key, or one created by factory if there is
+     * none yet. The client must be given back with releaseClient.
+     */
+    public Client getClient(ClientKey key, ClientFactory factory) throws SvcLogicException {
+        if (maxClients <= 0) {
+            Client client = factory.create();
+            ClientEntry entry = new ClientEntry(client);
+            entry.retired = true;
+            synchronized (this) {
+                lease(entry);
+            }
+            return client;
+        }
+        synchronized (this) {
+            ClientEntry entry = clients.get(key);
+            if (entry != null) {
+                return lease(entry);
+            }
+        }
+        Client client = factory.create();
+        synchronized (this) {
+            ClientEntry entry = clients.get(key);
+            if (entry == null) {
+                entry = new ClientEntry(client);
+                clients.put(key, entry);
+            } else {
+                client.close();
+            }
+            return lease(entry);
+        }
+    }
+
+    /**
+     * Gives back a client returned by getClient. The client is closed if it is
+     * no longer kept and no other request is using it.
+     */
+    public synchronized void releaseClient(Client client) {
+        ClientEntry entry = leasedClients.get(client);
+        if (entry != null && --entry.leases == 0) {
+            leasedClients.remove(client);
+            if (entry.retired) {
+                client.close();
+            }
+        }
+    }
+
+    private Client lease(ClientEntry entry) {
+        if (entry.leases++ == 0) {
+            leasedClients.put(entry.client, entry);
+        }
+        return entry.client;
+    }
+
+    /**
+     * Returns the SSLContext for a key store, created by factory the first time
+     * and again whenever the key store file has changed since. Returns null,
+     * without keeping it, if factory returns null.
+     */
+    public SSLContext getSSLContext(String keyStoreFileName, String keyStorePassword, SSLContextFactory factory) {
+        if (keyStoreFileName == null) {
+            return factory.create();
+        }
+        String key = keyStoreFileName + '\0' + hash(keyStorePassword);
+        File file = new File(keyStoreFileName);
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        KeyStoreContext cached = sslContexts.get(key);
+        if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+            return cached.sslContext;
+        }
+        SSLContext ctx = factory.create();
+        if (ctx != null) {
+            sslContexts.put(key, new KeyStoreContext(ctx, lastModified, length));
+        } else {
+            sslContexts.remove(key);
+        }
+        return ctx;
+    }
+
+    /**
+     * Returns the counters for the scheme, host and port of url.
+     */
+    public TargetStats getTargetStats(String url) {
+        return targets.computeIfAbsent(getTarget(url), t -> new TargetStats());
+    }
+
+    /**
+     * Returns the counters of every target requests were sent to, by scheme,
+     * host and port.
+     */
+    public Map<String, TargetStats> getAllTargetStats() {
+        return new HashMap<>(targets);
+    }
+
+    public synchronized int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Drops all kept clients and SSL contexts. Clients in use are closed once
+     * their requests are done.
+     */
+    public void clear() {
+        synchronized (this) {
+            for (ClientEntry entry : clients.values()) {
+                entry.retire();
+            }
+            clients.clear();
+        }
+        sslContexts.clear();
+    }
+
+    // Key stores are told apart by password without keeping it in the map
+    private static String hash(String password) {
+        if (password == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String getTarget(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() != null) {
+                return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() < 0 ? "" : ":" + uri.getPort());
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a valid URI, count it as is
+        }
+        return url;
+    }
+
+    /**
+     * Identifies the settings a client was built with. The SSLContext is
+     * compared by identity, so that a reloaded key store gives a new client.
+     */
+    public static final class ClientKey {
+        private final Object[] parts;
+        private final int hash;
+
+        public ClientKey(Parameters p, SSLContext sslContext, Integer connectTimeout, Integer readTimeout) {
+            parts = new Object[] {p.authtype, p.restapiUser, p.restapiPassword, p.oAuthConsumerKey,
+                    p.oAuthConsumerSecret, p.oAuthSignatureMethod, p.oAuthVersion, p.proxyUrl,
+                    p.multipartFormData, sslContext, connectTimeout, readTimeout};
+            hash = Arrays.hashCode(parts);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ClientKey && Arrays.equals(parts, ((ClientKey) o).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Request counts for one target.
+     */
+    public static final class TargetStats {
+        private final AtomicInteger leased = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        public void requestStarted() {
+            leased.incrementAndGet();
+        }
+
+        public void requestFinished(boolean success) {
+            leased.decrementAndGet();
+            if (success) {
+                completed.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+        }
+
+        // Requests in progress, each holding a connection
+        public int getLeased() {
+            return leased.get();
+        }
+
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        @Override
+        public String toString() {
+            return "leased=" + getLeased() + ", completed=" + getCompleted() + ", failed=" + getFailed();
+        }
+    }
+
+    private static final class ClientEntry {
+        private final Client client;
+        private int leases = 0;
+        private boolean retired = false;
+
+        ClientEntry(Client client) {
+            this.client = client;
+        }
+
+        // Called when the registry drops the client, with the registry locked
+        void retire() {
+            retired = true;
+            if (leases == 0) {
+                client.close();
+            }
+        }
+    }
+
+    private static final class KeyStoreContext {
+        private final SSLContext sslContext;
+        private final long lastModified;
+        private final long length;
+
+        KeyStoreContext(SSLContext sslContext, long lastModified, long length) {
+            this.sslContext = sslContext;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
@@ -31,4 +31,6 @@ public class HttpResponse {
     public String body;
     public MultivaluedMap<String, String> headers;
     public Map<String, List<String>> headers2;
+    // Set instead of body when the response is converted as it is read
+    public Map<String, String> properties;
 }
@@ -21,7 +21,8 @@
 
 package org.onap.ccsdk.sli.plugins.restapicall;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -42,6 +43,8 @@ public final class JsonParser {
 
     private static final Logger log = LoggerFactory.getLogger(JsonParser.class);
 
+    private static final Pattern ENV_VAR_PATTERN = Pattern.compile("\\$\\{(\\w+)((?:\\:\\-)([^\\}]*))?\\}");
+
     private JsonParser() {
         // Preventing instantiation of the same.
     }
@@ -93,81 +96,348 @@ public final class JsonParser {
         checkNotNull(s, "Input should not be null.");
 
         try {
-            Map<String, Object> wm = new HashMap<>();
-            JSONObject json;
-            JSONArray jsonArr;
+            Map<String, String> mm = new HashMap<>();
             //support top level list in json response
             if (s.startsWith("[")) {
-                jsonArr = new JSONArray(s);
+                Map<String, Object> wm = new HashMap<>();
+                JSONArray jsonArr = new JSONArray(s);
                 wm.put("_length", String.valueOf(jsonArr.length()));
                 handleJsonArray(null, wm, jsonArr);
+                for (Map.Entry<String, Object> entry : wm.entrySet()) {
+                    addProperties(mm, entry.getKey(), entry.getValue());
+                }
             } else {
-                json = new JSONObject(s);
-                Iterator<String> ii = json.keys();
-                while (ii.hasNext()) {
-                    String key1 = ii.next();
-                    String[] subKey = key1.split(":");
-                    if (subKey.length == 2) {
-                        wm.put(subKey[1], json.get(key1));
-                    } else {
-                        wm.put(key1, json.get(key1));
+                addProperties(mm, null, new JSONObject(s));
+            }
+            return mm;
+        } catch (JSONException e) {
+            throw new SvcLogicException("Unable to convert JSON to properties" + e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Converts JSON read from in to properties as it is read, without keeping
+     * the text or building a JSONObject first. Properties are named as by
+     * convertToProperties(String). Unlike convertToProperties(String), lists
+     * nested in a top level list are named in the same way as anywhere else,
+     * and JSON that is only accepted by the lenient JSONObject parser, such as
+     * comments or unquoted names, is rejected. Returns no properties if in has
+     * nothing but white space.
+     */
+    public static Map<String, String> convertToProperties(Reader in)
+            throws SvcLogicException {
+
+        checkNotNull(in, "Input should not be null.");
+
+        Map<String, String> mm = new HashMap<>();
+        try {
+            new StreamConverter(in, mm).convert();
+        } catch (JSONException e) {
+            throw new SvcLogicException("Unable to convert JSON to properties" + e.getLocalizedMessage(), e);
+        } catch (IOException e) {
+            throw new SvcLogicException("Unable to read JSON: " + e.getLocalizedMessage(), e);
+        }
+        return mm;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addProperties(Map<String, String> mm, String key, Object o) throws JSONException {
+        if (o instanceof Boolean || o instanceof Number) {
+            addProperty(mm, key, o.toString());
+        } else if (o instanceof String) {
+            addProperty(mm, key, resolveEnvVars(o.toString()));
+        } else if (o instanceof JSONObject) {
+            JSONObject jo = (JSONObject) o;
+            Iterator<String> i = jo.keys();
+            while (i.hasNext()) {
+                String key1 = i.next();
+                String name = stripModuleName(key1);
+                addProperties(mm, key == null ? name : key + "." + name, jo.get(key1));
+            }
+        } else if (o instanceof JSONArray) {
+            JSONArray ja = (JSONArray) o;
+            mm.put(key + "_length", String.valueOf(ja.length()));
+            log.info("Added property: {}_length: {}", key, ja.length());
+
+            for (int i = 0; i < ja.length(); i++) {
+                addProperties(mm, key + '[' + i + ']', ja.get(i));
+            }
+        }
+    }
+
+    private static void addProperty(Map<String, String> mm, String key, String value) {
+        mm.put(key, value);
+        log.info("Added property: {} : {}", key, value);
+    }
+
+    private static String stripModuleName(String key) {
+        String[] subKey = key.split(":");
+        return subKey.length == 2 ? subKey[1] : key;
+    }
+
+    private static String resolveEnvVars(String value) {
+        Matcher m = ENV_VAR_PATTERN.matcher(value);
+        if (!m.find()) {
+            return value;
+        }
+
+        StringBuffer sb = new StringBuffer();
+        do {
+            String envVarName = null == m.group(1) ? m.group(2) : m.group(1);
+            String envVarDefault = null == m.group(3) ? "" : m.group(3);
+            String envVarValue = System.getenv(envVarName);
+
+            m.appendReplacement(sb,
+                null == envVarValue ? Matcher.quoteReplacement(envVarDefault) : Matcher.quoteReplacement(envVarValue));
+        } while (m.find());
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Reads JSON one token at a time, adding each value as a property as soon
+     * as it is read. Values that are not quoted are converted in the same way
+     * as by JSONObject, so that numbers and booleans give the same text.
+     */
+    private static final class StreamConverter {
+
+        private final Reader in;
+        private final Map<String, String> mm;
+        private final char[] buf = new char[8192];
+        private int pos = 0;
+        private int limit = 0;
+        private final StringBuilder token = new StringBuilder();
+
+        StreamConverter(Reader in, Map<String, String> mm) {
+            this.in = in;
+            this.mm = mm;
+        }
+
+        void convert() throws IOException, JSONException {
+            int c = nextClean();
+            if (c == '\uFEFF') {
+                // Byte order mark
+                c = nextClean();
+            }
+            if (c < 0) {
+                return;
+            }
+            if (c == '[') {
+                readArray("");
+            } else if (c == '{') {
+                readObject(null);
+            } else {
+                throw new JSONException("A JSONObject text must begin with '{'");
+            }
+        }
+
+        private void readValue(String key, int c) throws IOException, JSONException {
+            switch (c) {
+                case '{':
+                    readObject(key);
+                    break;
+                case '[':
+                    readArray(key);
+                    break;
+                case '"':
+                    addProperty(mm, key, resolveEnvVars(readString()));
+                    break;
+                default:
+                    Object value = toValue(readUnquoted(c));
+                    if (value instanceof String) {
+                        addProperty(mm, key, resolveEnvVars((String) value));
+                    } else if (value != null) {
+                        addProperty(mm, key, value.toString());
                     }
+            }
+        }
+
+        private void readObject(String key) throws IOException, JSONException {
+            int c = nextClean();
+            if (c == '}') {
+                return;
+            }
+            while (true) {
+                if (c != '"') {
+                    throw new JSONException("A JSONObject text must have a quoted name");
+                }
+                String name = stripModuleName(readString());
+                if (nextClean() != ':') {
+                    throw new JSONException("Expected a ':' after a key");
                 }
+                readValue(key == null ? name : key + "." + name, nextClean());
+
+                c = nextClean();
+                if (c == '}') {
+                    return;
+                }
+                if (c != ',') {
+                    throw new JSONException("Expected a ',' or '}'");
+                }
+                c = nextClean();
             }
+        }
 
-            Map<String, String> mm = new HashMap<>();
-            while (!wm.isEmpty()) {
-                for (String key : new ArrayList<>(wm.keySet())) {
-                    Object o = wm.get(key);
-                    wm.remove(key);
-
-                    if (o instanceof Boolean || o instanceof Number ) {
-                        mm.put(key, o.toString());
-                        log.info("Added property: {} : {}", key, o.toString());
-                    } else if (o instanceof String) {
-                        String value = o.toString();
-                        Pattern p = Pattern.compile("\\$\\{(\\w+)((?:\\:\\-)([^\\}]*))?\\}");
-                        Matcher m = p.matcher(value);
-                
-                        StringBuffer sb = new StringBuffer();
-                        while (m.find()) {
-                            String envVarName = null == m.group(1) ? m.group(2) : m.group(1);
-                            String envVarDefault = null == m.group(3) ? "" : m.group(3);
-                            String envVarValue = System.getenv(envVarName);
-                
-                            m.appendReplacement(sb,
-                                null == envVarValue ? Matcher.quoteReplacement(envVarDefault) : Matcher.quoteReplacement(envVarValue));
-                         }
-                        m.appendTail(sb);
-                        value = sb.toString();
-                        mm.put(key, value);
-                        log.info("Added property: {} : {}", key, value);
-                    } else if (o instanceof JSONObject) {
-                        JSONObject jo = (JSONObject) o;
-                        Iterator<String> i = jo.keys();
-                        while (i.hasNext()) {
-                            String key1 = i.next();
-                            String[] subKey = key1.split(":");
-                            if (subKey.length == 2) {
-                                wm.put(key + "." + subKey[1], jo.get(key1));
-                            } else {
-                                wm.put(key + "." + key1, jo.get(key1));
-                            }
+        private void readArray(String key) throws IOException, JSONException {
+            int length = 0;
+            int c = nextClean();
+            if (c != ']') {
+                while (true) {
+                    readValue(key + '[' + length + ']', c);
+                    length++;
+
+                    c = nextClean();
+                    if (c == ']') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw new JSONException("Expected a ',' or ']'");
+                    }
+                    c = nextClean();
+                }
+            }
+            mm.put(key + "_length", String.valueOf(length));
+            log.info("Added property: {}_length: {}", key, length);
+        }
+
+        private String readString() throws IOException, JSONException {
+            token.setLength(0);
+            while (true) {
+                int c = next();
+                switch (c) {
+                    case -1:
+                    case '\n':
+                    case '\r':
+                        throw new JSONException("Unterminated string");
+                    case '"':
+                        return token.toString();
+                    case '\\':
+                        readEscape();
+                        break;
+                    default:
+                        token.append((char) c);
+                }
+            }
+        }
+
+        private void readEscape() throws IOException, JSONException {
+            int c = next();
+            switch (c) {
+                case 'b':
+                    token.append('\b');
+                    break;
+                case 't':
+                    token.append('\t');
+                    break;
+                case 'n':
+                    token.append('\n');
+                    break;
+                case 'f':
+                    token.append('\f');
+                    break;
+                case 'r':
+                    token.append('\r');
+                    break;
+                case 'u':
+                    char[] hex = new char[4];
+                    for (int i = 0; i < hex.length; i++) {
+                        int h = next();
+                        if (h < 0) {
+                            throw new JSONException("Unterminated string");
                         }
-                    } else if (o instanceof JSONArray) {
-                        JSONArray ja = (JSONArray) o;
-                        mm.put(key + "_length", String.valueOf(ja.length()));
-                        log.info("Added property: {}_length: {}", key, ja.length());
+                        hex[i] = (char) h;
+                    }
+                    try {
+                        token.append((char) Integer.parseInt(new String(hex), 16));
+                    } catch (NumberFormatException e) {
+                        throw new JSONException("Illegal escape: \\u" + new String(hex));
+                    }
+                    break;
+                case -1:
+                    throw new JSONException("Unterminated string");
+                default:
+                    token.append((char) c);
+            }
+        }
+
+        private String readUnquoted(int first) throws IOException, JSONException {
+            token.setLength(0);
+            int c = first;
+            while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0 && !Character.isWhitespace(c)) {
+                token.append((char) c);
+                c = next();
+            }
+            if (c >= 0) {
+                pos--;
+            }
+            if (token.length() == 0) {
+                throw new JSONException(c < 0 ? "Unexpected end of JSON" : "Missing value");
+            }
+            return token.toString();
+        }
+
+        /**
+         * Converts a value that is not quoted in the same way as JSONObject:
+         * returns a Boolean, a Number, null for a JSON null, or the text.
+         */
+        private static Object toValue(String s) {
+            if (s.equalsIgnoreCase("true")) {
+                return Boolean.TRUE;
+            }
+            if (s.equalsIgnoreCase("false")) {
+                return Boolean.FALSE;
+            }
+            if (s.equalsIgnoreCase("null")) {
+                return null;
+            }
 
-                        for (int i = 0; i < ja.length(); i++) {
-                            wm.put(key + '[' + i + ']', ja.get(i));
+            char b = s.charAt(0);
+            if ((b >= '0' && b <= '9') || b == '.' || b == '-' || b == '+') {
+                if (b == '0') {
+                    try {
+                        if (s.length() > 2 && (s.charAt(1) == 'x' || s.charAt(1) == 'X')) {
+                            return Integer.parseInt(s.substring(2), 16);
+                        }
+                        return Integer.parseInt(s, 8);
+                    } catch (NumberFormatException e) {
+                        // Not an octal or hex number
+                    }
+                }
+                try {
+                    return Integer.valueOf(s);
+                } catch (NumberFormatException e) {
+                    try {
+                        return Long.valueOf(s);
+                    } catch (NumberFormatException f) {
+                        try {
+                            return Double.valueOf(s);
+                        } catch (NumberFormatException g) {
+                            return s;
                         }
                     }
                 }
             }
-            return mm;
-        } catch (JSONException e) {
-            throw new SvcLogicException("Unable to convert JSON to properties" + e.getLocalizedMessage(), e);
+            return s;
+        }
+
+        private int nextClean() throws IOException {
+            int c = next();
+            while (c >= 0 && Character.isWhitespace(c)) {
+                c = next();
+            }
+            return c;
+        }
+
+        private int next() throws IOException {
+            if (pos == limit) {
+                limit = in.read(buf, 0, buf.length);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buf[pos++];
         }
     }
 
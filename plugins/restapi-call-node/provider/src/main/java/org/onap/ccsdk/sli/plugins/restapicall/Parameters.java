@@ -49,10 +49,12 @@ public class Parameters {
     public String oAuthVersion;
     public AuthType authtype;
     public Boolean returnRequestPayload;
+    public boolean returnResponsePayload;
     public String accept;
     public boolean multipartFormData;
     public String multipartFile;
     public String targetEntity;
     public boolean disableHostVerification;
     public String proxyUrl;
+    public int readTimeout;
 }
@@ -0,0 +1,551 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 			reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.plugins.restapicall;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.sli.SvcLogicException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A request template parsed once into text, variable, index and repeat parts,
+ * so that building a request does not have to search the template text again.
+ * Rendering gives the same text as the repeat expansion and variable
+ * replacement in RestapiCallNode.buildXmlJsonRequest, in a single pass over
+ * the parts.
+ * <p>
+ * Templates that depend on how that code rescans its output, such as a
+ * variable name that is not closed, are not compiled. For those isCompiled
+ * returns false, and the caller is expected to use the text based code.
+ */
+public final class RequestTemplate {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTemplate.class);
+
+    private static final String VAR_START = "${";
+    private static final String REPEAT_START = "${repeat:";
+
+    private final String text;
+    private final Node[] nodes;
+    private final int maxLevel;
+
+    private RequestTemplate(String text, Node[] nodes, int maxLevel) {
+        this.text = text;
+        this.nodes = nodes;
+        this.maxLevel = maxLevel;
+    }
+
+    /**
+     * Parses a template. Never returns null; check isCompiled to see whether
+     * the template could be compiled.
+     */
+    public static RequestTemplate compile(String text) {
+        Parser parser = new Parser();
+        Node[] nodes = parser.parse(text, 0);
+        return new RequestTemplate(text, nodes, parser.maxLevel);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isCompiled() {
+        return nodes != null;
+    }
+
+    /**
+     * Expands repeats and replaces variables with their values in ctx. Only
+     * the attributes of the variables in the template are read. Empty
+     * structures are not removed.
+     */
+    public String render(SvcLogicContext ctx, Format format) {
+        if (nodes == null) {
+            throw new IllegalStateException("Template is not compiled");
+        }
+        RenderState state = new RenderState(ctx, format, maxLevel);
+        render(nodes, state);
+        return state.out.toString();
+    }
+
+    private static void render(Node[] nodes, RenderState state) {
+        for (Node node : nodes) {
+            node.render(state);
+        }
+    }
+
+    private static final class RenderState {
+        private final SvcLogicContext ctx;
+        private final Format format;
+        private final StringBuilder out = new StringBuilder();
+        // Current iteration of the repeat at each level
+        private final int[] index;
+        // Output length after the last variable value, up to which lines are never removed
+        private int mark = 0;
+        // Set after an empty variable, until the end of its line
+        private boolean skipping = false;
+
+        RenderState(SvcLogicContext ctx, Format format, int maxLevel) {
+            this.ctx = ctx;
+            this.format = format;
+            this.index = new int[maxLevel + 1];
+        }
+
+        void appendText(String s) {
+            if (!skipping) {
+                out.append(s);
+                return;
+            }
+            int nl = s.indexOf('\n');
+            if (nl >= 0) {
+                skipping = false;
+                out.append(s, nl, s.length());
+            }
+        }
+
+        String getValue(String var) {
+            String name = XmlJsonUtil.getVarName(var, format);
+            Map<String, String> values = getValues(name);
+            if (values.isEmpty() && !name.isEmpty()) {
+                return null;
+            }
+            return format == Format.XML ? XmlJsonUtil.getXml(values, var) : XmlJsonUtil.getJson(values, var);
+        }
+
+        /**
+         * Returns the attributes getXml and getJson read for a variable: the
+         * variable itself, or else the structure under it. If there are none,
+         * getXml and getJson return null.
+         */
+        private Map<String, String> getValues(String name) {
+            Map<String, String> values = new HashMap<>();
+            if (name.isEmpty()) {
+                for (String key : ctx.getAttributeKeySet()) {
+                    values.put(key, ctx.getAttribute(key));
+                }
+                return values;
+            }
+
+            String value = ctx.getAttribute(name);
+            if (value != null) {
+                values.put(name, value);
+                return values;
+            }
+            for (String key : ctx.getAttributeKeySet(name + '[')) {
+                values.put(key, ctx.getAttribute(key));
+            }
+            for (String key : ctx.getAttributeKeySet(name + '.')) {
+                values.put(key, ctx.getAttribute(key));
+            }
+            return values;
+        }
+
+        void removeLine() {
+            int cut = out.length() - 1;
+            while (cut >= mark && out.charAt(cut) != '\n') {
+                cut--;
+            }
+            if (cut < mark) {
+                cut = mark;
+            }
+            out.setLength(cut);
+            mark = cut;
+            skipping = true;
+        }
+    }
+
+    private interface Node {
+        void render(RenderState state);
+    }
+
+    private static final class TextNode implements Node {
+        private final String text;
+
+        TextNode(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(RenderState state) {
+            state.appendText(text);
+        }
+    }
+
+    // A [${level}] placeholder inside a repeat of that level
+    private static final class IndexNode implements Node {
+        private final int level;
+
+        IndexNode(int level) {
+            this.level = level;
+        }
+
+        @Override
+        public void render(RenderState state) {
+            if (!state.skipping) {
+                state.out.append('[').append(state.index[level]).append(']');
+            }
+        }
+    }
+
+    private static final class VarNode implements Node {
+        private final Name name;
+
+        VarNode(Name name) {
+            this.name = name;
+        }
+
+        @Override
+        public void render(RenderState state) {
+            if (state.skipping) {
+                return;
+            }
+            String var = name.resolve(state.index);
+            boolean keepEmpty = var.startsWith("~");
+            String value = state.getValue(var);
+            if (value == null || (value.trim().length() == 0 && !keepEmpty)) {
+                // delete the whole element (line)
+                state.removeLine();
+            } else {
+                state.out.append(value);
+                state.mark = state.out.length();
+            }
+        }
+    }
+
+    private static final class RepeatNode implements Node {
+        private final int level;
+        private final Name countName;
+        private final Node[] body;
+        // Body without its trailing comma, used for the last iteration
+        private final Node[] lastBody;
+
+        RepeatNode(int level, Name countName, Node[] body, Node[] lastBody) {
+            this.level = level;
+            this.countName = countName;
+            this.body = body;
+            this.lastBody = lastBody;
+        }
+
+        @Override
+        public void render(RenderState state) {
+            String var = countName.resolve(state.index);
+            String value = state.ctx.getAttribute(var);
+            log.info("     {}:{}", var, value);
+            int n = 0;
+            try {
+                n = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.info("value1 not set or not a number, n will remain set at zero");
+            }
+            for (int i = 0; i < n; i++) {
+                state.index[level] = i;
+                RequestTemplate.render(i == n - 1 ? lastBody : body, state);
+            }
+        }
+    }
+
+    // A variable or repeat count name, made of text and the indexes of enclosing repeats
+    private static final class Name {
+        private final Object[] parts;
+
+        Name(List<Object> parts) {
+            this.parts = parts.toArray();
+        }
+
+        String resolve(int[] index) {
+            if (parts.length == 1 && parts[0] instanceof String) {
+                return (String) parts[0];
+            }
+            StringBuilder sb = new StringBuilder();
+            for (Object part : parts) {
+                if (part instanceof Integer) {
+                    sb.append('[').append(index[(Integer) part]).append(']');
+                } else {
+                    sb.append((String) part);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class Parser {
+        private int maxLevel = 0;
+
+        /**
+         * Parses s, found inside depth repeats. Returns null if s cannot be
+         * compiled.
+         */
+        Node[] parse(String s, int depth) {
+            List<Node> nodes = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            int k = 0;
+            while (true) {
+                int i1 = s.indexOf(VAR_START, k);
+                if (i1 < 0) {
+                    text.append(s, k, s.length());
+                    break;
+                }
+                text.append(s, k, i1);
+
+                if (s.startsWith(REPEAT_START, i1)) {
+                    // "$" followed by a "{" from the repeat would start a variable
+                    if (!addText(nodes, text)) {
+                        return null;
+                    }
+                    k = parseRepeat(s, i1, depth, nodes);
+                } else {
+                    int level = getIndexLevel(s, i1);
+                    if (level > 0 && level <= depth) {
+                        text.setLength(text.length() - 1);
+                        addText(nodes, text);
+                        nodes.add(new IndexNode(level));
+                        k = i1 + 2 + Integer.toString(level).length() + 2;
+                        continue;
+                    }
+                    addText(nodes, text);
+                    k = parseVar(s, i1, depth, nodes);
+                }
+                if (k < 0) {
+                    return null;
+                }
+            }
+            if (!addText(nodes, text)) {
+                return null;
+            }
+            return nodes.toArray(new Node[nodes.size()]);
+        }
+
+        /**
+         * Adds text as a text node, and returns false if it ends with "$".
+         */
+        private static boolean addText(List<Node> nodes, StringBuilder text) {
+            if (text.length() == 0) {
+                return true;
+            }
+            boolean endsWithDollar = text.charAt(text.length() - 1) == '$';
+            nodes.add(new TextNode(text.toString()));
+            text.setLength(0);
+            return !endsWithDollar;
+        }
+
+        /**
+         * Returns the level of a [${level}] placeholder whose "${" is at i1, or
+         * -1 if there is none.
+         */
+        private static int getIndexLevel(String s, int i1) {
+            if (i1 == 0 || s.charAt(i1 - 1) != '[') {
+                return -1;
+            }
+            int end = s.indexOf("}]", i1 + 2);
+            if (end < 0 || end == i1 + 2 || end - (i1 + 2) > 9) {
+                return -1;
+            }
+            String digits = s.substring(i1 + 2, end);
+            for (int i = 0; i < digits.length(); i++) {
+                char c = digits.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+            }
+            int level = Integer.parseInt(digits);
+            return Integer.toString(level).equals(digits) ? level : -1;
+        }
+
+        /**
+         * Parses the variable starting at i1 and returns the position after it,
+         * or -1 if it cannot be compiled.
+         */
+        private int parseVar(String s, int i1, int depth, List<Node> nodes) {
+            List<Object> parts = new ArrayList<>();
+            StringBuilder part = new StringBuilder();
+            int j = i1 + 2;
+            while (j < s.length()) {
+                char c = s.charAt(j);
+                if (c == '}') {
+                    if (part.length() > 0 || parts.isEmpty()) {
+                        parts.add(part.toString());
+                    }
+                    nodes.add(new VarNode(new Name(parts)));
+                    return j + 1;
+                }
+                if (c == '\n') {
+                    return -1;
+                }
+                if (s.startsWith(VAR_START, j)) {
+                    int level = getIndexLevel(s, j);
+                    if (level <= 0 || level > depth) {
+                        return -1;
+                    }
+                    part.setLength(part.length() - 1);
+                    if (part.length() > 0) {
+                        parts.add(part.toString());
+                        part.setLength(0);
+                    }
+                    parts.add(level);
+                    j += 2 + Integer.toString(level).length() + 2;
+                    continue;
+                }
+                part.append(c);
+                j++;
+            }
+            return -1;
+        }
+
+        /**
+         * Parses the repeat starting at i1 in the same way as
+         * RestapiCallNode.expandRepeats, and returns the position after it, or
+         * -1 if it cannot be compiled.
+         */
+        private int parseRepeat(String s, int i1, int depth, List<Node> nodes) {
+            int i2 = s.indexOf(':', i1 + REPEAT_START.length());
+            if (i2 < 0) {
+                return -1;
+            }
+
+            // Find the closing }, store in i3
+            int nn = 1;
+            int i3 = -1;
+            int i = i2;
+            while (nn > 0 && i < s.length()) {
+                i3 = s.indexOf('}', i);
+                if (i3 < 0) {
+                    return -1;
+                }
+                int i32 = s.indexOf('{', i);
+                if (i32 >= 0 && i32 < i3) {
+                    nn++;
+                    i = i32 + 1;
+                } else {
+                    nn--;
+                    i = i3 + 1;
+                }
+            }
+            if (nn > 0) {
+                return -1;
+            }
+
+            int level = depth + 1;
+            maxLevel = Math.max(maxLevel, level);
+
+            String rpt = s.substring(i2 + 1, i3);
+            Node[] body = parse(rpt, level);
+            Node[] lastBody = body;
+            if (rpt.trim().endsWith(",")) {
+                int i4 = rpt.lastIndexOf(',');
+                if (i4 > 0) {
+                    lastBody = parse(rpt.substring(0, i4) + rpt.substring(i4 + 1), level);
+                }
+            }
+            if (body == null || lastBody == null) {
+                return -1;
+            }
+
+            nodes.add(new RepeatNode(level, parseCountName(s.substring(i1 + REPEAT_START.length(), i2), depth),
+                body, lastBody));
+            return i3 + 1;
+        }
+
+        /**
+         * Parses a repeat count name. Placeholders for the enclosing repeats are
+         * replaced by their index; anything else is kept as is.
+         */
+        private static Name parseCountName(String s, int depth) {
+            List<Object> parts = new ArrayList<>();
+            int k = 0;
+            int i1 = s.indexOf(VAR_START);
+            while (i1 >= 0) {
+                int level = getIndexLevel(s, i1);
+                if (level > 0 && level <= depth) {
+                    if (i1 - 1 > k) {
+                        parts.add(s.substring(k, i1 - 1));
+                    }
+                    parts.add(level);
+                    k = i1 + 2 + Integer.toString(level).length() + 2;
+                }
+                i1 = s.indexOf(VAR_START, i1 + 2);
+            }
+            if (k < s.length() || parts.isEmpty()) {
+                parts.add(s.substring(k));
+            }
+            return new Name(parts);
+        }
+    }
+
+    /**
+     * Compiled templates by file name. A template is read and compiled again
+     * when its file changes.
+     */
+    public static final class Cache {
+
+        @FunctionalInterface
+        public interface TemplateReader {
+            String read(String fileName) throws SvcLogicException;
+        }
+
+        private final ConcurrentMap<String, CachedTemplate> templates = new ConcurrentHashMap<>();
+
+        public RequestTemplate get(String fileName, TemplateReader reader) throws SvcLogicException {
+            File file = new File(fileName);
+            long lastModified = file.lastModified();
+            long length = file.length();
+            if (lastModified == 0L) {
+                // Not a regular file, or not readable: do not keep it
+                templates.remove(fileName);
+                return compile(reader.read(fileName));
+            }
+
+            CachedTemplate cached = templates.get(fileName);
+            if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+                return cached.template;
+            }
+            RequestTemplate template = compile(reader.read(fileName));
+            templates.put(fileName, new CachedTemplate(template, lastModified, length));
+            return template;
+        }
+
+        public void clear() {
+            templates.clear();
+        }
+
+        public int size() {
+            return templates.size();
+        }
+    }
+
+    private static final class CachedTemplate {
+        private final RequestTemplate template;
+        private final long lastModified;
+        private final long length;
+
+        CachedTemplate(RequestTemplate template, long lastModified, long length) {
+            this.template = template;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
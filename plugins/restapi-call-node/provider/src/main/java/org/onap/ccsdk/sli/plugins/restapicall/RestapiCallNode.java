@@ -29,8 +29,10 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
@@ -39,6 +41,8 @@ import java.net.Proxy;
 import java.net.SocketException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.KeyStore;
@@ -53,6 +57,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.net.ssl.HttpsURLConnection;
@@ -108,6 +119,8 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
     protected static final String PROPERTIES_DIR_KEY = "SDNC_CONFIG_DIR";
     protected static final int DEFAULT_HTTP_CONNECT_TIMEOUT_MS = 30000; // 30 seconds
     protected static final int DEFAULT_HTTP_READ_TIMEOUT_MS = 600000; // 10 minutes
+    protected static final int DEFAULT_HTTP_CLIENT_CACHE_SIZE = HttpClientRegistry.DEFAULT_MAX_CLIENTS;
+    protected static final int DEFAULT_MAX_CONCURRENCY = 10;
 
     private static final Logger log = LoggerFactory.getLogger(RestapiCallNode.class);
     private String uebServers;
@@ -123,6 +136,10 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
     protected static final String restapiPasswordKey = "restapiPassword";
     protected Integer httpConnectTimeout;
     protected Integer httpReadTimeout;
+    protected HttpClientRegistry clientRegistry;
+    protected RequestTemplate.Cache templateCache = new RequestTemplate.Cache();
+    // Threads sending the requests of sendRequests, created on first use
+    private ExecutorService requestExecutor;
 
     protected HashMap<String, PartnerDetails> partnerStore;
     private static final Pattern retryPattern = Pattern.compile(".*,(http|https):.*");
@@ -150,6 +167,8 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
         }
         httpConnectTimeout = readOptionalInteger("HTTP_CONNECT_TIMEOUT_MS",DEFAULT_HTTP_CONNECT_TIMEOUT_MS);
         httpReadTimeout = readOptionalInteger("HTTP_READ_TIMEOUT_MS",DEFAULT_HTTP_READ_TIMEOUT_MS);
+        clientRegistry = new HttpClientRegistry(
+            readOptionalInteger("HTTP_CLIENT_CACHE_SIZE", DEFAULT_HTTP_CLIENT_CACHE_SIZE));
     }
 
     @SuppressWarnings("unchecked")
@@ -244,12 +263,14 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
         p.partner = parseParam(paramMap, "partner", false, null);
         p.dumpHeaders = valueOf(parseParam(paramMap, "dumpHeaders", false, null));
         p.returnRequestPayload = valueOf(parseParam(paramMap, "returnRequestPayload", false, null));
+        p.returnResponsePayload = valueOf(parseParam(paramMap, "returnResponsePayload", false, "true"));
         p.accept = parseParam(paramMap, "accept", false, null);
         p.multipartFormData = valueOf(parseParam(paramMap, "multipartFormData", false, "false"));
         p.multipartFile = parseParam(paramMap, "multipartFile", false, null);
         p.targetEntity = parseParam(paramMap, "targetEntity", false, null);
         p.disableHostVerification = valueOf(parseParam(paramMap, "disableHostVerification", false, "true"));
         p.proxyUrl = parseParam(paramMap, "proxyUrl", false, null);
+        p.readTimeout = parseIntParam(paramMap, "readTimeout", 0);
         return p;
     }
 
@@ -476,6 +497,19 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
      *        <td>used to return payload built in the request</td>
      *        <td>true or false</td>
      *        </tr>
+     *        <tr>
+     *        <td>returnResponsePayload</td>
+     *        <td>Optional</td>
+     *        <td>when false the response is not written to httpResponse, and a converted
+     *        response is converted as it is read instead of being read whole first</td>
+     *        <td>true or false</td>
+     *        </tr>
+     *        <tr>
+     *        <td>readTimeout</td>
+     *        <td>Optional</td>
+     *        <td>read timeout of the request in milliseconds, instead of HTTP_READ_TIMEOUT_MS</td>
+     *        <td>30000</td>
+     *        </tr>
      *        </tbody>
      *        </table>
      * @param ctx Reference to context memory
@@ -502,46 +536,10 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
                 retryPolicy = new RetryPolicy(urls, urls.length * 2);
                 p.restapiUrl = urls[0];
             }
-            String pp = p.responsePrefix != null ? p.responsePrefix + '.' : "";
 
-            String req = null;
-            if (p.templateFileName != null) {
-                String reqTemplate = readFile(p.templateFileName);
-                req = buildXmlJsonRequest(ctx, reqTemplate, p.format);
-            } else if (p.requestBody != null) {
-                req = p.requestBody;
-            }
+            String req = buildRequest(ctx, p);
             r = sendHttpRequest(req, p);
-            setResponseStatus(ctx, p.responsePrefix, r);
-
-            if (p.dumpHeaders && r.headers != null) {
-                for (Entry<String, List<String>> a : r.headers.entrySet()) {
-                    ctx.setAttribute(pp + "header." + a.getKey(), StringUtils.join(a.getValue(), ","));
-                }
-            }
-
-            if (p.returnRequestPayload && req != null) {
-                ctx.setAttribute(pp + "httpRequest", req);
-            }
-
-            if (r.body != null && r.body.trim().length() > 0) {
-                ctx.setAttribute(pp + "httpResponse", r.body);
-
-                if (p.convertResponse) {
-                    Map<String, String> mm = null;
-                    if (p.format == Format.XML) {
-                        mm = XmlParser.convertToProperties(r.body, p.listNameList);
-                    } else if (p.format == Format.JSON) {
-                        mm = JsonParser.convertToProperties(r.body);
-                    }
-
-                    if (mm != null) {
-                        for (Map.Entry<String, String> entry : mm.entrySet()) {
-                            ctx.setAttribute(pp + entry.getKey(), entry.getValue());
-                        }
-                    }
-                }
-            }
+            setResponse(ctx, p, req, r);
         } catch (SvcLogicException e) {
             boolean shouldRetry = false;
             if (e.getCause() != null && (e.getCause() instanceof SocketException || (e.getCause().getCause() != null && e.getCause().getCause() instanceof SocketException))) {
@@ -579,6 +577,280 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
         }
     }
 
+    /**
+     * Builds the request body from the template or the requestBody parameter.
+     * Returns null if there is neither.
+     */
+    protected String buildRequest(SvcLogicContext ctx, Parameters p) throws SvcLogicException {
+        if (p.templateFileName != null) {
+            RequestTemplate reqTemplate = templateCache.get(p.templateFileName, this::readFile);
+            return buildXmlJsonRequest(ctx, reqTemplate, p.format);
+        }
+        return p.requestBody;
+    }
+
+    /**
+     * Writes the status, headers, request and response of a request sent with
+     * parameters p into the context, under p.responsePrefix.
+     */
+    protected void setResponse(SvcLogicContext ctx, Parameters p, String req, HttpResponse r)
+        throws SvcLogicException {
+        setResponseStatus(ctx, p.responsePrefix, r);
+
+        String pp = p.responsePrefix != null ? p.responsePrefix + '.' : "";
+        if (p.dumpHeaders && r.headers != null) {
+            for (Entry<String, List<String>> a : r.headers.entrySet()) {
+                ctx.setAttribute(pp + "header." + a.getKey(), StringUtils.join(a.getValue(), ","));
+            }
+        }
+
+        if (p.returnRequestPayload && req != null) {
+            ctx.setAttribute(pp + "httpRequest", req);
+        }
+
+        Map<String, String> mm = r.properties;
+        if (r.body != null && r.body.trim().length() > 0) {
+            ctx.setAttribute(pp + "httpResponse", r.body);
+
+            if (p.convertResponse) {
+                if (p.format == Format.XML) {
+                    mm = XmlParser.convertToProperties(r.body, p.listNameList);
+                } else if (p.format == Format.JSON) {
+                    mm = JsonParser.convertToProperties(r.body);
+                }
+            }
+        }
+
+        if (mm != null) {
+            for (Map.Entry<String, String> entry : mm.entrySet()) {
+                ctx.setAttribute(pp + entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Sends one request for each entry of a list in context memory, several at
+     * a time, and waits for all of them to complete.
+     * <p>
+     * Each request is sent with the same parameters as sendRequest. Parameters
+     * of the form requestList[i].name found in context memory override the
+     * parameter name for the request i, so that for instance each request can
+     * have its own restapiUrl. Requests are built from their template before
+     * any of them is sent, and the responses are written once all of them are
+     * received, each under its own prefix. Multiple URLs in restapiUrl are not
+     * retried: only the first one is used.
+     * <p>
+     * <table border="1">
+     *        <thead>
+     *        <tr>
+     *        <th>Parameter</th>
+     *        <th>Mandatory/Optional</th>
+     *        <th>description</th>
+     *        <th>example values</th>
+     *        </tr>
+     *        </thead>
+     *        <tbody>
+     *        <tr>
+     *        <td>requestList</td>
+     *        <td>Mandatory</td>
+     *        <td>name of the list in context memory, with requestList_length entries</td>
+     *        <td>tmp.vnfc-requests</td>
+     *        </tr>
+     *        <tr>
+     *        <td>responsePrefix</td>
+     *        <td>Optional</td>
+     *        <td>the response of request i is written under responsePrefix[i], or under
+     *        requestList[i] if not set</td>
+     *        <td>tmp.vnfc-responses</td>
+     *        </tr>
+     *        <tr>
+     *        <td>maxConcurrency</td>
+     *        <td>Optional</td>
+     *        <td>how many requests can be in progress at the same time, 10 by default</td>
+     *        <td>4</td>
+     *        </tr>
+     *        <tr>
+     *        <td>readTimeout</td>
+     *        <td>Optional</td>
+     *        <td>read timeout of each request in milliseconds, instead of HTTP_READ_TIMEOUT_MS</td>
+     *        <td>30000</td>
+     *        </tr>
+     *        </tbody>
+     *        </table>
+     * @param ctx Reference to context memory
+     * @throws SvcLogicException if any of the requests failed, after all the
+     *         responses have been written
+     */
+    public void sendRequests(Map<String, String> paramMap, SvcLogicContext ctx) throws SvcLogicException {
+        String listName = parseParam(paramMap, "requestList", true, null);
+        String responseListName = parseParam(paramMap, responsePrefix, false, listName);
+        int maxConcurrency = parseIntParam(paramMap, "maxConcurrency", DEFAULT_MAX_CONCURRENCY);
+        if (maxConcurrency < 1) {
+            throw new SvcLogicException("Parameter maxConcurrency must be at least 1 in RestapiCallNode");
+        }
+
+        String length = ctx.getAttribute(listName + "_length");
+        int n;
+        try {
+            n = length != null ? Integer.parseInt(length.trim()) : 0;
+        } catch (NumberFormatException e) {
+            throw new SvcLogicException(listName + "_length is not a number: " + length, e);
+        }
+        List<Map<String, String>> itemParamMaps = getListParameters(ctx, listName, n);
+
+        Map<String, String> baseParamMap = new HashMap<>(paramMap);
+        baseParamMap.remove("requestList");
+        baseParamMap.remove("maxConcurrency");
+
+        Parameters[] params = new Parameters[n];
+        String[] requests = new String[n];
+        HttpResponse[] responses = new HttpResponse[n];
+        SvcLogicException[] errors = new SvcLogicException[n];
+        for (int i = 0; i < n; i++) {
+            Map<String, String> itemParamMap = new HashMap<>(baseParamMap);
+            itemParamMap.putAll(itemParamMaps.get(i));
+            itemParamMap.put(responsePrefix, responseListName + "[" + i + "]");
+            try {
+                handlePartner(itemParamMap);
+                Parameters p = getParameters(itemParamMap, new Parameters());
+                if (containsMultipleUrls(p.restapiUrl)) {
+                    p.restapiUrl = getMultipleUrls(p.restapiUrl)[0];
+                }
+                requests[i] = buildRequest(ctx, p);
+                params[i] = p;
+            } catch (SvcLogicException e) {
+                errors[i] = e;
+            }
+        }
+
+        log.info("Sending {} requests from {}, at most {} at a time", n, listName, maxConcurrency);
+        long t1 = System.currentTimeMillis();
+
+        Semaphore permits = new Semaphore(maxConcurrency);
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < n; i++) {
+                if (params[i] == null) {
+                    continue;
+                }
+                final int index = i;
+                permits.acquire();
+                try {
+                    futures.add(getRequestExecutor().submit(() -> {
+                        try {
+                            if (mdc != null) {
+                                MDC.setContextMap(mdc);
+                            }
+                            Parameters p = params[index];
+                            if (p.targetEntity != null && !p.targetEntity.isEmpty()) {
+                                MDC.put(ONAPLogConstants.MDCs.TARGET_ENTITY, p.targetEntity);
+                            }
+                            responses[index] = sendHttpRequest(requests[index], p);
+                        } catch (SvcLogicException e) {
+                            errors[index] = e;
+                        } catch (RuntimeException e) {
+                            errors[index] = new SvcLogicException(requestPostingException + e.getLocalizedMessage(), e);
+                        } finally {
+                            MDC.clear();
+                            permits.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw new SvcLogicException("Unable to send request " + i + " from " + listName, e);
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new SvcLogicException("Interrupted while sending requests from " + listName, e);
+        } catch (ExecutionException e) {
+            throw new SvcLogicException("Error sending requests from " + listName, e.getCause());
+        }
+
+        long t2 = System.currentTimeMillis();
+        log.info("Sent {} requests from {}. Time: {}", n, listName, t2 - t1);
+
+        int failed = 0;
+        for (int i = 0; i < n; i++) {
+            String prefix = responseListName + "[" + i + "]";
+            try {
+                if (errors[i] != null) {
+                    throw errors[i];
+                }
+                setResponse(ctx, params[i], requests[i], responses[i]);
+                if (responses[i].code >= 300) {
+                    failed++;
+                }
+            } catch (SvcLogicException e) {
+                log.error("Error sending request " + i + " from " + listName + ": " + e.getMessage(), e);
+                setFailureResponseStatus(ctx, prefix, e.getMessage(),
+                    responses[i] != null ? responses[i] : new HttpResponse());
+                failed++;
+            }
+        }
+
+        if (failed > 0) {
+            throw new SvcLogicException(failed + " of " + n + " requests from " + listName + " failed");
+        }
+    }
+
+    /**
+     * Returns the parameters of each entry of a list in context memory, that
+     * is the values of listName[i].name by name for each i.
+     */
+    private static List<Map<String, String>> getListParameters(SvcLogicContext ctx, String listName, int n) {
+        List<Map<String, String>> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(new HashMap<>());
+        }
+
+        String listPrefix = listName + "[";
+        for (String key : ctx.getAttributeKeySet(listPrefix)) {
+            int end = key.indexOf("].", listPrefix.length());
+            if (end < 0 || key.indexOf('.', end + 2) >= 0) {
+                continue;
+            }
+            try {
+                int i = Integer.parseInt(key.substring(listPrefix.length(), end));
+                if (i >= 0 && i < n) {
+                    list.get(i).put(key.substring(end + 2), ctx.getAttribute(key));
+                }
+            } catch (NumberFormatException e) {
+                // Not an entry of the list
+            }
+        }
+        return list;
+    }
+
+    private static int parseIntParam(Map<String, String> paramMap, String name, int def) throws SvcLogicException {
+        String s = parseParam(paramMap, name, false, null);
+        if (s == null) {
+            return def;
+        }
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new SvcLogicException("Parameter " + name + " is not a number in RestapiCallNode: " + s, e);
+        }
+    }
+
+    private synchronized ExecutorService getRequestExecutor() {
+        if (requestExecutor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            requestExecutor = Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "restapi-call-node-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return requestExecutor;
+    }
+
     protected void handlePartner(Map<String, String> paramMap) {
         String partner = paramMap.get("partner");
         if (partner != null && partner.length() > 0) {
@@ -641,21 +913,48 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
             }
         }
 
-        String req = format == Format.XML ? XmlJsonUtil.removeEmptyStructXml(ss.toString())
-            : XmlJsonUtil.removeEmptyStructJson(originalTemplate, ss.toString());
+        String req = removeEmptyStructs(originalTemplate, ss.toString(), format);
 
-        if (format == Format.JSON) {
-            req = XmlJsonUtil.removeLastCommaJson(req);
-            // Use 'EMPTY_CONTAINER' as keyword within template to have an empty container placeholder.
-            req = req.replaceAll("EMPTY_CONTAINER", "{}");
+        long t2 = System.currentTimeMillis();
+        log.info("Building {} completed. Time: {}", format, t2 - t1);
+
+        return req;
+    }
+
+    /**
+     * Same as buildXmlJsonRequest(SvcLogicContext, String, Format), using a
+     * template compiled in advance. Templates that could not be compiled are
+     * built from their text.
+     */
+    protected String buildXmlJsonRequest(SvcLogicContext ctx, RequestTemplate template, Format format)
+        throws SvcLogicException {
+        if (!template.isCompiled()) {
+            return buildXmlJsonRequest(ctx, template.getText(), format);
         }
 
+        log.info("Building {} started", format);
+        long t1 = System.currentTimeMillis();
+
+        String req = removeEmptyStructs(template.getText(), template.render(ctx, format), format);
+
         long t2 = System.currentTimeMillis();
         log.info("Building {} completed. Time: {}", format, t2 - t1);
 
         return req;
     }
 
+    private String removeEmptyStructs(String originalTemplate, String request, Format format) {
+        String req = format == Format.XML ? XmlJsonUtil.removeEmptyStructXml(request)
+            : XmlJsonUtil.removeEmptyStructJson(originalTemplate, request);
+
+        if (format == Format.JSON) {
+            req = XmlJsonUtil.removeLastCommaJson(req);
+            // Use 'EMPTY_CONTAINER' as keyword within template to have an empty container placeholder.
+            req = req.replaceAll("EMPTY_CONTAINER", "{}");
+        }
+        return req;
+    }
+
     protected String expandRepeats(SvcLogicContext ctx, String template, int level) throws SvcLogicException {
         StringBuilder newTemplate = new StringBuilder();
         int k = 0;
@@ -804,49 +1103,18 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
      */
     public HttpResponse sendHttpRequest(String request, Parameters p) throws SvcLogicException {
 
-        ClientConfig config = new ClientConfig();
-        if(!StringUtils.isEmpty(p.proxyUrl)) {
-            try {
-                URL proxyUrl = new URL(p.proxyUrl);
-                HttpUrlConnectorProvider cp = new HttpUrlConnectorProvider();
-                config.connectorProvider(cp);
-                final Proxy proxy =
-                    new Proxy(Proxy.Type.HTTP, new InetSocketAddress(proxyUrl.getHost(), proxyUrl.getPort()));
-
-                cp.connectionFactory(new ConnectionFactory() {
-                    @Override
-                    public HttpURLConnection getConnection(URL url) throws IOException {
-                        return (HttpURLConnection) url.openConnection(proxy);
-                    }
-                });
-            } catch (MalformedURLException e) {
-                throw new SvcLogicException(requestPostingException + e.getLocalizedMessage(), e);
-            }
-        }
-
         SSLContext ssl = null;
         if (p.ssl && p.restapiUrl.startsWith("https")) {
-            ssl = createSSLContext(p);
+            ssl = getSSLContext(p);
         }
-
-        ClientBuilder builder =
-            ClientBuilder.newBuilder().hostnameVerifier(new AcceptIpAddressHostNameVerifier());
-
         if (ssl != null) {
             HttpsURLConnection.setDefaultSSLSocketFactory(ssl.getSocketFactory());
-            builder = builder.sslContext(ssl);
         }
-        if (config != null) {
-            builder = builder.withConfig(config);
-        }
-
-        Client client = builder.build();
 
-        setClientTimeouts(client);
-        // Needed to support additional HTTP methods such as PATCH
-        client.property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
-        client.register(new MetricLogClientFilter());
-        WebTarget webTarget = addAuthType(client, p).target(p.restapiUrl);
+        final SSLContext clientSsl = ssl;
+        Client client = clientRegistry.getClient(
+            new HttpClientRegistry.ClientKey(p, ssl, httpConnectTimeout, httpReadTimeout),
+            () -> createClient(p, clientSsl));
 
         long t1 = System.currentTimeMillis();
 
@@ -862,93 +1130,115 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
             contentType = accept + ";charset=UTF-8";
         }
 
-        if (!p.skipSending && !p.multipartFormData) {
-            Invocation.Builder invocationBuilder = webTarget.request(contentType).accept(accept);
-
-            if (p.format == Format.NONE) {
-                invocationBuilder.header("", "");
+        HttpClientRegistry.TargetStats stats = null;
+        boolean success = false;
+        try {
+            WebTarget webTarget = client.target(p.restapiUrl);
+            if (!p.skipSending) {
+                stats = clientRegistry.getTargetStats(p.restapiUrl);
+                stats.requestStarted();
             }
 
-            if (p.customHttpHeaders != null && p.customHttpHeaders.length() > 0) {
-                String[] keyValuePairs = p.customHttpHeaders.split(",");
-                for (String singlePair : keyValuePairs) {
-                    int equalPosition = singlePair.indexOf('=');
-                    invocationBuilder.header(singlePair.substring(0, equalPosition),
-                        singlePair.substring(equalPosition + 1, singlePair.length()));
+            if (!p.skipSending && !p.multipartFormData) {
+                Invocation.Builder invocationBuilder = webTarget.request(contentType).accept(accept);
+                if (p.readTimeout > 0) {
+                    invocationBuilder.property(ClientProperties.READ_TIMEOUT, p.readTimeout);
                 }
-            }
 
-            invocationBuilder.property(ClientProperties.SUPPRESS_HTTP_COMPLIANCE_VALIDATION, true);
+                if (p.format == Format.NONE) {
+                    invocationBuilder.header("", "");
+                }
 
-            Response response;
+                if (p.customHttpHeaders != null && p.customHttpHeaders.length() > 0) {
+                    String[] keyValuePairs = p.customHttpHeaders.split(",");
+                    for (String singlePair : keyValuePairs) {
+                        int equalPosition = singlePair.indexOf('=');
+                        invocationBuilder.header(singlePair.substring(0, equalPosition),
+                            singlePair.substring(equalPosition + 1, singlePair.length()));
+                    }
+                }
 
-            try {
-                // When the HTTP operation has no body do not set the content-type
-                //setting content-type has caused errors with some servers when no body is present
-                if (request == null) {
-                    response = invocationBuilder.method(p.httpMethod.toString());
-                } else {
-                    log.info(request);
-                    response = invocationBuilder.method(p.httpMethod.toString(), entity(request, contentType));
+                invocationBuilder.property(ClientProperties.SUPPRESS_HTTP_COMPLIANCE_VALIDATION, true);
+
+                Response response;
+
+                try {
+                    // When the HTTP operation has no body do not set the content-type
+                    //setting content-type has caused errors with some servers when no body is present
+                    if (request == null) {
+                        response = invocationBuilder.method(p.httpMethod.toString());
+                    } else {
+                        log.info(request);
+                        response = invocationBuilder.method(p.httpMethod.toString(), entity(request, contentType));
+                    }
+                } catch (ProcessingException | IllegalStateException e) {
+                    throw new SvcLogicException(requestPostingException + e.getLocalizedMessage(), e);
                 }
-            } catch (ProcessingException | IllegalStateException e) {
-                throw new SvcLogicException(requestPostingException + e.getLocalizedMessage(), e);
-            }
 
-            r.code = response.getStatus();
-            r.headers = response.getStringHeaders();
-            EntityTag etag = response.getEntityTag();
-            if (etag != null) {
-                r.message = etag.getValue();
-            }
-            if (response.hasEntity() && r.code != 204) {
-                r.body = response.readEntity(String.class);
-            }
-        } else if (!p.skipSending && p.multipartFormData) {
-            WebTarget wt = client.register(MultiPartFeature.class).target(p.restapiUrl);
+                r.code = response.getStatus();
+                r.headers = response.getStringHeaders();
+                EntityTag etag = response.getEntityTag();
+                if (etag != null) {
+                    r.message = etag.getValue();
+                }
+                if (response.hasEntity() && r.code != 204) {
+                    readResponseBody(response, p, r);
+                }
+            } else if (!p.skipSending && p.multipartFormData) {
+                WebTarget wt = webTarget;
 
-            MultiPart multiPart = new MultiPart();
-            multiPart.setMediaType(MediaType.MULTIPART_FORM_DATA_TYPE);
+                MultiPart multiPart = new MultiPart();
+                multiPart.setMediaType(MediaType.MULTIPART_FORM_DATA_TYPE);
 
-            FileDataBodyPart fileDataBodyPart =
-                new FileDataBodyPart("file", new File(p.multipartFile), MediaType.APPLICATION_OCTET_STREAM_TYPE);
-            multiPart.bodyPart(fileDataBodyPart);
+                FileDataBodyPart fileDataBodyPart =
+                    new FileDataBodyPart("file", new File(p.multipartFile), MediaType.APPLICATION_OCTET_STREAM_TYPE);
+                multiPart.bodyPart(fileDataBodyPart);
 
 
-            Invocation.Builder invocationBuilder = wt.request(contentType).accept(accept);
+                Invocation.Builder invocationBuilder = wt.request(contentType).accept(accept);
+                if (p.readTimeout > 0) {
+                    invocationBuilder.property(ClientProperties.READ_TIMEOUT, p.readTimeout);
+                }
 
-            if (p.format == Format.NONE) {
-                invocationBuilder.header("", "");
-            }
+                if (p.format == Format.NONE) {
+                    invocationBuilder.header("", "");
+                }
 
-            if (p.customHttpHeaders != null && p.customHttpHeaders.length() > 0) {
-                String[] keyValuePairs = p.customHttpHeaders.split(",");
-                for (String singlePair : keyValuePairs) {
-                    int equalPosition = singlePair.indexOf('=');
-                    invocationBuilder.header(singlePair.substring(0, equalPosition),
-                        singlePair.substring(equalPosition + 1, singlePair.length()));
+                if (p.customHttpHeaders != null && p.customHttpHeaders.length() > 0) {
+                    String[] keyValuePairs = p.customHttpHeaders.split(",");
+                    for (String singlePair : keyValuePairs) {
+                        int equalPosition = singlePair.indexOf('=');
+                        invocationBuilder.header(singlePair.substring(0, equalPosition),
+                            singlePair.substring(equalPosition + 1, singlePair.length()));
+                    }
                 }
-            }
 
-            Response response;
+                Response response;
 
-            try {
-                response =
-                    invocationBuilder.method(p.httpMethod.toString(), entity(multiPart, multiPart.getMediaType()));
-            } catch (ProcessingException | IllegalStateException e) {
-                throw new SvcLogicException(requestPostingException + e.getLocalizedMessage(), e);
-            }
+                try {
+                    response =
+                        invocationBuilder.method(p.httpMethod.toString(), entity(multiPart, multiPart.getMediaType()));
+                } catch (ProcessingException | IllegalStateException e) {
+                    throw new SvcLogicException(requestPostingException + e.getLocalizedMessage(), e);
+                }
+
+                r.code = response.getStatus();
+                r.headers = response.getStringHeaders();
+                EntityTag etag = response.getEntityTag();
+                if (etag != null) {
+                    r.message = etag.getValue();
+                }
+                if (response.hasEntity() && r.code != 204) {
+                    readResponseBody(response, p, r);
+                }
 
-            r.code = response.getStatus();
-            r.headers = response.getStringHeaders();
-            EntityTag etag = response.getEntityTag();
-            if (etag != null) {
-                r.message = etag.getValue();
             }
-            if (response.hasEntity() && r.code != 204) {
-                r.body = response.readEntity(String.class);
+            success = true;
+        } finally {
+            if (stats != null) {
+                stats.requestFinished(success);
             }
-
+            clientRegistry.releaseClient(client);
         }
 
         long t2 = System.currentTimeMillis();
@@ -956,11 +1246,107 @@ public class RestapiCallNode implements SvcLogicJavaPlugin {
         log.info(responseHttpCodeMessage, r.code);
         log.info("HTTP response message: {}", r.message);
         logHeaders(r.headers);
-        log.info("HTTP response: {}", r.body);
+        if (r.properties != null) {
+            log.info("HTTP response converted to {} properties", r.properties.size());
+        } else {
+            log.info("HTTP response: {}", r.body);
+        }
 
         return r;
     }
 
+    /**
+     * Reads the body of response into r.body or, when the response is to be
+     * converted but not returned, converts it into r.properties as it is read
+     * from the stream.
+     */
+    protected void readResponseBody(Response response, Parameters p, HttpResponse r) throws SvcLogicException {
+        if (!p.convertResponse || p.returnResponsePayload || (p.format != Format.JSON && p.format != Format.XML)) {
+            r.body = response.readEntity(String.class);
+            return;
+        }
+
+        try (Reader in = new InputStreamReader(response.readEntity(InputStream.class), getCharset(response))) {
+            r.properties = p.format == Format.XML ? XmlParser.convertToProperties(in, p.listNameList)
+                : JsonParser.convertToProperties(in);
+        } catch (IOException e) {
+            throw new SvcLogicException("Unable to read the response: " + e.getLocalizedMessage(), e);
+        }
+    }
+
+    // Charset used by readEntity(String.class) for this response
+    private static Charset getCharset(Response response) {
+        MediaType mediaType = response.getMediaType();
+        String name = mediaType != null ? mediaType.getParameters().get(MediaType.CHARSET_PARAMETER) : null;
+        if (name != null) {
+            try {
+                return Charset.forName(name);
+            } catch (IllegalArgumentException e) {
+                log.warn("Unknown response charset {}, using UTF-8", name);
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Builds a client for the authentication, proxy and TLS settings of p.
+     * Clients are kept by the client registry and shared between requests
+     * with the same settings.
+     */
+    protected Client createClient(Parameters p, SSLContext ssl) throws SvcLogicException {
+        ClientConfig config = new ClientConfig();
+        if(!StringUtils.isEmpty(p.proxyUrl)) {
+            try {
+                URL proxyUrl = new URL(p.proxyUrl);
+                HttpUrlConnectorProvider cp = new HttpUrlConnectorProvider();
+                config.connectorProvider(cp);
+                final Proxy proxy =
+                    new Proxy(Proxy.Type.HTTP, new InetSocketAddress(proxyUrl.getHost(), proxyUrl.getPort()));
+
+                cp.connectionFactory(new ConnectionFactory() {
+                    @Override
+                    public HttpURLConnection getConnection(URL url) throws IOException {
+                        return (HttpURLConnection) url.openConnection(proxy);
+                    }
+                });
+            } catch (MalformedURLException e) {
+                throw new SvcLogicException(requestPostingException + e.getLocalizedMessage(), e);
+            }
+        }
+
+        ClientBuilder builder =
+            ClientBuilder.newBuilder().hostnameVerifier(new AcceptIpAddressHostNameVerifier());
+
+        if (ssl != null) {
+            builder = builder.sslContext(ssl);
+        }
+        builder = builder.withConfig(config);
+
+        Client client = builder.build();
+
+        setClientTimeouts(client);
+        // Needed to support additional HTTP methods such as PATCH
+        client.property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
+        client.register(new MetricLogClientFilter());
+        if (p.multipartFormData) {
+            client.register(MultiPartFeature.class);
+        }
+        return addAuthType(client, p);
+    }
+
+    /**
+     * Returns the SSLContext for the key store of p, loading the key store
+     * only if it was not loaded before or has changed since.
+     */
+    protected SSLContext getSSLContext(Parameters p) {
+        HttpsURLConnection.setDefaultHostnameVerifier(new AcceptIpAddressHostNameVerifier(p.disableHostVerification));
+        return clientRegistry.getSSLContext(p.keyStoreFileName, p.keyStorePassword, () -> createSSLContext(p));
+    }
+
+    public HttpClientRegistry getClientRegistry() {
+        return clientRegistry;
+    }
+
     protected SSLContext createSSLContext(Parameters p) {
         try (FileInputStream in = new FileInputStream(p.keyStoreFileName)) {
             HttpsURLConnection.setDefaultHostnameVerifier(new AcceptIpAddressHostNameVerifier(p.disableHostVerification));
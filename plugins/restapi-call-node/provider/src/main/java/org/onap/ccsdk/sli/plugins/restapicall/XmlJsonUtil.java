@@ -73,6 +73,23 @@ public final class XmlJsonUtil {
         return generateJson(o, escape, quotes, keepEmpty);
     }
 
+    /**
+     * Returns the variable name that getXml or getJson looks up for var, that
+     * is var without its formatting prefixes.
+     */
+    static String getVarName(String var, Format format) {
+        if (format != Format.XML && var.startsWith("~")) {
+            var = var.substring(1);
+        }
+        if (var.startsWith("'")) {
+            var = var.substring(1);
+        }
+        if (format != Format.XML && var.startsWith("\"")) {
+            var = var.substring(1);
+        }
+        return var;
+    }
+
     private static Object createStructure(Map<String, String> flatmap, String var) {
         if (flatmap.containsKey(var)) {
             return flatmap.get(var);
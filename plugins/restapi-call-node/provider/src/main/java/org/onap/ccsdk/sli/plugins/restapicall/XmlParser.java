@@ -26,7 +26,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.PushbackReader;
+import java.io.Reader;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -41,6 +42,7 @@ import org.onap.ccsdk.sli.core.sli.SvcLogicException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 import org.xml.sax.XMLReader;
@@ -49,6 +51,8 @@ public final class XmlParser {
 
     private static final Logger log = LoggerFactory.getLogger(XmlParser.class);
 
+    private static final ThreadLocal<SAXParser> PARSER = new ThreadLocal<>();
+
     private XmlParser() {
         // Preventing instantiation of the same.
     }
@@ -58,21 +62,68 @@ public final class XmlParser {
 
         checkNotNull(s, "Input should not be null.");
 
+        return convert(new InputSource(new ByteArrayInputStream(s.getBytes())), listNameList);
+    }
+
+    /**
+     * Converts XML read from in to properties as it is read, without keeping
+     * the text. A byte order mark at the start is skipped. Returns no
+     * properties if in has nothing but white space.
+     */
+    public static Map<String, String> convertToProperties(Reader in, Set<String> listNameList)
+        throws SvcLogicException {
+
+        checkNotNull(in, "Input should not be null.");
+
+        PushbackReader pin = new PushbackReader(in);
+        try {
+            int c = pin.read();
+            while (c >= 0 && (Character.isWhitespace(c) || c == '\uFEFF')) {
+                c = pin.read();
+            }
+            if (c < 0) {
+                return new HashMap<>();
+            }
+            pin.unread(c);
+        } catch (IOException e) {
+            throw new SvcLogicException("Unable to read XML: " + e.getLocalizedMessage(), e);
+        }
+        return convert(new InputSource(pin), listNameList);
+    }
+
+    private static Map<String, String> convert(InputSource in, Set<String> listNameList)
+        throws SvcLogicException {
+
         Handler handler = new Handler(listNameList);
         try {
+            SAXParser saxParser = getParser();
+            try {
+                saxParser.parse(in, handler);
+            } finally {
+                saxParser.reset();
+            }
+        } catch (ParserConfigurationException | IOException | SAXException | NumberFormatException e) {
+            throw new SvcLogicException("Unable to convert XML to properties" + e.getLocalizedMessage(), e);
+        }
+        return handler.getProperties();
+    }
+
+    /**
+     * Returns a parser for the current thread, creating it on first use, so
+     * that a factory and a parser are not created for each conversion.
+     */
+    private static SAXParser getParser() throws ParserConfigurationException, SAXException {
+        SAXParser saxParser = PARSER.get();
+        if (saxParser == null) {
             SAXParserFactory spf = SAXParserFactory.newInstance();
             spf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
             spf.setFeature("http://xml.org/sax/features/external-general-entities", false);
             spf.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
             spf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);  
-            InputStream in = new ByteArrayInputStream(s.getBytes());
-            SAXParser saxParser = spf.newSAXParser();
-            saxParser.parse(in, handler);
-            
-        } catch (ParserConfigurationException | IOException | SAXException | NumberFormatException e) {
-            throw new SvcLogicException("Unable to convert XML to properties" + e.getLocalizedMessage(), e);
+            saxParser = spf.newSAXParser();
+            PARSER.set(saxParser);
         }
-        return handler.getProperties();
+        return saxParser;
     }
 
     private static class Handler extends DefaultHandler {
@@ -0,0 +1,139 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 			reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.plugins.restapicall;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.nio.file.Files;
+import java.security.NoSuchAlgorithmException;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import org.junit.Test;
+
+public class TestHttpClientRegistry {
+
+    @Test
+    public void testClientIsShared() throws Exception {
+        HttpClientRegistry registry = new HttpClientRegistry();
+        Parameters p = new Parameters();
+        p.restapiUser = "user";
+        p.restapiPassword = "secret";
+
+        Client first = registry.getClient(new HttpClientRegistry.ClientKey(p, null, 1000, 2000),
+            ClientBuilder::newClient);
+        Client second = registry.getClient(new HttpClientRegistry.ClientKey(p, null, 1000, 2000),
+            ClientBuilder::newClient);
+        assertSame(first, second);
+
+        p.restapiPassword = "other";
+        Client third = registry.getClient(new HttpClientRegistry.ClientKey(p, null, 1000, 2000),
+            ClientBuilder::newClient);
+        assertNotSame(first, third);
+        assertEquals(2, registry.getClientCount());
+    }
+
+    @Test
+    public void testEvictedClientClosedWhenReleased() throws Exception {
+        HttpClientRegistry registry = new HttpClientRegistry(1);
+        Parameters p = new Parameters();
+        p.restapiUser = "user";
+
+        Client first = registry.getClient(new HttpClientRegistry.ClientKey(p, null, 1000, 2000),
+            ClientBuilder::newClient);
+        p.restapiUser = "other";
+        Client second = registry.getClient(new HttpClientRegistry.ClientKey(p, null, 1000, 2000),
+            ClientBuilder::newClient);
+        assertEquals(1, registry.getClientCount());
+
+        // Evicted while in use, so kept open until released
+        assertFalse(isClosed(first));
+        registry.releaseClient(first);
+        assertTrue(isClosed(first));
+
+        registry.releaseClient(second);
+        assertFalse(isClosed(second));
+        registry.clear();
+        assertTrue(isClosed(second));
+    }
+
+    @Test
+    public void testUnkeptClientClosedWhenReleased() throws Exception {
+        HttpClientRegistry registry = new HttpClientRegistry(0);
+        Client client = registry.getClient(new HttpClientRegistry.ClientKey(new Parameters(), null, 1000, 2000),
+            ClientBuilder::newClient);
+        assertFalse(isClosed(client));
+        registry.releaseClient(client);
+        assertTrue(isClosed(client));
+    }
+
+    @Test
+    public void testSSLContextReloadedOnChange() throws Exception {
+        HttpClientRegistry registry = new HttpClientRegistry();
+        File keyStore = File.createTempFile("keystore", ".p12");
+        keyStore.deleteOnExit();
+        Files.write(keyStore.toPath(), new byte[] {1});
+
+        SSLContext first = registry.getSSLContext(keyStore.getPath(), "pwd", TestHttpClientRegistry::newContext);
+        SSLContext second = registry.getSSLContext(keyStore.getPath(), "pwd", TestHttpClientRegistry::newContext);
+        assertSame(first, second);
+
+        Files.write(keyStore.toPath(), new byte[] {1, 2});
+        SSLContext third = registry.getSSLContext(keyStore.getPath(), "pwd", TestHttpClientRegistry::newContext);
+        assertNotSame(first, third);
+    }
+
+    @Test
+    public void testTargetStats() {
+        HttpClientRegistry registry = new HttpClientRegistry();
+        HttpClientRegistry.TargetStats stats = registry.getTargetStats("https://host:8443/restconf/a");
+        assertSame(stats, registry.getTargetStats("https://host:8443/restconf/b"));
+
+        stats.requestStarted();
+        assertEquals(1, stats.getLeased());
+        stats.requestFinished(true);
+        assertEquals(0, stats.getLeased());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(1, registry.getAllTargetStats().size());
+    }
+
+    private static boolean isClosed(Client client) {
+        try {
+            client.target("http://localhost");
+            return false;
+        } catch (IllegalStateException e) {
+            return true;
+        }
+    }
+
+    private static SSLContext newContext() {
+        try {
+            return SSLContext.getInstance("TLS");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -22,7 +22,9 @@
 package org.onap.ccsdk.sli.plugins.restapicall;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Map;
@@ -256,4 +258,33 @@ public class TestJsonParser {
         assertEquals("2", mm.get("_length"));
     }
 
+    @Test
+    public void testConvertReader() throws Exception {
+        String[] files = {"test.json", "ObjectMenu.json", "ArrayMenu.json", "3dArray.json", "Widget.json",
+            "EmbeddedEscapedJson.json"};
+        for (String file : files) {
+            String content = new String(Files.readAllBytes(Paths.get("src/test/resources/" + file)));
+            assertEquals(file, JsonParser.convertToProperties(content),
+                JsonParser.convertToProperties(new StringReader(content)));
+        }
+    }
+
+    @Test
+    public void testConvertReaderValues() throws Exception {
+        Map<String, String> mm = JsonParser.convertToProperties(
+            new StringReader("{\"a:n\": 1.50, \"b\": [true, null, \"x\\u0041\"], \"c\": {}, \"d\": null}"));
+        assertEquals("1.5", mm.get("n"));
+        assertEquals("true", mm.get("b[0]"));
+        assertEquals("xA", mm.get("b[2]"));
+        assertEquals("3", mm.get("b_length"));
+        assertEquals(4, mm.size());
+
+        assertTrue(JsonParser.convertToProperties(new StringReader(" \n")).isEmpty());
+    }
+
+    @Test(expected = SvcLogicException.class)
+    public void testConvertReaderInvalid() throws Exception {
+        JsonParser.convertToProperties(new StringReader("{\"a\": \"b\""));
+    }
+
 }
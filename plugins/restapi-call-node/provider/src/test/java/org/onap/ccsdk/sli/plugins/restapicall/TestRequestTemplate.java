@@ -0,0 +1,121 @@
+/*-
+ * ============LICENSE_START=======================================================
+ * openECOMP : SDN-C
+ * ================================================================================
+ * Copyright (C) 2017 AT&T Intellectual Property. All rights
+ * 			reserved.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.ccsdk.sli.plugins.restapicall;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.nio.file.Files;
+import org.junit.Test;
+import org.onap.ccsdk.sli.core.sli.SvcLogicContext;
+import org.onap.ccsdk.sli.core.sli.SvcLogicException;
+
+public class TestRequestTemplate {
+
+    @Test
+    public void testRepeat() throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        ctx.setAttribute("vm_count", "2");
+        ctx.setAttribute("vm[0].name", "vm0");
+        ctx.setAttribute("vm[0].ip_count", "2");
+        ctx.setAttribute("vm[0].ip[0]", "10.0.0.1");
+        ctx.setAttribute("vm[0].ip[1]", "10.0.0.2");
+        ctx.setAttribute("vm[1].ip_count", "1");
+        ctx.setAttribute("vm[1].ip[0]", "10.0.1.1");
+
+        String template = "[\n"
+            + "${repeat:vm_count:  {\n"
+            + "    \"name\": ${vm[${1}].name},\n"
+            + "    \"ips\": [${repeat:vm[${1}].ip_count:${vm[${1}].ip[${2}]},}]\n"
+            + "  },\n"
+            + "}]\n";
+        String expect = "[\n"
+            + "  {\n"
+            + "    \"name\": \"vm0\",\n"
+            + "    \"ips\": [\"10.0.0.1\",\"10.0.0.2\"]\n"
+            + "  },\n"
+            + "  {\n"
+            + "    \"ips\": [\"10.0.1.1\"]\n"
+            + "  }\n"
+            + "]\n";
+
+        RequestTemplate rt = RequestTemplate.compile(template);
+        assertTrue(rt.isCompiled());
+        assertEquals(expect, rt.render(ctx, Format.JSON));
+    }
+
+    @Test
+    public void testSameRequestAsText() throws Exception {
+        SvcLogicContext ctx = new SvcLogicContext();
+        ctx.setAttribute("empty", "");
+        ctx.setAttribute("not_empty", "some value");
+        ctx.setAttribute("tmp.list_length", "2");
+        ctx.setAttribute("tmp.list[0]", "123");
+        ctx.setAttribute("tmp.list[1]", "456");
+
+        RestapiCallNode rcn = new RestapiCallNode();
+        String[] files = {"testEmptyValueNContainer.json", "test-template.json", "l3smsitetemplate.json", "test.xml"};
+        for (String file : files) {
+            String template = rcn.readFile("src/test/resources/" + file);
+            Format format = file.endsWith(".xml") ? Format.XML : Format.JSON;
+            RequestTemplate rt = RequestTemplate.compile(template);
+            assertTrue(file, rt.isCompiled());
+            assertEquals(file, rcn.buildXmlJsonRequest(ctx, template, format),
+                rcn.buildXmlJsonRequest(ctx, rt, format));
+        }
+    }
+
+    @Test
+    public void testNotCompiled() throws Exception {
+        RequestTemplate rt = RequestTemplate.compile("<name>${name</name>\n");
+        assertFalse(rt.isCompiled());
+
+        RestapiCallNode rcn = new RestapiCallNode();
+        try {
+            rcn.buildXmlJsonRequest(new SvcLogicContext(), rt, Format.XML);
+        } catch (SvcLogicException e) {
+            assertEquals("Template error: Matching } not found", e.getMessage());
+            return;
+        }
+        throw new AssertionError("Expected SvcLogicException");
+    }
+
+    @Test
+    public void testCacheReloadsChangedFile() throws Exception {
+        File file = File.createTempFile("template", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "{\"a\": \"${a}\"}".getBytes("UTF-8"));
+
+        RestapiCallNode rcn = new RestapiCallNode();
+        RequestTemplate.Cache cache = new RequestTemplate.Cache();
+        RequestTemplate first = cache.get(file.getPath(), rcn::readFile);
+        assertSame(first, cache.get(file.getPath(), rcn::readFile));
+        assertEquals(1, cache.size());
+
+        Files.write(file.toPath(), "{\"ab\": \"${ab}\"}".getBytes("UTF-8"));
+        RequestTemplate second = cache.get(file.getPath(), rcn::readFile);
+        assertNotSame(first, second);
+        assertEquals("{\"ab\": \"${ab}\"}", second.getText());
+    }
+}
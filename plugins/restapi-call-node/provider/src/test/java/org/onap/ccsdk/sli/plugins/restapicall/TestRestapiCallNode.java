@@ -26,6 +26,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -651,4 +652,51 @@ public class TestRestapiCallNode {
         assertEquals(expect, req);
     }
 
+    @Test
+    public void testSendRequests() throws SvcLogicException {
+        SvcLogicContext ctx = new SvcLogicContext();
+        ctx.setAttribute("tmp.requests_length", "3");
+        for (int i = 0; i < 3; i++) {
+            ctx.setAttribute("tmp.requests[" + i + "].restapiUrl", "http://localhost:8080/vnfc/" + i);
+            ctx.setAttribute("tmp.requests[" + i + "].requestBody", "{\"index\": " + i + "}");
+        }
+
+        Map<String, String> p = new HashMap<>();
+        p.put("requestList", "tmp.requests");
+        p.put("responsePrefix", "tmp.responses");
+        p.put("maxConcurrency", "2");
+        p.put("httpMethod", "put");
+        p.put("returnRequestPayload", "true");
+        p.put("skipSending", "true");
+
+        RestapiCallNode rcn = new RestapiCallNode();
+        rcn.sendRequests(p, ctx);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("200", ctx.getAttribute("tmp.responses[" + i + "].response-code"));
+            assertEquals("{\"index\": " + i + "}", ctx.getAttribute("tmp.responses[" + i + "].httpRequest"));
+        }
+    }
+
+    @Test
+    public void testSendRequestsFailure() {
+        SvcLogicContext ctx = new SvcLogicContext();
+        ctx.setAttribute("tmp.requests_length", "2");
+        ctx.setAttribute("tmp.requests[0].restapiUrl", "http://localhost:8080/vnfc/0");
+
+        Map<String, String> p = new HashMap<>();
+        p.put("requestList", "tmp.requests");
+        p.put("skipSending", "true");
+
+        RestapiCallNode rcn = new RestapiCallNode();
+        try {
+            rcn.sendRequests(p, ctx);
+            fail("Expected SvcLogicException");
+        } catch (SvcLogicException e) {
+            assertEquals("1 of 2 requests from tmp.requests failed", e.getMessage());
+        }
+        assertEquals("200", ctx.getAttribute("tmp.requests[0].response-code"));
+        assertEquals("500", ctx.getAttribute("tmp.requests[1].response-code"));
+    }
+
 }
@@ -22,6 +22,8 @@
 package org.onap.ccsdk.sli.plugins.restapicall;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.HashSet;
@@ -118,4 +120,16 @@ public class TestXmlParser {
                                                               // not a valid number
     }
 
+    @Test
+    public void testConvertReader() throws Exception {
+        String path = "src/test/resources/test3.xml";
+        String content = new String(Files.readAllBytes(Paths.get(path)));
+        Set<String> listNameList = new HashSet<String>();
+        listNameList.add("ApplyGroupResponse.ApplyGroupResponseData.VrfDetails.VrfImport");
+
+        assertEquals(XmlParser.convertToProperties(content, listNameList),
+            XmlParser.convertToProperties(new StringReader(content), listNameList));
+        assertTrue(XmlParser.convertToProperties(new StringReader("  "), listNameList).isEmpty());
+    }
+
 }